@@ -4,7 +4,20 @@ import controller.CompanyRepController;
 import controller.LoginController;
 import controller.StaffController;
 import controller.StudentController;
+import event.EventBus;
+import event.EventSubscriber;
+import event.InternshipStatusChanged;
+import java.io.IOException;
+import java.util.List;
+import metrics.MetricsRegistry;
+import metrics.PrometheusExporter;
+import model.Internship;
+import model.InternshipApplication;
+import ratelimit.RateLimits;
 import repository.*;
+import session.SessionManager;
+import transaction.TransactionLog;
+import transaction.TransactionManager;
 import view.*;
 
 /**
@@ -19,19 +32,27 @@ public class AppConfig {
      */
     public void start() {
 
+        // Repositories publish every persisted state change; caches subscribe instead of controllers calling them
+        EventBus events = new EventBus();
         UserRepository userRepo = new InMemoryUserRepository();
-        InternshipRepository internshipRepo = new InMemoryInternshipRepository();
-        InternshipAppRepository appRepo = new InMemoryInternshipAppRepository();
+        InternshipRepository internshipRepo = new InMemoryInternshipRepository(events);
+        InternshipAppRepository appRepo = new InMemoryInternshipAppRepository(events);
         CompanyRepository companyRepo = new InMemoryCompanyRepository();
 
         // Load initial sample users into memory storage
         DataLoader.loadInitialUsers(userRepo);
 
+        // Register repository gauges, served to Prometheus when -Dipms.metrics.port is set
+        registerRepositoryMetrics(MetricsRegistry.global(), userRepo, internshipRepo, appRepo, companyRepo);
+        startMetricsEndpoint();
 
-        LoginController loginController = new LoginController(userRepo);
-        StudentController studentController = new StudentController(internshipRepo, appRepo, userRepo);
-        CompanyRepController repController = new CompanyRepController(internshipRepo, appRepo, userRepo, companyRepo);
-        StaffController staffController = new StaffController(userRepo, internshipRepo, appRepo);
+
+        RateLimits limits = RateLimits.fromSystemProperties();
+        LoginController loginController = new LoginController(userRepo, limits.login(), SessionManager.fromSystemProperties());
+        TransactionManager transactions = new TransactionManager(internshipRepo, appRepo, new TransactionLog());
+        StudentController studentController = new StudentController(internshipRepo, appRepo, userRepo, transactions, limits);
+        CompanyRepController repController = new CompanyRepController(internshipRepo, appRepo, userRepo, companyRepo, transactions);
+        StaffController staffController = new StaffController(userRepo, internshipRepo, appRepo, transactions, limits);
 
 
         // Each role receives an isolated browser instance to ensure filter and state separation
@@ -40,30 +61,37 @@ public class AppConfig {
                 InternshipBrowserView.Role.STUDENT,
                 studentController,
                 repController,
-                staffController
+                staffController,
+                loginController
         );
 
         InternshipBrowserView repBrowserView = new InternshipBrowserView(
                 InternshipBrowserView.Role.REP,
                 studentController,
                 repController,
-                staffController
+                staffController,
+                loginController
         );
 
         InternshipBrowserView staffBrowserView = new InternshipBrowserView(
                 InternshipBrowserView.Role.STAFF,
                 studentController,
                 repController,
-                staffController
+                staffController,
+                loginController
         );
 
+        subscribeBrowser(events, "student-browser", studentBrowserView);
+        subscribeBrowser(events, "rep-browser", repBrowserView);
+        subscribeBrowser(events, "staff-browser", staffBrowserView);
+
         // Dedicated login view
         LoginView loginView = new LoginView(loginController);
 
         // Dedicated role-specific menu views
-        StudentMenuView studentMenuView = new StudentMenuView(studentController, studentBrowserView);
-        CompanyRepMenuView companyRepMenuView = new CompanyRepMenuView(repController, repBrowserView);
-        StaffMenuView staffMenuView = new StaffMenuView(staffController, staffBrowserView);
+        StudentMenuView studentMenuView = new StudentMenuView(studentController, studentBrowserView, loginController);
+        CompanyRepMenuView companyRepMenuView = new CompanyRepMenuView(repController, repBrowserView, loginController);
+        StaffMenuView staffMenuView = new StaffMenuView(staffController, staffBrowserView, loginController);
 
 
         MainMenuView mainMenuView = new MainMenuView(
@@ -76,4 +104,73 @@ public class AppConfig {
 
         mainMenuView.start();
     }
+
+    /**
+     * keep a browser's cached results consistent with internship status changes
+     * @param events bus the repositories publish to
+     * @param name subscription name
+     * @param view browser whose result cache is evicted
+     */
+    private void subscribeBrowser(EventBus events, String name, InternshipBrowserView view) {
+        events.subscribe(name, InternshipStatusChanged.class, new EventSubscriber<>() {
+            @Override
+            public void onEvents(List<InternshipStatusChanged> batch) {
+                view.onInternshipChanges(batch);
+            }
+
+            @Override
+            public void onOverflow(long lost) {
+                view.clearResultCache();
+            }
+        });
+    }
+
+    /**
+     * register repository sizes, index sizes and application funnel gauges
+     * all gauges read maintained counters, so sampling them never scans a repository
+     * @param registry registry receiving gauges
+     * @param userRepo user repository
+     * @param internshipRepo internship repository
+     * @param appRepo application repository
+     * @param companyRepo company repository
+     */
+    private void registerRepositoryMetrics(MetricsRegistry registry, UserRepository userRepo,
+                                           InternshipRepository internshipRepo, InternshipAppRepository appRepo,
+                                           CompanyRepository companyRepo) {
+        registry.gauge("repository_size{repository=users}", userRepo::count);
+        registry.gauge("repository_size{repository=internships}", internshipRepo::count);
+        registry.gauge("repository_size{repository=applications}", appRepo::count);
+        registry.gauge("repository_size{repository=companies}", companyRepo::count);
+
+        for (String index : userRepo.getIndexSizes().keySet())
+            registry.gauge("index_size{repository=users,index=" + index + "}", () -> userRepo.getIndexSize(index));
+        for (String index : internshipRepo.getIndexSizes().keySet())
+            registry.gauge("index_size{repository=internships,index=" + index + "}", () -> internshipRepo.getIndexSize(index));
+        for (String index : appRepo.getIndexSizes().keySet())
+            registry.gauge("index_size{repository=applications,index=" + index + "}", () -> appRepo.getIndexSize(index));
+        for (String index : companyRepo.getIndexSizes().keySet())
+            registry.gauge("index_size{repository=companies,index=" + index + "}", () -> companyRepo.getIndexSize(index));
+
+        for (InternshipApplication.Status s : InternshipApplication.Status.values())
+            registry.gauge("applications{status=" + s + "}", () -> appRepo.countByStatus(s));
+        for (Internship.Status s : Internship.Status.values())
+            registry.gauge("internships{status=" + s + "}", () -> internshipRepo.countByStatus(s));
+    }
+
+    /**
+     * start Prometheus endpoint if system property ipms.metrics.port is set
+     * listens on loopback unless system property ipms.metrics.bind names another address
+     * failure to bind is reported but does not stop the application
+     */
+    private void startMetricsEndpoint() {
+        String port = System.getProperty("ipms.metrics.port");
+        if (port == null || port.isBlank()) return;
+        String bind = System.getProperty("ipms.metrics.bind", "127.0.0.1").trim();
+        try {
+            int bound = new PrometheusExporter(MetricsRegistry.global()).start(bind, Integer.parseInt(port.trim()));
+            System.out.println("Metrics endpoint listening on http://" + bind + ":" + bound + "/metrics");
+        } catch (IOException | NumberFormatException ex) {
+            System.err.println("Failed to start metrics endpoint: " + ex.getMessage());
+        }
+    }
 }
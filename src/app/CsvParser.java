@@ -1,11 +1,23 @@
 package app;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
+import model.Company;
+import model.CompanyRepresentative;
+import model.Internship;
+import model.InternshipApplication;
 import model.Staff;
 import model.Student;
 
@@ -13,6 +25,8 @@ import model.Student;
  * utility class for reading CSV files from classpath and converting
  * records into domain model objects. Files must be placed under
  * src/resources/ or any classpath-accessible directory.
+ * the read* methods stream rows from a file system path into a consumer instead,
+ * so large generated datasets never need to be held as a list
  */
 public class CsvParser {
 
@@ -108,4 +122,131 @@ public class CsvParser {
 
         return staffList;
     }
+
+    /**
+     * stream student records from a CSV file on disk
+     * columns: StudentID,Name,Major,Year,Email
+     * @param file path of CSV file
+     * @param sink receives each parsed Student
+     * @return number of rows accepted
+     * @throws IOException if file cannot be read
+     */
+    public static long readStudents(Path file, Consumer<Student> sink) throws IOException {
+        return forEachRow(file, 5, "student", d -> sink.accept(new Student(
+                d[0].trim(), d[1].trim(), d[4].trim(), Integer.parseInt(d[3].trim()), d[2].trim())));
+    }
+
+    /**
+     * stream staff records from a CSV file on disk
+     * columns: StaffID,Name,Role,Department,Email
+     * @param file path of CSV file
+     * @param sink receives each parsed Staff
+     * @return number of rows accepted
+     * @throws IOException if file cannot be read
+     */
+    public static long readStaff(Path file, Consumer<Staff> sink) throws IOException {
+        return forEachRow(file, 5, "staff", d -> sink.accept(new Staff(
+                d[0].trim(), d[1].trim(), d[4].trim(), d[2].trim(), d[3].trim())));
+    }
+
+    /**
+     * stream company representative records from a CSV file on disk
+     * columns: CompanyRepID,Name,CompanyName,Department,Position,Email,Status (Approved, Rejected or Pending)
+     * company objects are resolved through companies so representatives of one company share it
+     * @param file path of CSV file
+     * @param companies maps company name to shared Company object
+     * @param sink receives each parsed CompanyRepresentative
+     * @return number of rows accepted
+     * @throws IOException if file cannot be read
+     */
+    public static long readCompanyReps(Path file, Function<String, Company> companies,
+                                       Consumer<CompanyRepresentative> sink) throws IOException {
+        return forEachRow(file, 7, "company representative", d -> {
+            CompanyRepresentative rep = new CompanyRepresentative(d[0].trim(), d[1].trim(), d[5].trim(),
+                    companies.apply(d[2].trim()), d[3].trim(), d[4].trim());
+            String status = d[6].trim();
+            rep.setApproved(status.equalsIgnoreCase("Approved"));
+            rep.setRejected(status.equalsIgnoreCase("Rejected"));
+            sink.accept(rep);
+        });
+    }
+
+    /**
+     * stream internship records from a CSV file on disk
+     * columns: InternshipID,Title,Description,Level,Major,OpenDate,CloseDate,CompanyRepID,Slots,Visible,Status
+     * and optionally ConfirmedSlots, the number of accepted placements (0 when absent)
+     * rows whose representative cannot be resolved are skipped
+     * @param file path of CSV file
+     * @param reps maps representative id to loaded representative, null if unknown
+     * @param sink receives each parsed Internship
+     * @return number of rows accepted
+     * @throws IOException if file cannot be read
+     */
+    public static long readInternships(Path file, Function<String, CompanyRepresentative> reps,
+                                       Consumer<Internship> sink) throws IOException {
+        return forEachRow(file, 11, "internship", d -> {
+            CompanyRepresentative rep = reps.apply(d[7].trim());
+            if (rep == null) throw new IllegalArgumentException("unknown representative " + d[7].trim());
+            Internship in = new Internship(d[0].trim(), d[1].trim(), d[2].trim(),
+                    Internship.Level.valueOf(d[3].trim()), d[4].trim(),
+                    LocalDate.parse(d[5].trim()), LocalDate.parse(d[6].trim()), rep,
+                    Integer.parseInt(d[8].trim()), Boolean.parseBoolean(d[9].trim()), rep.getCompany());
+            in.setStatus(Internship.Status.valueOf(d[10].trim()));
+            int confirmed = d.length > 11 ? Integer.parseInt(d[11].trim()) : 0;
+            for (int c = 0; c < confirmed; c++) in.addConfirmedSlot();
+            sink.accept(in);
+        });
+    }
+
+    /**
+     * stream application records from a CSV file on disk
+     * columns: ApplicationID,StudentID,InternshipID,Status,Accepted,WithdrawalRequested
+     * @param file path of CSV file
+     * @param sink receives each parsed InternshipApplication
+     * @return number of rows accepted
+     * @throws IOException if file cannot be read
+     */
+    public static long readApplications(Path file, Consumer<InternshipApplication> sink) throws IOException {
+        return forEachRow(file, 6, "application", d -> {
+            InternshipApplication app = new InternshipApplication(d[0].trim(), d[1].trim(), d[2].trim());
+            app.setStatus(InternshipApplication.Status.valueOf(d[3].trim()));
+            if (Boolean.parseBoolean(d[4].trim())) app.accept();
+            if (Boolean.parseBoolean(d[5].trim())) app.requestWithdrawal();
+            sink.accept(app);
+        });
+    }
+
+    /**
+     * read file line by line, skipping header, and hand split rows to handler
+     * rows that are too short or fail to parse are reported and skipped
+     * @param file path of CSV file
+     * @param minColumns minimum number of columns in a valid row
+     * @param kind record kind used in error messages
+     * @param handler converts one split row and forwards it
+     * @return number of rows accepted
+     * @throws IOException if file cannot be read
+     */
+    private static long forEachRow(Path file, int minColumns, String kind,
+                                   Consumer<String[]> handler) throws IOException {
+        long accepted = 0;
+        try (BufferedReader br = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            br.readLine(); // skip header
+
+            while ((line = br.readLine()) != null) {
+                String[] d = line.split(",", -1);
+                if (d.length < minColumns) {
+                    System.err.println("Skipping invalid " + kind + " row: " + line);
+                    continue;
+                }
+                try {
+                    handler.accept(d);
+                    accepted++;
+                } catch (IllegalArgumentException | DateTimeException ex) {
+                    System.err.println("Invalid " + kind + " row, skipping: " + line);
+                }
+            }
+        }
+        return accepted;
+    }
 }
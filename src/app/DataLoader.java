@@ -19,14 +19,24 @@
 
 package app;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
+import metrics.MetricsRegistry;
+import metrics.Timer;
+import model.Company;
+import model.CompanyRepresentative;
 import model.Staff;
 import model.Student;
+import repository.CompanyRepository;
+import repository.InternshipAppRepository;
+import repository.InternshipRepository;
 import repository.UserRepository;
 
 /**
  * utility class responsible for loading initial user records from CSV files
  * typically invoked during system startup to prepopulate in-memory repositories
+ * imports are timed into the global metrics registry like controller operations
  */
 public final class DataLoader {
 
@@ -40,13 +50,65 @@ public final class DataLoader {
      * @param userRepo central repository where loaded user accounts are saved
      */
     public static void loadInitialUsers(UserRepository userRepo) {
-        List<Student> students = CsvParser.importStudents("sample_student_list.csv");
-        List<Staff> staff     = CsvParser.importStaff("sample_staff_list.csv");
+        Timer.Context timing = time("DataLoader.loadInitialUsers");
+        try {
+            List<Student> students = CsvParser.importStudents("sample_student_list.csv");
+            List<Staff> staff     = CsvParser.importStaff("sample_staff_list.csv");
 
-        students.forEach(userRepo::save);
-        staff.forEach(userRepo::save);
+            students.forEach(userRepo::save);
+            staff.forEach(userRepo::save);
 
-        System.out.printf("Initial user data loaded: Students: %d, Staff: %d, Total: %d%n",
-                students.size(), staff.size(), students.size() + staff.size());
+            System.out.printf("Initial user data loaded: Students: %d, Staff: %d, Total: %d%n",
+                    students.size(), staff.size(), students.size() + staff.size());
+        } finally {
+            timing.close();
+        }
+    }
+
+    /**
+     * load a full dataset directory, e.g. one written by the dataset generator, into repositories
+     * expects staff.csv, company_reps.csv, students.csv, internships.csv and applications.csv;
+     * rows are streamed straight into repositories without intermediate lists
+     *
+     * @param dir directory containing dataset CSV files
+     * @param userRepo repository receiving staff, students and representatives
+     * @param internshipRepo repository receiving internships
+     * @param appRepo repository receiving applications
+     * @param companyRepo repository receiving companies referenced by representatives
+     * @throws IOException if a file cannot be read
+     */
+    public static void loadDataset(Path dir, UserRepository userRepo, InternshipRepository internshipRepo,
+                                   InternshipAppRepository appRepo, CompanyRepository companyRepo) throws IOException {
+        Timer.Context timing = time("DataLoader.loadDataset");
+        try {
+            long staff = CsvParser.readStaff(dir.resolve("staff.csv"), userRepo::save);
+            long reps = CsvParser.readCompanyReps(dir.resolve("company_reps.csv"), name ->
+                    companyRepo.findByName(name).orElseGet(() -> {
+                        Company company = new Company(name);
+                        companyRepo.save(company);
+                        return company;
+                    }), userRepo::save);
+            long students = CsvParser.readStudents(dir.resolve("students.csv"), userRepo::save);
+            long internships = CsvParser.readInternships(dir.resolve("internships.csv"), id ->
+                    userRepo.findById(id)
+                            .filter(u -> u instanceof CompanyRepresentative)
+                            .map(u -> (CompanyRepresentative) u)
+                            .orElse(null), internshipRepo::save);
+            long applications = CsvParser.readApplications(dir.resolve("applications.csv"), appRepo::save);
+
+            System.out.printf("Dataset loaded: Staff: %d, Reps: %d, Students: %d, Internships: %d, Applications: %d%n",
+                    staff, reps, students, internships, applications);
+        } finally {
+            timing.close();
+        }
+    }
+
+    /**
+     * start timing a CSV import into the global metrics registry
+     * @param name timer name
+     * @return context to close when import finishes
+     */
+    private static Timer.Context time(String name) {
+        return MetricsRegistry.global().timer(name).time();
     }
 }
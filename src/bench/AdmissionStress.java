@@ -0,0 +1,178 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+import controller.AdmissionRejectedException;
+import controller.StudentController;
+import metrics.Histogram;
+import metrics.MetricsRegistry;
+import model.Internship;
+import model.InternshipApplication;
+import model.Student;
+
+/**
+ * concurrent stress check for the application admission rules
+ * many threads call applyInternship for a small set of hot students at once, as if each student
+ * were clicking Apply from several devices, then every student is checked against the rules:
+ * at most 3 active applications and never two applications for the same internship
+ *
+ * generated data does not follow the rules, so the hot students' existing applications are
+ * withdrawn first and only applications created during the run are checked for duplicates
+ *
+ * with --pipeline the requests go through StudentController.submitApplication instead, so
+ * batching and queue-full rejections are exercised against the same rules
+ *
+ * prints outcome counts, throughput and lock-stripe wait percentiles, and exits with status 1
+ * if any student ends up violating a rule
+ *
+ * usage: java -cp bin bench.AdmissionStress [--size 10000] [--students 64] [--threads 16]
+ *        [--attempts 2000] [--internships 8] [--seed 42] [--pipeline]
+ */
+public class AdmissionStress {
+
+    /** maximum active applications per student */
+    private static final int MAX_ACTIVE = 3;
+
+    /**
+     * entry point
+     * @param args command line options
+     * @throws InterruptedException if interrupted while waiting for workers
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int size = 10_000;
+        int studentCount = 64;
+        int threads = 16;
+        int attempts = 2000;
+        int internshipCount = 8;
+        long seed = 42;
+        boolean pipeline = false;
+        for (int i = 0; i < args.length; i += 2) {
+            if (args[i].equals("--pipeline")) {
+                pipeline = true;
+                i--;
+                continue;
+            }
+            if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + args[i]);
+            String v = args[i + 1];
+            switch (args[i]) {
+                case "--size" -> size = Integer.parseInt(v);
+                case "--students" -> studentCount = Integer.parseInt(v);
+                case "--threads" -> threads = Integer.parseInt(v);
+                case "--attempts" -> attempts = Integer.parseInt(v);
+                case "--internships" -> internshipCount = Integer.parseInt(v);
+                case "--seed" -> seed = Long.parseLong(v);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        Fixture fixture = new Fixture(size, seed);
+        StudentController controller = fixture.getStudentController();
+        List<Student> students = fixture.getStudents().subList(0, Math.min(studentCount, fixture.getStudents().size()));
+        List<Internship> open = fixture.getOpenInternships().stream()
+                .filter(in -> in.getStatus() == Internship.Status.APPROVED)
+                .limit(internshipCount)
+                .toList();
+        if (open.isEmpty()) throw new IllegalStateException("Fixture has no approved internships");
+
+        Set<String> existing = new HashSet<>();
+        for (Student s : students) {
+            for (InternshipApplication a : fixture.getApplications().findByStudent(s.getUserId())) {
+                a.setStatus(InternshipApplication.Status.WITHDRAWN);
+                fixture.getApplications().save(a);
+                existing.add(a.getId());
+            }
+        }
+
+        Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom rnd = new SplittableRandom(seed + t);
+            int perThread = attempts;
+            boolean queued = pipeline;
+            Thread w = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int n = 0; n < perThread; n++) {
+                    Student s = students.get(rnd.nextInt(students.size()));
+                    Internship in = open.get(rnd.nextInt(open.size()));
+                    if (queued) {
+                        controller.submitApplication(s, in).whenComplete((app, e) -> outcomes
+                                .computeIfAbsent(outcomeOf(e), k -> new LongAdder()).increment());
+                        continue;
+                    }
+                    String outcome;
+                    try {
+                        controller.applyInternship(s, in);
+                        outcome = "admitted";
+                    } catch (RuntimeException e) {
+                        outcome = outcomeOf(e);
+                    }
+                    outcomes.computeIfAbsent(outcome, k -> new LongAdder()).increment();
+                }
+            }, "admission-" + t);
+            workers.add(w);
+            w.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread w : workers) w.join();
+        long total = (long) threads * attempts;
+        while (outcomes.values().stream().mapToLong(LongAdder::sum).sum() < total) Thread.sleep(1);
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        System.out.printf("%d threads x %d attempts over %d students and %d internships in %.2f s (%.0f ops/s)%n",
+                threads, attempts, students.size(), open.size(), seconds, threads * (double) attempts / seconds);
+        outcomes.forEach((k, v) -> System.out.printf("  %-90s %10d%n", k, v.sum()));
+
+        Histogram wait = MetricsRegistry.global().timer("TransactionManager.lockWait").getHistogram();
+        long[] p = wait.percentiles(50, 99, 99.9);
+        System.out.printf("Lock wait: p50 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us%n",
+                p[0] / 1e3, p[1] / 1e3, p[2] / 1e3, wait.max() / 1e3);
+
+        int violations = 0;
+        for (Student s : students) {
+            List<InternshipApplication> apps = fixture.getApplications().findByStudent(s.getUserId());
+            long active = apps.stream()
+                    .filter(a -> a.getStatus() == InternshipApplication.Status.PENDING
+                            || (a.getStatus() == InternshipApplication.Status.SUCCESSFUL && !a.studentAccepted()))
+                    .count();
+            boolean duplicate = apps.stream()
+                    .filter(a -> !existing.contains(a.getId()))
+                    .anyMatch(a -> apps.stream().anyMatch(o -> o != a && o.getInternshipId().equals(a.getInternshipId())));
+            if (active > MAX_ACTIVE || duplicate) {
+                violations++;
+                System.out.printf("VIOLATION %s: %d active, duplicate=%b%n", s.getUserId(), active, duplicate);
+            }
+        }
+        if (violations > 0) {
+            System.out.println("FAILED: " + violations + " student(s) broke the admission rules");
+            System.exit(1);
+        }
+        System.out.println("PASSED: admission rules held for all " + students.size() + " students");
+    }
+
+    /**
+     * outcome label for a finished request
+     * @param e failure, or null if admitted
+     * @return "admitted", "rejected, retry later" for a full queue, or the rule violation message
+     */
+    private static String outcomeOf(Throwable e) {
+        if (e == null) return "admitted";
+        if (e instanceof AdmissionRejectedException) return "rejected, retry later";
+        return e.getMessage();
+    }
+}
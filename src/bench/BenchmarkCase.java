@@ -0,0 +1,64 @@
+package bench;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * one named benchmark with fixed parameters
+ * the case binds itself to a fixture before measurement and returns the operation to time
+ */
+public class BenchmarkCase {
+
+    /**
+     * measured operation, invoked repeatedly with an increasing invocation counter
+     */
+    @FunctionalInterface
+    public interface Op {
+        /**
+         * run one invocation of the measured work
+         * @param invocation zero-based invocation counter, useful to rotate inputs
+         * @return value handed to the blackhole
+         */
+        Object run(long invocation);
+    }
+
+    /** benchmark name, e.g. "repository.filter" */
+    private final String name;
+
+    /** benchmark parameters apart from dataset size */
+    private final Map<String, String> params;
+
+    /** binds the case to a fixture and yields the operation to measure */
+    private final Function<Fixture, Op> binder;
+
+    /**
+     * create benchmark case
+     * @param name benchmark name
+     * @param params benchmark parameters apart from dataset size
+     * @param binder function binding case to fixture and returning measured operation
+     */
+    public BenchmarkCase(String name, Map<String, String> params, Function<Fixture, Op> binder) {
+        this.name = name;
+        this.params = Map.copyOf(params);
+        this.binder = binder;
+    }
+
+    /** @return benchmark name */
+    public String getName() {
+        return name;
+    }
+
+    /** @return benchmark parameters apart from dataset size */
+    public Map<String, String> getParams() {
+        return params;
+    }
+
+    /**
+     * bind case to fixture
+     * @param fixture populated dataset
+     * @return operation to measure
+     */
+    public Op bind(Fixture fixture) {
+        return binder.apply(fixture);
+    }
+}
@@ -0,0 +1,243 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * throughput result of one benchmark case at one dataset size
+ * holds raw per-iteration scores and derives mean and a 99.9% confidence interval
+ * using the student t distribution, mirroring how JMH reports score error
+ */
+public class BenchmarkResult {
+
+    /** two-sided 99.9% student t quantiles for 1 to 30 degrees of freedom */
+    private static final double[] T_999 = {
+        636.62, 31.60, 12.92, 8.61, 6.87, 5.96, 5.41, 5.04, 4.78, 4.59,
+        4.44, 4.32, 4.22, 4.14, 4.07, 4.01, 3.97, 3.92, 3.88, 3.85,
+        3.82, 3.79, 3.77, 3.75, 3.73, 3.71, 3.69, 3.67, 3.66, 3.65
+    };
+
+    /** benchmark name */
+    private final String benchmark;
+
+    /** all parameters including dataset size, sorted by key */
+    private final Map<String, String> params;
+
+    /** per-iteration throughput samples in ops/s */
+    private final double[] samples;
+
+    /** bytes allocated per operation over all measured iterations, NaN if not measured */
+    private final double allocBytesPerOp;
+
+    /**
+     * create result from raw samples without allocation data
+     * @param benchmark benchmark name
+     * @param params all parameters including dataset size
+     * @param samples per-iteration throughput samples in ops/s
+     */
+    public BenchmarkResult(String benchmark, Map<String, String> params, double[] samples) {
+        this(benchmark, params, samples, Double.NaN);
+    }
+
+    /**
+     * create result from raw samples
+     * @param benchmark benchmark name
+     * @param params all parameters including dataset size
+     * @param samples per-iteration throughput samples in ops/s
+     * @param allocBytesPerOp bytes allocated per operation, NaN if not measured
+     */
+    public BenchmarkResult(String benchmark, Map<String, String> params, double[] samples, double allocBytesPerOp) {
+        this.benchmark = benchmark;
+        this.params = new TreeMap<>(params);
+        this.samples = samples.clone();
+        this.allocBytesPerOp = allocBytesPerOp;
+    }
+
+    /** @return benchmark name */
+    public String getBenchmark() {
+        return benchmark;
+    }
+
+    /** @return all parameters including dataset size */
+    public Map<String, String> getParams() {
+        return params;
+    }
+
+    /** @return copy of per-iteration samples in ops/s */
+    public double[] getSamples() {
+        return samples.clone();
+    }
+
+    /** @return bytes allocated per operation, NaN if not measured */
+    public double getAllocBytesPerOp() {
+        return allocBytesPerOp;
+    }
+
+    /**
+     * identity of result used to match it against other runs
+     * @return benchmark name followed by sorted parameters
+     */
+    public String key() {
+        return benchmark + params;
+    }
+
+    /** @return mean throughput in ops/s */
+    public double getScore() {
+        double sum = 0;
+        for (double s : samples) sum += s;
+        return samples.length == 0 ? 0 : sum / samples.length;
+    }
+
+    /** @return half width of 99.9% confidence interval in ops/s, NaN with fewer than two samples */
+    public double getScoreError() {
+        int n = samples.length;
+        if (n < 2) return Double.NaN;
+        double mean = getScore();
+        double sq = 0;
+        for (double s : samples) sq += (s - mean) * (s - mean);
+        double stdev = Math.sqrt(sq / (n - 1));
+        return tQuantile(n - 1) * stdev / Math.sqrt(n);
+    }
+
+    /** @return lower bound of 99.9% confidence interval */
+    public double getLower() {
+        double err = getScoreError();
+        return Double.isNaN(err) ? getScore() : getScore() - err;
+    }
+
+    /** @return upper bound of 99.9% confidence interval */
+    public double getUpper() {
+        double err = getScoreError();
+        return Double.isNaN(err) ? getScore() : getScore() + err;
+    }
+
+    /**
+     * two-sided 99.9% student t quantile
+     * @param df degrees of freedom
+     * @return quantile value
+     */
+    static double tQuantile(int df) {
+        if (df <= T_999.length) return T_999[df - 1];
+        if (df <= 60) return 3.46;
+        if (df <= 120) return 3.37;
+        return 3.29;
+    }
+
+    /**
+     * render result as a JSON object in a JMH-like layout
+     * allocation per operation, when measured, is written as secondary metric gc.alloc.rate.norm
+     * @return JSON text
+     */
+    public String toJson() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("  {\n");
+        sb.append("    \"benchmark\": ").append(quote(benchmark)).append(",\n");
+        sb.append("    \"mode\": \"thrpt\",\n");
+        sb.append("    \"params\": {");
+        boolean first = true;
+        for (Map.Entry<String, String> e : params.entrySet()) {
+            if (!first) sb.append(", ");
+            sb.append(quote(e.getKey())).append(": ").append(quote(e.getValue()));
+            first = false;
+        }
+        sb.append("},\n");
+        sb.append("    \"primaryMetric\": {\n");
+        sb.append("      \"score\": ").append(num(getScore())).append(",\n");
+        sb.append("      \"scoreError\": ").append(num(getScoreError())).append(",\n");
+        sb.append("      \"scoreConfidence\": [").append(num(getLower())).append(", ").append(num(getUpper())).append("],\n");
+        sb.append("      \"scoreUnit\": \"ops/s\",\n");
+        sb.append("      \"rawData\": [");
+        for (int i = 0; i < samples.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(num(samples[i]));
+        }
+        sb.append("]\n    }");
+        if (!Double.isNaN(allocBytesPerOp)) {
+            sb.append(",\n    \"secondaryMetrics\": {\n");
+            sb.append("      \"gc.alloc.rate.norm\": {\"score\": ").append(num(allocBytesPerOp))
+              .append(", \"scoreUnit\": \"B/op\"}\n    }");
+        }
+        sb.append("\n  }");
+        return sb.toString();
+    }
+
+    /**
+     * render list of results as a JSON array
+     * @param results results to render
+     * @return JSON text
+     */
+    public static String toJson(List<BenchmarkResult> results) {
+        StringBuilder sb = new StringBuilder("[\n");
+        for (int i = 0; i < results.size(); i++) {
+            if (i > 0) sb.append(",\n");
+            sb.append(results.get(i).toJson());
+        }
+        return sb.append("\n]\n").toString();
+    }
+
+    /**
+     * read results back from JSON written by toJson(List)
+     * @param json JSON array of results
+     * @return parsed results in file order
+     * @throws IllegalArgumentException if text is not a result array
+     */
+    public static List<BenchmarkResult> fromJson(String json) {
+        if (!(Json.parse(json) instanceof List<?> items))
+            throw new IllegalArgumentException("Expected a JSON array of benchmark results.");
+        List<BenchmarkResult> results = new ArrayList<>();
+        for (Object item : items) {
+            Map<?, ?> obj = (Map<?, ?>) item;
+            Map<String, String> params = new HashMap<>();
+            if (obj.get("params") instanceof Map<?, ?> p)
+                p.forEach((k, v) -> params.put(String.valueOf(k), String.valueOf(v)));
+
+            Map<?, ?> primary = (Map<?, ?>) obj.get("primaryMetric");
+            List<?> raw = (List<?>) primary.get("rawData");
+            double[] samples = new double[raw.size()];
+            for (int i = 0; i < samples.length; i++) samples[i] = raw.get(i) == null ? Double.NaN : (Double) raw.get(i);
+
+            double alloc = Double.NaN;
+            if (obj.get("secondaryMetrics") instanceof Map<?, ?> secondary
+                    && secondary.get("gc.alloc.rate.norm") instanceof Map<?, ?> norm
+                    && norm.get("score") instanceof Double score) {
+                alloc = score;
+            }
+            results.add(new BenchmarkResult((String) obj.get("benchmark"), params, samples, alloc));
+        }
+        return results;
+    }
+
+    /**
+     * format number for JSON, NaN becomes null
+     * @param v value
+     * @return JSON number literal
+     */
+    private static String num(double v) {
+        return Double.isNaN(v) || Double.isInfinite(v) ? "null" : String.format(Locale.ROOT, "%.3f", v);
+    }
+
+    /**
+     * quote and escape a JSON string
+     * @param s raw text
+     * @return JSON string literal
+     */
+    static String quote(String s) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : s.toCharArray()) {
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -0,0 +1,157 @@
+package bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import metrics.AllocationProfiler;
+
+/**
+ * command line runner for the hot-path benchmark suite
+ * builds one fixture per dataset size, runs warmup and measurement iterations for every
+ * selected case and writes machine-readable JSON results
+ * bytes allocated per operation by the benchmark thread are reported alongside throughput,
+ * like JMH's gc.alloc.rate.norm, so allocation-free paths can be checked run over run
+ *
+ * usage: java -cp bin bench.BenchmarkRunner [--sizes 1000,10000] [--warmup 3] [--iterations 5]
+ *        [--time 1000] [--include regex] [--seed 42] [--out bench-results.json]
+ */
+public class BenchmarkRunner {
+
+    /** dataset sizes, number of internships and of applications */
+    private int[] sizes = { 1_000, 10_000, 100_000 };
+
+    /** warmup iterations per case */
+    private int warmup = 3;
+
+    /** measured iterations per case */
+    private int iterations = 5;
+
+    /** duration of each iteration in milliseconds */
+    private long iterationMillis = 1_000;
+
+    /** pattern selecting cases by name */
+    private Pattern include = Pattern.compile(".*");
+
+    /** fixture random seed */
+    private long seed = 42;
+
+    /** JSON output file, null to skip writing */
+    private Path out = Path.of("bench-results.json");
+
+    /** invocation counter shared across iterations so mutating flows never reuse ids */
+    private long invocation;
+
+    /** operations completed by the last measured iteration */
+    private long lastOps;
+
+    /** bytes allocated by this thread during the last measured iteration, -1 if unsupported */
+    private long lastBytes;
+
+    /**
+     * entry point
+     * @param args command line options
+     * @throws IOException if results file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        BenchmarkRunner runner = new BenchmarkRunner();
+        runner.parse(args);
+        List<BenchmarkResult> results = runner.run(HotPathBenchmarks.all());
+        if (runner.out != null) {
+            Files.writeString(runner.out, BenchmarkResult.toJson(results));
+            System.out.println("Results written to " + runner.out.toAbsolutePath());
+        }
+    }
+
+    /**
+     * parse command line options into runner settings
+     * @param args command line options
+     */
+    void parse(String[] args) {
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String v = args[i + 1];
+            switch (args[i]) {
+                case "--sizes" -> {
+                    String[] parts = v.split(",");
+                    sizes = new int[parts.length];
+                    for (int k = 0; k < parts.length; k++) sizes[k] = Integer.parseInt(parts[k].trim());
+                }
+                case "--warmup" -> warmup = Integer.parseInt(v);
+                case "--iterations" -> iterations = Integer.parseInt(v);
+                case "--time" -> iterationMillis = Long.parseLong(v);
+                case "--include" -> include = Pattern.compile(v);
+                case "--seed" -> seed = Long.parseLong(v);
+                case "--out" -> out = v.equals("-") ? null : Path.of(v);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+    }
+
+    /**
+     * run selected cases at every configured size
+     * @param cases candidate benchmark cases
+     * @return one result per case and size
+     */
+    public List<BenchmarkResult> run(List<BenchmarkCase> cases) {
+        List<BenchmarkResult> results = new ArrayList<>();
+        System.out.printf("%-36s %-22s %10s %16s %14s %12s%n", "Benchmark", "Params", "Size", "Score (ops/s)", "Error", "B/op");
+
+        for (int size : sizes) {
+            Fixture fixture = new Fixture(size, seed);
+            for (BenchmarkCase c : cases) {
+                if (!include.matcher(c.getName()).find()) continue;
+
+                BenchmarkCase.Op op = c.bind(fixture);
+                for (int i = 0; i < warmup; i++) measure(op);
+
+                double[] samples = new double[iterations];
+                long ops = 0;
+                long bytes = 0;
+                for (int i = 0; i < iterations; i++) {
+                    samples[i] = measure(op);
+                    ops += lastOps;
+                    bytes = lastBytes < 0 || bytes < 0 ? -1 : bytes + lastBytes;
+                }
+
+                Map<String, String> params = new HashMap<>(c.getParams());
+                params.put("size", String.valueOf(size));
+                double bytesPerOp = bytes < 0 ? Double.NaN : (double) bytes / ops;
+                BenchmarkResult r = new BenchmarkResult(c.getName(), params, samples, bytesPerOp);
+                results.add(r);
+                System.out.printf("%-36s %-22s %10d %16.1f %14.1f %12.1f%n",
+                        c.getName(), c.getParams(), size, r.getScore(), r.getScoreError(), r.getAllocBytesPerOp());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * run one timed iteration, invoking operation until time budget is spent
+     * at least one invocation always completes; operation count and allocated bytes are left
+     * in lastOps and lastBytes
+     * @param op measured operation
+     * @return throughput in operations per second
+     */
+    private double measure(BenchmarkCase.Op op) {
+        long budget = iterationMillis * 1_000_000L;
+        long startBytes = AllocationProfiler.currentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        long deadline = start + budget;
+        long ops = 0;
+        long now;
+        do {
+            Blackhole.consume(op.run(invocation++));
+            ops++;
+            now = System.nanoTime();
+        } while (now < deadline);
+        long endBytes = AllocationProfiler.currentThreadAllocatedBytes();
+        Blackhole.flush();
+        lastOps = ops;
+        lastBytes = startBytes < 0 ? -1 : endBytes - startBytes;
+        return ops / ((now - start) / 1e9);
+    }
+}
@@ -0,0 +1,40 @@
+package bench;
+
+/**
+ * sink for benchmark results so the JIT cannot eliminate the measured work as dead code
+ * mixes each consumed value into a field that is published through a volatile write
+ */
+public final class Blackhole {
+
+    /** running mix of consumed values */
+    private static int mix;
+
+    /** published mix, read by nobody but forces the work to stay observable */
+    private static volatile int published;
+
+    /** prevent instantiation of utility class */
+    private Blackhole() { }
+
+    /**
+     * consume an arbitrary benchmark result
+     * @param o value produced by measured operation, may be null
+     */
+    public static void consume(Object o) {
+        mix = mix * 31 + System.identityHashCode(o);
+    }
+
+    /**
+     * consume a primitive benchmark result
+     * @param v value produced by measured operation
+     */
+    public static void consume(long v) {
+        mix = mix * 31 + (int) (v ^ (v >>> 32));
+    }
+
+    /**
+     * publish accumulated mix, called once per measurement iteration
+     */
+    static void flush() {
+        published = mix;
+    }
+}
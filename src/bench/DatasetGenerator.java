@@ -0,0 +1,534 @@
+package bench;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import model.Company;
+import model.CompanyRepresentative;
+import model.Internship;
+import model.InternshipApplication;
+import model.Staff;
+import model.Student;
+import repository.CompanyRepository;
+import repository.InternshipAppRepository;
+import repository.InternshipRepository;
+import repository.UserRepository;
+
+/**
+ * deterministic, seeded generator of realistic datasets for scale testing
+ * entities are streamed to a sink one at a time: only companies, representatives and compact
+ * arrays of approved internship indexes, slot counts and confirmed placements are kept in
+ * memory, so tens of millions of applications can be produced without materialising them
+ * outside the sink. the result is a state the controllers could have produced: see generate
+ *
+ * distributions: majors follow a fixed weighted mix, internship popularity follows a
+ * zipf law, and application windows open between 90 days ago and 30 days ahead
+ *
+ * the dataset is a function of the seed, the sizes and the reference date; application windows
+ * are placed around the reference date, which defaults to the current day, so pass --today to
+ * reproduce a dataset on a later day
+ *
+ * usage: java -cp bin bench.DatasetGenerator --out data [--applications 10000000] [--seed 42]
+ *        [--today 2025-01-06]
+ */
+public class DatasetGenerator {
+
+    /** majors assigned to generated students and internships */
+    static final String[] MAJORS = {
+        "Computer Science", "Computer Engineering", "Data Science & AI", "Business",
+        "Mechanical Engineering", "Electrical Engineering", "Mathematics", "Economics", "Physics"
+    };
+
+    /** share of each entry in MAJORS, in percent */
+    private static final int[] MAJOR_WEIGHTS = { 30, 15, 12, 12, 8, 8, 5, 5, 5 };
+
+    /**
+     * receiver of generated entities, called in dependency order:
+     * staff, representatives, students, internships, applications
+     */
+    public interface Sink {
+        /** @param staff generated staff member */
+        void staff(Staff staff);
+
+        /** @param rep generated company representative */
+        void companyRep(CompanyRepresentative rep);
+
+        /** @param student generated student */
+        void student(Student student);
+
+        /** @param internship generated internship */
+        void internship(Internship internship);
+
+        /** @param application generated application */
+        void application(InternshipApplication application);
+    }
+
+    /**
+     * generation parameters, defaults scale from the number of applications
+     */
+    public static class Config {
+        private long seed = 42;
+        private int applications = 100_000;
+        private int internships = -1;
+        private int students = -1;
+        private int companies = -1;
+        private int repsPerCompany = 2;
+        private int staff = -1;
+        private double zipfExponent = 0.8;
+        private LocalDate today = LocalDate.now();
+
+        /** @param seed random seed, same seed, sizes and reference date yield same dataset @return this config */
+        public Config seed(long seed) { this.seed = seed; return this; }
+
+        /** @param n number of applications @return this config */
+        public Config applications(int n) { this.applications = n; return this; }
+
+        /** @param n number of internships, defaults to one per ten applications @return this config */
+        public Config internships(int n) { this.internships = n; return this; }
+
+        /** @param n number of students, defaults to one per five applications @return this config */
+        public Config students(int n) { this.students = n; return this; }
+
+        /** @param n number of companies, defaults to one per twenty internships @return this config */
+        public Config companies(int n) { this.companies = n; return this; }
+
+        /** @param n representatives per company @return this config */
+        public Config repsPerCompany(int n) { this.repsPerCompany = n; return this; }
+
+        /** @param n number of staff, defaults to one per two thousand students @return this config */
+        public Config staff(int n) { this.staff = n; return this; }
+
+        /** @param s zipf exponent of internship popularity, higher is more skewed @return this config */
+        public Config zipfExponent(double s) { this.zipfExponent = s; return this; }
+
+        /** @param today reference date for application windows @return this config */
+        public Config today(LocalDate today) { this.today = today; return this; }
+
+        int internshipCount() { return internships >= 0 ? internships : Math.max(10, applications / 10); }
+        int studentCount() { return students >= 0 ? students : Math.max(100, applications / 5); }
+        int companyCount() { return companies >= 0 ? companies : Math.max(5, internshipCount() / 20); }
+        int staffCount() { return staff >= 0 ? staff : Math.max(5, studentCount() / 2_000); }
+    }
+
+    /** generation parameters */
+    private final Config config;
+
+    /**
+     * create generator
+     * @param config generation parameters
+     */
+    public DatasetGenerator(Config config) {
+        this.config = config;
+    }
+
+    /**
+     * generate whole dataset into sink
+     * each entity kind draws from its own split of the seed, so changing one count
+     * leaves the other kinds' attribute sequences unchanged
+     *
+     * applications are generated student by student and obey the admission rules: no student
+     * applies twice for one internship, at most three of a student's applications are active,
+     * applications only go to approved internships, and a student accepts at most one placement,
+     * which withdraws every other application of theirs. an acceptance takes a confirmed slot and
+     * fills its internship when the last slot goes; since internships are sunk before applications,
+     * the application pass is replayed once beforehand to count confirmed slots per internship
+     * @param sink receiver of generated entities
+     */
+    public void generate(Sink sink) {
+        SplittableRandom root = new SplittableRandom(config.seed);
+        SplittableRandom staffRnd = root.split();
+        SplittableRandom repRnd = root.split();
+        SplittableRandom studentRnd = root.split();
+        long internshipSeed = root.split().nextLong();
+        long appSeed = root.split().nextLong();
+
+        for (int i = 0; i < config.staffCount(); i++) {
+            String id = String.format("staff%04d", i);
+            sink.staff(new Staff(id, "Staff " + i, id + "@ntu.edu.sg", "Career Center Staff",
+                    staffRnd.nextInt(4) == 0 ? "CCDS" : "CAO"));
+        }
+
+        List<CompanyRepresentative> reps = new ArrayList<>();
+        for (int c = 0; c < config.companyCount(); c++) {
+            Company company = new Company("Company " + c);
+            for (int k = 0; k < config.repsPerCompany; k++) {
+                String email = "rep" + k + "@company" + c + ".com";
+                CompanyRepresentative rep = new CompanyRepresentative(email, "Rep " + c + "-" + k, email,
+                        company, "HR", k == 0 ? "Manager" : "Recruiter");
+                rep.setApproved(repRnd.nextInt(20) != 0);
+                reps.add(rep);
+                sink.companyRep(rep);
+            }
+        }
+
+        int studentCount = config.studentCount();
+        for (int s = 0; s < studentCount; s++) {
+            String id = studentId(s);
+            sink.student(new Student(id, "Student " + s, id.toLowerCase() + "@e.ntu.edu.sg",
+                    1 + studentRnd.nextInt(4), pickMajor(studentRnd)));
+        }
+
+        // slots and indexes of approved internships, the only per-internship state retained
+        int internshipCount = config.internshipCount();
+        int[] slots = new int[internshipCount];
+        int[] applicable = new int[internshipCount];
+        int applicableCount = 0;
+        SplittableRandom internshipRnd = new SplittableRandom(internshipSeed);
+        for (int i = 0; i < internshipCount; i++) {
+            Internship in = internship(i, internshipRnd, reps);
+            slots[i] = in.getMaxSlots();
+            if (in.getStatus() == Internship.Status.APPROVED) applicable[applicableCount++] = i;
+        }
+
+        int[] confirmed = new int[internshipCount];
+        if (applicableCount > 0)
+            applications(new SplittableRandom(appSeed), applicable, applicableCount, slots, confirmed, null);
+
+        internshipRnd = new SplittableRandom(internshipSeed);
+        for (int i = 0; i < internshipCount; i++) {
+            Internship in = internship(i, internshipRnd, reps);
+            for (int c = 0; c < confirmed[i]; c++) in.addConfirmedSlot();
+            sink.internship(in);
+        }
+
+        if (applicableCount > 0)
+            applications(new SplittableRandom(appSeed), applicable, applicableCount, slots,
+                    new int[internshipCount], sink);
+    }
+
+    /**
+     * create one internship from the internship random sequence, before any placement
+     * @param i internship index
+     * @param rnd internship random source, advanced by this call
+     * @param reps generated representatives
+     * @return internship with status PENDING, APPROVED or REJECTED
+     */
+    private Internship internship(int i, SplittableRandom rnd, List<CompanyRepresentative> reps) {
+        CompanyRepresentative rep = reps.get(rnd.nextInt(reps.size()));
+        LocalDate open = config.today.minusDays(90 - rnd.nextInt(121));
+        Internship in = new Internship(internshipId(i), "Internship " + i, "Generated posting " + i,
+                Internship.Level.values()[rnd.nextInt(3)], pickMajor(rnd),
+                open, open.plusDays(21 + rnd.nextInt(100)), rep,
+                1 + rnd.nextInt(10), rnd.nextInt(10) < 8, rep.getCompany());
+        int roll = rnd.nextInt(10);
+        in.setStatus(!rep.isApproved() ? Internship.Status.PENDING
+                   : roll < 7 ? Internship.Status.APPROVED
+                   : roll < 9 ? Internship.Status.PENDING
+                   : Internship.Status.REJECTED);
+        return in;
+    }
+
+    /**
+     * generate every application, student by student, keeping each student within the rules
+     * every random draw happens before anything is sunk, so the same random source and fresh
+     * confirmed counts make the same decisions with or without a sink, and a replay without one
+     * counts the confirmed slots the sinking pass will hand out
+     * @param rnd application random source
+     * @param applicable indexes of approved internships
+     * @param applicableCount number of entries used in applicable
+     * @param slots slots per internship index
+     * @param confirmed confirmed placements per internship index, updated as students accept
+     * @param sink receiver of applications, or null to only count confirmed slots
+     */
+    private void applications(SplittableRandom rnd, int[] applicable, int applicableCount, int[] slots,
+                              int[] confirmed, Sink sink) {
+        Zipf popularity = new Zipf(applicableCount, config.zipfExponent);
+        // spread popular ranks across the id space instead of clustering them at low ids
+        int stride = coprimeStride(applicableCount);
+        int studentCount = config.studentCount();
+        int perStudent = config.applications / studentCount;
+        int extra = config.applications % studentCount;
+        int next = 0;
+        for (int s = 0; s < studentCount; s++) {
+            int count = Math.min(applicableCount, perStudent + (s < extra ? 1 : 0));
+            int[] chosen = new int[count];
+            InternshipApplication.Status[] status = new InternshipApplication.Status[count];
+            boolean[] withdrawal = new boolean[count];
+            int active = 0;
+            int accepted = -1;
+            for (int j = 0; j < count; j++) {
+                int rank = popularity.sample(rnd.nextDouble());
+                int index = applicable[(int) ((long) rank * stride % applicableCount)];
+                while (contains(chosen, j, index)) {
+                    rank = (rank + 1) % applicableCount;
+                    index = applicable[(int) ((long) rank * stride % applicableCount)];
+                }
+                chosen[j] = index;
+
+                int roll = rnd.nextInt(100);
+                boolean accept = rnd.nextInt(3) == 0;
+                withdrawal[j] = rnd.nextInt(50) == 0;
+                if (roll < 65 && active == 3) roll = 65; // a fourth active application is never admitted
+                if (roll < 50) {
+                    status[j] = InternshipApplication.Status.PENDING;
+                    active++;
+                } else if (roll < 65) {
+                    status[j] = InternshipApplication.Status.SUCCESSFUL;
+                    if (accept && accepted < 0 && confirmed[index] < slots[index]) {
+                        accepted = j;
+                        confirmed[index]++;
+                    } else {
+                        active++;
+                    }
+                } else if (roll < 90) {
+                    status[j] = InternshipApplication.Status.UNSUCCESSFUL;
+                } else {
+                    status[j] = InternshipApplication.Status.WITHDRAWN;
+                }
+            }
+            if (sink == null) continue;
+
+            // accepting withdraws every other application, so the placement is the student's last
+            for (int j = 0; j < count; j++) {
+                if (j == accepted) continue;
+                InternshipApplication app = new InternshipApplication(applicationId(next++), studentId(s),
+                        internshipId(chosen[j]));
+                app.setStatus(accepted >= 0 ? InternshipApplication.Status.WITHDRAWN : status[j]);
+                if (app.isActive() && withdrawal[j]) app.requestWithdrawal();
+                sink.application(app);
+            }
+            if (accepted >= 0) {
+                InternshipApplication app = new InternshipApplication(applicationId(next++), studentId(s),
+                        internshipId(chosen[accepted]));
+                app.setStatus(InternshipApplication.Status.SUCCESSFUL);
+                app.accept();
+                if (withdrawal[accepted]) app.requestWithdrawal();
+                sink.application(app);
+            }
+        }
+    }
+
+    /**
+     * @param values array searched
+     * @param length number of leading entries to search
+     * @param value value looked for
+     * @return true if value is among the first length entries
+     */
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) if (values[i] == value) return true;
+        return false;
+    }
+
+    /** @param i student index @return generated student id in matriculation format */
+    static String studentId(int i) {
+        return String.format("U%07d%c", i, (char) ('A' + i % 26));
+    }
+
+    /** @param i internship index @return generated internship id */
+    static String internshipId(int i) {
+        return String.format("I%08d", i);
+    }
+
+    /** @param i application index @return generated application id */
+    static String applicationId(int i) {
+        return String.format("A%08d", i);
+    }
+
+    /**
+     * pick a major according to MAJOR_WEIGHTS
+     * @param rnd random source
+     * @return major name
+     */
+    private static String pickMajor(SplittableRandom rnd) {
+        int roll = rnd.nextInt(100);
+        for (int i = 0; i < MAJORS.length; i++) {
+            roll -= MAJOR_WEIGHTS[i];
+            if (roll < 0) return MAJORS[i];
+        }
+        return MAJORS[0];
+    }
+
+    /**
+     * find a stride coprime to n so rank * stride mod n is a permutation
+     * @param n modulus
+     * @return stride in [1, n) coprime to n, 1 when n is 1
+     */
+    private static int coprimeStride(int n) {
+        if (n <= 2) return 1;
+        int stride = (int) (n * 0.618) | 1;
+        while (gcd(stride, n) != 1) stride += 2;
+        return stride % n;
+    }
+
+    /** @param a first value @param b second value @return greatest common divisor */
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    /**
+     * zipf-like rank sampler using inverse transform of continuous power law density
+     * rank 0 is most popular, probability of rank r is roughly proportional to 1 / (r + 1)^s
+     */
+    static final class Zipf {
+        private final int n;
+        private final double s;
+        private final double span;
+
+        /**
+         * @param n number of ranks
+         * @param s exponent, must be positive
+         */
+        Zipf(int n, double s) {
+            if (s <= 0) throw new IllegalArgumentException("Zipf exponent must be positive.");
+            this.n = n;
+            this.s = s;
+            this.span = s == 1.0 ? Math.log(n + 1.0) : Math.pow(n + 1.0, 1 - s) - 1;
+        }
+
+        /**
+         * @param u uniform value in [0, 1)
+         * @return rank in [0, n)
+         */
+        int sample(double u) {
+            double x = s == 1.0 ? Math.exp(u * span) : Math.pow(1 + u * span, 1 / (1 - s));
+            return Math.min(n - 1, Math.max(0, (int) x - 1));
+        }
+    }
+
+    /**
+     * sink that saves entities straight into repositories
+     * companies are registered with the company repository as their representatives arrive
+     * @param users user repository
+     * @param internships internship repository
+     * @param applications application repository
+     * @param companies company repository
+     * @return repository backed sink
+     */
+    public static Sink toRepositories(UserRepository users, InternshipRepository internships,
+                                      InternshipAppRepository applications, CompanyRepository companies) {
+        return new Sink() {
+            @Override public void staff(Staff staff) { users.save(staff); }
+            @Override public void companyRep(CompanyRepresentative rep) {
+                if (companies.findByName(rep.getCompany().getCompanyName()).isEmpty())
+                    companies.save(rep.getCompany());
+                users.save(rep);
+            }
+            @Override public void student(Student student) { users.save(student); }
+            @Override public void internship(Internship internship) { internships.save(internship); }
+            @Override public void application(InternshipApplication application) { applications.save(application); }
+        };
+    }
+
+    /**
+     * sink that writes entities to CSV files readable by CsvParser's read methods
+     * files: staff.csv, company_reps.csv, students.csv, internships.csv, applications.csv
+     */
+    public static class CsvSink implements Sink, AutoCloseable {
+        private final BufferedWriter staff;
+        private final BufferedWriter reps;
+        private final BufferedWriter students;
+        private final BufferedWriter internships;
+        private final BufferedWriter applications;
+
+        /**
+         * open CSV files in directory, creating it if needed and overwriting existing files
+         * @param dir output directory
+         * @throws IOException if files cannot be created
+         */
+        public CsvSink(Path dir) throws IOException {
+            Files.createDirectories(dir);
+            staff = open(dir.resolve("staff.csv"), "StaffID,Name,Role,Department,Email");
+            reps = open(dir.resolve("company_reps.csv"), "CompanyRepID,Name,CompanyName,Department,Position,Email,Status");
+            students = open(dir.resolve("students.csv"), "StudentID,Name,Major,Year,Email");
+            internships = open(dir.resolve("internships.csv"),
+                    "InternshipID,Title,Description,Level,Major,OpenDate,CloseDate,CompanyRepID,Slots,Visible,Status,ConfirmedSlots");
+            applications = open(dir.resolve("applications.csv"),
+                    "ApplicationID,StudentID,InternshipID,Status,Accepted,WithdrawalRequested");
+        }
+
+        private static BufferedWriter open(Path file, String header) throws IOException {
+            BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+            w.write(header);
+            w.newLine();
+            return w;
+        }
+
+        private static void row(BufferedWriter w, Object... cols) {
+            try {
+                for (int i = 0; i < cols.length; i++) {
+                    if (i > 0) w.write(',');
+                    w.write(String.valueOf(cols[i]));
+                }
+                w.newLine();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        @Override public void staff(Staff s) {
+            row(staff, s.getUserId(), s.getName(), s.getRole(), s.getDept(), s.getEmail());
+        }
+
+        @Override public void companyRep(CompanyRepresentative r) {
+            row(reps, r.getUserId(), r.getName(), r.getCompany().getCompanyName(), r.getDept(),
+                    r.getPosition(), r.getEmail(), r.isApproved() ? "Approved" : r.isRejected() ? "Rejected" : "Pending");
+        }
+
+        @Override public void student(Student s) {
+            row(students, s.getUserId(), s.getName(), s.getMajor(), s.getYearOfStudy(), s.getEmail());
+        }
+
+        @Override public void internship(Internship i) {
+            row(internships, i.getId(), i.getTitle(), i.getDesc(), i.getLevel(), i.getMajor(),
+                    i.getStartDate(), i.getEndDate(), i.getCr().getUserId(), i.getMaxSlots(),
+                    i.getVisibility(), i.getStatus(), i.getConfirmedSlots());
+        }
+
+        @Override public void application(InternshipApplication a) {
+            row(applications, a.getId(), a.getStudentId(), a.getInternshipId(), a.getStatus(),
+                    a.studentAccepted(), a.isWithdrawalRequested());
+        }
+
+        /**
+         * flush and close all files
+         * @throws IOException if a file cannot be closed
+         */
+        @Override public void close() throws IOException {
+            for (BufferedWriter w : List.of(staff, reps, students, internships, applications)) w.close();
+        }
+    }
+
+    /**
+     * entry point writing a generated dataset to CSV files
+     * @param args --out dir, --applications n, --internships n, --students n, --companies n, --seed n, --zipf s,
+     *             --today yyyy-mm-dd
+     * @throws IOException if output cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        Config config = new Config();
+        Path out = Path.of("data");
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String v = args[i + 1];
+            switch (args[i]) {
+                case "--out" -> out = Path.of(v);
+                case "--applications" -> config.applications(Integer.parseInt(v));
+                case "--internships" -> config.internships(Integer.parseInt(v));
+                case "--students" -> config.students(Integer.parseInt(v));
+                case "--companies" -> config.companies(Integer.parseInt(v));
+                case "--seed" -> config.seed(Long.parseLong(v));
+                case "--zipf" -> config.zipfExponent(Double.parseDouble(v));
+                case "--today" -> config.today(LocalDate.parse(v));
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        long start = System.nanoTime();
+        try (CsvSink sink = new CsvSink(out)) {
+            new DatasetGenerator(config).generate(sink);
+        }
+        System.out.printf("Dataset for %s written to %s in %d ms%n", config.today, out.toAbsolutePath(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,172 @@
+package bench;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import controller.CompanyRepController;
+import controller.LoginController;
+import controller.StaffController;
+import controller.StudentController;
+import event.EventBus;
+import model.CompanyRepresentative;
+import model.Internship;
+import model.InternshipApplication;
+import model.Staff;
+import model.Student;
+import ratelimit.RateLimits;
+import repository.CompanyRepository;
+import repository.InMemoryCompanyRepository;
+import repository.InMemoryInternshipAppRepository;
+import repository.InMemoryInternshipRepository;
+import repository.InMemoryUserRepository;
+import repository.InternshipAppRepository;
+import repository.InternshipRepository;
+import repository.UserRepository;
+import session.SessionManager;
+import transaction.TransactionLog;
+import transaction.TransactionManager;
+
+/**
+ * deterministic benchmark dataset with repositories and controllers wired as in AppConfig
+ * holds the same number of internships and applications, with one student per five of them,
+ * populated by DatasetGenerator so benchmarks see the same skew as scale tests
+ */
+public class Fixture {
+
+    /** number of internships and applications */
+    private final int size;
+
+    /** bus the repositories publish state changes to */
+    private final EventBus events = new EventBus();
+
+    /** repository storing all users */
+    private final UserRepository users = new InMemoryUserRepository();
+
+    /** repository storing all internships */
+    private final InternshipRepository internships = new InMemoryInternshipRepository(events);
+
+    /** repository storing all applications */
+    private final InternshipAppRepository applications = new InMemoryInternshipAppRepository(events);
+
+    /** repository storing all companies */
+    private final CompanyRepository companies = new InMemoryCompanyRepository();
+
+    /** student facing controller */
+    private final StudentController studentController;
+
+    /** company representative facing controller */
+    private final CompanyRepController repController;
+
+    /** staff facing controller */
+    private final StaffController staffController;
+
+    /** login controller */
+    private final LoginController loginController;
+
+    /** generated students in insertion order */
+    private final List<Student> students = new ArrayList<>();
+
+    /** generated internships in insertion order */
+    private final List<Internship> allInternships = new ArrayList<>();
+
+    /** generated approved, visible internships open today */
+    private final List<Internship> openInternships = new ArrayList<>();
+
+    /** generated approved company representatives */
+    private final List<CompanyRepresentative> reps = new ArrayList<>();
+
+    /**
+     * build and populate fixture
+     * @param size number of internships and applications to generate
+     * @param seed random seed, same seed yields same dataset
+     */
+    public Fixture(int size, long seed) {
+        this.size = size;
+        TransactionManager transactions = new TransactionManager(internships, applications, new TransactionLog(null));
+        RateLimits limits = RateLimits.unlimited();
+        this.studentController = new StudentController(internships, applications, users, transactions, limits);
+        this.repController = new CompanyRepController(internships, applications, users, companies, transactions);
+        this.staffController = new StaffController(users, internships, applications, transactions, limits);
+        this.loginController = new LoginController(users, limits.login(), new SessionManager(Duration.ofMinutes(30)));
+        populate(seed);
+    }
+
+    /**
+     * generate users, internships and applications through the dataset generator,
+     * saving them into repositories while keeping the lists used to pick benchmark inputs
+     * @param seed random seed
+     */
+    private void populate(long seed) {
+        LocalDate today = LocalDate.now();
+        DatasetGenerator.Config config = new DatasetGenerator.Config()
+                .seed(seed)
+                .applications(size)
+                .internships(size)
+                .students(Math.max(100, size / 5))
+                .companies(Math.max(10, size / 100))
+                .repsPerCompany(1)
+                .staff(5)
+                .today(today);
+        DatasetGenerator.Sink store = DatasetGenerator.toRepositories(users, internships, applications, companies);
+
+        new DatasetGenerator(config).generate(new DatasetGenerator.Sink() {
+            @Override public void staff(Staff staff) { store.staff(staff); }
+            @Override public void companyRep(CompanyRepresentative rep) {
+                store.companyRep(rep);
+                if (rep.isApproved()) reps.add(rep);
+            }
+            @Override public void student(Student student) {
+                store.student(student);
+                students.add(student);
+            }
+            @Override public void internship(Internship in) {
+                store.internship(in);
+                allInternships.add(in);
+                if (in.getStatus() == Internship.Status.APPROVED && in.getVisibility() && in.isOpen(today))
+                    openInternships.add(in);
+            }
+            @Override public void application(InternshipApplication app) { store.application(app); }
+        });
+    }
+
+    /** @return number of internships and applications */
+    public int getSize() { return size; }
+
+    /** @return user repository */
+    public UserRepository getUsers() { return users; }
+
+    /** @return internship repository */
+    public InternshipRepository getInternships() { return internships; }
+
+    /** @return application repository */
+    public InternshipAppRepository getApplications() { return applications; }
+
+    /** @return bus the repositories publish state changes to */
+    public EventBus getEvents() { return events; }
+
+    /** @return student controller */
+    public StudentController getStudentController() { return studentController; }
+
+    /** @return company representative controller */
+    public CompanyRepController getRepController() { return repController; }
+
+    /** @return staff controller */
+    public StaffController getStaffController() { return staffController; }
+
+    /** @return login controller */
+    public LoginController getLoginController() { return loginController; }
+
+    /** @return generated students */
+    public List<Student> getStudents() { return students; }
+
+    /** @return every generated internship */
+    public List<Internship> getAllInternships() { return allInternships; }
+
+    /** @return approved, visible internships open today */
+    public List<Internship> getOpenInternships() { return openInternships; }
+
+    /** @return generated approved company representatives */
+    public List<CompanyRepresentative> getReps() { return reps; }
+}
@@ -0,0 +1,96 @@
+package bench;
+
+import app.DataLoader;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.List;
+import metrics.Footprint;
+import metrics.MemoryModel;
+import repository.CompanyRepository;
+import repository.InMemoryCompanyRepository;
+import repository.InMemoryInternshipAppRepository;
+import repository.InMemoryInternshipRepository;
+import repository.InMemoryUserRepository;
+import repository.InternshipAppRepository;
+import repository.InternshipRepository;
+import repository.UserRepository;
+
+/**
+ * heap capacity-planning report
+ * populates fresh repositories from the dataset generator, or from a generated CSV directory,
+ * prints the estimated footprint of each repository with bytes per record, and cross-checks
+ * the estimate against the measured growth of used heap after a full GC
+ *
+ * CSV loading gives realistic string duplication, since every parsed field is a new string,
+ * whereas generated data shares constant strings such as majors
+ *
+ * usage: java -cp bin bench.FootprintReport [--applications 100000] [--internships n]
+ *        [--students n] [--seed 42] [--from data]
+ */
+public class FootprintReport {
+
+    /**
+     * entry point
+     * @param args command line options
+     * @throws IOException if a dataset directory cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        DatasetGenerator.Config config = new DatasetGenerator.Config();
+        Path from = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String v = args[i + 1];
+            switch (args[i]) {
+                case "--applications" -> config.applications(Integer.parseInt(v));
+                case "--internships" -> config.internships(Integer.parseInt(v));
+                case "--students" -> config.students(Integer.parseInt(v));
+                case "--seed" -> config.seed(Long.parseLong(v));
+                case "--from" -> from = Path.of(v);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        long before = usedHeapAfterGc();
+        UserRepository users = new InMemoryUserRepository();
+        InternshipRepository internships = new InMemoryInternshipRepository();
+        InternshipAppRepository applications = new InMemoryInternshipAppRepository();
+        CompanyRepository companies = new InMemoryCompanyRepository();
+        if (from != null) {
+            DataLoader.loadDataset(from, users, internships, applications, companies);
+        } else {
+            new DatasetGenerator(config).generate(DatasetGenerator.toRepositories(users, internships, applications, companies));
+        }
+        long measured = usedHeapAfterGc() - before;
+
+        MemoryModel model = MemoryModel.detect();
+        List<Footprint> footprints = List.of(users.estimateFootprint(model), internships.estimateFootprint(model),
+                applications.estimateFootprint(model), companies.estimateFootprint(model));
+
+        System.out.println("Layout: " + model);
+        System.out.printf("%-14s %10s %12s %12s %12s %12s %12s %12s%n",
+                "Repository", "Records", "Entities", "Strings", "Indexes", "Caches", "Total", "Bytes/record");
+        long estimated = 0;
+        for (Footprint f : footprints) {
+            System.out.printf("%-14s %10d %12d %12d %12d %12d %12d %12.1f%n", f.getRepository(), f.getEntities(),
+                    f.getEntityBytes(), f.getStringBytes(), f.getIndexBytes(), f.getCacheBytes(), f.getTotal(),
+                    f.getBytesPerEntity());
+            estimated += f.getTotal();
+        }
+        System.out.printf("Estimated total: %.1f MB, measured heap growth: %.1f MB%n", estimated / 1e6, measured / 1e6);
+    }
+
+    /**
+     * force full collections until used heap settles, then read it
+     * @return used heap bytes
+     */
+    private static long usedHeapAfterGc() {
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            long now = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+            if (now >= used) return now;
+            used = now;
+        }
+        return used;
+    }
+}
@@ -0,0 +1,148 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import model.Internship;
+import model.InternshipApplication;
+import model.InternshipFilter;
+import model.Student;
+
+/**
+ * catalogue of repository and controller hot-path benchmarks
+ * mutating flows restore the fixture after each invocation so every size can
+ * share one dataset across all cases
+ */
+public final class HotPathBenchmarks {
+
+    /** prevent instantiation of utility class */
+    private HotPathBenchmarks() { }
+
+    /**
+     * build every benchmark case
+     * @return all benchmark cases in run order
+     */
+    public static List<BenchmarkCase> all() {
+        List<BenchmarkCase> cases = new ArrayList<>();
+
+        // filter with decreasing selectivity: ~60% of rows, ~7% of rows, a handful of rows
+        cases.add(new BenchmarkCase("repository.filter", Map.of("selectivity", "broad"), f -> {
+            InternshipFilter filter = new InternshipFilter().setStatus(Internship.Status.APPROVED);
+            return inv -> f.getInternships().filter(filter);
+        }));
+        cases.add(new BenchmarkCase("repository.filter", Map.of("selectivity", "medium"), f -> {
+            InternshipFilter filter = new InternshipFilter()
+                    .setStatus(Internship.Status.APPROVED).setMajor(DatasetGenerator.MAJORS[0]);
+            return inv -> f.getInternships().filter(filter);
+        }));
+        cases.add(new BenchmarkCase("repository.filter", Map.of("selectivity", "narrow"), f -> {
+            InternshipFilter filter = new InternshipFilter()
+                    .setCompanyName(f.getReps().get(0).getCompany().getCompanyName())
+                    .setLevel(Internship.Level.ADVANCED);
+            return inv -> f.getInternships().filter(filter);
+        }));
+
+        cases.add(new BenchmarkCase("repository.findByLoginId", Map.of(), f -> {
+            List<Student> students = f.getStudents();
+            return inv -> f.getUsers().findByLoginId(pick(students, inv).getLoginId());
+        }));
+        cases.add(new BenchmarkCase("repository.findByStudent", Map.of(), f -> {
+            List<Student> students = f.getStudents();
+            return inv -> f.getApplications().findByStudent(pick(students, inv).getUserId());
+        }));
+        cases.add(new BenchmarkCase("repository.findByInternship", Map.of(), f -> {
+            List<Internship> all = f.getAllInternships();
+            return inv -> f.getApplications().findByInternship(pick(all, inv).getId());
+        }));
+
+        cases.add(new BenchmarkCase("controller.getEligibleInternships", Map.of(), f -> {
+            List<Student> students = f.getStudents();
+            return inv -> f.getStudentController().getEligibleInternships(pick(students, inv));
+        }));
+        cases.add(new BenchmarkCase("controller.getPopularityReport", Map.of(), f ->
+            inv -> f.getStaffController().getPopularityReport()));
+        cases.add(new BenchmarkCase("controller.login", Map.of(), f -> {
+            List<Student> students = f.getStudents();
+            return inv -> f.getLoginController().login(pick(students, inv).getLoginId(), "password");
+        }));
+
+        cases.add(new BenchmarkCase("controller.applyInternship", Map.of(), HotPathBenchmarks::applyFlow));
+        cases.add(new BenchmarkCase("controller.approveApplication", Map.of(), HotPathBenchmarks::approveFlow));
+        cases.add(new BenchmarkCase("controller.acceptInternship", Map.of(), HotPathBenchmarks::acceptFlow));
+        return cases;
+    }
+
+    /**
+     * apply as a fresh student to an open internship, then delete the created application
+     * @param f fixture
+     * @return measured operation
+     */
+    private static BenchmarkCase.Op applyFlow(Fixture f) {
+        List<Internship> open = f.getOpenInternships();
+        return inv -> {
+            Internship in = pick(open, inv);
+            Student s = new Student("BENCH-APPLY-" + inv, "Bench", "bench@e.ntu.edu.sg", 3, in.getMajor());
+            f.getStudentController().applyInternship(s, in);
+            for (InternshipApplication a : f.getApplications().findByStudent(s.getUserId()))
+                f.getApplications().delete(a.getId());
+            return s;
+        };
+    }
+
+    /**
+     * approve a freshly submitted application as representative, then delete it
+     * @param f fixture
+     * @return measured operation
+     */
+    private static BenchmarkCase.Op approveFlow(Fixture f) {
+        List<Internship> open = f.getOpenInternships();
+        return inv -> {
+            Internship in = pick(open, inv);
+            InternshipApplication app = new InternshipApplication("BENCH-APPROVE-" + inv, "BENCH-STUDENT", in.getId());
+            f.getApplications().save(app);
+            f.getRepController().approveApplication(app, in, app.getVersion());
+            f.getApplications().delete(app.getId());
+            return app;
+        };
+    }
+
+    /**
+     * accept a successful offer on a dedicated internship, then delete both records
+     * a dedicated internship is used because confirmed slots cannot be released
+     * @param f fixture
+     * @return measured operation
+     */
+    private static BenchmarkCase.Op acceptFlow(Fixture f) {
+        Internship template = f.getOpenInternships().get(0);
+        return inv -> {
+            Internship in = new Internship("BENCH-INT-" + inv, "Bench", "desc", Internship.Level.BASIC,
+                    template.getMajor(), template.getStartDate(), template.getEndDate(),
+                    template.getCr(), 10, true, template.getCompany());
+            in.setStatus(Internship.Status.APPROVED);
+            f.getInternships().save(in);
+
+            Student s = new Student("BENCH-ACCEPT-" + inv, "Bench", "bench@e.ntu.edu.sg", 3, in.getMajor());
+            InternshipApplication app = new InternshipApplication("BENCH-APP-" + inv, s.getUserId(), in.getId());
+            app.setStatus(InternshipApplication.Status.SUCCESSFUL);
+            f.getApplications().save(app);
+
+            f.getStudentController().acceptInternship(s, app, in);
+
+            f.getApplications().delete(app.getId());
+            f.getInternships().delete(in.getId());
+            return app;
+        };
+    }
+
+    /**
+     * rotate through a list using invocation counter
+     * @param <T> element type
+     * @param list source list, must not be empty
+     * @param inv invocation counter
+     * @return selected element
+     */
+    private static <T> T pick(List<T> list, long inv) {
+        return list.get((int) ((inv * 7919) % list.size()));
+    }
+}
@@ -0,0 +1,168 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * minimal JSON reader for benchmark result files, so baselines can be compared offline
+ * without a parsing library
+ * objects become LinkedHashMap, arrays ArrayList, numbers Double, and null stays null
+ */
+final class Json {
+
+    /** text being parsed */
+    private final String text;
+
+    /** current read position */
+    private int pos;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    /**
+     * parse one JSON document
+     * @param text JSON text
+     * @return parsed value
+     * @throws IllegalArgumentException if text is not valid JSON
+     */
+    static Object parse(String text) {
+        Json p = new Json(text);
+        Object value = p.value();
+        p.skipWhitespace();
+        if (p.pos != text.length()) throw p.error("Unexpected trailing content");
+        return value;
+    }
+
+    /**
+     * parse value at current position
+     * @return parsed value
+     */
+    private Object value() {
+        skipWhitespace();
+        if (pos >= text.length()) throw error("Unexpected end of input");
+        char c = text.charAt(pos);
+        return switch (c) {
+            case '{' -> object();
+            case '[' -> array();
+            case '"' -> string();
+            case 't' -> literal("true", Boolean.TRUE);
+            case 'f' -> literal("false", Boolean.FALSE);
+            case 'n' -> literal("null", null);
+            default -> number();
+        };
+    }
+
+    /** @return parsed object, keys in document order */
+    private Map<String, Object> object() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        pos++;
+        skipWhitespace();
+        if (peek() == '}') { pos++; return map; }
+        while (true) {
+            skipWhitespace();
+            if (peek() != '"') throw error("Expected object key");
+            String key = string();
+            skipWhitespace();
+            expect(':');
+            map.put(key, value());
+            skipWhitespace();
+            if (peek() == ',') { pos++; continue; }
+            expect('}');
+            return map;
+        }
+    }
+
+    /** @return parsed array */
+    private List<Object> array() {
+        List<Object> list = new ArrayList<>();
+        pos++;
+        skipWhitespace();
+        if (peek() == ']') { pos++; return list; }
+        while (true) {
+            list.add(value());
+            skipWhitespace();
+            if (peek() == ',') { pos++; continue; }
+            expect(']');
+            return list;
+        }
+    }
+
+    /** @return parsed string with escapes resolved */
+    private String string() {
+        expect('"');
+        StringBuilder sb = new StringBuilder();
+        while (pos < text.length()) {
+            char c = text.charAt(pos++);
+            if (c == '"') return sb.toString();
+            if (c != '\\') { sb.append(c); continue; }
+            if (pos >= text.length()) break;
+            char e = text.charAt(pos++);
+            switch (e) {
+                case 'n' -> sb.append('\n');
+                case 't' -> sb.append('\t');
+                case 'r' -> sb.append('\r');
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'u' -> {
+                    if (pos + 4 > text.length()) throw error("Bad unicode escape");
+                    sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                    pos += 4;
+                }
+                default -> sb.append(e);
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    /** @return parsed number as double */
+    private Double number() {
+        int start = pos;
+        while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) pos++;
+        if (start == pos) throw error("Unexpected character '" + text.charAt(pos) + "'");
+        try {
+            return Double.valueOf(text.substring(start, pos));
+        } catch (NumberFormatException e) {
+            throw error("Bad number " + text.substring(start, pos));
+        }
+    }
+
+    /**
+     * consume a fixed literal
+     * @param word expected literal
+     * @param value value it stands for
+     * @return value
+     */
+    private Object literal(String word, Object value) {
+        if (!text.startsWith(word, pos)) throw error("Expected " + word);
+        pos += word.length();
+        return value;
+    }
+
+    /** @param c expected character, consumed */
+    private void expect(char c) {
+        if (peek() != c) throw error("Expected '" + c + "'");
+        pos++;
+    }
+
+    /** @return character at current position, or 0 at end of input */
+    private char peek() {
+        return pos < text.length() ? text.charAt(pos) : 0;
+    }
+
+    /** advance past whitespace */
+    private void skipWhitespace() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) pos++;
+    }
+
+    /**
+     * build parse error with position
+     * @param message problem description
+     * @return exception to throw
+     */
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at offset " + pos);
+    }
+}
@@ -0,0 +1,399 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import controller.CompanyRepController;
+import controller.LoginController;
+import controller.StaffController;
+import controller.StudentController;
+import metrics.Histogram;
+import model.CompanyRepresentative;
+import model.Internship;
+import model.InternshipApplication;
+import model.InternshipFilter;
+import model.RepDashboard;
+import model.Staff;
+import model.Student;
+import model.User;
+import session.Session;
+
+/**
+ * load driver simulating concurrent students, representatives and staff against the controller layer
+ * each simulated user runs a scripted session (login, browse, act, logout) and every controller
+ * call is timed into a per-operation latency histogram
+ *
+ * closed loop: a fixed number of users each start their next session as soon as the previous one
+ * ends (plus think time), so offered load adapts to response time
+ * open loop: sessions arrive as a poisson process at a fixed rate regardless of how fast earlier
+ * ones finish; session latency is measured from the intended arrival time so queueing delay
+ * under overload is not hidden
+ *
+ * usage: java -cp bin bench.LoadDriver [--size 10000] [--mode closed|open] [--users 32] [--rate 200]
+ *        [--duration 30] [--think-ms 0] [--seed 42]
+ */
+public class LoadDriver {
+
+    /** arrival mode */
+    public enum Mode { CLOSED, OPEN }
+
+    /** share of sessions run by students, in percent */
+    private static final int STUDENT_SHARE = 80;
+
+    /** share of sessions run by representatives, in percent; staff take the rest */
+    private static final int REP_SHARE = 15;
+
+    /** withdrawal requests a staff session lists, as on the staff review screen */
+    private static final int STAFF_PAGE = 50;
+
+    /** dataset size passed to fixture */
+    private int size = 10_000;
+
+    /** arrival mode */
+    private Mode mode = Mode.CLOSED;
+
+    /** concurrent users in closed loop, worker threads in open loop */
+    private int users = 32;
+
+    /** session arrivals per second in open loop */
+    private double rate = 200;
+
+    /** test duration in seconds */
+    private int durationSeconds = 30;
+
+    /** pause between sessions of one closed-loop user in milliseconds */
+    private long thinkMillis = 0;
+
+    /** random seed for fixture and session choices */
+    private long seed = 42;
+
+    /** latency per operation name, nanoseconds */
+    private final Map<String, Histogram> latencies = new ConcurrentHashMap<>();
+
+    /** business rule rejections per operation, e.g. applying to a full internship */
+    private final Map<String, LongAdder> rejections = new ConcurrentHashMap<>();
+
+    /** unexpected failures per operation */
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    /** fixture under load */
+    private Fixture fixture;
+
+    /** staff accounts of fixture */
+    private List<Staff> staff;
+
+    /** wall time of the run, used for throughput */
+    private long elapsedNanos;
+
+    /**
+     * entry point
+     * @param args command line options
+     * @throws InterruptedException if interrupted while waiting for workers
+     */
+    public static void main(String[] args) throws InterruptedException {
+        LoadDriver driver = new LoadDriver();
+        driver.parse(args);
+        driver.run();
+        driver.report();
+    }
+
+    /**
+     * parse command line options
+     * @param args command line options
+     */
+    void parse(String[] args) {
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String v = args[i + 1];
+            switch (args[i]) {
+                case "--size" -> size = Integer.parseInt(v);
+                case "--mode" -> mode = Mode.valueOf(v.toUpperCase());
+                case "--users", "--threads" -> users = Integer.parseInt(v);
+                case "--rate" -> rate = Double.parseDouble(v);
+                case "--duration" -> durationSeconds = Integer.parseInt(v);
+                case "--think-ms" -> thinkMillis = Long.parseLong(v);
+                case "--seed" -> seed = Long.parseLong(v);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+    }
+
+    /**
+     * build fixture and drive load for configured duration
+     * @throws InterruptedException if interrupted while waiting for workers
+     */
+    public void run() throws InterruptedException {
+        fixture = new Fixture(size, seed);
+        staff = fixture.getUsers().streamStaffs().collect(Collectors.toList());
+        System.out.printf("Driving %s-loop load: size=%d, %s=%d%s, duration=%ds%n",
+                mode.name().toLowerCase(), size, mode == Mode.CLOSED ? "users" : "threads", users,
+                mode == Mode.OPEN ? ", rate=" + rate + "/s" : "", durationSeconds);
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+        if (mode == Mode.CLOSED) runClosed(deadline);
+        else runOpen(start, deadline);
+        elapsedNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * closed loop: each user thread runs sessions back to back until deadline
+     * @param deadline nanoTime at which users stop starting sessions
+     * @throws InterruptedException if interrupted while waiting for workers
+     */
+    private void runClosed(long deadline) throws InterruptedException {
+        SplittableRandom root = new SplittableRandom(seed);
+        List<Thread> threads = new ArrayList<>();
+        for (int u = 0; u < users; u++) {
+            SplittableRandom rnd = root.split();
+            Thread t = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    long begin = System.nanoTime();
+                    runSession(rnd);
+                    latency("session").record(System.nanoTime() - begin);
+                    if (thinkMillis > 0) {
+                        try {
+                            Thread.sleep(thinkMillis);
+                        } catch (InterruptedException ex) {
+                            return;
+                        }
+                    }
+                }
+            }, "load-user-" + u);
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads) t.join();
+    }
+
+    /**
+     * open loop: schedule poisson arrivals and hand each session to worker pool
+     * @param start nanoTime of run start
+     * @param deadline nanoTime after which no more sessions arrive
+     * @throws InterruptedException if interrupted while waiting for workers
+     */
+    private void runOpen(long start, long deadline) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(users);
+        SplittableRandom arrivals = new SplittableRandom(seed);
+        long intended = start;
+        while (true) {
+            intended += (long) (-Math.log(1 - arrivals.nextDouble()) / rate * 1e9);
+            if (intended >= deadline) break;
+
+            long wait = intended - System.nanoTime();
+            if (wait > 0) TimeUnit.NANOSECONDS.sleep(wait);
+
+            long arrival = intended;
+            SplittableRandom rnd = arrivals.split();
+            pool.execute(() -> {
+                runSession(rnd);
+                latency("session").record(System.nanoTime() - arrival);
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.HOURS);
+    }
+
+    /**
+     * run one scripted session for a randomly chosen role
+     * @param rnd session random source
+     */
+    private void runSession(SplittableRandom rnd) {
+        int roll = rnd.nextInt(100);
+        if (roll < STUDENT_SHARE) studentSession(rnd);
+        else if (roll < STUDENT_SHARE + REP_SHARE) repSession(rnd);
+        else staffSession(rnd);
+    }
+
+    /**
+     * student session: login, browse with filter, apply, then accept an offer or request withdrawal
+     * @param rnd session random source
+     */
+    private void studentSession(SplittableRandom rnd) {
+        StudentController sc = fixture.getStudentController();
+        List<Student> students = fixture.getStudents();
+        Student student = students.get(rnd.nextInt(students.size()));
+        Session session = login(student);
+        if (session == null) return;
+
+        InternshipFilter filter = new InternshipFilter();
+        if (rnd.nextBoolean()) filter.setLevel(Internship.Level.values()[rnd.nextInt(3)]);
+        List<Internship> eligible = timed("student.browse", () -> sc.getEligibleInternships(session, filter));
+
+        if (eligible != null && !eligible.isEmpty()) {
+            Internship target = eligible.get(rnd.nextInt(eligible.size()));
+            timed("student.apply", () -> {
+                sc.applyInternship(student, target);
+                return null;
+            });
+        }
+
+        List<InternshipApplication> mine = timed("student.applications", () -> sc.getInternshipApplications(student));
+        if (mine != null) {
+            for (InternshipApplication app : mine) {
+                if (app.getStatus() == InternshipApplication.Status.SUCCESSFUL && !app.studentAccepted()
+                        && rnd.nextInt(2) == 0) {
+                    Internship in = sc.getInternshipById(app.getInternshipId());
+                    timed("student.accept", () -> {
+                        sc.acceptInternship(student, app, in);
+                        return null;
+                    });
+                    break;
+                }
+                if (app.isPending() && !app.isWithdrawalRequested() && rnd.nextInt(20) == 0) {
+                    timed("student.requestWithdrawal", () -> {
+                        sc.withdrawFromInternship(student, app);
+                        return null;
+                    });
+                    break;
+                }
+            }
+        }
+        logout(session);
+    }
+
+    /**
+     * representative session: login, view dashboard, approve or reject one pending application
+     * @param rnd session random source
+     */
+    private void repSession(SplittableRandom rnd) {
+        CompanyRepController rc = fixture.getRepController();
+        List<CompanyRepresentative> reps = fixture.getReps();
+        CompanyRepresentative rep = reps.get(rnd.nextInt(reps.size()));
+        Session session = login(rep);
+        if (session == null) return;
+
+        RepDashboard dashboard = timed("rep.dashboard", () -> rc.getDashboard(rep));
+        if (dashboard != null) {
+            for (RepDashboard.Posting posting : dashboard.getPostings()) {
+                if (posting.getApplicationCount(InternshipApplication.Status.PENDING) == 0) continue;
+                Internship in = posting.getInternship();
+                List<InternshipApplication> apps = timed("rep.applications",
+                        () -> rc.getInternshipApplications(in.getId()));
+                InternshipApplication pending = apps == null ? null
+                        : apps.stream().filter(InternshipApplication::isPending).findFirst().orElse(null);
+                if (pending != null) {
+                    boolean approve = rnd.nextInt(10) < 7;
+                    timed(approve ? "rep.approve" : "rep.reject", () -> {
+                        if (approve) rc.approveApplication(pending, in, pending.getVersion());
+                        else rc.rejectApplication(pending, pending.getVersion());
+                        return null;
+                    });
+                }
+                break;
+            }
+        }
+        logout(session);
+    }
+
+    /**
+     * staff session: login, list the longest waiting withdrawal requests and approve one,
+     * occasionally run popularity report
+     * @param rnd session random source
+     */
+    private void staffSession(SplittableRandom rnd) {
+        StaffController st = fixture.getStaffController();
+        Staff member = staff.get(rnd.nextInt(staff.size()));
+        Session session = login(member);
+        if (session == null) return;
+
+        List<InternshipApplication> requests = timed("staff.withdrawalRequests", () -> st.getWithdrawalRequests(STAFF_PAGE));
+        if (requests != null && !requests.isEmpty()) {
+            InternshipApplication app = requests.get(rnd.nextInt(requests.size()));
+            timed("staff.approveWithdrawal", () -> {
+                st.approveWithdrawal(app, app.getVersion());
+                return null;
+            });
+        }
+        if (rnd.nextInt(5) == 0) timed("staff.popularityReport", st::getPopularityReport);
+        logout(session);
+    }
+
+    /**
+     * timed login opening a session
+     * @param user user logging in with default password
+     * @return session, null on failure
+     */
+    private Session login(User user) {
+        LoginController lc = fixture.getLoginController();
+        Session session = timed("login", () -> lc.openSession(user.getLoginId(), "password"));
+        if (session == null) counter(rejections, "login").increment();
+        return session;
+    }
+
+    /**
+     * timed logout ending the session
+     * @param session session to end
+     */
+    private void logout(Session session) {
+        LoginController lc = fixture.getLoginController();
+        timed("logout", () -> {
+            lc.logout(session);
+            return null;
+        });
+    }
+
+    /**
+     * run and time one controller call
+     * business rule violations are counted as rejections, other exceptions as errors
+     * @param <T> result type
+     * @param op operation name
+     * @param call controller call
+     * @return call result, null if it threw
+     */
+    private <T> T timed(String op, Supplier<T> call) {
+        long begin = System.nanoTime();
+        try {
+            return call.get();
+        } catch (IllegalStateException | IllegalArgumentException ex) {
+            counter(rejections, op).increment();
+            return null;
+        } catch (RuntimeException ex) {
+            counter(errors, op).increment();
+            return null;
+        } finally {
+            latency(op).record(System.nanoTime() - begin);
+        }
+    }
+
+    /** @param op operation name @return histogram of operation, created on first use */
+    private Histogram latency(String op) {
+        return latencies.computeIfAbsent(op, k -> new Histogram());
+    }
+
+    /** @param map counter map @param op operation name @return counter of operation, created on first use */
+    private static LongAdder counter(Map<String, LongAdder> map, String op) {
+        return map.computeIfAbsent(op, k -> new LongAdder());
+    }
+
+    /**
+     * print per-operation throughput and latency percentiles
+     */
+    public void report() {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%n%-28s %10s %10s %9s %7s %10s %10s %10s %10s%n",
+                "Operation", "Count", "Ops/s", "Rejected", "Errors", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Map.Entry<String, Histogram> e : new TreeMap<>(latencies).entrySet()) {
+            Histogram h = e.getValue();
+            System.out.printf("%-28s %10d %10.1f %9d %7d %10.3f %10.3f %10.3f %10.3f%n",
+                    e.getKey(), h.count(), h.count() / seconds,
+                    sumOf(rejections, e.getKey()), sumOf(errors, e.getKey()),
+                    h.percentile(50) / 1e6, h.percentile(99) / 1e6, h.percentile(99.9) / 1e6, h.max() / 1e6);
+        }
+    }
+
+    /** @param map counter map @param op operation name @return counter value, 0 if absent */
+    private static long sumOf(Map<String, LongAdder> map, String op) {
+        LongAdder a = map.get(op);
+        return a == null ? 0 : a.sum();
+    }
+}
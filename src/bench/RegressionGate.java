@@ -0,0 +1,311 @@
+package bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * benchmark regression gate for CI
+ * runs a fixed subset of repository and controller benchmarks (filtering, lookups, browsing,
+ * login and apply) and compares each result against a stored baseline JSON file
+ *
+ * a case regresses when a one-sided welch t-test on the iteration samples shows, at the 99%
+ * level, that current throughput is below the baseline mean less the tolerance. the test
+ * allows for unequal variances and iteration counts, so the default five iterations can detect
+ * a drop of the tolerance on a steady benchmark while noisy runs still pass rather than flake.
+ * bytes allocated per operation are compared too, since allocation is nearly deterministic
+ * and a new allocation on a path that used to be allocation-free is a regression on its own
+ *
+ * everything runs in-process against a generated fixture, with no network access
+ * exits with status 1 and a diff report if anything regressed or a baseline benchmark was not
+ * run, and with status 2 if there is no baseline and --update was not given
+ *
+ * usage: java -cp bin bench.RegressionGate [--baseline bench-baseline.json] [--tolerance 0.10]
+ *        [--update] [runner options, e.g. --sizes 10000 --iterations 5]
+ */
+public class RegressionGate {
+
+    /** benchmarks gated by default */
+    static final String GATED = "^(repository\\.(filter|findBy.*)|controller\\.(login|applyInternship|getEligibleInternships))$";
+
+    /** allocation growth in bytes per operation ignored as measurement noise */
+    private static final double ALLOC_SLACK_BYTES = 16;
+
+    /** one-sided 99% student t quantiles for 1 to 30 degrees of freedom */
+    private static final double[] T_99 = {
+        31.82, 6.965, 4.541, 3.747, 3.365, 3.143, 2.998, 2.896, 2.821, 2.764,
+        2.718, 2.681, 2.650, 2.624, 2.602, 2.583, 2.567, 2.552, 2.539, 2.528,
+        2.518, 2.508, 2.500, 2.492, 2.485, 2.479, 2.473, 2.467, 2.462, 2.457
+    };
+
+    /** verdict for one benchmark key */
+    enum Verdict { OK, IMPROVED, REGRESSED, NEW, MISSING }
+
+    /**
+     * comparison of one benchmark between baseline and current run
+     */
+    static final class Comparison {
+        final String key;
+        final BenchmarkResult baseline;
+        final BenchmarkResult current;
+        final Verdict verdict;
+        final String reason;
+
+        Comparison(String key, BenchmarkResult baseline, BenchmarkResult current, Verdict verdict, String reason) {
+            this.key = key;
+            this.baseline = baseline;
+            this.current = current;
+            this.verdict = verdict;
+            this.reason = reason;
+        }
+    }
+
+    /** allowed relative throughput drop or allocation growth */
+    private final double tolerance;
+
+    /**
+     * create gate
+     * @param tolerance allowed relative change, e.g. 0.10 for 10%
+     */
+    public RegressionGate(double tolerance) {
+        if (tolerance < 0) throw new IllegalArgumentException("Tolerance must not be negative: " + tolerance);
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * entry point
+     * @param args gate options followed by any BenchmarkRunner options
+     * @throws IOException if baseline cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        Path baselinePath = Path.of("bench-baseline.json");
+        double tolerance = 0.10;
+        boolean update = false;
+        List<String> runnerArgs = new ArrayList<>(List.of(
+                "--sizes", "10000", "--warmup", "3", "--iterations", "5", "--time", "1000",
+                "--include", GATED, "--out", "-"));
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--baseline" -> baselinePath = Path.of(args[++i]);
+                case "--tolerance" -> tolerance = Double.parseDouble(args[++i]);
+                case "--update" -> update = true;
+                default -> runnerArgs.add(args[i]);
+            }
+        }
+
+        BenchmarkRunner runner = new BenchmarkRunner();
+        runner.parse(runnerArgs.toArray(new String[0]));
+        List<BenchmarkResult> current = runner.run(HotPathBenchmarks.all());
+
+        if (update) {
+            Files.writeString(baselinePath, BenchmarkResult.toJson(current));
+            System.out.println("Baseline written to " + baselinePath.toAbsolutePath());
+            return;
+        }
+        if (!Files.exists(baselinePath)) {
+            System.out.println("FAILED: no baseline at " + baselinePath.toAbsolutePath() + ", rerun with --update to record one");
+            System.exit(2);
+        }
+
+        List<BenchmarkResult> baseline = BenchmarkResult.fromJson(Files.readString(baselinePath));
+        RegressionGate gate = new RegressionGate(tolerance);
+        List<Comparison> report = gate.compare(baseline, current);
+        System.out.println();
+        System.out.print(gate.render(report));
+
+        long regressed = report.stream().filter(c -> c.verdict == Verdict.REGRESSED).count();
+        long missing = report.stream().filter(c -> c.verdict == Verdict.MISSING).count();
+        if (regressed + missing > 0) {
+            System.out.printf("FAILED: %d benchmark(s) regressed beyond %.0f%% and %d missing against %s%n",
+                    regressed, tolerance * 100, missing, baselinePath);
+            System.exit(1);
+        }
+        System.out.println("PASSED: no regressions beyond " + Math.round(tolerance * 100) + "%");
+    }
+
+    /**
+     * compare every benchmark present in either run
+     * @param baseline stored baseline results
+     * @param current results of this run
+     * @return one comparison per benchmark key, baseline order first
+     */
+    List<Comparison> compare(List<BenchmarkResult> baseline, List<BenchmarkResult> current) {
+        Map<String, BenchmarkResult> now = new LinkedHashMap<>();
+        for (BenchmarkResult r : current) now.put(r.key(), r);
+
+        List<Comparison> out = new ArrayList<>();
+        for (BenchmarkResult b : baseline) {
+            BenchmarkResult c = now.remove(b.key());
+            out.add(c == null
+                    ? new Comparison(b.key(), b, null, Verdict.MISSING, "not run")
+                    : judge(b, c));
+        }
+        for (BenchmarkResult c : now.values()) {
+            out.add(new Comparison(c.key(), null, c, Verdict.NEW, "no baseline"));
+        }
+        return out;
+    }
+
+    /**
+     * judge one benchmark against its baseline
+     * @param b baseline result
+     * @param c current result
+     * @return comparison with verdict and reason
+     */
+    private Comparison judge(BenchmarkResult b, BenchmarkResult c) {
+        double change = relativeChange(b.getScore(), c.getScore());
+
+        TTest slower = TTest.welch(b.getSamples(), 1 - tolerance, c.getSamples());
+        if (slower.significant()) {
+            return new Comparison(b.key(), b, c, Verdict.REGRESSED, String.format(Locale.ROOT,
+                    "throughput %+.1f%%, below baseline less %.0f%% at 99%% (%s)",
+                    change * 100, tolerance * 100, slower));
+        }
+
+        double ba = b.getAllocBytesPerOp();
+        double ca = c.getAllocBytesPerOp();
+        if (!Double.isNaN(ba) && !Double.isNaN(ca)
+                && ca - ba > ALLOC_SLACK_BYTES && ca > ba * (1 + tolerance)) {
+            return new Comparison(b.key(), b, c, Verdict.REGRESSED, String.format(Locale.ROOT,
+                    "allocation %.0f -> %.0f B/op", ba, ca));
+        }
+
+        TTest faster = TTest.welch(c.getSamples(), 1 / (1 + tolerance), b.getSamples());
+        if (faster.significant()) {
+            return new Comparison(b.key(), b, c, Verdict.IMPROVED, String.format(Locale.ROOT,
+                    "throughput %+.1f%% (%s)", change * 100, faster));
+        }
+        return new Comparison(b.key(), b, c, Verdict.OK, String.format(Locale.ROOT,
+                "%+.1f%% within tolerance or noise", change * 100));
+    }
+
+    /**
+     * one-sided welch t-test that factor times the mean of samples a exceeds the mean of samples b
+     * variances are not assumed equal; a side with fewer than two samples counts as exact
+     * @param t test statistic
+     * @param df welch-satterthwaite degrees of freedom, NaN if both sides are exact
+     */
+    record TTest(double t, double df) {
+
+        /**
+         * run the test
+         * @param a samples scaled by factor
+         * @param factor scale applied to a, e.g. 1 - tolerance
+         * @param b samples compared against
+         * @return statistic and degrees of freedom
+         */
+        static TTest welch(double[] a, double factor, double[] b) {
+            double va = factor * factor * variance(a) / Math.max(1, a.length);
+            double vb = variance(b) / Math.max(1, b.length);
+            double diff = factor * mean(a) - mean(b);
+            double se = Math.sqrt(va + vb);
+            if (se == 0) return new TTest(diff > 0 ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY, Double.NaN);
+            double denom = (a.length > 1 ? va * va / (a.length - 1) : 0) + (b.length > 1 ? vb * vb / (b.length - 1) : 0);
+            return new TTest(diff / se, (va + vb) * (va + vb) / denom);
+        }
+
+        /** @return true if t exceeds the one-sided 99% quantile for df, rounded down to be conservative */
+        boolean significant() {
+            return Double.isNaN(df) ? t > 0 : t > quantile((int) Math.max(1, Math.floor(df)));
+        }
+
+        /** @return statistic, degrees of freedom and critical value */
+        @Override
+        public String toString() {
+            return Double.isNaN(df) ? "single samples"
+                    : String.format(Locale.ROOT, "welch t %.2f, df %.1f, critical %.2f",
+                            t, df, quantile((int) Math.max(1, Math.floor(df))));
+        }
+
+        /**
+         * one-sided 99% student t quantile
+         * @param df degrees of freedom
+         * @return quantile value
+         */
+        static double quantile(int df) {
+            if (df <= T_99.length) return T_99[df - 1];
+            if (df <= 40) return 2.423;
+            if (df <= 60) return 2.390;
+            if (df <= 120) return 2.358;
+            return 2.326;
+        }
+
+        /** @param x samples @return arithmetic mean, 0 if empty */
+        private static double mean(double[] x) {
+            double sum = 0;
+            for (double v : x) sum += v;
+            return x.length == 0 ? 0 : sum / x.length;
+        }
+
+        /** @param x samples @return unbiased sample variance, 0 with fewer than two samples */
+        private static double variance(double[] x) {
+            if (x.length < 2) return 0;
+            double m = mean(x);
+            double sq = 0;
+            for (double v : x) sq += (v - m) * (v - m);
+            return sq / (x.length - 1);
+        }
+    }
+
+    /**
+     * render comparisons as a readable diff table, regressions first
+     * @param report comparisons
+     * @return report text
+     */
+    String render(List<Comparison> report) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-10s %-58s %22s %22s %9s %10s %10s%n",
+                "Verdict", "Benchmark", "Baseline (ops/s)", "Current (ops/s)", "Change", "Base B/op", "Cur B/op"));
+        List<Comparison> sorted = new ArrayList<>(report);
+        sorted.sort((x, y) -> Integer.compare(rank(x.verdict), rank(y.verdict)));
+        for (Comparison c : sorted) {
+            sb.append(String.format(Locale.ROOT, "%-10s %-58s %22s %22s %9s %10s %10s%n",
+                    c.verdict, c.key, score(c.baseline), score(c.current),
+                    c.baseline == null || c.current == null ? "-"
+                            : String.format(Locale.ROOT, "%+.1f%%", relativeChange(c.baseline.getScore(), c.current.getScore()) * 100),
+                    alloc(c.baseline), alloc(c.current)));
+            if (c.verdict != Verdict.OK) sb.append("           ").append(c.reason).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /** @param v verdict @return sort rank, most severe first */
+    private static int rank(Verdict v) {
+        return switch (v) {
+            case REGRESSED -> 0;
+            case MISSING -> 1;
+            case NEW -> 2;
+            case IMPROVED -> 3;
+            case OK -> 4;
+        };
+    }
+
+    /** @param r result or null @return "score +- error" */
+    private static String score(BenchmarkResult r) {
+        if (r == null) return "-";
+        double err = r.getScoreError();
+        return Double.isNaN(err)
+                ? String.format(Locale.ROOT, "%.1f", r.getScore())
+                : String.format(Locale.ROOT, "%.1f +- %.1f", r.getScore(), err);
+    }
+
+    /** @param r result or null @return bytes per operation or "-" */
+    private static String alloc(BenchmarkResult r) {
+        return r == null || Double.isNaN(r.getAllocBytesPerOp()) ? "-" : String.format(Locale.ROOT, "%.0f", r.getAllocBytesPerOp());
+    }
+
+    /**
+     * relative change from baseline to current
+     * @param base baseline value
+     * @param now current value
+     * @return (now - base) / base, 0 if base is 0
+     */
+    private static double relativeChange(double base, double now) {
+        return base == 0 ? 0 : (now - base) / base;
+    }
+}
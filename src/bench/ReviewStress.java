@@ -0,0 +1,155 @@
+package bench;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+import controller.StaffController;
+import metrics.Histogram;
+import metrics.MetricsRegistry;
+import model.Internship;
+import repository.VersionConflictException;
+import review.Lease;
+import review.LeaseExpiredException;
+import review.ReviewSources;
+import review.ReviewWorkQueue;
+
+/**
+ * concurrent stress check for the staff review work queue
+ * many reviewer threads drain the pending internships through one queue, each claiming a few
+ * leases at a time and approving them. some reviewers vanish after their first claim without
+ * deciding anything, so their leases must be handed to the others once they count as idle
+ *
+ * every decision is recorded with the reviewer who made it; the run fails if any internship is
+ * decided twice, if any decision hits a version conflict, or if pending internships are left
+ * when the reviewers give up
+ *
+ * prints throughput, claim latency percentiles and lease hand-back counts, and exits with
+ * status 1 on failure
+ *
+ * usage: java -cp bin bench.ReviewStress [--size 10000] [--reviewers 200] [--batch 5]
+ *        [--vanish 10] [--idle-ms 200] [--seed 42]
+ */
+public class ReviewStress {
+
+    /** time after which reviewers give up waiting for work */
+    private static final long GIVE_UP_NANOS = 60_000_000_000L;
+
+    /**
+     * entry point
+     * @param args command line options
+     * @throws InterruptedException if interrupted while waiting for reviewers
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int size = 10_000;
+        int reviewerCount = 200;
+        int batch = 5;
+        int vanish = 10;
+        long idleMs = 200;
+        long seed = 42;
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + args[i]);
+            String v = args[i + 1];
+            switch (args[i]) {
+                case "--size" -> size = Integer.parseInt(v);
+                case "--reviewers" -> reviewerCount = Integer.parseInt(v);
+                case "--batch" -> batch = Integer.parseInt(v);
+                case "--vanish" -> vanish = Integer.parseInt(v);
+                case "--idle-ms" -> idleMs = Long.parseLong(v);
+                case "--seed" -> seed = Long.parseLong(v);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        Fixture fixture = new Fixture(size, seed);
+        StaffController staff = fixture.getStaffController();
+        ReviewWorkQueue<Internship> queue = new ReviewWorkQueue<>("stress",
+                ReviewSources.internships(fixture.getInternships()),
+                Duration.ofMinutes(15), Duration.ofMillis(idleMs), batch * 2);
+        int initial = queue.getBacklog();
+
+        Map<String, String> decidedBy = new ConcurrentHashMap<>();
+        Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+        Histogram claimLatency = new Histogram();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < reviewerCount; t++) {
+            String reviewerId = "reviewer-" + t;
+            boolean vanishes = t < vanish;
+            int perClaim = batch;
+            Thread w = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long giveUp = System.nanoTime() + GIVE_UP_NANOS;
+                while (queue.getBacklog() > 0 && System.nanoTime() - giveUp < 0) {
+                    long begin = System.nanoTime();
+                    List<Lease<Internship>> leases = queue.claim(reviewerId, perClaim);
+                    claimLatency.record(System.nanoTime() - begin);
+                    if (vanishes && !leases.isEmpty()) return;
+                    if (leases.isEmpty()) {
+                        try {
+                            Thread.sleep(5);
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        continue;
+                    }
+                    for (Lease<Internship> lease : leases) {
+                        String outcome;
+                        try {
+                            queue.complete(lease, (in, version) -> {
+                                String previous = decidedBy.putIfAbsent(in.getId(), reviewerId);
+                                if (previous != null) {
+                                    outcomes.computeIfAbsent("DUPLICATE", k -> new LongAdder()).increment();
+                                    System.out.printf("DUPLICATE %s by %s and %s%n", in.getId(), previous, reviewerId);
+                                }
+                                staff.approveInternship(in, version);
+                            });
+                            outcome = "approved";
+                        } catch (LeaseExpiredException e) {
+                            outcome = "lease expired";
+                        } catch (VersionConflictException e) {
+                            outcome = "version conflict";
+                        }
+                        outcomes.computeIfAbsent(outcome, k -> new LongAdder()).increment();
+                    }
+                }
+            }, reviewerId);
+            workers.add(w);
+            w.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread w : workers) w.join();
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        System.out.printf("%d reviewers (%d vanishing) drained %d pending internships in %.2f s (%.0f decisions/s)%n",
+                reviewerCount, vanish, initial, seconds, decidedBy.size() / seconds);
+        outcomes.forEach((k, v) -> System.out.printf("  %-20s %10d%n", k, v.sum()));
+        long[] p = claimLatency.percentiles(50, 99, 99.9);
+        System.out.printf("Claim latency: p50 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us%n",
+                p[0] / 1e3, p[1] / 1e3, p[2] / 1e3, claimLatency.max() / 1e3);
+        MetricsRegistry.global().getCounters().forEach((k, v) -> {
+            if (k.startsWith("review_leases_revoked_total{queue=stress")) System.out.printf("  %-60s %10d%n", k, v.get());
+        });
+
+        long duplicates = outcomes.getOrDefault("DUPLICATE", new LongAdder()).sum();
+        long conflicts = outcomes.getOrDefault("version conflict", new LongAdder()).sum();
+        int left = queue.getBacklog();
+        if (duplicates > 0 || conflicts > 0 || left > 0) {
+            System.out.printf("FAILED: %d duplicate decisions, %d version conflicts, %d internships left pending%n",
+                    duplicates, conflicts, left);
+            System.exit(1);
+        }
+        System.out.println("PASSED: every pending internship decided exactly once");
+    }
+}
@@ -0,0 +1,80 @@
+package bench;
+
+import java.time.Duration;
+
+import controller.LoginController;
+import model.Student;
+import ratelimit.RateLimiter;
+import session.Session;
+import session.SessionManager;
+import view.ConsoleUtil;
+
+/**
+ * check that session expiry only ends sessions that are actually idle
+ * a student logs in with a short idle timeout and keeps choosing menu actions, each refreshing the
+ * session the way the menus do, for several timeouts in a row; the student must stay logged in
+ * throughout and still be able to change their password at the end. the student then stops, and
+ * the expiry wheel must end the session and log them out
+ *
+ * exits with status 1 on failure
+ *
+ * usage: java -cp bin bench.SessionCheck [--idle-ms 300] [--active-ms 1500] [--think-ms 100]
+ */
+public class SessionCheck {
+
+    /**
+     * entry point
+     * @param args command line options
+     * @throws InterruptedException if interrupted while simulating the user
+     */
+    public static void main(String[] args) throws InterruptedException {
+        long idleMs = 300;
+        long activeMs = 1500;
+        long thinkMs = 100;
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + args[i]);
+            String v = args[i + 1];
+            switch (args[i]) {
+                case "--idle-ms" -> idleMs = Long.parseLong(v);
+                case "--active-ms" -> activeMs = Long.parseLong(v);
+                case "--think-ms" -> thinkMs = Long.parseLong(v);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (thinkMs >= idleMs) throw new IllegalArgumentException("Think time must be shorter than the idle timeout");
+
+        Fixture fixture = new Fixture(100, 42);
+        SessionManager sessions = new SessionManager(Duration.ofMillis(idleMs), Duration.ofMillis(10), 256);
+        LoginController logins = new LoginController(fixture.getUsers(), RateLimiter.unlimited("login"), sessions);
+        Student student = fixture.getStudents().get(0);
+        Session session = logins.openSession(student.getLoginId(), "password");
+        if (session == null) fail("login failed");
+
+        long start = System.nanoTime();
+        int actions = 0;
+        while (System.nanoTime() - start < activeMs * 1_000_000) {
+            Thread.sleep(thinkMs);
+            if (!ConsoleUtil.keepAlive(logins, session)) fail("session expired after " + actions + " actions while active");
+            if (!student.isLoggedIn()) fail("student logged out after " + actions + " actions while active");
+            actions++;
+        }
+        if (!logins.changePassword(student, "password")) fail("password change refused for an active student");
+        System.out.printf("Active for %d ms (%d actions, idle timeout %d ms): still logged in%n",
+                (System.nanoTime() - start) / 1_000_000, actions, idleMs);
+
+        Thread.sleep(idleMs * 2);
+        if (student.isLoggedIn()) fail("idle student still logged in after " + idleMs * 2 + " ms");
+        if (logins.resolveSession(session.getToken()).isPresent()) fail("idle session still resolves");
+        System.out.printf("Idle for %d ms: session expired and student logged out%n", idleMs * 2);
+        System.out.println("PASSED: sessions expire only when idle");
+    }
+
+    /**
+     * report failure and exit
+     * @param reason what went wrong
+     */
+    private static void fail(String reason) {
+        System.out.println("FAILED: " + reason);
+        System.exit(1);
+    }
+}
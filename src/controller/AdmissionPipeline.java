@@ -0,0 +1,273 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import metrics.Counter;
+import metrics.Histogram;
+import metrics.MetricsRegistry;
+import metrics.Timer;
+import model.Internship;
+import model.InternshipApplication;
+import model.Student;
+import transaction.TransactionManager;
+
+/**
+ * admission pipeline in front of StudentController.applyInternship for application rushes
+ *
+ * submit() only places the request in a bounded queue and returns a future, so callers are
+ * acknowledged asynchronously. a single daemon thread drains the queue in batches; each batch is
+ * decided as one unit of work holding the lock stripes of every student in it, and all admitted
+ * applications are stored with one batched repository write, so index maintenance, locking and
+ * the transaction log record are paid once per batch instead of once per request. a rule
+ * violation fails only that request's future; any other failure while deciding a request aborts
+ * the unit, fails that request alone and decides the rest of the batch again without it, and a
+ * batch that fails to commit is retried one request per unit so the failure stays with its cause
+ *
+ * if the worker thread dies, every queued request fails instead of waiting forever, and the next
+ * submit starts a fresh worker
+ *
+ * when the queue is full, submit() fails at once with AdmissionRejectedException carrying a
+ * retry-after estimate from the current backlog and recent per-request cost, so latency stays
+ * bounded by the queue capacity instead of growing without limit
+ */
+class AdmissionPipeline {
+
+    /** lower bound on retry-after hints, in milliseconds */
+    private static final long MIN_RETRY_AFTER_MILLIS = 100;
+
+    /** requests admitted and stored */
+    private static final Counter ADMITTED = MetricsRegistry.global().counter("admissions_total{result=admitted}");
+
+    /** requests refused by an admission rule */
+    private static final Counter REFUSED = MetricsRegistry.global().counter("admissions_total{result=refused}");
+
+    /** requests failed by an error other than an admission rule */
+    private static final Counter FAILED = MetricsRegistry.global().counter("admissions_total{result=failed}");
+
+    /** requests turned away because the queue was full */
+    private static final Counter REJECTED = MetricsRegistry.global().counter("admissions_total{result=rejected}");
+
+    /** number of requests per processed batch */
+    private static final Histogram BATCH_ROWS = MetricsRegistry.global().histogram("AdmissionPipeline.batch.rows");
+
+    /** time requests spend queued before their batch starts */
+    private static final Timer QUEUE_WAIT = MetricsRegistry.global().timer("AdmissionPipeline.queueWait");
+
+    /**
+     * one queued application
+     */
+    private static final class Request {
+        final Student student;
+        final Internship internship;
+        final CompletableFuture<InternshipApplication> result = new CompletableFuture<>();
+        final long enqueuedAt = System.nanoTime();
+
+        Request(Student student, Internship internship) {
+            this.student = student;
+            this.internship = internship;
+        }
+    }
+
+    /** controller whose admission rules decide each request */
+    private final StudentController students;
+
+    /** transaction manager the batches run in */
+    private final TransactionManager transactions;
+
+    /** bounded hand-off between submitters and the worker */
+    private final BlockingQueue<Request> queue;
+
+    /** maximum requests decided per batch */
+    private final int maxBatch;
+
+    /** smoothed processing cost per request in nanoseconds, for retry-after hints */
+    private volatile double nanosPerRequest = 50_000;
+
+    /** worker thread, started on first submit and again after it dies */
+    private Thread worker;
+
+    /**
+     * create pipeline; the worker thread starts on first submit
+     * @param students controller providing the admission rules
+     * @param transactions transaction manager batches run in
+     * @param capacity maximum queued requests
+     * @param maxBatch maximum requests per batch
+     */
+    AdmissionPipeline(StudentController students, TransactionManager transactions, int capacity, int maxBatch) {
+        if (capacity < 1 || maxBatch < 1)
+            throw new IllegalArgumentException("Capacity and batch size must be positive");
+        this.students = students;
+        this.transactions = transactions;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatch = maxBatch;
+        MetricsRegistry.global().gauge("admission_queue_depth", queue::size);
+    }
+
+    /**
+     * queue an application without blocking
+     * @param student user applying
+     * @param internship internship being applied for
+     * @return future completing with the stored application, or failing with the rule violation;
+     *         already failed with AdmissionRejectedException if the queue is full
+     */
+    CompletableFuture<InternshipApplication> submit(Student student, Internship internship) {
+        Request r = new Request(student, internship);
+        if (!queue.offer(r)) {
+            REJECTED.inc();
+            return CompletableFuture.failedFuture(new AdmissionRejectedException(retryAfterMillis()));
+        }
+        // checked after queueing: a dying worker clears itself before failing the queue, so a
+        // request is either failed by it or picked up by the worker started here
+        ensureStarted();
+        return r.result;
+    }
+
+    /** @return estimated time to work off the current backlog, in milliseconds */
+    long retryAfterMillis() {
+        return Math.max(MIN_RETRY_AFTER_MILLIS, (long) (queue.size() * nanosPerRequest / 1e6));
+    }
+
+    /** start worker thread if not yet running */
+    private synchronized void ensureStarted() {
+        if (worker != null) return;
+        worker = new Thread(this::drain, "admission-pipeline");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * worker loop: take a batch, decide it, complete its futures
+     * a batch that still throws has its open futures failed and the loop carries on; if the
+     * thread ends anyway, the requests in hand and every queued request fail
+     */
+    private void drain() {
+        List<Request> batch = new ArrayList<>(maxBatch);
+        Throwable cause = null;
+        try {
+            while (true) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException ex) {
+                    cause = ex;
+                    return;
+                }
+                queue.drainTo(batch, maxBatch - 1);
+                long start = System.nanoTime();
+                try {
+                    process(batch);
+                } catch (RuntimeException e) {
+                    fail(batch, e);
+                }
+                double perRequest = (System.nanoTime() - start) / (double) batch.size();
+                nanosPerRequest = 0.8 * nanosPerRequest + 0.2 * perRequest;
+                batch.clear();
+            }
+        } catch (Throwable t) {
+            cause = t;
+            throw t;
+        } finally {
+            synchronized (this) {
+                if (worker == Thread.currentThread()) worker = null;
+            }
+            IllegalStateException stopped = new IllegalStateException("Admission pipeline stopped", cause);
+            fail(batch, stopped);
+            List<Request> queued = new ArrayList<>();
+            queue.drainTo(queued);
+            fail(queued, stopped);
+        }
+    }
+
+    /**
+     * fail every request whose future is still open
+     * @param requests requests to fail
+     * @param e failure to complete them with
+     */
+    private static void fail(List<Request> requests, Throwable e) {
+        for (Request r : requests) {
+            if (r.result.completeExceptionally(e)) FAILED.inc();
+        }
+    }
+
+    /**
+     * record a batch's size and queue waits, then decide it
+     * @param batch requests in arrival order
+     */
+    private void process(List<Request> batch) {
+        BATCH_ROWS.record(batch.size());
+        long now = System.nanoTime();
+        for (Request r : batch) QUEUE_WAIT.record(now - r.enqueuedAt);
+        decide(batch);
+    }
+
+    /**
+     * decide requests as one unit of work and complete every request's future
+     * a request failing with anything but a rule violation aborts the unit; it fails alone and
+     * the rest are decided again without it. if the unit fails to commit for another reason,
+     * each request is decided again in a unit of its own
+     * @param batch requests in arrival order
+     */
+    private void decide(List<Request> batch) {
+        List<Request> remaining = new ArrayList<>(batch);
+        while (!remaining.isEmpty()) {
+            int[] failedAt = {-1};
+            List<InternshipApplication> admitted = new ArrayList<>(remaining.size());
+            List<RuntimeException> refused = new ArrayList<>(remaining.size());
+            Set<String> keys = new LinkedHashSet<>();
+            for (Request r : remaining) keys.add(TransactionManager.studentKey(r.student.getUserId()));
+            try {
+                transactions.run("admitBatch", keys, tx -> {
+                    for (int i = 0; i < remaining.size(); i++) {
+                        Request r = remaining.get(i);
+                        try {
+                            admitted.add(students.admit(tx, r.student, r.internship));
+                            refused.add(null);
+                        } catch (IllegalArgumentException | IllegalStateException e) {
+                            admitted.add(null);
+                            refused.add(e);
+                        } catch (RuntimeException e) {
+                            failedAt[0] = i;
+                            throw e;
+                        }
+                    }
+                });
+            } catch (RuntimeException e) {
+                if (failedAt[0] >= 0) {
+                    fail(List.of(remaining.remove(failedAt[0])), e);
+                    continue;
+                }
+                if (remaining.size() == 1) {
+                    fail(remaining, e);
+                    return;
+                }
+                for (Request r : remaining) decide(List.of(r));
+                return;
+            }
+            complete(remaining, admitted, refused);
+            return;
+        }
+    }
+
+    /**
+     * complete the futures of a committed unit
+     * @param batch requests in arrival order
+     * @param admitted stored application per request, or null if refused
+     * @param refused rule violation per request, or null if admitted
+     */
+    private static void complete(List<Request> batch, List<InternshipApplication> admitted,
+                                 List<RuntimeException> refused) {
+        for (int i = 0; i < batch.size(); i++) {
+            if (admitted.get(i) != null) {
+                ADMITTED.inc();
+                batch.get(i).result.complete(admitted.get(i));
+            } else {
+                REFUSED.inc();
+                batch.get(i).result.completeExceptionally(refused.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package controller;
+
+/**
+ * thrown when the admission pipeline is saturated and cannot queue another application
+ * the request was not recorded; the caller should retry after the suggested delay
+ */
+public class AdmissionRejectedException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    /** suggested delay before retrying, in milliseconds */
+    private final long retryAfterMillis;
+
+    /**
+     * create rejection
+     * @param retryAfterMillis suggested delay before retrying, in milliseconds
+     */
+    public AdmissionRejectedException(long retryAfterMillis) {
+        super("Too many applications are being processed right now. Please try again in "
+                + Math.max(1, (retryAfterMillis + 999) / 1000) + " s.");
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    /** @return suggested delay before retrying, in milliseconds */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
@@ -0,0 +1,55 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import model.ApplicationView;
+import model.Internship;
+import model.InternshipApplication;
+import model.Student;
+import model.User;
+import repository.InternshipRepository;
+import repository.UserRepository;
+
+/**
+ * helper shared by controllers to join applications with their internships and students
+ * collects every referenced id first and resolves them with one bulk call per repository
+ */
+final class ApplicationViews {
+
+    /** prevent instantiation of utility class */
+    private ApplicationViews() { }
+
+    /**
+     * join applications with referenced internships and students in one pass
+     * @param apps applications to join, order is preserved
+     * @param internships repository used to resolve internships
+     * @param users repository used to resolve students
+     * @return joined views in same order as input applications
+     */
+    static List<ApplicationView> join(List<InternshipApplication> apps,
+                                      InternshipRepository internships,
+                                      UserRepository users) {
+        Set<String> internshipIds = new HashSet<>();
+        Set<String> studentIds = new HashSet<>();
+        for (InternshipApplication a : apps) {
+            internshipIds.add(a.getInternshipId());
+            studentIds.add(a.getStudentId());
+        }
+
+        Map<String, Internship> internshipById = internships.findAllById(internshipIds);
+        Map<String, User> userById = users.findAllById(studentIds);
+
+        List<ApplicationView> views = new ArrayList<>(apps.size());
+        for (InternshipApplication a : apps) {
+            User u = userById.get(a.getStudentId());
+            views.add(new ApplicationView(a,
+                    internshipById.get(a.getInternshipId()),
+                    u instanceof Student s ? s : null));
+        }
+        return views;
+    }
+}
@@ -0,0 +1,54 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * outcome of a batch staff decision
+ * lists the ids the decision was applied to and, for every item left out, why it was skipped:
+ * already decided, or changed by someone else while the batch was being applied
+ */
+public class BatchResult {
+
+    /** ids the decision was applied to, in request order */
+    private final List<String> applied = new ArrayList<>();
+
+    /** skipped ids with reason, in request order */
+    private final Map<String, String> skipped = new LinkedHashMap<>();
+
+    /**
+     * record an applied item
+     * @param id entity id
+     */
+    void applied(String id) {
+        applied.add(id);
+    }
+
+    /**
+     * record a skipped item
+     * @param id entity id
+     * @param reason readable reason
+     */
+    void skipped(String id, String reason) {
+        skipped.put(id, reason);
+    }
+
+    /** @return ids the decision was applied to */
+    public List<String> getApplied() {
+        return Collections.unmodifiableList(applied);
+    }
+
+    /** @return skipped ids mapped to the reason they were skipped */
+    public Map<String, String> getSkipped() {
+        return Collections.unmodifiableMap(skipped);
+    }
+
+    /** @return one line summary, e.g. "120 applied, 2 skipped" */
+    @Override
+    public String toString() {
+        return applied.size() + " applied, " + skipped.size() + " skipped";
+    }
+}
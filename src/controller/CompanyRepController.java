@@ -1,25 +1,34 @@
 package controller;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import metrics.MetricsRegistry;
+import model.ApplicationView;
 import model.Company;
 import model.CompanyRepresentative;
 import model.Internship;
 import model.InternshipApplication;
 import model.InternshipFilter;
+import model.RepDashboard;
 import model.Student;
 import repository.CompanyRepository;
 import repository.InternshipAppRepository;
 import repository.InternshipRepository;
 import repository.UserRepository;
+import repository.VersionConflictException;
+import transaction.TransactionManager;
 
 /**
  * controller that manages company representative related functions
  * includes internship creation, modification, visibility, registration,
  * application review and filtered retrieval
+ * every public operation is timed into the global metrics registry; operations returning a
+ * lazy stream are timed while the stream is consumed, not while it is built
  */
 public class CompanyRepController {
 
@@ -35,21 +44,27 @@ public class CompanyRepController {
     /** company persistence repository */
     private final CompanyRepository companies;
 
+    /** runs application decisions as all-or-nothing units */
+    private final TransactionManager transactions;
+
     /**
      * create controller with required repository dependencies
      * @param internshipRepo repository storing internships
      * @param internshipAppRepo repository storing internship applications
      * @param userRepo repository storing system users
      * @param companyRepo repository storing companies
+     * @param transactions transaction manager over internship and application repositories
      */
     public CompanyRepController(InternshipRepository internshipRepo, 
                                 InternshipAppRepository internshipAppRepo, 
                                 UserRepository userRepo, 
-                                CompanyRepository companyRepo) {
+                                CompanyRepository companyRepo,
+                                TransactionManager transactions) {
         this.internships = internshipRepo;
         this.internshipApplications = internshipAppRepo;
         this.users = userRepo;
         this.companies = companyRepo;
+        this.transactions = transactions;
     }
 
     /**
@@ -68,14 +83,16 @@ public class CompanyRepController {
     public Internship createInternship(String title, String desc, Internship.Level level, String major,
                                        LocalDate startDate, LocalDate endDate, CompanyRepresentative cr, 
                                        int slots, boolean visibility) {
+        return MetricsRegistry.timed("CompanyRepController.createInternship", () -> {
 
-        Internship internship = new Internship(
-                UUID.randomUUID().toString(), title, desc, level, major,
-                startDate, endDate, cr, slots, visibility, cr.getCompany()
-        );
+            Internship internship = new Internship(
+                    UUID.randomUUID().toString(), title, desc, level, major,
+                    startDate, endDate, cr, slots, visibility, cr.getCompany()
+            );
 
-        internships.save(internship);
-        return internship;
+            internships.save(internship);
+            return internship;
+        });
     }
 
     /**
@@ -84,9 +101,38 @@ public class CompanyRepController {
      * @return list of owned internships
      */
     public List<Internship> getInternshipsByCompanyRep(CompanyRepresentative rep) {
-        return internships.findAll().stream()
-                .filter(i -> i.getCr().getUserId().equals(rep.getUserId()))
-                .toList();
+        return MetricsRegistry.timed("CompanyRepController.getInternshipsByCompanyRep", () -> {
+            return streamInternshipsByCompanyRep(rep).toList();
+        });
+    }
+
+    /**
+     * lazily stream internships created by selected company representative
+     * stream is weakly consistent with concurrent repository writes
+     * @param rep company representative owner
+     * @return stream of owned internships
+     */
+    public Stream<Internship> streamInternshipsByCompanyRep(CompanyRepresentative rep) {
+        return MetricsRegistry.timedStream("CompanyRepController.streamInternshipsByCompanyRep", () -> {
+            return internships.streamByRepresentative(rep.getUserId());
+        });
+    }
+
+    /**
+     * build dashboard of owned postings with application counts by status and remaining slots
+     * uses one representative index lookup and per-posting maintained counters,
+     * so no internship or application list is scanned
+     * @param rep company representative owner
+     * @return dashboard aggregate for representative, postings ordered by title
+     */
+    public RepDashboard getDashboard(CompanyRepresentative rep) {
+        return MetricsRegistry.timed("CompanyRepController.getDashboard", () -> {
+            List<RepDashboard.Posting> postings = internships.streamByRepresentative(rep.getUserId())
+                    .sorted(Comparator.comparing(Internship::getTitle))
+                    .map(i -> new RepDashboard.Posting(i, internshipApplications.countByStatus(i.getId())))
+                    .toList();
+            return new RepDashboard(rep.getUserId(), postings);
+        });
     }
 
     /**
@@ -95,48 +141,97 @@ public class CompanyRepController {
      * @return list of related internship applications
      */
     public List<InternshipApplication> getInternshipApplications(String internshipId) {
-        return internshipApplications.findByInternship(internshipId);
+        return MetricsRegistry.timed("CompanyRepController.getInternshipApplications", () -> {
+            return internshipApplications.findByInternship(internshipId);
+        });
+    }
+
+    /**
+     * count applications submitted for specified internship without listing them
+     * @param internshipId targeted internship identifier
+     * @return number of related internship applications
+     */
+    public int getApplicationCount(String internshipId) {
+        return MetricsRegistry.timed("CompanyRepController.getApplicationCount", () -> {
+            return internshipApplications.countByInternship(internshipId);
+        });
     }
 
     /**
-     * approve pending application if internship is valid and has remaining capacity
+     * lazily stream applications submitted for specified internship
+     * stream is weakly consistent with concurrent repository writes
+     * @param internshipId targeted internship identifier
+     * @return stream of related internship applications
+     */
+    public Stream<InternshipApplication> streamInternshipApplications(String internshipId) {
+        return MetricsRegistry.timedStream("CompanyRepController.streamInternshipApplications", () -> {
+            return internshipApplications.streamByInternship(internshipId);
+        });
+    }
+
+    /**
+     * approve pending application if nobody changed it since the representative read it
+     * runs as one unit of work locking the applicant and the internship, so the capacity check
+     * cannot interleave with a concurrent acceptance filling the last slot
      * @param internshipApplication targeted application entry
-     * @param internship internship to which application belongs
-     * @throws IllegalStateException if invalid state or full capacity
+     * @param internship internship associated with application
+     * @param expectedVersion version of application when the representative read it
+     * @throws VersionConflictException if application was saved by someone else in the meantime
+     * @throws IllegalStateException if status invalid or no capacity
      */
-    public void approveApplication(InternshipApplication internshipApplication, Internship internship) {
-        if (internshipApplication.getStatus() != InternshipApplication.Status.PENDING)
-            throw new IllegalStateException("Only pending applications may be approved.");
-        if (internship.getStatus() != Internship.Status.APPROVED)
-            throw new IllegalStateException("Internship is not approved by Career Center Staff yet!");
-        if (internship.isFull())
-            throw new IllegalStateException("Unable to approve: internship slots are filled.");
-
-        internshipApplication.setStatus(InternshipApplication.Status.SUCCESSFUL);
-        internshipApplications.save(internshipApplication);
+    public void approveApplication(InternshipApplication internshipApplication, Internship internship, long expectedVersion) {
+        MetricsRegistry.timed("CompanyRepController.approveApplication", () -> {
+            List<String> keys = List.of(TransactionManager.studentKey(internshipApplication.getStudentId()),
+                    TransactionManager.internshipKey(internship.getId()));
+            transactions.run("approveApplication", keys, tx -> {
+                InternshipApplication app = tx.edit(internshipApplication, expectedVersion);
+                Internship posting = tx.read(internship);
+                if (app.getStatus() != InternshipApplication.Status.PENDING)
+                    throw new IllegalStateException("Only pending applications may be approved.");
+                if (posting.getStatus() != Internship.Status.APPROVED)
+                    throw new IllegalStateException("Internship is not approved by Career Center Staff yet!");
+                if (posting.isFull())
+                    throw new IllegalStateException("Unable to approve: internship slots are filled.");
+
+                app.setStatus(InternshipApplication.Status.SUCCESSFUL);
+            });
+        });
     }
 
     /**
-     * reject a pending internship application
+     * reject pending application if nobody changed it since the representative read it
      * @param internshipApplication targeted application entry
+     * @param expectedVersion version of application when the representative read it
+     * @throws VersionConflictException if application was saved by someone else in the meantime
      * @throws IllegalStateException if application already resolved
      */
-    public void rejectApplication(InternshipApplication internshipApplication) {
-        if (internshipApplication.getStatus() != InternshipApplication.Status.PENDING)
-            throw new IllegalStateException("Only pending applications may be rejected.");
-
-        internshipApplication.setStatus(InternshipApplication.Status.UNSUCCESSFUL);
-        internshipApplications.save(internshipApplication);
+    public void rejectApplication(InternshipApplication internshipApplication, long expectedVersion) {
+        MetricsRegistry.timed("CompanyRepController.rejectApplication", () -> {
+            List<String> keys = List.of(TransactionManager.studentKey(internshipApplication.getStudentId()));
+            transactions.run("rejectApplication", keys, tx -> {
+                InternshipApplication app = tx.edit(internshipApplication, expectedVersion);
+                if (app.getStatus() != InternshipApplication.Status.PENDING)
+                    throw new IllegalStateException("Only pending applications may be rejected.");
+
+                app.setStatus(InternshipApplication.Status.UNSUCCESSFUL);
+            });
+        });
     }
 
     /**
      * update internship visibility state
+     * saved conditionally so a concurrent staff decision or slot confirmation is never overwritten
      * @param internship internship to modify
      * @param isVisible new visibility state
+     * @param expectedVersion version of internship when the representative read it
+     * @throws VersionConflictException if internship was saved by someone else in the meantime
      */
-    public void toggleVisibility(Internship internship, boolean isVisible) {
-        internship.setVisibility(isVisible);
-        internships.save(internship);
+    public void toggleVisibility(Internship internship, boolean isVisible, long expectedVersion) {
+        MetricsRegistry.timed("CompanyRepController.toggleVisibility", () -> {
+            Internship working = internship.copy();
+            working.setVisibility(isVisible);
+            internships.save(working, expectedVersion);
+        });
     }
 
     /**
@@ -151,14 +246,16 @@ public class CompanyRepController {
      */
     public CompanyRepresentative registerRep(String name, String email, Company company, 
                                              String dept, String position) {
-        if (users.exists(email))
-            throw new IllegalStateException("A user with this email already exists.");
-
-        CompanyRepresentative rep = new CompanyRepresentative(
-                UUID.randomUUID().toString(), name, email, company, dept, position
-        );
-        users.save(rep);
-        return rep;
+        return MetricsRegistry.timed("CompanyRepController.registerRep", () -> {
+            if (users.exists(email))
+                throw new IllegalStateException("A user with this email already exists.");
+
+            CompanyRepresentative rep = new CompanyRepresentative(
+                    UUID.randomUUID().toString(), name, email, company, dept, position
+            );
+            users.save(rep);
+            return rep;
+        });
     }
 
     /**
@@ -173,18 +270,20 @@ public class CompanyRepController {
      */
     public CompanyRepresentative register(String name, String email, String companyName,
                                           String dept, String position) {
-        if (users.exists(email))
-            throw new IllegalStateException("An account with this email already exists.");
-
-        Company company = companies.findByName(companyName).orElseGet(() -> {
-            Company newCompany = new Company(companyName);
-            companies.save(newCompany);
-            return newCompany;
+        return MetricsRegistry.timed("CompanyRepController.register", () -> {
+            if (users.exists(email))
+                throw new IllegalStateException("An account with this email already exists.");
+
+            Company company = companies.findByName(companyName).orElseGet(() -> {
+                Company newCompany = new Company(companyName);
+                companies.save(newCompany);
+                return newCompany;
+            });
+
+            CompanyRepresentative rep = new CompanyRepresentative(email, name, email, company, dept, position);
+            users.save(rep);
+            return rep;
         });
-
-        CompanyRepresentative rep = new CompanyRepresentative(email, name, email, company, dept, position);
-        users.save(rep);
-        return rep;
     }
 
     /**
@@ -194,10 +293,12 @@ public class CompanyRepController {
      * @return sorted filtered internship list
      */
     public List<Internship> getOwnInternshipsFiltered(CompanyRepresentative rep, InternshipFilter filter) {
-        return internships.filter(filter).stream()
-                .filter(i -> i.getCr().getUserId().equalsIgnoreCase(rep.getUserId()))
-                .sorted(Comparator.comparing(Internship::getTitle))
-                .toList();
+        return MetricsRegistry.timed("CompanyRepController.getOwnInternshipsFiltered", () -> {
+            return internships.streamFilter(filter)
+                    .filter(i -> i.getCr().getUserId().equalsIgnoreCase(rep.getUserId()))
+                    .sorted(Comparator.comparing(Internship::getTitle))
+                    .toList();
+        });
     }
 
     /**
@@ -211,22 +312,27 @@ public class CompanyRepController {
      * @param end new end date (ignored if null)
      * @param slots new slot count (ignored if less than 0)
      * @throws IllegalStateException if internship cannot be modified
+     * @param expectedVersion version of internship when the representative read it
+     * @throws VersionConflictException if internship was saved by someone else in the meantime
      */
     public void editInternship(Internship internship, String title, String desc, Internship.Level level,
-                               String major, LocalDate start, LocalDate end, int slots) {
-
-        if (internship.getStatus() != Internship.Status.PENDING)
-            throw new IllegalStateException("Only pending internships can be edited.");
-
-        if (title != null) internship.setTitle(title);
-        if (desc != null) internship.setDesc(desc);
-        if (level != null) internship.setLevel(level);
-        if (major != null) internship.setMajor(major);
-        if (start != null) internship.setStartDate(start);
-        if (end != null) internship.setEndDate(end);
-        if (slots > 0 && slots <= 10) internship.setMaxSlots(slots);
-
-        internships.save(internship);
+                               String major, LocalDate start, LocalDate end, int slots, long expectedVersion) {
+        MetricsRegistry.timed("CompanyRepController.editInternship", () -> {
+            Internship working = internship.copy();
+
+            if (working.getStatus() != Internship.Status.PENDING)
+                throw new IllegalStateException("Only pending internships can be edited.");
+
+            if (title != null) working.setTitle(title);
+            if (desc != null) working.setDesc(desc);
+            if (level != null) working.setLevel(level);
+            if (major != null) working.setMajor(major);
+            if (start != null) working.setStartDate(start);
+            if (end != null) working.setEndDate(end);
+            if (slots > 0 && slots <= 10) working.setMaxSlots(slots);
+
+            internships.save(working, expectedVersion);
+        });
     }
 
     /**
@@ -235,10 +341,25 @@ public class CompanyRepController {
      * @throws IllegalStateException if internship is already evaluated
      */
     public void deleteInternship(Internship internship) {
-        if (internship.getStatus() != Internship.Status.PENDING)
-            throw new IllegalStateException("Only pending internships can be deleted.");
+        MetricsRegistry.timed("CompanyRepController.deleteInternship", () -> {
+            Internship current = internships.findById(internship.getId()).orElse(internship);
+            if (current.getStatus() != Internship.Status.PENDING)
+                throw new IllegalStateException("Only pending internships can be deleted.");
 
-        internships.delete(internship.getId());
+            internships.delete(internship.getId());
+        });
+    }
+
+    /**
+     * join applications with their internships and students for display
+     * referenced entities are resolved with one bulk lookup per repository
+     * @param apps applications to display
+     * @return joined application views in the same order
+     */
+    public List<ApplicationView> getApplicationViews(List<InternshipApplication> apps) {
+        return MetricsRegistry.timed("CompanyRepController.getApplicationViews", () -> {
+            return ApplicationViews.join(apps, internships, users);
+        });
     }
 
     /**
@@ -247,7 +368,9 @@ public class CompanyRepController {
      * @return internship if exists, null otherwise
      */
     public Internship getInternshipById(String internshipId) {
-        return internships.findById(internshipId).orElse(null);
+        return MetricsRegistry.timed("CompanyRepController.getInternshipById", () -> {
+            return internships.findById(internshipId).orElse(null);
+        });
     }
 
     /**
@@ -256,9 +379,43 @@ public class CompanyRepController {
      * @return student if exists, null otherwise
      */
     public Student getStudentById(String studentId) {
-        return users.findById(studentId)
-                .filter(u -> u instanceof Student)
-                .map(u -> (Student) u)
-                .orElse(null);
+        return MetricsRegistry.timed("CompanyRepController.getStudentById", () -> {
+            return users.findById(studentId)
+                    .filter(u -> u instanceof Student)
+                    .map(u -> (Student) u)
+                    .orElse(null);
+        });
+    }
+
+    /**
+     * suggest company names for filter autocomplete
+     * companies with postings come first ranked by posting count, followed by
+     * registered companies that have not posted any internship yet
+     * @param prefix text typed so far
+     * @param limit maximum number of suggestions
+     * @return matching company names
+     */
+    public List<String> suggestCompanyNames(String prefix, int limit) {
+        return MetricsRegistry.timed("CompanyRepController.suggestCompanyNames", () -> {
+            List<String> result = new ArrayList<>(internships.suggestCompanyNames(prefix, limit));
+            for (Company c : companies.findByNamePrefix(prefix, limit)) {
+                if (result.size() >= limit) break;
+                boolean listed = result.stream().anyMatch(n -> n.equalsIgnoreCase(c.getCompanyName()));
+                if (!listed) result.add(c.getCompanyName());
+            }
+            return result;
+        });
+    }
+
+    /**
+     * suggest preferred majors for filter autocomplete, ranked by number of postings
+     * @param prefix text typed so far
+     * @param limit maximum number of suggestions
+     * @return matching majors, most postings first
+     */
+    public List<String> suggestMajors(String prefix, int limit) {
+        return MetricsRegistry.timed("CompanyRepController.suggestMajors", () -> {
+            return internships.suggestMajors(prefix, limit);
+        });
     }
 }
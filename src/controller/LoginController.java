@@ -1,56 +1,151 @@
 package controller;
 
+import java.util.Locale;
+import java.util.Optional;
+
+import metrics.LoginEvent;
+import metrics.MetricsRegistry;
 import model.User;
+import ratelimit.RateLimitExceededException;
+import ratelimit.RateLimiter;
 import repository.UserRepository;
+import session.Session;
+import session.SessionManager;
 
 /**
  * controller managing login, logout and password change functionality
  * interacts with {@link UserRepository} to authenticate and update user session state
+ * every public operation is timed into the global metrics registry
+ * failed login attempts are rate limited per login id to blunt password guessing and credential stuffing
+ * openSession and logout(Session) issue and end token-based sessions through the SessionManager
  */
 public class LoginController {
 
     /** repository holding all registered users */
     private final UserRepository userRepo;
 
+    /** limiter for failed login attempts, keyed by lowercase login id */
+    private final RateLimiter attempts;
+
+    /** store of live sessions */
+    private final SessionManager sessions;
+
     /**
      * create controller with required user repository
      * @param userRepo repository storing all system users
+     * @param attempts limiter for failed login attempts, keyed by login id
+     * @param sessions store of live sessions
      */
-    public LoginController(UserRepository userRepo) {
+    public LoginController(UserRepository userRepo, RateLimiter attempts, SessionManager sessions) {
         this.userRepo = userRepo;
+        this.attempts = attempts;
+        this.sessions = sessions;
+    }
+
+    /**
+     * authenticate a user and open a session for them
+     * @param loginId value used to locate user account (email or system id depending on role)
+     * @param password raw password entered by user
+     * @return new session, or null if authentication fails
+     * @throws IllegalArgumentException if loginId is null
+     * @throws RateLimitExceededException if too many failed attempts were made for this login id
+     */
+    public Session openSession(String loginId, String password) {
+        return MetricsRegistry.timed("LoginController.openSession", () -> {
+            User user = login(loginId, password);
+            return user == null ? null : sessions.create(user);
+        });
+    }
+
+    /**
+     * resolve a session token to its live session in constant time
+     * @param token opaque session token
+     * @return live session, or empty if unknown, logged out or expired
+     */
+    public Optional<Session> resolveSession(String token) {
+        return MetricsRegistry.timed("LoginController.resolveSession", () -> {
+            return sessions.resolve(token);
+        });
     }
 
     /**
      * authenticate a user using login identifier and password
      * verifies credential match and updates login status on success
+     * every attempt emits an ipms.Login flight recorder event when recording is enabled
+     * once failed attempts use up the per-login-id rate limit, further attempts are refused
+     * before the password is checked; a successful attempt gives its token back
      *
      * @param loginId value used to locate user account (email or system id depending on role)
      * @param password raw password entered by user
      * @return logged-in user instance, or null if authentication fails
+     * @throws IllegalArgumentException if loginId is null
+     * @throws RateLimitExceededException if too many failed attempts were made for this login id
      */
     public User login(String loginId, String password) {
-        User user = userRepo.findByLoginId(loginId).orElse(null);
+        return MetricsRegistry.timed("LoginController.login", () -> {
+            if (loginId == null) throw new IllegalArgumentException("Login id must not be null");
+            LoginEvent event = new LoginEvent();
+            event.begin();
+            String key = loginId.toLowerCase(Locale.ROOT);
+            try {
+                attempts.acquire(key);
+            } catch (RateLimitExceededException e) {
+                commit(event, loginId, "throttled");
+                throw e;
+            }
+            User user = userRepo.findByLoginId(loginId).orElse(null);
 
-        if (user == null) {
-            return null; // user not found
-        }
+            if (user == null) {
+                commit(event, loginId, "unknown_user");
+                return null; // user not found
+            }
 
-        if (!user.validatePassword(password)) {
-            return null; // incorrect password
-        }
+            if (!user.validatePassword(password)) {
+                commit(event, loginId, "bad_password");
+                return null; // incorrect password
+            }
+
+            attempts.refund(key);
+            user.login();
+            commit(event, loginId, "ok");
+            return user;
+        });
+    }
 
-        user.login();
-        return user;
+    /**
+     * commit login flight recorder event if recording is enabled
+     * @param event event begun at start of login
+     * @param loginId attempted login id
+     * @param outcome ok, unknown_user, bad_password or throttled
+     */
+    private static void commit(LoginEvent event, String loginId, String outcome) {
+        if (event.shouldCommit()) {
+            event.set(loginId, outcome);
+            event.commit();
+        }
     }
 
     /**
      * log out user if currently authenticated
+     * for users signed in without a session; session holders use logout(Session)
      * @param user user instance attempting logout
      */
     public void logout(User user) {
-        if (user != null && user.isLoggedIn()) {
-            user.logout();
-        }
+        MetricsRegistry.timed("LoginController.logout", () -> {
+            if (user != null && user.isLoggedIn() && !sessions.hasSession(user.getUserId())) {
+                user.logout();
+            }
+        });
+    }
+
+    /**
+     * end a session; its user is logged out once they have no other live session
+     * @param session session to end
+     */
+    public void logout(Session session) {
+        MetricsRegistry.timed("LoginController.logout", () -> {
+            if (session != null) sessions.close(session.getToken());
+        });
     }
 
     /**
@@ -62,9 +157,11 @@ public class LoginController {
      * @return true if password updated successfully, false otherwise
      */
     public boolean changePassword(User user, String newPwd) {
-        if (user == null || !user.isLoggedIn()) {
-            return false; // must be logged in
-        }
-        return user.changePassword(newPwd);
+        return MetricsRegistry.timed("LoginController.changePassword", () -> {
+            if (user == null || !user.isLoggedIn()) {
+                return false; // must be logged in
+            }
+            return user.changePassword(newPwd);
+        });
     }
 }
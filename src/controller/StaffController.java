@@ -1,25 +1,63 @@
 package controller;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
-
+import java.util.stream.Stream;
+
+import metrics.AllocationProfiler;
+import metrics.Histogram;
+import metrics.Footprint;
+import metrics.MemoryModel;
+import metrics.MetricsRegistry;
+import metrics.MetricsSnapshot;
+import metrics.SlowQueryLog;
+import model.ApplicationView;
 import model.CompanyRepresentative;
 import model.Internship;
 import model.InternshipApplication;
 import model.InternshipFilter;
 import model.Student;
 import model.User;
+import ratelimit.RateLimitExceededException;
+import ratelimit.RateLimits;
 import repository.InternshipAppRepository;
 import repository.InternshipRepository;
 import repository.UserRepository;
+import repository.VersionConflictException;
+import review.ReviewSources;
+import review.ReviewWorkQueue;
+import session.Session;
+import transaction.TransactionLog;
+import transaction.TransactionManager;
+import transaction.UnitOfWork;
 
 /**
  * staffcontroller class to implement logic for staff operations
+ * every public operation is timed into the global metrics registry; operations returning a
+ * lazy stream are timed while the stream is consumed, not while it is built
+ *
+ * pending representatives, internships and withdrawal requests can also be decided in batches:
+ * items no longer pending are skipped, the rest are written with one batch save, and an item
+ * changed by someone else in the meantime is dropped from the batch rather than failing it
+ *
+ * when several staff members review at once, pending internships and withdrawal requests are
+ * shared out through review work queues: each staff member claims leases on a few of the oldest
+ * unclaimed items and decides them through the queue, so no two reviewers work on the same item
  */
 public class StaffController {
+
+    /** number of items each batch decision was applied to */
+    private static final Histogram BATCH_ROWS = MetricsRegistry.global().histogram("StaffController.batch.rows");
+
     /**
      * repository of all users
      */
@@ -32,95 +70,393 @@ public class StaffController {
      * repository of all internship applications
      */
     private final InternshipAppRepository applications;
+    /**
+     * runs withdrawal decisions as all-or-nothing units
+     */
+    private final TransactionManager transactions;
+    /**
+     * rate limits for expensive queries
+     */
+    private final RateLimits limits;
+    /**
+     * shares pending internships among concurrent reviewers
+     */
+    private final ReviewWorkQueue<Internship> internshipReviews;
+    /**
+     * shares withdrawal requests among concurrent reviewers
+     */
+    private final ReviewWorkQueue<InternshipApplication> withdrawalReviews;
 
     /**
      * constructor of staff controller
      * @param userRepository    repository of users
      * @param internshipRepository  repository of internships
      * @param appRepository repository of applications
+     * @param transactions transaction manager over internship and application repositories
+     * @param limits rate limits for expensive queries
      */
-    public StaffController(UserRepository userRepository, InternshipRepository internshipRepository, InternshipAppRepository appRepository) {
+    public StaffController(UserRepository userRepository, InternshipRepository internshipRepository,
+                           InternshipAppRepository appRepository, TransactionManager transactions,
+                           RateLimits limits) {
         this.users = userRepository;
         this.internships = internshipRepository;
         this.applications = appRepository;
+        this.transactions = transactions;
+        this.limits = limits;
+        this.internshipReviews = ReviewWorkQueue.fromSystemProperties("internships",
+                ReviewSources.internships(internshipRepository));
+        this.withdrawalReviews = ReviewWorkQueue.fromSystemProperties("withdrawals",
+                ReviewSources.withdrawals(appRepository));
+    }
+
+    /**
+     * work queue sharing pending internships among staff reviewers
+     * decide a lease with e.g. getInternshipReviews().complete(lease, this::approveInternship)
+     * @return internship review queue
+     */
+    public ReviewWorkQueue<Internship> getInternshipReviews() {
+        return internshipReviews;
+    }
+
+    /**
+     * work queue sharing withdrawal requests among staff reviewers
+     * decide a lease with e.g. getWithdrawalReviews().complete(lease, this::approveWithdrawal)
+     * @return withdrawal review queue
+     */
+    public ReviewWorkQueue<InternshipApplication> getWithdrawalReviews() {
+        return withdrawalReviews;
     }
     
     /**
-     * gets a list of registered company representatives who are not yet approved by staff
-     * @return list of pending company representatives
+     * gets a list of registered company representatives who are neither approved nor rejected by staff
+     * @return list of pending company representatives, longest waiting first
      */
     public List<CompanyRepresentative> getPendingCompanyReps() {
-        return users.getAllCompanyRepresentatives().stream().filter(rep -> !rep.isApproved()).toList();
+        return MetricsRegistry.timed("StaffController.getPendingCompanyReps", () -> {
+            return users.findPendingCompanyRepresentatives();
+        });
     }
 
     /**
-     * approve company representative account and update in repository
-     * @param cr the company representative object to be approved
+     * gets the company representatives that have waited longest for approval
+     * @param limit maximum number of representatives
+     * @return up to limit pending company representatives, longest waiting first
+     */
+    public List<CompanyRepresentative> getPendingCompanyReps(int limit) {
+        return MetricsRegistry.timed("StaffController.getPendingCompanyReps", () -> {
+            return users.findPendingCompanyRepresentatives(limit);
+        });
+    }
+
+    /**
+     * count company representatives awaiting approval
+     * @return number of pending company representatives
      */
-    public void approveCompanyRep(CompanyRepresentative cr) {
-        cr.setApproved(true);
-        users.save(cr);
+    public int countPendingCompanyReps() {
+        return MetricsRegistry.timed("StaffController.countPendingCompanyReps", () -> {
+            return users.countPendingCompanyRepresentatives();
+        });
     }
 
     /**
-     * approve company representative account and update in repository
+     * approve company representative account if nobody changed it since it was read
+     * @param cr the company representative object to be approved
+     * @param expectedVersion version of cr when the staff member read it
+     * @throws VersionConflictException if cr was saved by someone else in the meantime
+     */
+    public void approveCompanyRep(CompanyRepresentative cr, long expectedVersion) {
+        MetricsRegistry.timed("StaffController.approveCompanyRep", () -> {
+            CompanyRepresentative working = cr.copy();
+            working.setApproved(true);
+            users.save(working, expectedVersion);
+        });
+    }
+
+    /**
+     * reject company representative account if nobody changed it since it was read
+     * the representative leaves the pending queue and cannot use the system
      * @param cr the company representative object to be rejected
+     * @param expectedVersion version of cr when the staff member read it
+     * @throws VersionConflictException if cr was saved by someone else in the meantime
+     */
+    public void rejectCompanyRep(CompanyRepresentative cr, long expectedVersion) {
+        MetricsRegistry.timed("StaffController.rejectCompanyRep", () -> {
+            CompanyRepresentative working = cr.copy();
+            working.setRejected(true);
+            users.save(working, expectedVersion);
+        });
+    }
+
+    /**
+     * approve every listed representative still awaiting approval, in one batch save
+     * @param reps representatives to approve
+     * @return applied and skipped representative ids
+     */
+    public BatchResult approveCompanyReps(Collection<CompanyRepresentative> reps) {
+        return MetricsRegistry.timed("StaffController.approveCompanyReps", () -> {
+            return decideCompanyReps(reps, true);
+        });
+    }
+
+    /**
+     * approve every pending representative matching a predicate, in one batch save
+     * @param filter selects representatives to approve
+     * @return applied and skipped representative ids
+     */
+    public BatchResult approveCompanyReps(Predicate<? super CompanyRepresentative> filter) {
+        return MetricsRegistry.timed("StaffController.approveCompanyReps", () -> {
+            return decideCompanyReps(users.streamPendingCompanyRepresentatives().filter(filter).toList(), true);
+        });
+    }
+
+    /**
+     * reject every listed representative still awaiting approval, in one batch save
+     * @param reps representatives to reject
+     * @return applied and skipped representative ids
+     */
+    public BatchResult rejectCompanyReps(Collection<CompanyRepresentative> reps) {
+        return MetricsRegistry.timed("StaffController.rejectCompanyReps", () -> {
+            return decideCompanyReps(reps, false);
+        });
+    }
+
+    /**
+     * reject every pending representative matching a predicate, in one batch save
+     * @param filter selects representatives to reject
+     * @return applied and skipped representative ids
      */
-    public void rejectCompanyRep(CompanyRepresentative cr) {
-        cr.setApproved(false);
-        users.save(cr);
+    public BatchResult rejectCompanyReps(Predicate<? super CompanyRepresentative> filter) {
+        return MetricsRegistry.timed("StaffController.rejectCompanyReps", () -> {
+            return decideCompanyReps(users.streamPendingCompanyRepresentatives().filter(filter).toList(), false);
+        });
     }
 
     /**
      * get a list of internship opportunities pending approval
-     * @return list of internship opportunities pending approval
+     * @return list of internship opportunities pending approval, longest waiting first
      */
     public List<Internship> getPendingInternships() {
-        return internships.findByStatus(Internship.Status.PENDING);
+        return MetricsRegistry.timed("StaffController.getPendingInternships", () -> {
+            return internships.streamPending().toList();
+        });
     }
 
     /**
-     * approve a pending internship opportunity
-     * @param internship    internship opportunity to be approved
+     * get the internship opportunities that have waited longest for approval
+     * @param limit maximum number of internships
+     * @return up to limit internships pending approval, longest waiting first
+     */
+    public List<Internship> getPendingInternships(int limit) {
+        return MetricsRegistry.timed("StaffController.getPendingInternships", () -> {
+            return internships.findPending(limit);
+        });
+    }
+
+    /**
+     * count internship opportunities pending approval
+     * @return number of pending internships
      */
-    public void approveInternship(Internship internship) {
-        internship.setStatus(Internship.Status.APPROVED);
-        internships.save(internship);
+    public int countPendingInternships() {
+        return MetricsRegistry.timed("StaffController.countPendingInternships", () -> {
+            return internships.countByStatus(Internship.Status.PENDING);
+        });
+    }
+
+    /**
+     * approve a pending internship opportunity if nobody changed it since it was read
+     * @param internship    internship opportunity to be approved
+     * @param expectedVersion version of internship when the staff member read it
+     * @throws VersionConflictException if internship was saved by someone else in the meantime
+     */
+    public void approveInternship(Internship internship, long expectedVersion) {
+        MetricsRegistry.timed("StaffController.approveInternship", () -> {
+            Internship working = internship.copy();
+            working.setStatus(Internship.Status.APPROVED);
+            internships.save(working, expectedVersion);
+        });
     }
     
     /**
-     * reject a pending internship opportunity
+     * reject a pending internship opportunity if nobody changed it since it was read
      * @param internship    internship opportunity to be rejected
+     * @param expectedVersion version of internship when the staff member read it
+     * @throws VersionConflictException if internship was saved by someone else in the meantime
+     */
+    public void rejectInternship(Internship internship, long expectedVersion) {
+        MetricsRegistry.timed("StaffController.rejectInternship", () -> {
+            Internship working = internship.copy();
+            working.setStatus(Internship.Status.REJECTED);
+            internships.save(working, expectedVersion);
+        });
+    }
+
+    /**
+     * approve every listed internship still pending, in one batch save
+     * @param batch internships to approve
+     * @return applied and skipped internship ids
+     */
+    public BatchResult approveInternships(Collection<Internship> batch) {
+        return MetricsRegistry.timed("StaffController.approveInternships", () -> {
+            return decideInternships(batch, Internship.Status.APPROVED);
+        });
+    }
+
+    /**
+     * approve every pending internship matching a predicate, in one batch save
+     * @param filter selects internships to approve
+     * @return applied and skipped internship ids
+     */
+    public BatchResult approveInternships(Predicate<? super Internship> filter) {
+        return MetricsRegistry.timed("StaffController.approveInternships", () -> {
+            return decideInternships(internships.streamPending().filter(filter).toList(),
+                    Internship.Status.APPROVED);
+        });
+    }
+
+    /**
+     * reject every listed internship still pending, in one batch save
+     * @param batch internships to reject
+     * @return applied and skipped internship ids
+     */
+    public BatchResult rejectInternships(Collection<Internship> batch) {
+        return MetricsRegistry.timed("StaffController.rejectInternships", () -> {
+            return decideInternships(batch, Internship.Status.REJECTED);
+        });
+    }
+
+    /**
+     * reject every pending internship matching a predicate, in one batch save
+     * @param filter selects internships to reject
+     * @return applied and skipped internship ids
      */
-    public void rejectInternship(Internship internship) {
-        internship.setStatus(Internship.Status.REJECTED);
-        internships.save(internship);
+    public BatchResult rejectInternships(Predicate<? super Internship> filter) {
+        return MetricsRegistry.timed("StaffController.rejectInternships", () -> {
+            return decideInternships(internships.streamPending().filter(filter).toList(),
+                    Internship.Status.REJECTED);
+        });
     }
 
     /**
      * get a list of withdrawal requests for internship applications by students
-     * @return a list of withdrawal requests for internship applications by students
+     * @return a list of withdrawal requests for internship applications by students, longest waiting first
      */
     public List<InternshipApplication> getWithdrawalRequests() {
-        return applications.findWithdrawalRequests();
+        return MetricsRegistry.timed("StaffController.getWithdrawalRequests", () -> {
+            return applications.findWithdrawalRequests();
+        });
     }
 
     /**
-     * approve withdrawal from an internship application
-     * @param application internship application to be withdrawn from
+     * get the withdrawal requests that have waited longest for a decision
+     * @param limit maximum number of requests
+     * @return up to limit applications requesting withdrawal, longest waiting first
+     */
+    public List<InternshipApplication> getWithdrawalRequests(int limit) {
+        return MetricsRegistry.timed("StaffController.getWithdrawalRequests", () -> {
+            return applications.findWithdrawalRequests(limit);
+        });
+    }
+
+    /**
+     * count open withdrawal requests
+     * @return number of applications requesting withdrawal
      */
-    public void approveWithdrawal(InternshipApplication application) {
-        application.setStatus(InternshipApplication.Status.WITHDRAWN);
-        applications.save(application);
+    public int countWithdrawalRequests() {
+        return MetricsRegistry.timed("StaffController.countWithdrawalRequests", () -> {
+            return applications.countWithdrawalRequests();
+        });
     }
 
     /**
-     * reject withdrawal from an internship application
+     * lazily stream withdrawal requests for internship applications by students
+     * stream is weakly consistent with concurrent repository writes
+     * @return stream of applications requesting withdrawal
+     */
+    public Stream<InternshipApplication> streamWithdrawalRequests() {
+        return MetricsRegistry.timedStream("StaffController.streamWithdrawalRequests", () -> {
+            return applications.streamWithdrawalRequests();
+        });
+    }
+
+    /**
+     * approve withdrawal if nobody decided on the application since it was read
+     * runs as one unit of work locking the applicant and the internship; withdrawing an accepted
+     * placement gives its confirmed slot back and reopens a FILLED internship
+     * @param application internship application to be withdrawn from
+     * @param expectedVersion version of application when the staff member read it
+     * @throws VersionConflictException if application was saved by someone else in the meantime
+     */
+    public void approveWithdrawal(InternshipApplication application, long expectedVersion) {
+        MetricsRegistry.timed("StaffController.approveWithdrawal", () -> {
+            List<String> keys = List.of(TransactionManager.studentKey(application.getStudentId()),
+                    TransactionManager.internshipKey(application.getInternshipId()));
+            transactions.run("approveWithdrawal", keys, tx -> {
+                InternshipApplication decided = tx.edit(application, expectedVersion).copy();
+                withdraw(decided);
+                commitDecision(tx, decided);
+            });
+        });
+    }
+
+    /**
+     * reject withdrawal if nobody decided on the application since it was read
+     * runs as one unit of work locking the applicant
      * @param application internship application to be withdrawn from
+     * @param expectedVersion version of application when the staff member read it
+     * @throws VersionConflictException if application was saved by someone else in the meantime
+     */
+    public void rejectWithdrawal(InternshipApplication application, long expectedVersion) {
+        MetricsRegistry.timed("StaffController.rejectWithdrawal", () -> {
+            transactions.run("rejectWithdrawal", List.of(TransactionManager.studentKey(application.getStudentId())),
+                    tx -> keep(tx.edit(application, expectedVersion)));
+        });
+    }
+
+    /**
+     * approve every listed withdrawal request still open, as one unit of work and one batch save
+     * confirmed slots of withdrawn accepted placements are given back in the same unit
+     * @param batch applications whose withdrawal is approved
+     * @return applied and skipped application ids
+     */
+    public BatchResult approveWithdrawals(Collection<InternshipApplication> batch) {
+        return MetricsRegistry.timed("StaffController.approveWithdrawals", () -> {
+            return decideWithdrawals("approveWithdrawals", batch, StaffController::withdraw);
+        });
+    }
+
+    /**
+     * approve every open withdrawal request matching a predicate, as one unit of work
+     * @param filter selects applications whose withdrawal is approved
+     * @return applied and skipped application ids
+     */
+    public BatchResult approveWithdrawals(Predicate<? super InternshipApplication> filter) {
+        return MetricsRegistry.timed("StaffController.approveWithdrawals", () -> {
+            return decideWithdrawals("approveWithdrawals", applications.streamWithdrawalRequests().filter(filter).toList(),
+                    StaffController::withdraw);
+        });
+    }
+
+    /**
+     * reject every listed withdrawal request still open, as one unit of work and one batch save
+     * @param batch applications whose withdrawal is rejected
+     * @return applied and skipped application ids
+     */
+    public BatchResult rejectWithdrawals(Collection<InternshipApplication> batch) {
+        return MetricsRegistry.timed("StaffController.rejectWithdrawals", () -> {
+            return decideWithdrawals("rejectWithdrawals", batch, StaffController::keep);
+        });
+    }
+
+    /**
+     * reject every open withdrawal request matching a predicate, as one unit of work
+     * @param filter selects applications whose withdrawal is rejected
+     * @return applied and skipped application ids
      */
-    public void rejectWithdrawal(InternshipApplication application) {
-        application.setStatus(InternshipApplication.Status.PENDING);
-        applications.save(application);
+    public BatchResult rejectWithdrawals(Predicate<? super InternshipApplication> filter) {
+        return MetricsRegistry.timed("StaffController.rejectWithdrawals", () -> {
+            return decideWithdrawals("rejectWithdrawals", applications.streamWithdrawalRequests().filter(filter).toList(),
+                    StaffController::keep);
+        });
     }
 
     // public List<Internship> generateReport(Internship.Status status, String major, Internship.Level level, String companyName, Integer remainingSlotsMin, Integer remainingSlotsMax) {
@@ -132,7 +468,9 @@ public class StaffController {
      * @return list of internships by remaining slots left
      */
     public List<Internship> sortByRemainingSlots() {
-        return internships.findAll().stream().sorted((a, b) -> Integer.compare(b.getRemainingSlots(), a.getRemainingSlots())).toList();
+        return MetricsRegistry.timed("StaffController.sortByRemainingSlots", () -> {
+            return internships.streamAll().sorted((a, b) -> Integer.compare(b.getRemainingSlots(), a.getRemainingSlots())).toList();
+        });
     }
 
     /**
@@ -141,7 +479,9 @@ public class StaffController {
      * @return  list of internships by a particular company
      */
     public List<Internship> getByCompany(String companyName) {
-        return internships.findAll().stream().filter(i -> i.getCompanyName().equalsIgnoreCase(companyName)).toList();
+        return MetricsRegistry.timed("StaffController.getByCompany", () -> {
+            return internships.streamAll().filter(i -> i.getCompanyName().equalsIgnoreCase(companyName)).toList();
+        });
     }
 
     /**
@@ -149,7 +489,9 @@ public class StaffController {
      * @return grouped list of internships by company
      */
     public Map<String, List<Internship>> groupByCompany() {
-        return internships.findAll().stream().collect(Collectors.groupingBy(i -> i.getCompanyName()));
+        return MetricsRegistry.timed("StaffController.groupByCompany", () -> {
+            return internships.streamAll().collect(Collectors.groupingBy(i -> i.getCompanyName()));
+        });
     }
 
     /**
@@ -158,7 +500,9 @@ public class StaffController {
      * @return list of internships created by a particular company representative
      */
     public List<Internship> getByRepresentative(String repId) {
-        return internships.findAll().stream().filter(i -> i.getCr().getUserId().equals(repId)).toList();
+        return MetricsRegistry.timed("StaffController.getByRepresentative", () -> {
+            return internships.findByRepresentative(repId);
+        });
     }
 
     /**
@@ -166,7 +510,9 @@ public class StaffController {
      * @return list of all internships
      */
     public List<Internship> getAll() {
-        return internships.filter(new InternshipFilter()); // empty filter: return all
+        return MetricsRegistry.timed("StaffController.getAll", () -> {
+            return internships.filter(new InternshipFilter()); // empty filter: return all
+        });
     }
 
     /**
@@ -175,7 +521,9 @@ public class StaffController {
      * @return filtered list of internships by status
      */
     public List<Internship> filterByStatus(Internship.Status status) {
-        return internships.filter(new InternshipFilter().setStatus(status));
+        return MetricsRegistry.timed("StaffController.filterByStatus", () -> {
+            return internships.filter(new InternshipFilter().setStatus(status));
+        });
     }
 
     /**
@@ -184,7 +532,9 @@ public class StaffController {
      * @return filtered list of internships by major
      */
     public List<Internship> filterByMajor(String major) {
-        return internships.filter(new InternshipFilter().setMajor(major));
+        return MetricsRegistry.timed("StaffController.filterByMajor", () -> {
+            return internships.filter(new InternshipFilter().setMajor(major));
+        });
     }
 
     /**
@@ -193,7 +543,9 @@ public class StaffController {
      * @return filtered list of internships by level
      */
     public List<Internship> filterByLevel(Internship.Level level) {
-        return internships.filter(new InternshipFilter().setLevel(level));
+        return MetricsRegistry.timed("StaffController.filterByLevel", () -> {
+            return internships.filter(new InternshipFilter().setLevel(level));
+        });
     }
 
     /**
@@ -202,7 +554,9 @@ public class StaffController {
      * @return filtered list of internships by company name
      */
     public List<Internship> filterByCompany(String companyName) {
-        return internships.filter(new InternshipFilter().setCompanyName(companyName));
+        return MetricsRegistry.timed("StaffController.filterByCompany", () -> {
+            return internships.filter(new InternshipFilter().setCompanyName(companyName));
+        });
     }
 
     /**
@@ -212,9 +566,11 @@ public class StaffController {
      * @return filtered list of internships by range of remaining slots
      */
     public List<Internship> filterByRemainingSlotsRange(int min, int max) {
-        return internships.filter(new InternshipFilter()
-                .setSlotsMin(min)
-                .setSlotsMax(max));
+        return MetricsRegistry.timed("StaffController.filterByRemainingSlotsRange", () -> {
+            return internships.filter(new InternshipFilter()
+                    .setSlotsMin(min)
+                    .setSlotsMax(max));
+        });
     }
 
     /**
@@ -224,9 +580,11 @@ public class StaffController {
      * @return filtered list of internships by date range
      */
     public List<Internship> filterByDateRange(LocalDate start, LocalDate end) {
-        return internships.filter(new InternshipFilter()
-                .setStartDate(start)
-                .setEndDate(end));
+        return MetricsRegistry.timed("StaffController.filterByDateRange", () -> {
+            return internships.filter(new InternshipFilter()
+                    .setStartDate(start)
+                    .setEndDate(end));
+        });
     }
 
     /**
@@ -234,20 +592,47 @@ public class StaffController {
      * @return sort list of internships by remaining slots in descending order
      */
     public List<Internship> sortByRemainingSlotsDesc() {
-        return getAll().stream()
-                .sorted(Comparator.comparingInt(Internship::getRemainingSlots).reversed())
-                .toList();
+        return MetricsRegistry.timed("StaffController.sortByRemainingSlotsDesc", () -> {
+            return internships.streamAll()
+                    .sorted(Comparator.comparingInt(Internship::getRemainingSlots).reversed())
+                    .toList();
+        });
     }
 
     /**
      * get list of internships sorted by number of applications in descending order
+     * not rate limited; interactive callers use getPopularityReport(Session)
      * @return list of internships sorted by number of applications in descending order
      */
     public List<String> getPopularityReport() {
-    return getAll().stream()
-            .map(i -> i.getTitle() + " (" + i.getCompanyName() + ") : " +
-                    applications.findByInternship(i.getId()).size() + " applications")
-            .collect(Collectors.toList());
+        return MetricsRegistry.timed("StaffController.getPopularityReport", () -> {
+            return popularityReport();
+        });
+    }
+
+    /**
+     * generate popularity report on behalf of a staff session, rate limited per session since the
+     * report reads every internship and its application count
+     * @param session session of the staff member requesting the report
+     * @return list of report lines
+     * @throws RateLimitExceededException if the session requests reports too fast
+     */
+    public List<String> getPopularityReport(Session session) {
+        return MetricsRegistry.timed("StaffController.getPopularityReport", () -> {
+            limits.query().acquire(session.getToken());
+            return popularityReport();
+        });
+    }
+
+    /**
+     * build popularity report lines
+     * @return one line per internship with its application count
+     */
+    private List<String> popularityReport() {
+        return internships.streamAll()
+                .map(i -> i.getTitle() + " (" + i.getCompanyName() + ") : " +
+                        applications.countByInternship(i.getId()) + " applications")
+                .collect(Collectors.toList());
     }
 
     /**
@@ -256,7 +641,9 @@ public class StaffController {
      * @return filtered list of internships by company representative
      */
     public List<Internship> filterByRepresentative(String repId) {
-        return internships.filter(new InternshipFilter().setRepId(repId));
+        return MetricsRegistry.timed("StaffController.filterByRepresentative", () -> {
+            return internships.filter(new InternshipFilter().setRepId(repId));
+        });
     }
 
     /**
@@ -265,9 +652,11 @@ public class StaffController {
      * @return filtered list of internships based on filters input by user
      */
     public List<Internship> getFiltered(InternshipFilter filter) {
-        return internships.filter(filter).stream()
-            .sorted(Comparator.comparing(Internship::getTitle))
-            .toList();
+        return MetricsRegistry.timed("StaffController.getFiltered", () -> {
+            return internships.streamFilter(filter)
+                .sorted(Comparator.comparing(Internship::getTitle))
+                .toList();
+        });
     }
 
     /**
@@ -276,10 +665,12 @@ public class StaffController {
      * @return name of student if available, else "Unknown Student"
      */
     public String getStudentName(String studentId) {
-        return users.findById(studentId)
-                .filter(u -> u instanceof Student)
-                .map(User::getName)
-                .orElse("Unknown Student");
+        return MetricsRegistry.timed("StaffController.getStudentName", () -> {
+            return users.findById(studentId)
+                    .filter(u -> u instanceof Student)
+                    .map(User::getName)
+                    .orElse("Unknown Student");
+        });
     }
 
     /**
@@ -288,9 +679,23 @@ public class StaffController {
      * @return title of internship if available, else "Unknown Internship"
      */
     public String getInternshipTitle(String internshipId) {
-        return internships.findById(internshipId)
-                .map(Internship::getTitle)
-                .orElse("Unknown Internship");
+        return MetricsRegistry.timed("StaffController.getInternshipTitle", () -> {
+            return internships.findById(internshipId)
+                    .map(Internship::getTitle)
+                    .orElse("Unknown Internship");
+        });
+    }
+
+    /**
+     * join applications with their internships and students for display
+     * referenced entities are resolved with one bulk lookup per repository
+     * @param apps applications to display
+     * @return joined application views in the same order
+     */
+    public List<ApplicationView> getApplicationViews(List<InternshipApplication> apps) {
+        return MetricsRegistry.timed("StaffController.getApplicationViews", () -> {
+            return ApplicationViews.join(apps, internships, users);
+        });
     }
 
     /**
@@ -299,7 +704,9 @@ public class StaffController {
      * @return internship object if found, else null
      */
     public Internship getInternshipById(String internshipId) {
-        return internships.findById(internshipId).orElse(null);
+        return MetricsRegistry.timed("StaffController.getInternshipById", () -> {
+            return internships.findById(internshipId).orElse(null);
+        });
     }
 
     /**
@@ -308,7 +715,9 @@ public class StaffController {
      * @return student object if found, else null
      */
     public Student getStudentById(String studentId) {
-        return users.findById(studentId).filter(u -> u instanceof Student).map(u -> (Student) u).orElse(null);
+        return MetricsRegistry.timed("StaffController.getStudentById", () -> {
+            return users.findById(studentId).filter(u -> u instanceof Student).map(u -> (Student) u).orElse(null);
+        });
     }
 
     /**
@@ -316,7 +725,20 @@ public class StaffController {
      * @return list of all internships
      */
     public List<Internship> getAllInternships() {
-            return internships.findAll();
+        return MetricsRegistry.timed("StaffController.getAllInternships", () -> {
+                return internships.findAll();
+        });
+    }
+
+    /**
+     * lazily stream all internships in storage order
+     * stream is weakly consistent with concurrent repository writes
+     * @return stream of all internships
+     */
+    public Stream<Internship> streamAllInternships() {
+        return MetricsRegistry.timedStream("StaffController.streamAllInternships", () -> {
+            return internships.streamAll();
+        });
     }
 
     /**
@@ -325,8 +747,264 @@ public class StaffController {
      * @return list of all applications for a specific internship
      */
     public List<InternshipApplication> getAllApplicationsForInternship(String internshipId) {
-        return applications.findByInternship(internshipId); // does NOT filter by status
+        return MetricsRegistry.timed("StaffController.getAllApplicationsForInternship", () -> {
+            return applications.findByInternship(internshipId); // does NOT filter by status
+        });
     }
 
-}
+    /**
+     * count all applications for a specific internship without listing them
+     * @param internshipId ID of internship
+     * @return number of applications for a specific internship
+     */
+    public int getApplicationCount(String internshipId) {
+        return MetricsRegistry.timed("StaffController.getApplicationCount", () -> {
+            return applications.countByInternship(internshipId);
+        });
+    }
+
+    /**
+     * count internships grouped by status for the staff dashboard
+     * @return map from each internship status to its count
+     */
+    public Map<Internship.Status, Integer> getInternshipCountsByStatus() {
+        return MetricsRegistry.timed("StaffController.getInternshipCountsByStatus", () -> {
+            return internships.countByStatus();
+        });
+    }
+
+    /**
+     * count internship applications grouped by status for the staff dashboard
+     * @return map from each application status to its count
+     */
+    public Map<InternshipApplication.Status, Integer> getApplicationCountsByStatus() {
+        return MetricsRegistry.timed("StaffController.getApplicationCountsByStatus", () -> {
+            return applications.countByStatus();
+        });
+    }
+
+    /**
+     * count internships matching filters input by user without listing them
+     * @param filter desired filters by user
+     * @return number of internships matching filters
+     */
+    public int countFiltered(InternshipFilter filter) {
+        return MetricsRegistry.timed("StaffController.countFiltered", () -> {
+            return internships.countMatching(filter);
+        });
+    }
+
+    /**
+     * capture current operation timings, query sizes and counters
+     * @return point-in-time metrics snapshot
+     */
+    public MetricsSnapshot getMetricsSnapshot() {
+        return MetricsRegistry.timed("StaffController.getMetricsSnapshot", () -> {
+            return MetricsRegistry.global().snapshot();
+        });
+    }
+
+    /**
+     * switch per-operation allocation profiling on or off at runtime
+     * @param enabled true to record bytes allocated by every timed operation
+     * @throws IllegalStateException if this JVM cannot count per-thread allocations
+     */
+    public void setAllocationProfiling(boolean enabled) {
+        MetricsRegistry.timed("StaffController.setAllocationProfiling", () -> {
+            AllocationProfiler.setEnabled(enabled);
+        });
+    }
+
+    /** @return true if allocation profiling is currently on */
+    public boolean isAllocationProfiling() {
+        return MetricsRegistry.timed("StaffController.isAllocationProfiling", () -> {
+            return AllocationProfiler.isEnabled();
+        });
+    }
 
+    /**
+     * estimate heap retained by user, internship and application repositories
+     * uses the object layout of the running JVM and walks every stored record
+     * @return footprint per repository
+     */
+    public List<Footprint> getHeapFootprint() {
+        return MetricsRegistry.timed("StaffController.getHeapFootprint", () -> {
+            MemoryModel model = MemoryModel.detect();
+            return List.of(users.estimateFootprint(model), internships.estimateFootprint(model),
+                    applications.estimateFootprint(model));
+        });
+    }
+
+    /**
+     * list the most recent queries that exceeded the slow-query threshold
+     * @return slow-query entries, oldest first
+     */
+    public List<SlowQueryLog.Entry> getRecentSlowQueries() {
+        return MetricsRegistry.timed("StaffController.getRecentSlowQueries", () -> {
+            return SlowQueryLog.global().recent();
+        });
+    }
+
+    /**
+     * list the most recently committed units of work
+     * @return transaction log records, oldest first
+     */
+    public List<TransactionLog.Record> getRecentTransactions() {
+        return MetricsRegistry.timed("StaffController.getRecentTransactions", () -> {
+            return transactions.getLog().recent();
+        });
+    }
+
+    /**
+     * lazily stream all applications for a specific internship
+     * stream is weakly consistent with concurrent repository writes
+     * @param internshipId ID of internship
+     * @return stream of all applications for a specific internship
+     */
+    public Stream<InternshipApplication> streamAllApplicationsForInternship(String internshipId) {
+        return MetricsRegistry.timedStream("StaffController.streamAllApplicationsForInternship", () -> {
+            return applications.streamByInternship(internshipId);
+        });
+    }
+
+    /**
+     * suggest company names for filter autocomplete, ranked by number of postings
+     * @param prefix text typed so far
+     * @param limit maximum number of suggestions
+     * @return matching company names, most postings first
+     */
+    public List<String> suggestCompanyNames(String prefix, int limit) {
+        return MetricsRegistry.timed("StaffController.suggestCompanyNames", () -> {
+            return internships.suggestCompanyNames(prefix, limit);
+        });
+    }
+
+    /**
+     * suggest preferred majors for filter autocomplete, ranked by number of postings
+     * @param prefix text typed so far
+     * @param limit maximum number of suggestions
+     * @return matching majors, most postings first
+     */
+    public List<String> suggestMajors(String prefix, int limit) {
+        return MetricsRegistry.timed("StaffController.suggestMajors", () -> {
+            return internships.suggestMajors(prefix, limit);
+        });
+    }
+
+    /**
+     * mark application withdrawn and close its withdrawal request
+     * @param app working copy
+     */
+    private static void withdraw(InternshipApplication app) {
+        app.setStatus(InternshipApplication.Status.WITHDRAWN);
+        app.clearWithdrawalRequest();
+    }
+
+    /**
+     * close the withdrawal request, leaving the application's status and acceptance as they were
+     * @param app working copy
+     */
+    private static void keep(InternshipApplication app) {
+        app.clearWithdrawalRequest();
+    }
+
+    /**
+     * write a decided copy of an application into a unit of work
+     * withdrawing an accepted placement releases its confirmed slot on the internship, which
+     * reverts from FILLED to APPROVED; the unit must hold the internship's key
+     * @param tx unit of work holding the applicant's key
+     * @param decided decided copy carrying the version it was read at
+     * @throws VersionConflictException if the application was saved since it was read
+     */
+    private void commitDecision(UnitOfWork tx, InternshipApplication decided) {
+        InternshipApplication app = tx.edit(decided, decided.getVersion());
+        if (app.studentAccepted() && app.getStatus() != InternshipApplication.Status.WITHDRAWN
+                && decided.getStatus() == InternshipApplication.Status.WITHDRAWN) {
+            internships.findById(app.getInternshipId()).ifPresent(i -> tx.edit(i).releaseConfirmedSlot());
+        }
+        app.copyStateFrom(decided);
+    }
+
+    /**
+     * approve or reject representatives still awaiting approval with one batch save
+     * @param reps representatives to decide
+     * @param approve true to approve, false to reject
+     * @return applied and skipped ids
+     */
+    private BatchResult decideCompanyReps(Collection<CompanyRepresentative> reps, boolean approve) {
+        return decide(reps, CompanyRepresentative::getUserId, CompanyRepresentative::copy, CompanyRepresentative::isPending,
+                approve ? rep -> rep.setApproved(true) : rep -> rep.setRejected(true), users::saveAll);
+    }
+
+    /**
+     * move pending internships to a decided status with one batch save
+     * @param batch internships to decide
+     * @param status APPROVED or REJECTED
+     * @return applied and skipped ids
+     */
+    private BatchResult decideInternships(Collection<Internship> batch, Internship.Status status) {
+        return decide(batch, Internship::getId, Internship::copy, i -> i.getStatus() == Internship.Status.PENDING,
+                i -> i.setStatus(status), internships::saveAll);
+    }
+
+    /**
+     * decide open withdrawal requests in one unit of work locking every applicant involved
+     * and the internship of every accepted placement
+     * @param name flow name recorded in the transaction log
+     * @param batch applications to decide
+     * @param decision change applied to each working copy
+     * @return applied and skipped ids
+     */
+    private BatchResult decideWithdrawals(String name, Collection<InternshipApplication> batch,
+                                          Consumer<InternshipApplication> decision) {
+        return decide(batch, InternshipApplication::getId, InternshipApplication::copy,
+                InternshipApplication::isWithdrawalRequested, decision, copies -> {
+                    List<String> keys = Stream.concat(
+                            copies.stream().map(a -> TransactionManager.studentKey(a.getStudentId())),
+                            copies.stream().filter(InternshipApplication::studentAccepted)
+                                    .map(a -> TransactionManager.internshipKey(a.getInternshipId())))
+                            .distinct()
+                            .toList();
+                    transactions.run(name, keys, tx -> copies.forEach(c -> commitDecision(tx, c)));
+                });
+    }
+
+    /**
+     * shared batch decision: copy each item, skip copies no longer pending, decide the rest and
+     * persist them together; an item changed by someone else is dropped and the rest retried
+     * @param <T> entity type
+     * @param items items the caller read
+     * @param id entity id
+     * @param copy working copy carrying the version it was taken at
+     * @param pending true while the item still awaits a decision
+     * @param decision change applied to each pending working copy
+     * @param persist all-or-nothing batch save of working copies
+     * @return applied and skipped ids
+     */
+    private static <T> BatchResult decide(Collection<T> items, Function<T, String> id, UnaryOperator<T> copy,
+                                          Predicate<T> pending, Consumer<T> decision, Consumer<List<T>> persist) {
+        BatchResult result = new BatchResult();
+        List<T> batch = new ArrayList<>();
+        for (T item : items) {
+            T working = copy.apply(item);
+            if (!pending.test(working)) {
+                result.skipped(id.apply(item), "already decided");
+                continue;
+            }
+            decision.accept(working);
+            batch.add(working);
+        }
+        while (!batch.isEmpty()) {
+            try {
+                persist.accept(batch);
+                break;
+            } catch (VersionConflictException e) {
+                if (!batch.removeIf(c -> id.apply(c).equals(e.getEntityId()))) throw e;
+                result.skipped(e.getEntityId(), "changed by someone else");
+            }
+        }
+        for (T c : batch) result.applied(id.apply(c));
+        BATCH_ROWS.record(batch.size());
+        return result;
+    }
+}
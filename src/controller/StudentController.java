@@ -4,19 +4,30 @@ import java.time.LocalDate;
 import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
+import metrics.MetricsRegistry;
+import model.ApplicationView;
 import model.Internship;
 import model.InternshipApplication;
 import model.InternshipFilter;
 import model.Student;
+import ratelimit.RateLimitExceededException;
+import ratelimit.RateLimits;
 import repository.InternshipAppRepository;
 import repository.InternshipRepository;
 import repository.UserRepository;
+import session.Session;
+import transaction.TransactionManager;
+import transaction.UnitOfWork;
 
 /**
  * controller class responsible for student-related internship operations
  * handles internship searching, eligibility checking, application submission,
  * acceptance actions, and withdrawal logic
+ * every public operation is timed into the global metrics registry; operations returning a
+ * lazy stream are timed while the stream is consumed, not while it is built
  */
 public class StudentController {
 
@@ -29,18 +40,36 @@ public class StudentController {
     /** repository storing all registered users */
     private final UserRepository users;
 
+    /** runs multi-entity flows as all-or-nothing units */
+    private final TransactionManager transactions;
+
+    /** batches queued applications during rushes */
+    private final AdmissionPipeline admissions;
+
+    /** rate limits for expensive queries */
+    private final RateLimits limits;
+
     /**
      * construct controller with required repositories
      * @param internshipRepo repository containing internship records
      * @param appRepo repository containing internship application records
      * @param userRepo repository containing user records
+     * @param transactions transaction manager over internship and application repositories
+     * @param limits rate limits for expensive queries
      */
     public StudentController(InternshipRepository internshipRepo,
                              InternshipAppRepository appRepo,
-                             UserRepository userRepo) {
+                             UserRepository userRepo,
+                             TransactionManager transactions,
+                             RateLimits limits) {
         this.internships = internshipRepo;
         this.applications = appRepo;
         this.users = userRepo;
+        this.transactions = transactions;
+        this.limits = limits;
+        this.admissions = new AdmissionPipeline(this, transactions,
+                Integer.getInteger("ipms.admission.capacity", 10_000),
+                Integer.getInteger("ipms.admission.batch", 256));
     }
 
     /**
@@ -49,35 +78,56 @@ public class StudentController {
      * @return sorted list of eligible internships
      */
     public List<Internship> getEligibleInternships(Student s) {
-        LocalDate currDate = LocalDate.now();
-
-        return internships.findAll().stream()
-            .filter(i -> i.getStatus() == Internship.Status.APPROVED)
-            .filter(Internship::getVisibility)
-            .filter(i -> i.isOpen(currDate))
-            .filter(i -> i.getMajor().equalsIgnoreCase(s.getMajor()))
-            .filter(i -> isLevelAllowed(s, i))
-            .sorted(Comparator.comparing(Internship::getTitle))
-            .toList();
+        return MetricsRegistry.timed("StudentController.getEligibleInternships", () -> {
+            return streamEligibleInternships(s)
+                .sorted(Comparator.comparing(Internship::getTitle))
+                .toList();
+        });
     }
 
     /**
-     * retrieve list of eligible internships for student using additional custom filters
+     * lazily stream eligible internships for student in storage order
+     * stream is weakly consistent with concurrent repository writes
      * @param s student requesting results
+     * @return unsorted stream of eligible internships
+     */
+    public Stream<Internship> streamEligibleInternships(Student s) {
+        return MetricsRegistry.timedStream("StudentController.streamEligibleInternships", () -> {
+            LocalDate currDate = LocalDate.now();
+
+            return internships.streamByStatus(Internship.Status.APPROVED)
+                .filter(Internship::getVisibility)
+                .filter(i -> i.isOpen(currDate))
+                .filter(i -> i.getMajor().equalsIgnoreCase(s.getMajor()))
+                .filter(i -> isLevelAllowed(s, i));
+        });
+    }
+
+    /**
+     * retrieve list of eligible internships for a student's session using additional custom filters
+     * rate limited per session, since filtered browsing is the most expensive student query
+     * @param session session of the student requesting results
      * @param filter applied filter criteria
      * @return sorted list of eligible internships matching both eligibility and filter rules
+     * @throws IllegalArgumentException if the session does not belong to a student
+     * @throws RateLimitExceededException if the session is browsing too fast
      */
-    public List<Internship> getEligibleInternships(Student s, InternshipFilter filter) {
-        LocalDate today = LocalDate.now();
-
-        return internships.filter(filter).stream()
-            .filter(i -> i.getStatus() == Internship.Status.APPROVED)
-            .filter(Internship::getVisibility)
-            .filter(i -> i.isOpen(today))
-            .filter(i -> i.getMajor().equalsIgnoreCase(s.getMajor()))
-            .filter(i -> isLevelAllowed(s, i))
-            .sorted(Comparator.comparing(Internship::getTitle))
-            .toList();
+    public List<Internship> getEligibleInternships(Session session, InternshipFilter filter) {
+        return MetricsRegistry.timed("StudentController.getEligibleInternships", () -> {
+            if (!(session.getUser() instanceof Student s))
+                throw new IllegalArgumentException("Only students can browse eligible internships");
+            limits.query().acquire(session.getToken());
+            LocalDate today = LocalDate.now();
+
+            return internships.streamFilter(filter)
+                .filter(i -> i.getStatus() == Internship.Status.APPROVED)
+                .filter(Internship::getVisibility)
+                .filter(i -> i.isOpen(today))
+                .filter(i -> i.getMajor().equalsIgnoreCase(s.getMajor()))
+                .filter(i -> isLevelAllowed(s, i))
+                .sorted(Comparator.comparing(Internship::getTitle))
+                .toList();
+        });
     }
 
     /**
@@ -86,7 +136,33 @@ public class StudentController {
      * @return list of internship applications submitted by student
      */
     public List<InternshipApplication> getInternshipApplications(Student s) {
-        return applications.findByStudent(s.getUserId());
+        return MetricsRegistry.timed("StudentController.getInternshipApplications", () -> {
+            return applications.findByStudent(s.getUserId());
+        });
+    }
+
+    /**
+     * lazily stream internship applications created by the given student
+     * stream is weakly consistent with concurrent repository writes
+     * @param s student searching their applications
+     * @return stream of internship applications submitted by student
+     */
+    public Stream<InternshipApplication> streamInternshipApplications(Student s) {
+        return MetricsRegistry.timedStream("StudentController.streamInternshipApplications", () -> {
+            return applications.streamByStudent(s.getUserId());
+        });
+    }
+
+    /**
+     * join applications with their internships and students for display
+     * referenced entities are resolved with one bulk lookup per repository
+     * @param apps applications to display
+     * @return joined application views in the same order
+     */
+    public List<ApplicationView> getApplicationViews(List<InternshipApplication> apps) {
+        return MetricsRegistry.timed("StudentController.getApplicationViews", () -> {
+            return ApplicationViews.join(apps, internships, users);
+        });
     }
 
     /**
@@ -95,7 +171,9 @@ public class StudentController {
      * @return internship if found, null otherwise
      */
     public Internship getInternshipById(String internshipId) {
-        return internships.findById(internshipId).orElse(null);
+        return MetricsRegistry.timed("StudentController.getInternshipById", () -> {
+            return internships.findById(internshipId).orElse(null);
+        });
     }
 
     /**
@@ -111,24 +189,64 @@ public class StudentController {
 
     /**
      * create new internship application for student
+     * the accepted, limit and duplicate checks and the insert run as one unit of work under the
+     * student's lock stripe, so concurrent sessions of one student cannot get past the limit
+     * while other students apply in parallel
      * @param student user applying
      * @param internship internship being applied for
      * @throws IllegalArgumentException if internship not approved
      * @throws IllegalStateException if rules violated
      */
     public void applyInternship(Student student, Internship internship) {
+        MetricsRegistry.timed("StudentController.applyInternship", () -> {
+
+            transactions.run("applyInternship", List.of(TransactionManager.studentKey(student.getUserId())),
+                    tx -> admit(tx, student, internship));
+        });
+    }
+
+    /**
+     * queue an application for asynchronous admission, for rushes when a popular internship opens
+     * requests are decided in batches by the admission pipeline under the same rules as
+     * applyInternship; the returned future completes with the stored application or fails with
+     * the rule violation. when the queue is full the future fails at once with
+     * AdmissionRejectedException carrying a retry-after hint
+     * @param student user applying
+     * @param internship internship being applied for
+     * @return acknowledgement completing when the request has been decided
+     */
+    public CompletableFuture<InternshipApplication> submitApplication(Student student, Internship internship) {
+        return MetricsRegistry.timed("StudentController.submitApplication", () -> {
+            return admissions.submit(student, internship);
+        });
+    }
 
+    /**
+     * decide one application inside a unit of work holding the student's lock and stage it for insert
+     * applications staged earlier in the same unit count towards the limits, so a batch holding
+     * several requests of one student is decided exactly as if they had arrived one by one
+     * @param tx unit of work holding the student's lock key
+     * @param student user applying
+     * @param internship internship being applied for
+     * @return staged application
+     * @throws IllegalArgumentException if internship not approved
+     * @throws IllegalStateException if rules violated
+     */
+    InternshipApplication admit(UnitOfWork tx, Student student, Internship internship) {
         if (internship.getStatus() != Internship.Status.APPROVED) {
             throw new IllegalArgumentException("This internship is not approved yet!");
         }
 
-        boolean hasAccepted = applications.findByStudent(student.getUserId()).stream()
+        List<InternshipApplication> existing = Stream.concat(
+                applications.streamByStudent(student.getUserId()), tx.inserted(student.getUserId())).toList();
+
+        boolean hasAccepted = existing.stream()
             .anyMatch(app -> app.getStatus() == InternshipApplication.Status.SUCCESSFUL && app.studentAccepted());
         if (hasAccepted) {
             throw new IllegalStateException("You already have an accepted internship placement and cannot apply for new ones.");
         }
 
-        long activeCount = applications.findByStudent(student.getUserId()).stream()
+        long activeCount = existing.stream()
             .filter(app ->
                 app.getStatus() == InternshipApplication.Status.PENDING ||
                 (app.getStatus() == InternshipApplication.Status.SUCCESSFUL && !app.studentAccepted())
@@ -138,7 +256,7 @@ public class StudentController {
             throw new IllegalStateException("Maximum of 3 active internship applications allowed!");
         }
 
-        boolean alreadyApplied = applications.findByStudent(student.getUserId()).stream()
+        boolean alreadyApplied = existing.stream()
             .anyMatch(app -> app.getInternshipId().equals(internship.getId()));
         if (alreadyApplied) {
             throw new IllegalStateException("You have already applied for this internship.");
@@ -149,12 +267,14 @@ public class StudentController {
             student.getUserId(),
             internship.getId()
         );
-
-        applications.save(newApp);
+        tx.insert(newApp);
+        return newApp;
     }
 
     /**
      * accept a successful internship application and auto-withdraw all others
+     * runs as one unit of work locking the student and the internship: the acceptance, the
+     * confirmed slot and every auto-withdrawal are committed together or not at all
      * @param student requesting student
      * @param internshipApplication application being accepted
      * @param internship internship associated with application
@@ -164,31 +284,31 @@ public class StudentController {
     public void acceptInternship(Student student,
                                  InternshipApplication internshipApplication,
                                  Internship internship) {
+        MetricsRegistry.timed("StudentController.acceptInternship", () -> {
+            List<String> keys = List.of(TransactionManager.studentKey(student.getUserId()),
+                    TransactionManager.internshipKey(internship.getId()));
+            transactions.run("acceptInternship", keys, tx -> {
+                if (!internshipApplication.getStudentId().equals(student.getUserId()))
+                    throw new IllegalArgumentException("This application does not belong to you!");
 
-        if (!internshipApplication.getStudentId().equals(student.getUserId()))
-            throw new IllegalArgumentException("This application does not belong to you!");
-
-        if (internshipApplication.getStatus() != InternshipApplication.Status.SUCCESSFUL)
-            throw new IllegalArgumentException("You can only accept applications that are successful.");
+                InternshipApplication app = tx.edit(internshipApplication);
+                if (app.getStatus() != InternshipApplication.Status.SUCCESSFUL)
+                    throw new IllegalArgumentException("You can only accept applications that are successful.");
 
-        boolean alreadyAccepted = applications.findByStudent(student.getUserId()).stream()
-                .anyMatch(InternshipApplication::studentAccepted);
+                boolean alreadyAccepted = applications.streamByStudent(student.getUserId())
+                        .anyMatch(InternshipApplication::studentAccepted);
 
-        if (alreadyAccepted)
-            throw new IllegalStateException("You have already accepted an internship and cannot accept another.");
+                if (alreadyAccepted)
+                    throw new IllegalStateException("You have already accepted an internship and cannot accept another.");
 
-        internshipApplication.accept();
-        applications.save(internshipApplication);
+                app.accept();
+                tx.edit(internship).addConfirmedSlot();
 
-        internship.addConfirmedSlot();
-        internships.save(internship);
-
-        applications.findByStudent(student.getUserId()).stream()
-            .filter(app -> !app.getId().equals(internshipApplication.getId()))
-            .forEach(app -> {
-                app.setStatus(InternshipApplication.Status.WITHDRAWN);
-                applications.save(app);
+                applications.streamByStudent(student.getUserId())
+                    .filter(other -> !other.getId().equals(app.getId()))
+                    .forEach(other -> tx.edit(other).setStatus(InternshipApplication.Status.WITHDRAWN));
             });
+        });
     }
 
     /**
@@ -198,19 +318,24 @@ public class StudentController {
      * @throws IllegalStateException if not owned or not eligible for withdrawal
      */
     public void withdrawFromInternship(Student student, InternshipApplication application) {
-        if (!application.getStudentId().equals(student.getUserId())) {
-            throw new IllegalStateException("You can only withdraw from Internship applications made by you.");
-        }
-
-        if (application.getStatus() == InternshipApplication.Status.WITHDRAWN ||
-            application.getStatus() == InternshipApplication.Status.UNSUCCESSFUL) {
-            throw new IllegalStateException("This Internship application cannot be withdrawn from.");
-        }
-
-        if (application.getStatus() == InternshipApplication.Status.PENDING ||
-            application.getStatus() == InternshipApplication.Status.SUCCESSFUL) {
-            application.requestWithdrawal();
-        }
+        MetricsRegistry.timed("StudentController.withdrawFromInternship", () -> {
+            if (!application.getStudentId().equals(student.getUserId())) {
+                throw new IllegalStateException("You can only withdraw from Internship applications made by you.");
+            }
+
+            transactions.run("requestWithdrawal", List.of(TransactionManager.studentKey(student.getUserId())), tx -> {
+                InternshipApplication app = tx.edit(application);
+                if (app.getStatus() == InternshipApplication.Status.WITHDRAWN ||
+                    app.getStatus() == InternshipApplication.Status.UNSUCCESSFUL) {
+                    throw new IllegalStateException("This Internship application cannot be withdrawn from.");
+                }
+
+                if (app.getStatus() == InternshipApplication.Status.PENDING ||
+                    app.getStatus() == InternshipApplication.Status.SUCCESSFUL) {
+                    app.requestWithdrawal();
+                }
+            });
+        });
     }
 
     /**
@@ -219,9 +344,37 @@ public class StudentController {
      * @return matching student or null if not found
      */
     public Student getStudentById(String studentId) {
-        return users.findById(studentId)
-                    .filter(u -> u instanceof Student)
-                    .map(u -> (Student) u)
-                    .orElse(null);
+        return MetricsRegistry.timed("StudentController.getStudentById", () -> {
+            return users.findById(studentId)
+                        .filter(u -> u instanceof Student)
+                        .map(u -> (Student) u)
+                        .orElse(null);
+        });
+    }
+
+    /**
+     * suggest company names for filter autocomplete, ranked by number of approved, visible postings
+     * pending, rejected and hidden postings are never suggested to students
+     * @param prefix text typed so far
+     * @param limit maximum number of suggestions
+     * @return matching company names, most listed postings first
+     */
+    public List<String> suggestCompanyNames(String prefix, int limit) {
+        return MetricsRegistry.timed("StudentController.suggestCompanyNames", () -> {
+            return internships.suggestListedCompanyNames(prefix, limit);
+        });
+    }
+
+    /**
+     * suggest preferred majors for filter autocomplete, ranked by number of approved, visible postings
+     * pending, rejected and hidden postings are never suggested to students
+     * @param prefix text typed so far
+     * @param limit maximum number of suggestions
+     * @return matching majors, most listed postings first
+     */
+    public List<String> suggestMajors(String prefix, int limit) {
+        return MetricsRegistry.timed("StudentController.suggestMajors", () -> {
+            return internships.suggestListedMajors(prefix, limit);
+        });
     }
 }
@@ -0,0 +1,38 @@
+package event;
+
+/**
+ * student acceptance of a successful application, persisted by the application repository
+ */
+public class ApplicationAccepted extends DomainEvent {
+
+    private final String applicationId;
+    private final String studentId;
+    private final String internshipId;
+
+    /**
+     * create event
+     * @param applicationId accepted application id
+     * @param studentId accepting student id
+     * @param internshipId accepted internship id
+     */
+    public ApplicationAccepted(String applicationId, String studentId, String internshipId) {
+        this.applicationId = applicationId;
+        this.studentId = studentId;
+        this.internshipId = internshipId;
+    }
+
+    /** @return accepted application id */
+    public String getApplicationId() { return applicationId; }
+
+    /** @return accepting student id */
+    public String getStudentId() { return studentId; }
+
+    /** @return accepted internship id */
+    public String getInternshipId() { return internshipId; }
+
+    /** @return single line description */
+    @Override
+    public String toString() {
+        return "ApplicationAccepted " + applicationId;
+    }
+}
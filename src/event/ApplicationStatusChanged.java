@@ -0,0 +1,55 @@
+package event;
+
+import model.InternshipApplication;
+
+/**
+ * application status change persisted by the application repository, e.g. a representative's
+ * approval or rejection or a student's withdrawal
+ * creation is published with no previous status and deletion with no new status
+ */
+public class ApplicationStatusChanged extends DomainEvent {
+
+    private final String applicationId;
+    private final String studentId;
+    private final String internshipId;
+    private final InternshipApplication.Status from;
+    private final InternshipApplication.Status to;
+
+    /**
+     * create event
+     * @param applicationId application id
+     * @param studentId owning student id
+     * @param internshipId target internship id
+     * @param from previous status, null on creation
+     * @param to new status, null on deletion
+     */
+    public ApplicationStatusChanged(String applicationId, String studentId, String internshipId,
+                                    InternshipApplication.Status from, InternshipApplication.Status to) {
+        this.applicationId = applicationId;
+        this.studentId = studentId;
+        this.internshipId = internshipId;
+        this.from = from;
+        this.to = to;
+    }
+
+    /** @return application id */
+    public String getApplicationId() { return applicationId; }
+
+    /** @return owning student id */
+    public String getStudentId() { return studentId; }
+
+    /** @return target internship id */
+    public String getInternshipId() { return internshipId; }
+
+    /** @return previous status, null on creation */
+    public InternshipApplication.Status getFrom() { return from; }
+
+    /** @return new status, null on deletion */
+    public InternshipApplication.Status getTo() { return to; }
+
+    /** @return single line description */
+    @Override
+    public String toString() {
+        return "ApplicationStatusChanged " + applicationId + " " + from + "->" + to;
+    }
+}
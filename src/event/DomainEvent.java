@@ -0,0 +1,22 @@
+package event;
+
+/**
+ * base of every state change published on the event bus
+ * events are immutable and carry ids rather than entity references, so a subscriber that needs
+ * current state reads it from the repository when the event is delivered
+ */
+public abstract class DomainEvent {
+
+    /** System.nanoTime when the change happened, used to measure delivery lag */
+    private final long occurredAt = System.nanoTime();
+
+    /** @return System.nanoTime at which the change happened */
+    public long getOccurredAt() {
+        return occurredAt;
+    }
+
+    /** @return event type name, used as a metric label */
+    public String getType() {
+        return getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,305 @@
+package event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import metrics.Counter;
+import metrics.Gauge;
+import metrics.Histogram;
+import metrics.MetricsRegistry;
+import metrics.Timer;
+
+/**
+ * in-process publish/subscribe bus for domain state changes
+ *
+ * repositories publish an event for every change they persist; caches and read models
+ * subscribe to the event types they depend on instead of controllers calling them directly.
+ * each subscription owns a bounded lock-free ring buffer and a daemon delivery thread that
+ * drains it in batches, so a slow subscriber only delays itself. publishing is a few
+ * compare-and-sets per matching subscription and never blocks, which keeps it safe to call
+ * while a repository holds its write lock. when a subscription's ring is full its events are
+ * dropped and counted, and the subscriber is told through onOverflow so it can rebuild
+ *
+ * a multi-step write can hold its events back with publishOnSuccess, so subscribers only hear
+ * about it once every step has succeeded; silently drops the events of state being put back
+ *
+ * metrics: events_published_total{type}, and per subscription events_delivered_total,
+ * events_dropped_total, event_handler_errors_total, gauge event_subscriber_lag (events
+ * published but not yet handled), histogram EventBus.batch.rows and timer EventBus.deliveryLag
+ * (age of the oldest event in each batch)
+ */
+public class EventBus {
+
+    /** default ring capacity per subscription */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    /** default maximum batch handed to a subscriber */
+    public static final int DEFAULT_BATCH = 256;
+
+    /** longest an idle delivery thread parks before rechecking its ring */
+    private static final long PARK_NANOS = 100_000_000L;
+
+    /** published event counters by event class */
+    private static final ClassValue<Counter> PUBLISHED = new ClassValue<>() {
+        @Override
+        protected Counter computeValue(Class<?> type) {
+            return MetricsRegistry.global().counter("events_published_total{type=" + type.getSimpleName() + "}");
+        }
+    };
+
+    /** events held back on this thread by publishOnSuccess or silently, null when publishing directly */
+    private static final ThreadLocal<List<Held>> HELD = new ThreadLocal<>();
+
+    /**
+     * event held back together with the bus it was published on
+     */
+    private static final class Held {
+        final EventBus bus;
+        final DomainEvent event;
+
+        Held(EventBus bus, DomainEvent event) {
+            this.bus = bus;
+            this.event = event;
+        }
+    }
+
+    /** live subscriptions, replaced as a whole on subscribe and cancel */
+    private volatile Subscription<?>[] subscriptions = new Subscription<?>[0];
+
+    /**
+     * deliver event to every subscription whose type matches, without blocking
+     * @param event published event
+     */
+    public void publish(DomainEvent event) {
+        List<Held> held = HELD.get();
+        if (held != null) {
+            held.add(new Held(this, event));
+            return;
+        }
+        deliver(event);
+    }
+
+    /**
+     * run work with every event it publishes on this thread, on any bus, held back; the events
+     * are published in order once work returns and dropped if it throws
+     * a call nested in another publishOnSuccess joins the outer one
+     * @param work multi-step write
+     */
+    public static void publishOnSuccess(Runnable work) {
+        if (HELD.get() != null) {
+            work.run();
+            return;
+        }
+        List<Held> held = new ArrayList<>();
+        HELD.set(held);
+        try {
+            work.run();
+        } finally {
+            HELD.remove();
+        }
+        for (Held h : held) h.bus.deliver(h.event);
+    }
+
+    /**
+     * run work with every event it publishes on this thread, on any bus, dropped
+     * for putting back state that subscribers were never told had changed
+     * @param work write whose events are dropped
+     */
+    public static void silently(Runnable work) {
+        List<Held> outer = HELD.get();
+        HELD.set(new ArrayList<>());
+        try {
+            work.run();
+        } finally {
+            if (outer == null) HELD.remove();
+            else HELD.set(outer);
+        }
+    }
+
+    /**
+     * count event and offer it to every matching subscription
+     * @param event published event
+     */
+    private void deliver(DomainEvent event) {
+        PUBLISHED.get(event.getClass()).inc();
+        for (Subscription<?> s : subscriptions) s.offer(event);
+    }
+
+    /**
+     * subscribe with default capacity and batch size
+     * @param <E> event type
+     * @param name subscription name, used for the delivery thread and metric labels
+     * @param type event class; subclasses match too
+     * @param subscriber batch handler
+     * @return started subscription
+     */
+    public <E extends DomainEvent> Subscription<E> subscribe(String name, Class<E> type, EventSubscriber<E> subscriber) {
+        return subscribe(name, type, DEFAULT_CAPACITY, DEFAULT_BATCH, subscriber);
+    }
+
+    /**
+     * subscribe and start the delivery thread
+     * @param <E> event type
+     * @param name subscription name, used for the delivery thread and metric labels
+     * @param type event class; subclasses match too
+     * @param capacity ring capacity, a power of two
+     * @param maxBatch maximum events per onEvents call
+     * @param subscriber batch handler
+     * @return started subscription
+     */
+    public synchronized <E extends DomainEvent> Subscription<E> subscribe(String name, Class<E> type, int capacity,
+                                                                         int maxBatch, EventSubscriber<E> subscriber) {
+        if (maxBatch < 1) throw new IllegalArgumentException("Batch size must be positive: " + maxBatch);
+        Subscription<E> s = new Subscription<>(this, name, type, capacity, maxBatch, subscriber);
+        Subscription<?>[] next = Arrays.copyOf(subscriptions, subscriptions.length + 1);
+        next[next.length - 1] = s;
+        subscriptions = next;
+        s.thread.start();
+        return s;
+    }
+
+    /**
+     * drop a subscription from the publish list
+     * @param s subscription to remove
+     */
+    private synchronized void remove(Subscription<?> s) {
+        List<Subscription<?>> next = new ArrayList<>(Arrays.asList(subscriptions));
+        next.remove(s);
+        subscriptions = next.toArray(new Subscription<?>[0]);
+    }
+
+    /**
+     * one subscriber's queue and delivery thread
+     * @param <E> event type
+     */
+    public static final class Subscription<E extends DomainEvent> {
+
+        private final EventBus bus;
+        private final String name;
+        private final Class<E> type;
+        private final int maxBatch;
+        private final EventSubscriber<E> subscriber;
+        private final RingBuffer<E> ring;
+        private final Thread thread;
+
+        /** events dropped since the subscriber was last told */
+        private final AtomicLong lost = new AtomicLong();
+
+        /** set by the delivery thread before it parks, so publishers know to wake it */
+        private volatile boolean waiting;
+
+        /** set once cancelled */
+        private volatile boolean cancelled;
+
+        private final Counter delivered;
+        private final Counter dropped;
+        private final Counter errors;
+        private final Histogram batchRows;
+        private final Timer deliveryLag;
+
+        /** name and instance of the lag gauge, unregistered on cancel */
+        private final String lagName;
+        private final Gauge lag;
+
+        private Subscription(EventBus bus, String name, Class<E> type, int capacity, int maxBatch,
+                             EventSubscriber<E> subscriber) {
+            this.bus = bus;
+            this.name = name;
+            this.type = type;
+            this.maxBatch = maxBatch;
+            this.subscriber = subscriber;
+            this.ring = new RingBuffer<>(capacity);
+            MetricsRegistry registry = MetricsRegistry.global();
+            String label = "{subscriber=" + name + "}";
+            this.delivered = registry.counter("events_delivered_total" + label);
+            this.dropped = registry.counter("events_dropped_total" + label);
+            this.errors = registry.counter("event_handler_errors_total" + label);
+            this.batchRows = registry.histogram("EventBus.batch.rows" + label);
+            this.deliveryLag = registry.timer("EventBus.deliveryLag" + label);
+            this.lagName = "event_subscriber_lag" + label;
+            this.lag = ring::size;
+            registry.gauge(lagName, lag);
+            this.thread = new Thread(this::deliver, "event-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        /** @return subscription name */
+        public String getName() {
+            return name;
+        }
+
+        /** @return events queued but not yet handed to the subscriber */
+        public long getLag() {
+            return ring.size();
+        }
+
+        /**
+         * stop delivery and unregister the lag gauge; events still queued are discarded
+         */
+        public void cancel() {
+            cancelled = true;
+            bus.remove(this);
+            MetricsRegistry.global().removeGauge(lagName, lag);
+            LockSupport.unpark(thread);
+        }
+
+        /**
+         * queue event if it matches this subscription's type, waking the delivery thread
+         * @param event published event
+         */
+        private void offer(DomainEvent event) {
+            if (!type.isInstance(event)) return;
+            if (!ring.offer(type.cast(event))) {
+                lost.incrementAndGet();
+                dropped.inc();
+                return;
+            }
+            if (waiting) LockSupport.unpark(thread);
+        }
+
+        /**
+         * delivery loop: report losses, then hand queued events over in batches, parking
+         * while the ring is empty
+         */
+        private void deliver() {
+            List<E> batch = new ArrayList<>(Math.min(maxBatch, ring.capacity()));
+            while (!cancelled) {
+                long missed = lost.getAndSet(0);
+                if (missed > 0) handle(() -> subscriber.onOverflow(missed));
+
+                if (ring.drainTo(batch, maxBatch) == 0) {
+                    waiting = true;
+                    if (ring.isEmpty() && lost.get() == 0 && !cancelled) LockSupport.parkNanos(this, PARK_NANOS);
+                    waiting = false;
+                    continue;
+                }
+                deliveryLag.record(System.nanoTime() - batch.get(0).getOccurredAt());
+                batchRows.record(batch.size());
+                List<E> events = List.copyOf(batch);
+                handle(() -> subscriber.onEvents(events));
+                delivered.add(batch.size());
+                batch.clear();
+            }
+        }
+
+        /**
+         * run a subscriber callback; a failure is counted and passed to the subscriber's onError,
+         * and delivery carries on
+         * @param callback subscriber call
+         */
+        private void handle(Runnable callback) {
+            try {
+                callback.run();
+            } catch (RuntimeException ex) {
+                errors.inc();
+                try {
+                    subscriber.onError(ex);
+                } catch (RuntimeException ignored) {
+                    // already counted; a failing error handler must not stop delivery
+                }
+            }
+        }
+    }
+}
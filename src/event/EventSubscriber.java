@@ -0,0 +1,35 @@
+package event;
+
+import java.util.List;
+
+/**
+ * receiver of batched events from an EventBus subscription
+ * every call is made from the subscription's own delivery thread, one at a time and in
+ * publish order
+ * @param <E> event type
+ */
+@FunctionalInterface
+public interface EventSubscriber<E extends DomainEvent> {
+
+    /**
+     * handle a batch of events
+     * @param events one or more events, oldest first, as an immutable list the subscriber may keep
+     */
+    void onEvents(List<E> events);
+
+    /**
+     * called before the next batch when events were dropped because the queue was full
+     * subscribers that keep derived state should rebuild it from the repositories here
+     * @param lost number of events dropped
+     */
+    default void onOverflow(long lost) {
+    }
+
+    /**
+     * called when onEvents or onOverflow threw; the failure is already counted in
+     * event_handler_errors_total and delivery carries on with the next batch
+     * @param failure exception thrown by the callback
+     */
+    default void onError(RuntimeException failure) {
+    }
+}
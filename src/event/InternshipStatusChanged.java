@@ -0,0 +1,47 @@
+package event;
+
+import model.Internship;
+
+/**
+ * internship status change persisted by the internship repository, e.g. staff approval
+ * creation is published with no previous status and deletion with no new status
+ */
+public class InternshipStatusChanged extends DomainEvent {
+
+    private final String internshipId;
+    private final String repId;
+    private final Internship.Status from;
+    private final Internship.Status to;
+
+    /**
+     * create event
+     * @param internshipId internship id
+     * @param repId owning representative id
+     * @param from previous status, null on creation
+     * @param to new status, null on deletion
+     */
+    public InternshipStatusChanged(String internshipId, String repId, Internship.Status from, Internship.Status to) {
+        this.internshipId = internshipId;
+        this.repId = repId;
+        this.from = from;
+        this.to = to;
+    }
+
+    /** @return internship id */
+    public String getInternshipId() { return internshipId; }
+
+    /** @return owning representative id */
+    public String getRepId() { return repId; }
+
+    /** @return previous status, null on creation */
+    public Internship.Status getFrom() { return from; }
+
+    /** @return new status, null on deletion */
+    public Internship.Status getTo() { return to; }
+
+    /** @return single line description */
+    @Override
+    public String toString() {
+        return "InternshipStatusChanged " + internshipId + " " + from + "->" + to;
+    }
+}
@@ -0,0 +1,105 @@
+package event;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * bounded lock-free ring buffer for many producers and one consumer
+ *
+ * each slot carries a sequence number telling whose turn it is: a producer claims the next
+ * position with one compare-and-set on the tail, writes the element and then publishes it by
+ * advancing the slot's sequence; the consumer takes a slot once its sequence shows it published
+ * and hands the slot back one lap later. offer never blocks and fails when the ring is full
+ * @param <E> element type
+ */
+final class RingBuffer<E> {
+
+    /** elements, published by the matching sequence write */
+    private final Object[] items;
+
+    /** per-slot sequence: position when free for that position, position + 1 when filled */
+    private final AtomicLongArray sequences;
+
+    /** capacity - 1, capacity being a power of two */
+    private final int mask;
+
+    /** next position producers claim */
+    private final AtomicLong tail = new AtomicLong();
+
+    /** next position the consumer takes, written only by the consumer */
+    private volatile long head;
+
+    /**
+     * create ring
+     * @param capacity number of slots, a power of two
+     */
+    RingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        this.items = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) sequences.set(i, i);
+    }
+
+    /**
+     * add element without blocking
+     * @param e element
+     * @return false if the ring is full
+     */
+    boolean offer(E e) {
+        while (true) {
+            long t = tail.get();
+            int idx = (int) t & mask;
+            long seq = sequences.get(idx);
+            if (seq == t) {
+                if (tail.compareAndSet(t, t + 1)) {
+                    items[idx] = e;
+                    sequences.set(idx, t + 1);
+                    return true;
+                }
+            } else if (seq < t) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * move up to max published elements into out; consumer thread only
+     * @param out receiving list
+     * @param max maximum elements to move
+     * @return number moved
+     */
+    @SuppressWarnings("unchecked")
+    int drainTo(List<? super E> out, int max) {
+        long h = head;
+        int n = 0;
+        while (n < max) {
+            int idx = (int) h & mask;
+            if (sequences.get(idx) != h + 1) break;
+            out.add((E) items[idx]);
+            items[idx] = null;
+            sequences.set(idx, h + items.length);
+            h++;
+            n++;
+        }
+        head = h;
+        return n;
+    }
+
+    /** @return true if no published element is waiting; consumer thread only */
+    boolean isEmpty() {
+        return sequences.get((int) head & mask) != head + 1;
+    }
+
+    /** @return approximate number of claimed but not yet consumed elements */
+    long size() {
+        return Math.max(0, tail.get() - head);
+    }
+
+    /** @return number of slots */
+    int capacity() {
+        return items.length;
+    }
+}
@@ -0,0 +1,38 @@
+package event;
+
+/**
+ * student request to withdraw an application, persisted by the application repository
+ */
+public class WithdrawalRequested extends DomainEvent {
+
+    private final String applicationId;
+    private final String studentId;
+    private final String internshipId;
+
+    /**
+     * create event
+     * @param applicationId application id
+     * @param studentId requesting student id
+     * @param internshipId target internship id
+     */
+    public WithdrawalRequested(String applicationId, String studentId, String internshipId) {
+        this.applicationId = applicationId;
+        this.studentId = studentId;
+        this.internshipId = internshipId;
+    }
+
+    /** @return application id */
+    public String getApplicationId() { return applicationId; }
+
+    /** @return requesting student id */
+    public String getStudentId() { return studentId; }
+
+    /** @return target internship id */
+    public String getInternshipId() { return internshipId; }
+
+    /** @return single line description */
+    @Override
+    public String toString() {
+        return "WithdrawalRequested " + applicationId;
+    }
+}
@@ -0,0 +1,49 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * flight recorder event for an application status change observed when the application is saved
+ * creation is recorded as a transition from no status
+ */
+@Name("ipms.ApplicationTransition")
+@Label("Application Status Transition")
+@Category({ "IPMS", "Repository" })
+@Description("InternshipApplication status change persisted by the application repository")
+public class ApplicationTransitionEvent extends Event {
+
+    @Label("Application Id")
+    String applicationId;
+
+    @Label("Student Id")
+    String studentId;
+
+    @Label("Internship Id")
+    String internshipId;
+
+    @Label("From Status")
+    String fromStatus;
+
+    @Label("To Status")
+    String toStatus;
+
+    /**
+     * fill event fields
+     * @param applicationId application id
+     * @param studentId owning student id
+     * @param internshipId target internship id
+     * @param from previous status, null on creation
+     * @param to new status
+     */
+    public void set(String applicationId, String studentId, String internshipId, Enum<?> from, Enum<?> to) {
+        this.applicationId = applicationId;
+        this.studentId = studentId;
+        this.internshipId = internshipId;
+        this.fromStatus = from == null ? null : from.name();
+        this.toStatus = to == null ? null : to.name();
+    }
+}
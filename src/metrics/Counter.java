@@ -0,0 +1,31 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * monotonically increasing lock-free counter
+ * backed by LongAdder so concurrent increments from many threads do not contend
+ */
+public class Counter {
+
+    /** running total */
+    private final LongAdder value = new LongAdder();
+
+    /** increment by one */
+    public void inc() {
+        value.increment();
+    }
+
+    /**
+     * increment by given amount
+     * @param n amount to add, must not be negative
+     */
+    public void add(long n) {
+        value.add(n);
+    }
+
+    /** @return current total */
+    public long get() {
+        return value.sum();
+    }
+}
@@ -0,0 +1,76 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import model.InternshipFilter;
+
+/**
+ * flight recorder event for one internship filter query
+ * duration comes from begin/commit; fields are only filled in when the event will be committed,
+ * so a disabled event costs a few instructions and no allocation after escape analysis
+ */
+@Name("ipms.FilterQuery")
+@Label("Internship Filter Query")
+@Category({ "IPMS", "Repository" })
+@Description("InternshipRepository.filter call with its criteria, candidate and result counts")
+@StackTrace(false)
+public class FilterQueryEvent extends Event {
+
+    @Label("Status")
+    String status;
+
+    @Label("Major")
+    String major;
+
+    @Label("Level")
+    String level;
+
+    @Label("Company Name")
+    String companyName;
+
+    @Label("Representative Id")
+    String repId;
+
+    @Label("Minimum Slots")
+    int slotsMin = -1;
+
+    @Label("Maximum Slots")
+    int slotsMax = -1;
+
+    @Label("Start Date")
+    String startDate;
+
+    @Label("End Date")
+    String endDate;
+
+    @Label("Candidates Scanned")
+    @Description("Rows read from the chosen index or full scan before predicate checks")
+    int candidateCount;
+
+    @Label("Results Returned")
+    int resultCount;
+
+    /**
+     * copy criteria and counts into event fields
+     * @param filter executed filter
+     * @param candidates rows scanned
+     * @param results rows returned
+     */
+    public void set(InternshipFilter filter, int candidates, int results) {
+        status = filter.getStatus() == null ? null : filter.getStatus().name();
+        major = filter.getMajor();
+        level = filter.getLevel() == null ? null : filter.getLevel().name();
+        companyName = filter.getCompanyName();
+        repId = filter.getRepId();
+        slotsMin = filter.getSlotsMin() == null ? -1 : filter.getSlotsMin();
+        slotsMax = filter.getSlotsMax() == null ? -1 : filter.getSlotsMax();
+        startDate = filter.getStartDate() == null ? null : filter.getStartDate().toString();
+        endDate = filter.getEndDate() == null ? null : filter.getEndDate().toString();
+        candidateCount = candidates;
+        resultCount = results;
+    }
+}
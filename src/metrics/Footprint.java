@@ -0,0 +1,157 @@
+package metrics;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * estimated heap retained by one repository, split into entity objects, strings,
+ * index structures and caches
+ * filled in by the repository while it walks its own storage under a MemoryModel
+ *
+ * each string is counted once per repository by identity, so interned or shared ids
+ * show up as a smaller string total; objects shared with other repositories (e.g. the
+ * company referenced by an internship) are counted only as a reference slot
+ */
+public class Footprint {
+
+    /** per-class String and LocalDate fields read by entity(), made accessible once */
+    private static final ClassValue<Field[]> OWNED_FIELDS = new ClassValue<>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            List<Field> owned = new ArrayList<>();
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field f : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(f.getModifiers())) continue;
+                    if (f.getType() != String.class && f.getType() != LocalDate.class) continue;
+                    f.setAccessible(true);
+                    owned.add(f);
+                }
+            }
+            return owned.toArray(new Field[0]);
+        }
+    };
+
+    /** repository name */
+    private final String repository;
+
+    /** layout model used for every size */
+    private final MemoryModel model;
+
+    /** strings already counted, by identity */
+    private final Set<String> seenStrings = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /** number of entities counted */
+    private long entities;
+
+    /** bytes of entity objects and owned value objects such as dates */
+    private long entityBytes;
+
+    /** bytes of distinct strings */
+    private long stringBytes;
+
+    /** bytes of primary and secondary index structures */
+    private long indexBytes;
+
+    /** bytes of caches such as autocomplete indexes */
+    private long cacheBytes;
+
+    /**
+     * start an empty footprint
+     * @param repository repository name
+     * @param model layout model
+     */
+    public Footprint(String repository, MemoryModel model) {
+        this.repository = repository;
+        this.model = model;
+    }
+
+    /** @return layout model used for this footprint */
+    public MemoryModel getModel() {
+        return model;
+    }
+
+    /**
+     * count one stored entity: its shallow size, owned dates and the strings it references
+     * @param entity stored entity
+     */
+    public void entity(Object entity) {
+        entities++;
+        entityBytes += model.shallowSize(entity.getClass());
+        for (Field f : OWNED_FIELDS.get(entity.getClass())) {
+            Object value;
+            try {
+                value = f.get(entity);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot read " + f, e);
+            }
+            if (value instanceof String s) string(s);
+            else if (value != null) entityBytes += model.shallowSize(value.getClass());
+        }
+    }
+
+    /**
+     * count a string unless this exact instance was already counted
+     * @param s string, ignored if null
+     */
+    public void string(String s) {
+        if (s != null && seenStrings.add(s)) stringBytes += model.stringSize(s);
+    }
+
+    /**
+     * add bytes of an index structure
+     * @param bytes estimated bytes
+     */
+    public void index(long bytes) {
+        indexBytes += bytes;
+    }
+
+    /**
+     * add bytes of a cache
+     * @param bytes estimated bytes
+     */
+    public void cache(long bytes) {
+        cacheBytes += bytes;
+    }
+
+    /** @return repository name */
+    public String getRepository() { return repository; }
+
+    /** @return number of entities counted */
+    public long getEntities() { return entities; }
+
+    /** @return bytes of entity objects and owned dates */
+    public long getEntityBytes() { return entityBytes; }
+
+    /** @return bytes of distinct strings */
+    public long getStringBytes() { return stringBytes; }
+
+    /** @return bytes of index structures */
+    public long getIndexBytes() { return indexBytes; }
+
+    /** @return bytes of caches */
+    public long getCacheBytes() { return cacheBytes; }
+
+    /** @return total estimated retained bytes */
+    public long getTotal() {
+        return entityBytes + stringBytes + indexBytes + cacheBytes;
+    }
+
+    /** @return total bytes divided by entity count, 0 when empty */
+    public double getBytesPerEntity() {
+        return entities == 0 ? 0 : (double) getTotal() / entities;
+    }
+
+    /** @return single summary line */
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s: %d entities, %d bytes (entities %d, strings %d, indexes %d, caches %d), %.1f bytes each",
+                repository, entities, getTotal(), entityBytes, stringBytes, indexBytes, cacheBytes, getBytesPerEntity());
+    }
+}
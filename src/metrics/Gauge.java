@@ -0,0 +1,14 @@
+package metrics;
+
+/**
+ * metric whose value is sampled on demand, e.g. repository size or heap usage
+ */
+@FunctionalInterface
+public interface Gauge {
+
+    /**
+     * sample current value
+     * @return current value
+     */
+    double value();
+}
@@ -0,0 +1,138 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * thread-safe log-linear histogram of non-negative values, used for latencies and result sizes
+ * values are bucketed by power of two, and each power of two is split into 32 linear
+ * sub-buckets, so every recorded value is kept within about 3% relative error
+ * using a fixed array of under two thousand counters, whatever the value range
+ */
+public class Histogram {
+
+    /** log2 of linear sub-buckets per power of two */
+    private static final int SUB_BITS = 5;
+
+    /** linear sub-buckets per power of two */
+    private static final int SUB = 1 << SUB_BITS;
+
+    /** bucket count covering every non-negative long */
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB;
+
+    /** per-bucket counts */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /** number of recorded values */
+    private final LongAdder total = new LongAdder();
+
+    /** sum of recorded values */
+    private final LongAdder sum = new LongAdder();
+
+    /** largest recorded value */
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * record one value, negative values are recorded as zero
+     * @param value latency, typically in nanoseconds
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts.incrementAndGet(bucketOf(v));
+        total.increment();
+        sum.add(v);
+        max.accumulate(v);
+    }
+
+    /** @return number of recorded values */
+    public long count() {
+        return total.sum();
+    }
+
+    /** @return largest recorded value */
+    public long max() {
+        return max.get();
+    }
+
+    /** @return mean of recorded values, 0 if empty */
+    public double mean() {
+        long n = total.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * value at given percentile, reported as upper bound of its bucket capped at max
+     * @param percentile percentile in [0, 100]
+     * @return value at percentile, 0 if empty
+     */
+    public long percentile(double percentile) {
+        return percentiles(percentile)[0];
+    }
+
+    /**
+     * values at several percentiles computed from one consistent pass over the buckets
+     * @param percentiles percentiles in [0, 100], in ascending order
+     * @return value at each percentile, all 0 if empty
+     */
+    public long[] percentiles(double... percentiles) {
+        long[] result = new long[percentiles.length];
+        long n = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            n += snapshot[i];
+        }
+        if (n == 0) return result;
+
+        long top = max();
+        int p = 0;
+        long seen = 0;
+        for (int i = 0; i < BUCKETS && p < percentiles.length; i++) {
+            seen += snapshot[i];
+            while (p < percentiles.length && seen >= Math.max(1, (long) Math.ceil(percentiles[p] / 100.0 * n))) {
+                result[p++] = Math.min(upperBound(i), top);
+            }
+        }
+        while (p < percentiles.length) result[p++] = top;
+        return result;
+    }
+
+    /**
+     * add all counts of another histogram to this one
+     * @param other histogram to merge in
+     */
+    public void add(Histogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = other.counts.get(i);
+            if (c != 0) counts.addAndGet(i, c);
+        }
+        total.add(other.total.sum());
+        sum.add(other.sum.sum());
+        max.accumulate(other.max());
+    }
+
+    /**
+     * bucket index of value
+     * values below 2 * SUB map to themselves, larger ones to their power of two and linear slot
+     * @param v non-negative value
+     * @return bucket index
+     */
+    static int bucketOf(long v) {
+        if (v < 2 * SUB) return (int) v;
+        int shift = 63 - Long.numberOfLeadingZeros(v) - SUB_BITS;
+        return (shift + 1) * SUB + (int) ((v >>> shift) - SUB);
+    }
+
+    /**
+     * largest value mapping to bucket
+     * @param index bucket index
+     * @return inclusive upper bound of bucket
+     */
+    static long upperBound(int index) {
+        if (index < 2 * SUB) return index;
+        int shift = index / SUB - 1;
+        long lower = ((long) (index % SUB) + SUB) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
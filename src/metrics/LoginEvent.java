@@ -0,0 +1,41 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * flight recorder event for one login attempt, successful or not
+ * the password is never recorded
+ */
+@Name("ipms.Login")
+@Label("Login Attempt")
+@Category({ "IPMS", "Controller" })
+@Description("LoginController.login call and its outcome")
+@StackTrace(false)
+public class LoginEvent extends Event {
+
+    @Label("Login Id")
+    String loginId;
+
+    @Label("Success")
+    boolean success;
+
+    @Label("Outcome")
+    @Description("ok, unknown_user, bad_password or throttled")
+    String outcome;
+
+    /**
+     * fill event fields
+     * @param loginId login id attempted
+     * @param outcome ok, unknown_user, bad_password or throttled
+     */
+    public void set(String loginId, String outcome) {
+        this.loginId = loginId;
+        this.outcome = outcome;
+        this.success = "ok".equals(outcome);
+    }
+}
@@ -0,0 +1,217 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+/**
+ * shallow-size model of the object layout used to estimate heap footprint
+ * sizes are computed from header, reference and alignment constants rather than measured,
+ * so estimates are cheap, deterministic and can be recomputed for a different layout,
+ * e.g. to see what disabling compressed oops on a 32+ GB heap would cost
+ *
+ * field packing gaps are ignored: an object is its header plus the sum of its instance
+ * field sizes, rounded up to the alignment
+ */
+public final class MemoryModel {
+
+    /** reference count and primitive bytes of instance fields per class, reflected once */
+    private static final ClassValue<int[]> FIELD_SHAPE = new ClassValue<>() {
+        @Override
+        protected int[] computeValue(Class<?> type) {
+            int references = 0;
+            int primitiveBytes = 0;
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                for (Field f : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(f.getModifiers())) continue;
+                    if (f.getType().isPrimitive()) primitiveBytes += primitiveSize(f.getType());
+                    else references++;
+                }
+            }
+            return new int[] { references, primitiveBytes };
+        }
+    };
+
+    /** bytes of object header (mark word and class pointer) */
+    private final int objectHeader;
+
+    /** bytes of one object reference */
+    private final int reference;
+
+    /** bytes of array header (object header and length) before the first element */
+    private final int arrayHeader;
+
+    /** object alignment in bytes */
+    private final int alignment;
+
+    /**
+     * create explicit layout model
+     * @param objectHeader bytes of object header, 12 with compressed class pointers, else 16
+     * @param reference bytes per reference, 4 with compressed oops, else 8
+     * @param arrayHeader bytes before first array element, 16 with compressed class pointers, else 24
+     * @param alignment object alignment, usually 8
+     */
+    public MemoryModel(int objectHeader, int reference, int arrayHeader, int alignment) {
+        if (alignment <= 0 || Integer.bitCount(alignment) != 1)
+            throw new IllegalArgumentException("Alignment must be a power of two: " + alignment);
+        this.objectHeader = objectHeader;
+        this.reference = reference;
+        this.arrayHeader = arrayHeader;
+        this.alignment = alignment;
+    }
+
+    /**
+     * model matching the running HotSpot JVM's compressed oops and class pointer settings
+     * falls back to the 64-bit compressed layout when the options cannot be read
+     * @return model for this JVM
+     */
+    public static MemoryModel detect() {
+        boolean oops = true;
+        boolean klass = true;
+        try {
+            HotSpotDiagnosticMXBean hs = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            oops = Boolean.parseBoolean(hs.getVMOption("UseCompressedOops").getValue());
+            klass = Boolean.parseBoolean(hs.getVMOption("UseCompressedClassPointers").getValue());
+        } catch (RuntimeException e) {
+            // not HotSpot or option missing, keep defaults
+        }
+        return new MemoryModel(klass ? 12 : 16, oops ? 4 : 8, klass ? 16 : 24, 8);
+    }
+
+    /** @return bytes of one object reference */
+    public int getReference() {
+        return reference;
+    }
+
+    /**
+     * round size up to object alignment
+     * @param bytes unaligned size
+     * @return aligned size
+     */
+    public long align(long bytes) {
+        return (bytes + alignment - 1) & -alignment;
+    }
+
+    /**
+     * size of an object with given field shape
+     * @param references number of reference fields
+     * @param primitiveBytes total bytes of primitive fields
+     * @return aligned object size
+     */
+    public long objectSize(int references, int primitiveBytes) {
+        return align(objectHeader + (long) references * reference + primitiveBytes);
+    }
+
+    /**
+     * shallow size of an instance of a class, counting inherited fields
+     * @param type class to measure
+     * @return aligned instance size, excluding referenced objects
+     */
+    public long shallowSize(Class<?> type) {
+        int[] shape = FIELD_SHAPE.get(type);
+        return objectSize(shape[0], shape[1]);
+    }
+
+    /**
+     * size of a primitive array
+     * @param elementBytes bytes per element
+     * @param length number of elements
+     * @return aligned array size
+     */
+    public long arraySize(int elementBytes, int length) {
+        return align(arrayHeader + (long) elementBytes * length);
+    }
+
+    /**
+     * size of a reference array
+     * @param length number of elements
+     * @return aligned array size
+     */
+    public long referenceArraySize(int length) {
+        return arraySize(reference, length);
+    }
+
+    /**
+     * retained size of a string and its backing array under compact strings
+     * latin-1 text takes one byte per char, anything else two
+     * @param s string to measure
+     * @return string object plus value array bytes
+     */
+    public long stringSize(String s) {
+        int coder = 1;
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) > 0xFF) { coder = 2; break; }
+        }
+        return shallowSize(String.class) + arraySize(coder, s.length());
+    }
+
+    /**
+     * structural size of a ConcurrentHashMap: map object, bucket table and one node per entry
+     * keys and values themselves are not included
+     * @param entries number of mappings
+     * @return estimated bytes
+     */
+    public long concurrentMapSize(int entries) {
+        // map object: table, nextTable, counterCells, keySet, values, entrySet refs; baseCount, sizeCtl, transferIndex, cellsBusy
+        long map = objectSize(6, 8 + 4 * 3);
+        if (entries == 0) return map;
+        long node = objectSize(3, 4);
+        return map + referenceArraySize(tableLength(entries)) + node * entries;
+    }
+
+    /**
+     * structural size of a concurrent key set view over its backing map
+     * @param entries number of elements
+     * @return estimated bytes
+     */
+    public long concurrentSetSize(int entries) {
+        return objectSize(2, 0) + concurrentMapSize(entries);
+    }
+
+    /**
+     * structural size of a HashMap: map object, bucket table and one node per entry
+     * keys and values themselves are not included
+     * @param entries number of mappings
+     * @return estimated bytes
+     */
+    public long hashMapSize(int entries) {
+        // map object: table, entrySet, keySet, values refs; size, modCount, threshold, loadFactor
+        long map = objectSize(4, 16);
+        if (entries == 0) return map;
+        long node = objectSize(3, 4);
+        return map + referenceArraySize(tableLength(entries)) + node * entries;
+    }
+
+    /**
+     * bucket table length a hash map settles at for a number of entries at load factor 0.75
+     * @param entries number of mappings
+     * @return power-of-two table length, at least 16
+     */
+    private static int tableLength(int entries) {
+        long needed = (long) Math.ceil(entries / 0.75);
+        int n = 16;
+        while (n < needed && n < (1 << 30)) n <<= 1;
+        return n;
+    }
+
+    /**
+     * bytes used by one primitive field
+     * @param type primitive type
+     * @return field size
+     */
+    private static int primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) return 8;
+        if (type == int.class || type == float.class) return 4;
+        if (type == short.class || type == char.class) return 2;
+        return 1;
+    }
+
+    /** @return layout constants of this model */
+    @Override
+    public String toString() {
+        return "MemoryModel[header=" + objectHeader + ", ref=" + reference
+                + ", arrayHeader=" + arrayHeader + ", align=" + alignment + "]";
+    }
+}
@@ -0,0 +1,159 @@
+package metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * named registry of counters, gauges, histograms and timers
+ * metrics are created on first lookup and live for the lifetime of the registry;
+ * lookups and updates are lock-free so instrumentation can sit on every hot path
+ *
+ * naming: controller timers are "ClassName.method", repository result sizes are
+ * "ClassName.method.rows"; counters and gauges use exporter-ready snake_case names and may
+ * carry fixed labels as a suffix, e.g. "applications{status=PENDING}"
+ */
+public class MetricsRegistry {
+
+    /** process-wide registry used by controllers and repositories */
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+    /** counters by name */
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    /** gauges by name */
+    private final Map<String, Gauge> gauges = new ConcurrentHashMap<>();
+
+    /** histograms by name */
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    /** timers by name */
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * return process-wide registry
+     * @return global registry
+     */
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    /**
+     * run and time a call into the global registry's timer with name
+     * @param name metric name, "ClassName.method"
+     * @param work call to time
+     * @param <T> result type
+     * @return result of work
+     */
+    public static <T> T timed(String name, Supplier<T> work) {
+        return GLOBAL.timer(name).time(work);
+    }
+
+    /**
+     * run and time a call without a result into the global registry's timer with name
+     * @param name metric name, "ClassName.method"
+     * @param work call to time
+     */
+    public static void timed(String name, Runnable work) {
+        GLOBAL.timer(name).time(work);
+    }
+
+    /**
+     * build a lazy stream now and time its consumption into the global registry's timer with name
+     * @param name metric name, "ClassName.method"
+     * @param stream builds the stream; runs immediately, so argument checks still fail fast
+     * @param <T> element type
+     * @return stream recording elapsed time once exhausted or closed
+     */
+    public static <T> Stream<T> timedStream(String name, Supplier<Stream<T>> stream) {
+        return GLOBAL.timer(name).timeStream(stream.get());
+    }
+
+    /**
+     * return counter with name, creating it if absent
+     * @param name metric name
+     * @return counter
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, k -> new Counter());
+    }
+
+    /**
+     * register gauge with name, replacing any gauge registered before
+     * @param name metric name
+     * @param gauge value supplier, sampled on snapshot
+     */
+    public void gauge(String name, Gauge gauge) {
+        gauges.put(name, gauge);
+    }
+
+    /**
+     * unregister a gauge whose source is going away, unless a newer gauge replaced it
+     * @param name metric name
+     * @param gauge gauge that was registered under name
+     * @return true if the gauge was removed
+     */
+    public boolean removeGauge(String name, Gauge gauge) {
+        return gauges.remove(name, gauge);
+    }
+
+    /**
+     * return histogram with name, creating it if absent
+     * @param name metric name
+     * @return histogram
+     */
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, k -> new Histogram());
+    }
+
+    /**
+     * return timer with name, creating it if absent
+     * @param name metric name
+     * @return timer
+     */
+    public Timer timer(String name) {
+        return timers.computeIfAbsent(name, k -> new Timer());
+    }
+
+    /** @return read-only view of counters by name */
+    public Map<String, Counter> getCounters() {
+        return Collections.unmodifiableMap(counters);
+    }
+
+    /** @return read-only view of gauges by name */
+    public Map<String, Gauge> getGauges() {
+        return Collections.unmodifiableMap(gauges);
+    }
+
+    /** @return read-only view of histograms by name */
+    public Map<String, Histogram> getHistograms() {
+        return Collections.unmodifiableMap(histograms);
+    }
+
+    /** @return read-only view of timers by name */
+    public Map<String, Timer> getTimers() {
+        return Collections.unmodifiableMap(timers);
+    }
+
+    /**
+     * capture point-in-time values of every metric
+     * each metric is read independently, so the snapshot is not atomic across metrics
+     * @return snapshot sorted by metric name
+     */
+    public MetricsSnapshot snapshot() {
+        List<MetricsSnapshot.Entry> entries = new ArrayList<>();
+        counters.forEach((name, c) -> entries.add(MetricsSnapshot.Entry.ofValue(name, MetricsSnapshot.Type.COUNTER, c.get())));
+        gauges.forEach((name, g) -> entries.add(MetricsSnapshot.Entry.ofValue(name, MetricsSnapshot.Type.GAUGE, g.value())));
+        histograms.forEach((name, h) -> entries.add(MetricsSnapshot.Entry.ofHistogram(name, MetricsSnapshot.Type.HISTOGRAM, h)));
+        timers.forEach((name, t) -> {
+            entries.add(MetricsSnapshot.Entry.ofHistogram(name, MetricsSnapshot.Type.TIMER, t.getHistogram()));
+            if (t.getAllocations().count() > 0)
+                entries.add(MetricsSnapshot.Entry.ofHistogram(name, MetricsSnapshot.Type.ALLOCATION, t.getAllocations()));
+        });
+        return new MetricsSnapshot(entries);
+    }
+}
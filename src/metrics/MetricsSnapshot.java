@@ -0,0 +1,120 @@
+package metrics;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * immutable point-in-time copy of registry metrics, sorted by name
+ * timer values are nanoseconds, allocation values are bytes per call, histogram values are in recorded units
+ */
+public class MetricsSnapshot {
+
+    /** kind of metric an entry was captured from; ALLOCATION entries share their timer's name */
+    public enum Type { COUNTER, GAUGE, HISTOGRAM, TIMER, ALLOCATION }
+
+    /**
+     * captured values of one metric
+     * counters and gauges only set value; histograms and timers set distribution fields
+     */
+    public static class Entry {
+        private final String name;
+        private final Type type;
+        private final double value;
+        private final long count;
+        private final double mean;
+        private final long p50;
+        private final long p99;
+        private final long p999;
+        private final long max;
+
+        private Entry(String name, Type type, double value, long count,
+                      double mean, long p50, long p99, long p999, long max) {
+            this.name = name;
+            this.type = type;
+            this.value = value;
+            this.count = count;
+            this.mean = mean;
+            this.p50 = p50;
+            this.p99 = p99;
+            this.p999 = p999;
+            this.max = max;
+        }
+
+        static Entry ofValue(String name, Type type, double value) {
+            return new Entry(name, type, value, 0, 0, 0, 0, 0, 0);
+        }
+
+        static Entry ofHistogram(String name, Type type, Histogram h) {
+            long[] p = h.percentiles(50, 99, 99.9);
+            return new Entry(name, type, 0, h.count(), h.mean(), p[0], p[1], p[2], h.max());
+        }
+
+        /** @return metric name */
+        public String getName() { return name; }
+
+        /** @return metric kind */
+        public Type getType() { return type; }
+
+        /** @return counter or gauge value */
+        public double getValue() { return value; }
+
+        /** @return number of recorded values */
+        public long getCount() { return count; }
+
+        /** @return mean recorded value */
+        public double getMean() { return mean; }
+
+        /** @return median recorded value */
+        public long getP50() { return p50; }
+
+        /** @return 99th percentile recorded value */
+        public long getP99() { return p99; }
+
+        /** @return 99.9th percentile recorded value */
+        public long getP999() { return p999; }
+
+        /** @return largest recorded value */
+        public long getMax() { return max; }
+
+        /** @return approximate sum of recorded values, count times mean */
+        public double getTotal() { return count * mean; }
+    }
+
+    /** captured entries sorted by name */
+    private final List<Entry> entries;
+
+    /**
+     * create snapshot from captured entries
+     * @param entries captured entries in any order
+     */
+    MetricsSnapshot(List<Entry> entries) {
+        this.entries = entries.stream().sorted(Comparator.comparing(Entry::getName)).toList();
+    }
+
+    /** @return every captured entry sorted by name */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * entries of one metric kind
+     * @param type metric kind
+     * @return matching entries sorted by name
+     */
+    public List<Entry> ofType(Type type) {
+        return entries.stream().filter(e -> e.getType() == type).toList();
+    }
+
+    /**
+     * timers ranked by total time spent, the live hot spots
+     * @param limit maximum number of timers returned
+     * @return timers with most accumulated time first
+     */
+    public List<Entry> hottest(int limit) {
+        return entries.stream()
+                .filter(e -> e.getType() == Type.TIMER && e.getCount() > 0)
+                .sorted(Comparator.comparingDouble(Entry::getTotal).reversed())
+                .limit(limit)
+                .toList();
+    }
+}
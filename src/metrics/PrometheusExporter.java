@@ -0,0 +1,253 @@
+package metrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.function.ToDoubleFunction;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * embedded HTTP endpoint serving registry and JVM metrics in Prometheus text format
+ * scrapes render straight from live counters and histograms, with no locks or copying
+ * of repository data, so a scrape every few seconds costs only a few microseconds per metric
+ *
+ * mapping: timers become summary ipms_operation_duration_seconds{operation=...} and, once
+ * allocation profiling has sampled them, ipms_operation_allocated_bytes{operation=...},
+ * ".rows" histograms become summary ipms_query_rows{query=...}, counters and gauges keep
+ * their registry name with an "ipms_" prefix and any "{k=v}" suffix turned into labels
+ */
+public class PrometheusExporter {
+
+    /** metric name prefix */
+    private static final String PREFIX = "ipms_";
+
+    /** quantiles published for every summary, as percentiles */
+    private static final double[] QUANTILES = { 50, 99, 99.9 };
+
+    /** quantile label values matching QUANTILES */
+    private static final String[] QUANTILE_LABELS = { "0.5", "0.99", "0.999" };
+
+    /** registry rendered on each scrape */
+    private final MetricsRegistry registry;
+
+    /** running server, null until started */
+    private HttpServer server;
+
+    /**
+     * create exporter for registry
+     * @param registry registry to expose
+     */
+    public PrometheusExporter(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * start serving /metrics on the loopback interface using a single daemon thread
+     * @param port TCP port, 0 picks a free port
+     * @return bound port
+     * @throws IOException if port cannot be bound
+     */
+    public int start(int port) throws IOException {
+        return start(InetAddress.getLoopbackAddress().getHostAddress(), port);
+    }
+
+    /**
+     * start serving /metrics on given address and port using a single daemon thread
+     * binding anything other than loopback exposes the endpoint to the network
+     * @param bindAddress host name or IP address to listen on, e.g. "127.0.0.1" or "0.0.0.0"
+     * @param port TCP port, 0 picks a free port
+     * @return bound port
+     * @throws IOException if address cannot be resolved or port cannot be bound
+     */
+    public synchronized int start(String bindAddress, int port) throws IOException {
+        if (server != null) throw new IllegalStateException("Metrics endpoint already started.");
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getByName(bindAddress), port), 0);
+        server.createContext("/metrics", this::handle);
+        server.setExecutor(Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "metrics-http");
+            t.setDaemon(true);
+            return t;
+        }));
+        server.start();
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * stop serving, waiting at most one second for in-flight scrapes
+     */
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(1);
+            server = null;
+        }
+    }
+
+    /**
+     * answer one scrape
+     * @param exchange HTTP exchange
+     * @throws IOException if response cannot be written
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        byte[] body = render().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+    }
+
+    /**
+     * render every metric in Prometheus text exposition format
+     * @return exposition text
+     */
+    public String render() {
+        StringBuilder sb = new StringBuilder(16 * 1024);
+
+        renderGrouped(sb, registry.getCounters(), "counter", Counter::get);
+        renderGrouped(sb, registry.getGauges(), "gauge", Gauge::value);
+
+        sb.append("# TYPE ").append(PREFIX).append("operation_duration_seconds summary\n");
+        for (Map.Entry<String, Timer> e : new TreeMap<>(registry.getTimers()).entrySet()) {
+            summary(sb, "operation_duration_seconds", "operation", e.getKey(), e.getValue().getHistogram(), 1e-9);
+        }
+
+        sb.append("# TYPE ").append(PREFIX).append("operation_allocated_bytes summary\n");
+        for (Map.Entry<String, Timer> e : new TreeMap<>(registry.getTimers()).entrySet()) {
+            Histogram alloc = e.getValue().getAllocations();
+            if (alloc.count() > 0) summary(sb, "operation_allocated_bytes", "operation", e.getKey(), alloc, 1);
+        }
+
+        sb.append("# TYPE ").append(PREFIX).append("query_rows summary\n");
+        for (Map.Entry<String, Histogram> e : new TreeMap<>(registry.getHistograms()).entrySet()) {
+            String name = e.getKey();
+            String query = name.endsWith(".rows") ? name.substring(0, name.length() - 5) : name;
+            summary(sb, "query_rows", "query", query, e.getValue(), 1);
+        }
+
+        renderJvm(sb);
+        return sb.toString();
+    }
+
+    /**
+     * render counters or gauges, emitting one TYPE line per base name
+     * @param <M> metric type
+     * @param sb output
+     * @param metrics metrics by registry name
+     * @param type Prometheus type
+     * @param value value extractor
+     */
+    private static <M> void renderGrouped(StringBuilder sb, Map<String, M> metrics, String type, ToDoubleFunction<M> value) {
+        String lastBase = null;
+        for (Map.Entry<String, M> e : new TreeMap<>(metrics).entrySet()) {
+            String name = e.getKey();
+            int brace = name.indexOf('{');
+            String base = sanitize(brace < 0 ? name : name.substring(0, brace));
+            if (!base.equals(lastBase)) {
+                sb.append("# TYPE ").append(PREFIX).append(base).append(' ').append(type).append('\n');
+                lastBase = base;
+            }
+            sb.append(PREFIX).append(base);
+            if (brace >= 0) labels(sb, name.substring(brace + 1, name.length() - 1));
+            sb.append(' ').append(num(value.applyAsDouble(e.getValue()))).append('\n');
+        }
+    }
+
+    /**
+     * render one summary series with quantiles, sum and count
+     * @param sb output
+     * @param metric base metric name without prefix
+     * @param label label name identifying series
+     * @param labelValue label value
+     * @param h source histogram
+     * @param scale multiplier applied to recorded values, e.g. nanoseconds to seconds
+     */
+    private static void summary(StringBuilder sb, String metric, String label, String labelValue,
+                                Histogram h, double scale) {
+        long[] q = h.percentiles(QUANTILES);
+        String lv = label + "=\"" + escape(labelValue) + "\"";
+        for (int i = 0; i < QUANTILES.length; i++) {
+            sb.append(PREFIX).append(metric).append('{').append(lv)
+              .append(",quantile=\"").append(QUANTILE_LABELS[i]).append("\"} ")
+              .append(num(q[i] * scale)).append('\n');
+        }
+        sb.append(PREFIX).append(metric).append("_sum{").append(lv).append("} ")
+          .append(num(h.mean() * h.count() * scale)).append('\n');
+        sb.append(PREFIX).append(metric).append("_count{").append(lv).append("} ")
+          .append(h.count()).append('\n');
+    }
+
+    /**
+     * render heap, thread and garbage collector statistics
+     * @param sb output
+     */
+    private static void renderJvm(StringBuilder sb) {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        sb.append("# TYPE jvm_memory_heap_used_bytes gauge\njvm_memory_heap_used_bytes ").append(heap.getUsed()).append('\n');
+        sb.append("# TYPE jvm_memory_heap_committed_bytes gauge\njvm_memory_heap_committed_bytes ").append(heap.getCommitted()).append('\n');
+        sb.append("# TYPE jvm_memory_heap_max_bytes gauge\njvm_memory_heap_max_bytes ").append(heap.getMax()).append('\n');
+        sb.append("# TYPE jvm_threads_live gauge\njvm_threads_live ")
+          .append(ManagementFactory.getThreadMXBean().getThreadCount()).append('\n');
+
+        sb.append("# TYPE jvm_gc_collections_total counter\n");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            sb.append("jvm_gc_collections_total{gc=\"").append(escape(gc.getName())).append("\"} ")
+              .append(Math.max(0, gc.getCollectionCount())).append('\n');
+        }
+        sb.append("# TYPE jvm_gc_collection_seconds_total counter\n");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            sb.append("jvm_gc_collection_seconds_total{gc=\"").append(escape(gc.getName())).append("\"} ")
+              .append(num(Math.max(0, gc.getCollectionTime()) / 1000.0)).append('\n');
+        }
+    }
+
+    /**
+     * render "k=v,k2=v2" label suffix as Prometheus labels
+     * @param sb output
+     * @param spec comma separated key=value pairs
+     */
+    private static void labels(StringBuilder sb, String spec) {
+        sb.append('{');
+        boolean first = true;
+        for (String pair : spec.split(",")) {
+            int eq = pair.indexOf('=');
+            if (eq < 0) continue;
+            if (!first) sb.append(',');
+            sb.append(sanitize(pair.substring(0, eq).trim())).append("=\"")
+              .append(escape(pair.substring(eq + 1).trim())).append('"');
+            first = false;
+        }
+        sb.append('}');
+    }
+
+    /** @param name raw name @return name with characters outside [a-zA-Z0-9_] replaced by underscore */
+    private static String sanitize(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (char c : name.toCharArray()) {
+            sb.append(Character.isLetterOrDigit(c) && c < 128 ? c : '_');
+        }
+        return sb.toString();
+    }
+
+    /** @param value raw label value @return value with backslash, quote and newline escaped */
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /** @param v value @return Prometheus number literal */
+    private static String num(double v) {
+        if (Double.isNaN(v)) return "NaN";
+        if (Double.isInfinite(v)) return v > 0 ? "+Inf" : "-Inf";
+        if (v == Math.rint(v) && Math.abs(v) < 1e15) return Long.toString((long) v);
+        return Double.toString(v);
+    }
+}
@@ -0,0 +1,220 @@
+package metrics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * slow-query log for repository lookups that exceed a latency threshold
+ * each entry records the query, the index or scan path that served it, rows scanned versus
+ * returned and the predicates that were set, which shows which filter combinations need indexes
+ *
+ * the hot path only compares elapsed time against the threshold; slow entries are handed to a
+ * bounded ring buffer with a non-blocking offer and formatted by a background daemon thread,
+ * so logging never blocks a query. when the buffer is full entries are dropped and counted
+ *
+ * configuration: system property ipms.slowquery.ms (threshold, default 50) and
+ * ipms.slowquery.file (optional file that lines are appended to)
+ */
+public class SlowQueryLog {
+
+    /** process-wide log used by repositories */
+    private static final SlowQueryLog GLOBAL = new SlowQueryLog(
+            Long.getLong("ipms.slowquery.ms", 50),
+            System.getProperty("ipms.slowquery.file"),
+            1024);
+
+    /** number of most recent entries kept for display */
+    private static final int RECENT = 100;
+
+    /**
+     * one slow query occurrence
+     */
+    public static final class Entry {
+        private final Instant at;
+        private final String query;
+        private final String plan;
+        private final List<String> predicates;
+        private final long scanned;
+        private final long returned;
+        private final long nanos;
+
+        Entry(Instant at, String query, String plan, List<String> predicates, long scanned, long returned, long nanos) {
+            this.at = at;
+            this.query = query;
+            this.plan = plan;
+            this.predicates = List.copyOf(predicates);
+            this.scanned = scanned;
+            this.returned = returned;
+            this.nanos = nanos;
+        }
+
+        /** @return time query finished */
+        public Instant getAt() { return at; }
+
+        /** @return query name, e.g. "InternshipRepository.filter" */
+        public String getQuery() { return query; }
+
+        /** @return index or scan path that served the query */
+        public String getPlan() { return plan; }
+
+        /** @return "name=value" per predicate that was set */
+        public List<String> getPredicates() { return predicates; }
+
+        /** @return rows read before predicate checks */
+        public long getScanned() { return scanned; }
+
+        /** @return rows returned */
+        public long getReturned() { return returned; }
+
+        /** @return query duration in nanoseconds */
+        public long getNanos() { return nanos; }
+
+        /** @return single log line */
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s slow-query %s %.3fms plan=%s scanned=%d returned=%d predicates=%s",
+                    at, query, nanos / 1e6, plan, scanned, returned, predicates);
+        }
+    }
+
+    /** latency threshold in nanoseconds, volatile so it can be changed at runtime */
+    private volatile long thresholdNanos;
+
+    /** bounded hand-off between queries and writer thread */
+    private final BlockingQueue<Entry> buffer;
+
+    /** most recent written entries, newest last, guarded by itself */
+    private final Deque<Entry> recent = new ArrayDeque<>();
+
+    /** optional output file, null to keep entries in memory only */
+    private final Path file;
+
+    /** entries accepted into buffer */
+    private final Counter logged = MetricsRegistry.global().counter("slow_queries_total{result=logged}");
+
+    /** entries dropped because buffer was full */
+    private final Counter dropped = MetricsRegistry.global().counter("slow_queries_total{result=dropped}");
+
+    /**
+     * create log and start its writer thread
+     * @param thresholdMillis latency threshold in milliseconds
+     * @param file optional output file path, null to keep entries in memory only
+     * @param capacity ring buffer capacity
+     */
+    public SlowQueryLog(long thresholdMillis, String file, int capacity) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.file = file == null || file.isBlank() ? null : Path.of(file);
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        Thread writer = new Thread(this::drain, "slow-query-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * return process-wide log
+     * @return global slow-query log
+     */
+    public static SlowQueryLog global() {
+        return GLOBAL;
+    }
+
+    /**
+     * change latency threshold at runtime
+     * @param millis new threshold in milliseconds, 0 logs every query
+     */
+    public void setThresholdMillis(long millis) {
+        thresholdNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    /** @return current latency threshold in milliseconds */
+    public long getThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    /**
+     * check whether a duration qualifies as slow; callers build predicate lists only after this
+     * @param nanos query duration
+     * @return true if duration is at or above threshold
+     */
+    public boolean isSlow(long nanos) {
+        return nanos >= thresholdNanos;
+    }
+
+    /**
+     * record a slow query without blocking; dropped if buffer is full
+     * @param query query name
+     * @param plan index or scan path used
+     * @param predicates "name=value" per predicate set
+     * @param scanned rows read before predicate checks
+     * @param returned rows returned
+     * @param nanos query duration
+     */
+    public void record(String query, String plan, List<String> predicates, long scanned, long returned, long nanos) {
+        Entry e = new Entry(Instant.now(), query, plan, predicates, scanned, returned, nanos);
+        if (buffer.offer(e)) logged.inc();
+        else dropped.inc();
+    }
+
+    /**
+     * most recent slow queries, oldest first
+     * @return copy of up to 100 most recent entries
+     */
+    public List<Entry> recent() {
+        synchronized (recent) {
+            return new ArrayList<>(recent);
+        }
+    }
+
+    /**
+     * writer loop: move entries into recent list and append them to file in batches
+     */
+    private void drain() {
+        List<Entry> batch = new ArrayList<>();
+        while (true) {
+            try {
+                batch.add(buffer.take());
+            } catch (InterruptedException ex) {
+                return;
+            }
+            buffer.drainTo(batch);
+
+            synchronized (recent) {
+                for (Entry e : batch) {
+                    recent.addLast(e);
+                    if (recent.size() > RECENT) recent.removeFirst();
+                }
+            }
+            if (file != null) write(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * append batch to output file, reporting failures without stopping writer
+     * @param batch entries to append
+     */
+    private void write(List<Entry> batch) {
+        try (BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (Entry e : batch) {
+                w.write(e.toString());
+                w.newLine();
+            }
+        } catch (IOException ex) {
+            System.err.println("Failed to write slow-query log: " + ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package metrics;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * latency timer for one named operation, recording nanoseconds into a histogram
+ * wrap a method body with {@code return TIMER.time(() -> ...)}, or for a lazily evaluated
+ * stream {@code return TIMER.timeStream(stream)}, which times the consumption instead
+ * while the allocation profiler is enabled, bytes allocated by the calling thread are
+ * recorded into a second histogram
+ */
+public class Timer {
+
+    /** recorded latencies in nanoseconds */
+    private final Histogram histogram = new Histogram();
+
+    /** recorded bytes allocated per call, only filled while allocation profiling is on */
+    private final Histogram allocations = new Histogram();
+
+    /**
+     * in-flight measurement, records elapsed time when closed
+     */
+    public final class Context implements AutoCloseable {
+
+        /** thread allocated bytes at start, -1 when allocation profiling was off */
+        private final long startBytes = AllocationProfiler.isEnabled()
+                ? AllocationProfiler.currentThreadAllocatedBytes() : -1;
+
+        /** nanoTime at which measurement started */
+        private final long start = System.nanoTime();
+
+        /** stop measurement and record elapsed time and, if sampled, allocated bytes */
+        @Override
+        public void close() {
+            histogram.record(System.nanoTime() - start);
+            if (startBytes >= 0) allocations.record(AllocationProfiler.currentThreadAllocatedBytes() - startBytes);
+        }
+    }
+
+    /**
+     * start timing one call
+     * @return context to close when call finishes
+     */
+    public Context time() {
+        return new Context();
+    }
+
+    /**
+     * run and time one call
+     * @param work call to time
+     * @param <T> result type
+     * @return result of work
+     */
+    public <T> T time(Supplier<T> work) {
+        Context timing = new Context();
+        try {
+            return work.get();
+        } finally {
+            timing.close();
+        }
+    }
+
+    /**
+     * run and time one call without a result
+     * @param work call to time
+     */
+    public void time(Runnable work) {
+        Context timing = new Context();
+        try {
+            work.run();
+        } finally {
+            timing.close();
+        }
+    }
+
+    /**
+     * time the consumption of a lazy stream rather than its construction
+     * timing starts when the first element is requested and is recorded when the stream is
+     * exhausted or closed, whichever comes first; a short-circuiting consumer that neither
+     * exhausts nor closes the stream is not recorded. the returned stream is sequential
+     * @param stream lazy stream to time
+     * @param <T> element type
+     * @return stream over the same elements
+     */
+    public <T> Stream<T> timeStream(Stream<T> stream) {
+        TimedSpliterator<T> timed = new TimedSpliterator<>(stream.spliterator());
+        return StreamSupport.stream(timed, false).onClose(timed::finish).onClose(stream::close);
+    }
+
+    /**
+     * spliterator measuring from its first advance until exhaustion
+     * @param <T> element type
+     */
+    private final class TimedSpliterator<T> implements Spliterator<T> {
+        private final Spliterator<T> source;
+        private Context timing;
+        private boolean finished;
+
+        TimedSpliterator(Spliterator<T> source) {
+            this.source = source;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            start();
+            if (source.tryAdvance(action)) return true;
+            finish();
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            start();
+            source.forEachRemaining(action);
+            finish();
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics();
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return source.getComparator();
+        }
+
+        private void start() {
+            if (timing == null) timing = new Context();
+        }
+
+        void finish() {
+            if (timing == null || finished) return;
+            finished = true;
+            timing.close();
+        }
+    }
+
+    /**
+     * record an externally measured duration
+     * @param nanos elapsed nanoseconds
+     */
+    public void record(long nanos) {
+        histogram.record(nanos);
+    }
+
+    /** @return underlying histogram of nanosecond latencies */
+    public Histogram getHistogram() {
+        return histogram;
+    }
+
+    /** @return histogram of bytes allocated per call, empty unless allocation profiling was enabled */
+    public Histogram getAllocations() {
+        return allocations;
+    }
+}
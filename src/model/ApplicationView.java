@@ -0,0 +1,54 @@
+package model;
+
+/**
+ * represent an internship application joined with the internship and student it refers to
+ * used by listing screens so referenced entities are resolved once per listing
+ * instead of one lookup per row
+ */
+public class ApplicationView {
+
+    /** underlying application record */
+    private final InternshipApplication application;
+
+    /** internship referenced by application, null if it no longer exists */
+    private final Internship internship;
+
+    /** student owning application, null if not found */
+    private final Student student;
+
+    /**
+     * create joined view of an application
+     * @param application underlying application record
+     * @param internship resolved internship, or null if missing
+     * @param student resolved student, or null if missing
+     */
+    public ApplicationView(InternshipApplication application, Internship internship, Student student) {
+        this.application = application;
+        this.internship = internship;
+        this.student = student;
+    }
+
+    /**
+     * get underlying application record
+     * @return application object
+     */
+    public InternshipApplication getApplication() {
+        return application;
+    }
+
+    /**
+     * get resolved internship
+     * @return internship, or null if it was deleted
+     */
+    public Internship getInternship() {
+        return internship;
+    }
+
+    /**
+     * get resolved student
+     * @return student, or null if not found
+     */
+    public Student getStudent() {
+        return student;
+    }
+}
@@ -19,6 +19,12 @@ public class CompanyRepresentative extends User {
     /** approval flag managed by staff */
     private boolean isApproved;
 
+    /** rejection flag managed by staff, a rejected representative leaves the pending queue */
+    private boolean isRejected;
+
+    /** version stamp for optimistic concurrency, bumped by the repository on every save */
+    private long version;
+
     /**
      * create new unapproved company representative account
      * @param id unique login and identity reference
@@ -79,10 +85,38 @@ public class CompanyRepresentative extends User {
 
     /**
      * update approval state
+     * approving a representative clears an earlier rejection
      * @param isApproved new approval state
      */
     public void setApproved(boolean isApproved) {
         this.isApproved = isApproved;
+        if (isApproved) this.isRejected = false;
+    }
+
+    /**
+     * return rejection state
+     * @return true if staff rejected the registration
+     */
+    public boolean isRejected() {
+        return isRejected;
+    }
+
+    /**
+     * update rejection state
+     * rejecting a representative revokes approval
+     * @param isRejected new rejection state
+     */
+    public void setRejected(boolean isRejected) {
+        this.isRejected = isRejected;
+        if (isRejected) this.isApproved = false;
+    }
+
+    /**
+     * check whether the registration still awaits a staff decision
+     * @return true if neither approved nor rejected
+     */
+    public boolean isPending() {
+        return !isApproved && !isRejected;
     }
 
     /**
@@ -109,4 +143,48 @@ public class CompanyRepresentative extends User {
     public void setCompany(Company c) {
         this.c = c;
     }
+
+    /**
+     * get version stamp, incremented by the repository on every save
+     * @return version, 0 if never saved
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * set version stamp; called by repositories when a save commits
+     * @param version new version
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * create a detached copy holding the same state, used as a private working copy for a conditional save
+     * the copy carries the version it was taken at
+     * @return new representative with identical fields
+     */
+    public CompanyRepresentative copy() {
+        CompanyRepresentative r = new CompanyRepresentative(getUserId(), getName(), getEmail(), c, dept, position);
+        r.copyStateFrom(this);
+        r.version = version;
+        return r;
+    }
+
+    /**
+     * overwrite representative-managed state (company, department, position, approval, rejection) with that of another copy
+     * the version is left alone; repositories assign it when the save commits
+     * @param other representative to copy state from, must have same user id
+     * @throws IllegalArgumentException if user ids differ
+     */
+    public void copyStateFrom(CompanyRepresentative other) {
+        if (!getUserId().equals(other.getUserId()))
+            throw new IllegalArgumentException("Cannot copy state of representative " + other.getUserId() + " into " + getUserId());
+        this.c = other.c;
+        this.dept = other.dept;
+        this.position = other.position;
+        this.isApproved = other.isApproved;
+        this.isRejected = other.isRejected;
+    }
 }
@@ -70,6 +70,9 @@ public class Internship {
     /** company owning and offering this internship */
     private Company company;
 
+    /** version stamp for optimistic concurrency, bumped by the repository on every save */
+    private long version;
+
     /**
      * create new internship posting in pending state
      * slot count automatically bounded between 1 and 10
@@ -324,6 +327,19 @@ public class Internship {
         }
     }
 
+    /**
+     * give back a confirmed slot when an accepted placement is withdrawn
+     * a FILLED internship reopens as APPROVED
+     */
+    public void releaseConfirmedSlot() {
+        if (confirmedSlots > 0) {
+            confirmedSlots--;
+            if (this.status == Status.FILLED) {
+                this.status = Status.APPROVED;
+            }
+        }
+    }
+
     /**
      * check if internship has reached maximum confirmation limit
      * @return true if FILLED
@@ -339,4 +355,57 @@ public class Internship {
     public int getRemainingSlots() {
         return maxSlots - confirmedSlots;
     }
+
+    /**
+     * get version stamp, incremented by the repository on every save
+     * @return version, 0 if never saved
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * set version stamp; called by repositories when a save commits
+     * @param version new version
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * create a detached copy holding the same state, used as a private working copy by units of work
+     * the copy carries the version it was taken at, for a later conditional save
+     * @return new internship with identical fields
+     */
+    public Internship copy() {
+        Internship c = new Internship(id, title, desc, level, major, startDate, endDate, cr, maxSlots, isVisible, company);
+        c.copyStateFrom(this);
+        c.version = version;
+        return c;
+    }
+
+    /**
+     * overwrite mutable state with that of another copy
+     * the version is left alone; repositories assign it when the save commits
+     * @param other internship to copy state from, must have same id
+     * @throws IllegalArgumentException if ids differ
+     */
+    public void copyStateFrom(Internship other) {
+        if (!id.equals(other.id))
+            throw new IllegalArgumentException("Cannot copy state of internship " + other.id + " into " + id);
+        this.title = other.title;
+        this.desc = other.desc;
+        this.level = other.level;
+        this.major = other.major;
+        this.startDate = other.startDate;
+        this.endDate = other.endDate;
+        this.status = other.status;
+        this.cr = other.cr;
+        this.maxSlots = other.maxSlots;
+        this.confirmedSlots = other.confirmedSlots;
+        this.isVisible = other.isVisible;
+        this.company = other.company;
+        this.applicantIds.clear();
+        this.applicantIds.addAll(other.applicantIds);
+    }
 }
@@ -39,6 +39,9 @@ public class InternshipApplication {
     /** flag indicating that student submitted a withdrawal request for staff review */
     private boolean withdrawalRequested;
 
+    /** version stamp for optimistic concurrency, bumped by the repository on every save */
+    private long version;
+
     /**
      * create new internship application in pending state
      * @param id unique application identifier
@@ -150,6 +153,55 @@ public class InternshipApplication {
         this.withdrawalRequested = true;
     }
 
+    /**
+     * clear withdrawal request once staff have decided on it
+     */
+    public void clearWithdrawalRequest() {
+        this.withdrawalRequested = false;
+    }
+
+    /**
+     * get version stamp, incremented by the repository on every save
+     * @return version, 0 if never saved
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * set version stamp; called by repositories when a save commits
+     * @param version new version
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * create a detached copy holding the same state, used as a private working copy by units of work
+     * the copy carries the version it was taken at, for a later conditional save
+     * @return new application with identical fields
+     */
+    public InternshipApplication copy() {
+        InternshipApplication c = new InternshipApplication(id, studentId, internshipId);
+        c.copyStateFrom(this);
+        c.version = version;
+        return c;
+    }
+
+    /**
+     * overwrite mutable state (status, acceptance and withdrawal flag) with that of another copy
+     * the version is left alone; repositories assign it when the save commits
+     * @param other application to copy state from, must have same id
+     * @throws IllegalArgumentException if ids differ
+     */
+    public void copyStateFrom(InternshipApplication other) {
+        if (!id.equals(other.id))
+            throw new IllegalArgumentException("Cannot copy state of application " + other.id + " into " + id);
+        this.status = other.status;
+        this.studentAccepted = other.studentAccepted;
+        this.withdrawalRequested = other.withdrawalRequested;
+    }
+
     /**
      * format object as readable string representation
      * @return printable application summary
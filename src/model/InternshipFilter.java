@@ -1,6 +1,8 @@
 package model;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * represent a filter object used to search, sort or narrow internship results
@@ -184,4 +186,23 @@ public class InternshipFilter {
         this.repId = repId;
         return this;
     }
+
+    /**
+     * list the conditions that are set, in field order, for logging and diagnostics
+     * e.g. [status=APPROVED, major=Computer Science]
+     * @return "name=value" entry per non-null condition, empty if nothing is filtered
+     */
+    public List<String> describeCriteria() {
+        List<String> set = new ArrayList<>();
+        if (status != null) set.add("status=" + status);
+        if (major != null) set.add("major=" + major);
+        if (level != null) set.add("level=" + level);
+        if (companyName != null) set.add("companyName=" + companyName);
+        if (slotsMin != null) set.add("slotsMin=" + slotsMin);
+        if (slotsMax != null) set.add("slotsMax=" + slotsMax);
+        if (startDate != null) set.add("startDate=" + startDate);
+        if (endDate != null) set.add("endDate=" + endDate);
+        if (repId != null) set.add("repId=" + repId);
+        return set;
+    }
 }
@@ -0,0 +1,133 @@
+package model;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * represent the aggregate view shown on a company representative's dashboard
+ * holds every posting owned by the representative together with its application
+ * counts by status and remaining slots, plus totals across all postings
+ * built from maintained repository indexes so no application list is scanned
+ */
+public class RepDashboard {
+
+    /**
+     * represent one owned internship posting and its application counters
+     */
+    public static class Posting {
+
+        /** owned internship posting */
+        private final Internship internship;
+
+        /** application counts for this posting keyed by status */
+        private final Map<InternshipApplication.Status, Integer> applicationCounts;
+
+        /**
+         * create dashboard row for an internship
+         * @param internship owned internship posting
+         * @param applicationCounts application counts keyed by status
+         */
+        public Posting(Internship internship, Map<InternshipApplication.Status, Integer> applicationCounts) {
+            this.internship = internship;
+            this.applicationCounts = Collections.unmodifiableMap(new EnumMap<>(applicationCounts));
+        }
+
+        /**
+         * get owned internship posting
+         * @return internship object
+         */
+        public Internship getInternship() {
+            return internship;
+        }
+
+        /**
+         * get number of applications in a given status
+         * @param status application status
+         * @return number of applications with that status
+         */
+        public int getApplicationCount(InternshipApplication.Status status) {
+            return applicationCounts.getOrDefault(status, 0);
+        }
+
+        /**
+         * get total number of applications submitted for this posting
+         * @return total application count across all statuses
+         */
+        public int getTotalApplications() {
+            int total = 0;
+            for (int c : applicationCounts.values()) total += c;
+            return total;
+        }
+
+        /**
+         * get number of slots not yet confirmed
+         * @return remaining slot count
+         */
+        public int getRemainingSlots() {
+            return internship.getRemainingSlots();
+        }
+    }
+
+    /** owning representative id */
+    private final String repId;
+
+    /** rows for every posting owned by representative */
+    private final List<Posting> postings;
+
+    /**
+     * create dashboard for a representative
+     * @param repId owning representative id
+     * @param postings rows for every owned posting
+     */
+    public RepDashboard(String repId, List<Posting> postings) {
+        this.repId = repId;
+        this.postings = List.copyOf(postings);
+    }
+
+    /**
+     * get owning representative id
+     * @return representative user id
+     */
+    public String getRepId() {
+        return repId;
+    }
+
+    /**
+     * get rows for every owned posting
+     * @return unmodifiable posting list
+     */
+    public List<Posting> getPostings() {
+        return postings;
+    }
+
+    /**
+     * get owned internships in dashboard order
+     * @return unmodifiable list of owned internships
+     */
+    public List<Internship> getInternships() {
+        return postings.stream().map(Posting::getInternship).toList();
+    }
+
+    /**
+     * get number of applications in a given status across all owned postings
+     * @param status application status
+     * @return total application count with that status
+     */
+    public int getApplicationCount(InternshipApplication.Status status) {
+        int total = 0;
+        for (Posting p : postings) total += p.getApplicationCount(status);
+        return total;
+    }
+
+    /**
+     * get remaining slots across all owned postings
+     * @return total remaining slot count
+     */
+    public int getRemainingSlots() {
+        int total = 0;
+        for (Posting p : postings) total += p.getRemainingSlots();
+        return total;
+    }
+}
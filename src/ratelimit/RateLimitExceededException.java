@@ -0,0 +1,28 @@
+package ratelimit;
+
+/**
+ * thrown when a caller has used up its rate limit; the call was not performed
+ */
+public class RateLimitExceededException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    /** suggested delay before retrying, in milliseconds */
+    private final long retryAfterMillis;
+
+    /**
+     * create error
+     * @param limiter name of limiter that refused the call
+     * @param retryAfterMillis time until the next call will be allowed, in milliseconds
+     */
+    public RateLimitExceededException(String limiter, long retryAfterMillis) {
+        super("Too many " + limiter + " requests. Please try again in "
+                + Math.max(1, (retryAfterMillis + 999) / 1000) + " s.");
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    /** @return time until the next call will be allowed, in milliseconds */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
@@ -0,0 +1,222 @@
+package ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import metrics.Counter;
+import metrics.MetricsRegistry;
+
+/**
+ * lock-free token-bucket rate limiter with one bucket per key (login id, session token)
+ *
+ * each bucket holds up to burst tokens and refills at a steady rate; a call takes one token or
+ * is refused with the time until the next token. a bucket is stored as a single AtomicLong: the
+ * instant at which it will be full again (the generic cell rate algorithm form of a token
+ * bucket), so taking a token is one compare-and-set and never blocks
+ *
+ * memory stays bounded: a bucket whose refill instant has passed is full, which is the same as
+ * having no bucket, so such buckets are swept away once the map has doubled since the last sweep.
+ * a sweep runs at most once per refill period (capped at a second) and only on the one thread that
+ * wins it; other new keys never wait for it. if more than maxKeys buckets are still active, new
+ * keys share one of a fixed set of overflow buckets chosen by key hash until space frees up, so a
+ * flood of distinct keys throttles itself rather than growing the heap, without one busy key
+ * starving every other newcomer
+ */
+public class RateLimiter {
+
+    /** number of overflow buckets, a power of two */
+    private static final int OVERFLOW_STRIPES = 64;
+
+    /** longest interval between sweeps while the map stays large, in nanoseconds */
+    private static final long MAX_SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+
+    /** limiter name used in metric labels, e.g. "login" */
+    private final String name;
+
+    /** nanoseconds to refill one token */
+    private final long nanosPerToken;
+
+    /** nanoseconds to refill a full bucket, i.e. burst times nanosPerToken */
+    private final long burstNanos;
+
+    /** maximum number of active buckets before new keys share the overflow bucket */
+    private final int maxKeys;
+
+    /** bucket per key: instant (System.nanoTime) at which the bucket is full again */
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    /** buckets shared by new keys while the map is at maxKeys, picked by key hash */
+    private final AtomicLong[] overflow = new AtomicLong[OVERFLOW_STRIPES];
+
+    /** map size that triggers the next sweep */
+    private volatile int sweepAt;
+
+    /** minimum time between sweeps in nanoseconds: the refill period, capped at a second */
+    private final long sweepIntervalNanos;
+
+    /** nanoTime of the last sweep; claimed by compare-and-set, so one thread sweeps at a time */
+    private final AtomicLong lastSweep = new AtomicLong();
+
+    /** calls refused */
+    private final Counter limited;
+
+    /** true for a limiter that admits everything */
+    private final boolean unlimited;
+
+    /**
+     * create limiter
+     * @param name limiter name used in metric labels
+     * @param burst bucket capacity, the number of calls allowed back to back
+     * @param period time to refill a full bucket
+     * @param unit unit of period
+     * @param maxKeys maximum number of active buckets
+     */
+    public RateLimiter(String name, int burst, long period, TimeUnit unit, int maxKeys) {
+        this(name, burst, period, unit, maxKeys, false);
+    }
+
+    /**
+     * create limiter
+     * @param name limiter name used in metric labels
+     * @param burst bucket capacity
+     * @param period time to refill a full bucket
+     * @param unit unit of period
+     * @param maxKeys maximum number of active buckets
+     * @param unlimited true to admit every call
+     */
+    private RateLimiter(String name, int burst, long period, TimeUnit unit, int maxKeys, boolean unlimited) {
+        if (burst < 1 || period <= 0 || maxKeys < 1)
+            throw new IllegalArgumentException("Burst, period and key limit must be positive");
+        this.name = name;
+        this.burstNanos = unit.toNanos(period);
+        this.nanosPerToken = Math.max(1, burstNanos / burst);
+        this.maxKeys = maxKeys;
+        this.sweepAt = Math.min(maxKeys, 1024);
+        this.sweepIntervalNanos = Math.min(burstNanos, MAX_SWEEP_INTERVAL_NANOS);
+        this.lastSweep.set(System.nanoTime() - sweepIntervalNanos);
+        for (int i = 0; i < OVERFLOW_STRIPES; i++) overflow[i] = new AtomicLong(Long.MIN_VALUE);
+        this.unlimited = unlimited;
+        this.limited = MetricsRegistry.global().counter("rate_limited_total{limiter=" + name + "}");
+        if (!unlimited) MetricsRegistry.global().gauge("rate_limiter_buckets{limiter=" + name + "}", buckets::size);
+    }
+
+    /**
+     * limiter that admits every call, for benchmarks and tests of other components
+     * @param name limiter name
+     * @return unlimited limiter
+     */
+    public static RateLimiter unlimited(String name) {
+        return new RateLimiter(name, 1, 1, TimeUnit.SECONDS, 1, true);
+    }
+
+    /**
+     * create limiter from a system property of the form "burst/seconds", e.g. "5/60" for five
+     * calls back to back and a full bucket again after a minute
+     * @param name limiter name
+     * @param property system property name
+     * @param defaultSpec spec used when property is not set
+     * @param maxKeys maximum number of active buckets
+     * @return configured limiter
+     * @throws IllegalArgumentException if spec is malformed
+     */
+    public static RateLimiter fromProperty(String name, String property, String defaultSpec, int maxKeys) {
+        String spec = System.getProperty(property, defaultSpec).trim();
+        int slash = spec.indexOf('/');
+        if (slash < 0) throw new IllegalArgumentException("Rate limit must look like burst/seconds: " + spec);
+        int burst = Integer.parseInt(spec.substring(0, slash).trim());
+        long seconds = Long.parseLong(spec.substring(slash + 1).trim());
+        return new RateLimiter(name, burst, seconds, TimeUnit.SECONDS, maxKeys);
+    }
+
+    /**
+     * take a token for key or fail
+     * @param key bucket key
+     * @throws RateLimitExceededException if bucket is empty
+     */
+    public void acquire(String key) {
+        long waitNanos = tryAcquire(key);
+        if (waitNanos > 0) throw new RateLimitExceededException(name, TimeUnit.NANOSECONDS.toMillis(waitNanos) + 1);
+    }
+
+    /**
+     * take a token for key if one is available
+     * @param key bucket key
+     * @return 0 if a token was taken, else nanoseconds until the next token
+     */
+    public long tryAcquire(String key) {
+        if (unlimited) return 0;
+        long now = System.nanoTime();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) bucket = register(key, now);
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + nanosPerToken;
+            long wait = next - now;
+            if (wait > burstNanos) {
+                limited.inc();
+                return wait - burstNanos;
+            }
+            if (bucket.compareAndSet(fullAt, next)) return 0;
+        }
+    }
+
+    /**
+     * give back a token taken for key, e.g. when only failed calls should count
+     * does nothing if the bucket is already full
+     * @param key bucket key
+     */
+    public void refund(String key) {
+        if (unlimited) return;
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            int h = key.hashCode();
+            bucket = overflow[(h ^ (h >>> 16)) & (OVERFLOW_STRIPES - 1)];
+        }
+        long now = System.nanoTime();
+        while (true) {
+            long fullAt = bucket.get();
+            if (fullAt <= now || bucket.compareAndSet(fullAt, Math.max(now, fullAt - nanosPerToken))) return;
+        }
+    }
+
+    /**
+     * add bucket for a new key, sweeping full buckets first if the map has grown enough
+     * @param key bucket key
+     * @param now current nanoTime
+     * @return bucket for key, or its overflow bucket if the map is at capacity
+     */
+    private AtomicLong register(String key, long now) {
+        if (buckets.size() >= sweepAt) sweep(now);
+        if (buckets.size() >= maxKeys) {
+            int h = key.hashCode();
+            return overflow[(h ^ (h >>> 16)) & (OVERFLOW_STRIPES - 1)];
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE));
+    }
+
+    /**
+     * drop buckets that have refilled completely; they behave exactly like absent ones
+     * does nothing if another sweep ran within the sweep interval or is running now, so a map
+     * held at capacity by active keys costs one pass per interval rather than one per new key
+     * a call racing with the removal may take its token from the dropped bucket, which at worst
+     * admits one extra call for that key
+     * @param now current nanoTime
+     */
+    private void sweep(long now) {
+        long last = lastSweep.get();
+        if (now - last < sweepIntervalNanos || !lastSweep.compareAndSet(last, now)) return;
+        buckets.values().removeIf(b -> b.get() <= now);
+        sweepAt = Math.min(maxKeys, Math.max(1024, buckets.size() * 2));
+    }
+
+    /** @return number of buckets currently held */
+    public int size() {
+        return buckets.size();
+    }
+
+    /** @return limiter name */
+    public String getName() {
+        return name;
+    }
+}
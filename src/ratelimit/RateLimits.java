@@ -0,0 +1,59 @@
+package ratelimit;
+
+/**
+ * rate limiters shared by the controllers
+ * login attempts are limited per login id; expensive queries (browsing with filters, the
+ * popularity report) per session token
+ *
+ * configuration: system properties ipms.ratelimit.login (default "5/60": five attempts back to
+ * back, refilled over a minute) and ipms.ratelimit.query (default "20/2")
+ */
+public class RateLimits {
+
+    /** maximum buckets per limiter */
+    private static final int MAX_KEYS = 100_000;
+
+    /** limiter for login attempts, keyed by login id */
+    private final RateLimiter login;
+
+    /** limiter for expensive queries, keyed by session token */
+    private final RateLimiter query;
+
+    /**
+     * create limits
+     * @param login limiter for login attempts
+     * @param query limiter for expensive queries
+     */
+    public RateLimits(RateLimiter login, RateLimiter query) {
+        this.login = login;
+        this.query = query;
+    }
+
+    /**
+     * limits configured from system properties
+     * @return configured limits
+     */
+    public static RateLimits fromSystemProperties() {
+        return new RateLimits(
+                RateLimiter.fromProperty("login", "ipms.ratelimit.login", "5/60", MAX_KEYS),
+                RateLimiter.fromProperty("query", "ipms.ratelimit.query", "20/2", MAX_KEYS));
+    }
+
+    /**
+     * limits that admit everything, for benchmarks
+     * @return unlimited limits
+     */
+    public static RateLimits unlimited() {
+        return new RateLimits(RateLimiter.unlimited("login"), RateLimiter.unlimited("query"));
+    }
+
+    /** @return limiter for login attempts, keyed by login id */
+    public RateLimiter login() {
+        return login;
+    }
+
+    /** @return limiter for expensive queries, keyed by session token */
+    public RateLimiter query() {
+        return query;
+    }
+}
@@ -1,7 +1,11 @@
 package repository;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
+import metrics.Footprint;
+import metrics.MemoryModel;
 import model.Company;
 
 /**
@@ -30,4 +34,49 @@ public interface CompanyRepository {
      * @return list containing every company in storage
      */
     List<Company> findAll();
+
+    /**
+     * lazily stream all stored companies without copying storage
+     * stream is weakly consistent and may or may not reflect later writes
+     * @return stream over every company in storage
+     */
+    Stream<Company> streamAll();
+
+    /**
+     * find companies whose name starts with given prefix (case-insensitive)
+     * results are ranked like every prefix index, by term count and then alphabetically; each
+     * company name is indexed exactly once, so the ranking reduces to alphabetical order
+     * @param prefix typed name prefix
+     * @param limit maximum number of companies returned
+     * @return matching companies, ranked by the name prefix index
+     */
+    List<Company> findByNamePrefix(String prefix, int limit);
+
+    /**
+     * count all stored companies without materialising them
+     * @return number of companies
+     */
+    int count();
+
+    /**
+     * report number of keys held by each secondary index, for monitoring
+     * @return index name to key count
+     */
+    Map<String, Integer> getIndexSizes();
+
+    /**
+     * report number of keys held by one secondary index, without building the whole report
+     * @param index index name, one of the keys of getIndexSizes()
+     * @return key count
+     * @throws IllegalArgumentException if no index has that name
+     */
+    int getIndexSize(String index);
+
+    /**
+     * estimate heap retained by stored entities, their strings, indexes and caches, for capacity planning
+     * walks every stored record, so intended for on-demand reports rather than scrapes
+     * @param model object layout model
+     * @return footprint of this repository
+     */
+    Footprint estimateFootprint(MemoryModel model);
 }
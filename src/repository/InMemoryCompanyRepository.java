@@ -1,10 +1,13 @@
 package repository;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import metrics.Footprint;
+import metrics.MemoryModel;
 import model.Company;
 
 /**
@@ -15,7 +18,10 @@ import model.Company;
 public class InMemoryCompanyRepository implements CompanyRepository {
 
     /** map storing companies using lowercase company name as key */
-    private final Map<String, Company> companies = new HashMap<>();
+    private final Map<String, Company> companies = new ConcurrentHashMap<>();
+
+    /** prefix index over stored company names */
+    private final PrefixIndex names = new PrefixIndex();
 
     /**
      * search for company by name (case-insensitive)
@@ -32,8 +38,9 @@ public class InMemoryCompanyRepository implements CompanyRepository {
      * @param company company record to store
      */
     @Override
-    public void save(Company company) {
-        companies.put(company.getCompanyName().toLowerCase(), company);
+    public synchronized void save(Company company) {
+        Company previous = companies.put(company.getCompanyName().toLowerCase(), company);
+        if (previous == null) names.add(company.getCompanyName());
     }
 
     /**
@@ -44,4 +51,73 @@ public class InMemoryCompanyRepository implements CompanyRepository {
     public List<Company> findAll() {
         return new ArrayList<>(companies.values());
     }
+
+    /**
+     * lazily stream stored companies without copying storage
+     * @return weakly consistent stream of company entries
+     */
+    @Override
+    public Stream<Company> streamAll() {
+        return companies.values().stream();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Company> findByNamePrefix(String prefix, int limit) {
+        return names.complete(prefix, limit).stream()
+            .map(n -> companies.get(n.toLowerCase()))
+            .toList();
+    }
+
+    /**
+     * count all stored companies
+     * @return number of companies
+     */
+    @Override
+    public int count() {
+        return companies.size();
+    }
+
+    /**
+     * report sizes of name map and name prefix index
+     * @return index name to key count
+     */
+    @Override
+    public Map<String, Integer> getIndexSizes() {
+        return Map.of("name", companies.size(), "namePrefix", names.size());
+    }
+
+    /**
+     * report size of the name map or the name prefix index
+     * @param index "name" or "namePrefix"
+     * @return key count
+     * @throws IllegalArgumentException if no index has that name
+     */
+    @Override
+    public int getIndexSize(String index) {
+        return switch (index) {
+            case "name" -> companies.size();
+            case "namePrefix" -> names.size();
+            default -> throw new IllegalArgumentException("Unknown company index: " + index);
+        };
+    }
+
+    /**
+     * estimate heap retained by companies, the lowercase name map and the name prefix index
+     * @param model object layout model
+     * @return footprint of this repository
+     */
+    @Override
+    public Footprint estimateFootprint(MemoryModel model) {
+        Footprint f = new Footprint("companies", model);
+        for (Map.Entry<String, Company> e : companies.entrySet()) {
+            f.entity(e.getValue());
+            f.string(e.getKey());
+        }
+        f.index(model.concurrentMapSize(companies.size()));
+        names.estimateFootprint(f);
+        return f;
+    }
 }
@@ -1,29 +1,222 @@
 package repository;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.Stream;
+import event.ApplicationAccepted;
+import event.ApplicationStatusChanged;
+import event.EventBus;
+import event.WithdrawalRequested;
+import metrics.ApplicationTransitionEvent;
+import metrics.Footprint;
+import metrics.Histogram;
+import metrics.MemoryModel;
+import metrics.MetricsRegistry;
+import metrics.SlowQueryLog;
 import model.InternshipApplication;
+import model.InternshipApplication.Status;
 
 /**
  * in-memory implementation of InternshipAppRepository
  * provides runtime storage and lookup support for internship applications
+ * backed by a concurrent hash map so streams never block or fail on concurrent writes
+ * secondary indexes by student, internship, status and withdrawal flag are maintained on
+ * every save and delete, so lookups and counts never scan the whole store; withdrawal
+ * requests are queued in the order they were made
+ * status changes, acceptances and withdrawal requests are published on the event bus
  * data does not persist to disk and resets when application restarts
  */
 public class InMemoryInternshipAppRepository implements InternshipAppRepository {
 
+    /** index names reported by getIndexSizes, in report order */
+    private static final List<String> INDEXES = List.of("student", "internship", "status", "withdrawalRequests", "accepted");
+
+    /** result sizes of findByStudent queries */
+    private static final Histogram FIND_BY_STUDENT_ROWS = MetricsRegistry.global().histogram("InternshipAppRepository.findByStudent.rows");
+
+    /** result sizes of findByInternship queries */
+    private static final Histogram FIND_BY_INTERNSHIP_ROWS = MetricsRegistry.global().histogram("InternshipAppRepository.findByInternship.rows");
+
+    /** result sizes of findAll queries */
+    private static final Histogram FIND_ALL_ROWS = MetricsRegistry.global().histogram("InternshipAppRepository.findAll.rows");
+
+    /** result sizes of findWithdrawalRequests queries */
+    private static final Histogram FIND_WITHDRAWAL_REQUESTS_ROWS = MetricsRegistry.global().histogram("InternshipAppRepository.findWithdrawalRequests.rows");
+
     /** map storing internship applications keyed by application id */
-    private final Map<String, InternshipApplication> internshipApps = new HashMap<>();
+    private final Map<String, InternshipApplication> internshipApps = new ConcurrentHashMap<>();
+
+    /** application ids grouped by owning student id */
+    private final Map<String, Set<String>> byStudent = new ConcurrentHashMap<>();
+
+    /** application ids grouped by internship id */
+    private final Map<String, Set<String>> byInternship = new ConcurrentHashMap<>();
+
+    /** application ids grouped by current status */
+    private final Map<Status, Set<String>> byStatus = new EnumMap<>(Status.class);
+
+    /** ids of applications with a pending withdrawal request, longest waiting first */
+    private final PendingQueue withdrawalRequests = new PendingQueue();
+
+    /** status each application was last indexed under, used to detect in-place status changes */
+    private final Map<String, Status> indexedStatus = new ConcurrentHashMap<>();
+
+    /** per-internship application counters indexed by status ordinal, updated incrementally */
+    private final Map<String, AtomicIntegerArray> statusCountsByInternship = new ConcurrentHashMap<>();
+
+    /** ids of applications the student has accepted, used to detect in-place acceptance */
+    private final Set<String> accepted = ConcurrentHashMap.newKeySet();
+
+    /** bus receiving status change, acceptance and withdrawal request events */
+    private final EventBus events;
+
+    /**
+     * create empty repository publishing to a private bus with no subscribers
+     */
+    public InMemoryInternshipAppRepository() {
+        this(new EventBus());
+    }
+
+    /**
+     * create empty repository with one status bucket per application status
+     * @param events bus receiving status change, acceptance and withdrawal request events
+     */
+    public InMemoryInternshipAppRepository(EventBus events) {
+        this.events = events;
+        for (Status s : Status.values()) byStatus.put(s, ConcurrentHashMap.newKeySet());
+    }
 
     /**
      * save or update internship application record
+     * re-indexes status and withdrawal flag since applications are mutated in place
+     * status changes emit an ipms.ApplicationTransition flight recorder event when recording is enabled
+     * status changes, acceptance and new withdrawal requests are published on the event bus
+     * the version is bumped past the stored one
      * @param app internship application to store
      */
     @Override
-    public void save(InternshipApplication app) {
-        internshipApps.put(app.getId(), app);
+    public synchronized void save(InternshipApplication app) {
+        InternshipApplication previous = internshipApps.put(app.getId(), app);
+        app.setVersion(Math.max(app.getVersion(), previous == null ? 0 : previous.getVersion()) + 1);
+        if (previous == null) {
+            group(byStudent, app.getStudentId()).add(app.getId());
+            group(byInternship, app.getInternshipId()).add(app.getId());
+        }
+
+        Status oldStatus = indexedStatus.put(app.getId(), app.getStatus());
+        if (oldStatus != app.getStatus()) {
+            AtomicIntegerArray counts = statusCountsByInternship.computeIfAbsent(
+                app.getInternshipId(), k -> new AtomicIntegerArray(Status.values().length));
+            if (oldStatus != null) {
+                byStatus.get(oldStatus).remove(app.getId());
+                counts.decrementAndGet(oldStatus.ordinal());
+            }
+            byStatus.get(app.getStatus()).add(app.getId());
+            counts.incrementAndGet(app.getStatus().ordinal());
+
+            ApplicationTransitionEvent event = new ApplicationTransitionEvent();
+            if (event.shouldCommit()) {
+                event.set(app.getId(), app.getStudentId(), app.getInternshipId(), oldStatus, app.getStatus());
+                event.commit();
+            }
+            events.publish(new ApplicationStatusChanged(app.getId(), app.getStudentId(), app.getInternshipId(),
+                    oldStatus, app.getStatus()));
+        }
+
+        if (app.studentAccepted()) {
+            if (accepted.add(app.getId()))
+                events.publish(new ApplicationAccepted(app.getId(), app.getStudentId(), app.getInternshipId()));
+        } else {
+            accepted.remove(app.getId());
+        }
+
+        if (app.isWithdrawalRequested()) {
+            if (withdrawalRequests.add(app.getId()))
+                events.publish(new WithdrawalRequested(app.getId(), app.getStudentId(), app.getInternshipId()));
+        } else {
+            withdrawalRequests.remove(app.getId());
+        }
+    }
+
+    /**
+     * save application if stored version still equals expected version
+     * check, state write-back and re-indexing all happen under the write lock, so of two
+     * writers that read the same version exactly one succeeds
+     * @param app stored application or working copy
+     * @param expectedVersion version the caller read
+     * @throws VersionConflictException if stored version differs
+     */
+    @Override
+    public synchronized void save(InternshipApplication app, long expectedVersion) {
+        InternshipApplication stored = internshipApps.get(app.getId());
+        long actual = stored == null ? 0 : stored.getVersion();
+        if (actual != expectedVersion)
+            throw new VersionConflictException("Application", app.getId(), expectedVersion, actual);
+        if (stored != null && stored != app) {
+            stored.copyStateFrom(app);
+            save(stored);
+            app.setVersion(stored.getVersion());
+        } else {
+            save(app);
+        }
+    }
+
+    /**
+     * store a batch of new applications under a single acquisition of the write lock, so a
+     * burst of admissions pays for locking and index maintenance once per batch rather than
+     * once per application
+     * @param apps applications not yet stored
+     * @throws VersionConflictException if any id is already stored; nothing is written
+     */
+    @Override
+    public synchronized void insertAll(Collection<InternshipApplication> apps) {
+        for (InternshipApplication app : apps) {
+            InternshipApplication stored = internshipApps.get(app.getId());
+            if (stored != null)
+                throw new VersionConflictException("Application", app.getId(), 0, stored.getVersion());
+        }
+        for (InternshipApplication app : apps) save(app);
+    }
+
+    /**
+     * conditionally save a batch of applications under a single acquisition of the write lock
+     * every version is checked before anything is written, so a conflict leaves the batch unapplied
+     * @param apps stored applications or working copies, distinct ids
+     * @throws VersionConflictException if any stored version differs from the version carried
+     */
+    @Override
+    public synchronized void saveAll(Collection<InternshipApplication> apps) {
+        for (InternshipApplication app : apps) {
+            InternshipApplication stored = internshipApps.get(app.getId());
+            long actual = stored == null ? 0 : stored.getVersion();
+            if (actual != app.getVersion())
+                throw new VersionConflictException("Application", app.getId(), app.getVersion(), actual);
+        }
+        for (InternshipApplication app : apps) save(app, app.getVersion());
+    }
+
+    /**
+     * put back the state a stored entry had before an abandoned change, under the write lock
+     * re-indexes through save() with events dropped, then sets the snapshot's version back;
+     * a restored withdrawal request rejoins the end of the withdrawal queue
+     * @param snapshot copy taken before the change, carrying the version it had then
+     */
+    @Override
+    public synchronized void restore(InternshipApplication snapshot) {
+        InternshipApplication stored = internshipApps.get(snapshot.getId());
+        if (stored == null) return;
+        stored.copyStateFrom(snapshot);
+        EventBus.silently(() -> save(stored));
+        stored.setVersion(snapshot.getVersion());
     }
 
     /**
@@ -43,9 +236,21 @@ public class InMemoryInternshipAppRepository implements InternshipAppRepository
      */
     @Override
     public List<InternshipApplication> findByStudent(String studentId) {
-        return internshipApps.values().stream()
-            .filter(a -> a.getStudentId().equals(studentId))
-            .toList();
+        long start = System.nanoTime();
+        List<InternshipApplication> result = streamByStudent(studentId).toList();
+        FIND_BY_STUDENT_ROWS.record(result.size());
+        logIfSlow("findByStudent", "STUDENT_INDEX", "studentId", studentId, result.size(), start);
+        return result;
+    }
+
+    /**
+     * lazily stream internship applications submitted by a specific student
+     * @param studentId id of student requester
+     * @return weakly consistent stream of matching applications
+     */
+    @Override
+    public Stream<InternshipApplication> streamByStudent(String studentId) {
+        return resolve(byStudent.get(studentId));
     }
 
     /**
@@ -55,18 +260,46 @@ public class InMemoryInternshipAppRepository implements InternshipAppRepository
      */
     @Override
     public List<InternshipApplication> findByInternship(String internshipId) {
-        return internshipApps.values().stream()
-            .filter(a -> a.getInternshipId().equals(internshipId))
-            .toList();
+        long start = System.nanoTime();
+        List<InternshipApplication> result = streamByInternship(internshipId).toList();
+        FIND_BY_INTERNSHIP_ROWS.record(result.size());
+        logIfSlow("findByInternship", "INTERNSHIP_INDEX", "internshipId", internshipId, result.size(), start);
+        return result;
     }
 
     /**
-     * permanently remove internship application entry
+     * lazily stream internship applications for a specific internship
+     * @param internshipId internship record id to search
+     * @return weakly consistent stream of matching applications
+     */
+    @Override
+    public Stream<InternshipApplication> streamByInternship(String internshipId) {
+        return resolve(byInternship.get(internshipId));
+    }
+
+    /**
+     * permanently remove internship application entry and its index entries
      * @param appId id of application to delete
      */
     @Override
-    public void delete(String appId) {
-        internshipApps.remove(appId);
+    public synchronized void delete(String appId) {
+        InternshipApplication removed = internshipApps.remove(appId);
+        if (removed == null) return;
+
+        ungroup(byStudent, removed.getStudentId(), appId);
+        ungroup(byInternship, removed.getInternshipId(), appId);
+        Status oldStatus = indexedStatus.remove(appId);
+        if (oldStatus != null) {
+            byStatus.get(oldStatus).remove(appId);
+            AtomicIntegerArray counts = statusCountsByInternship.get(removed.getInternshipId());
+            if (counts != null) counts.decrementAndGet(oldStatus.ordinal());
+        }
+        if (!byInternship.containsKey(removed.getInternshipId()))
+            statusCountsByInternship.remove(removed.getInternshipId());
+        withdrawalRequests.remove(appId);
+        accepted.remove(appId);
+        events.publish(new ApplicationStatusChanged(appId, removed.getStudentId(), removed.getInternshipId(),
+                oldStatus, null));
     }
 
     /**
@@ -75,18 +308,242 @@ public class InMemoryInternshipAppRepository implements InternshipAppRepository
      */
     @Override
     public List<InternshipApplication> findAll() {
-        return new ArrayList<>(internshipApps.values());
+        long start = System.nanoTime();
+        List<InternshipApplication> result = new ArrayList<>(internshipApps.values());
+        FIND_ALL_ROWS.record(result.size());
+        logIfSlow("findAll", "FULL_SCAN", null, null, result.size(), start);
+        return result;
+    }
+
+    /**
+     * lazily stream all stored internship applications without copying storage
+     * @return weakly consistent stream over every application record
+     */
+    @Override
+    public Stream<InternshipApplication> streamAll() {
+        return internshipApps.values().stream();
     }
 
     /**
      * fetch applications with withdrawal requested flag set to true
      * used by staff for withdrawal approval workflow
-     * @return list of withdrawal requested applications
+     * @return list of withdrawal requested applications, longest waiting first
      */
     @Override
     public List<InternshipApplication> findWithdrawalRequests() {
-        return internshipApps.values().stream()
-            .filter(InternshipApplication::isWithdrawalRequested)
-            .toList();
+        long start = System.nanoTime();
+        List<InternshipApplication> result = streamWithdrawalRequests().toList();
+        FIND_WITHDRAWAL_REQUESTS_ROWS.record(result.size());
+        logIfSlow("findWithdrawalRequests", "WITHDRAWAL_QUEUE", "withdrawalRequested", "true", result.size(), start);
+        return result;
+    }
+
+    /**
+     * fetch the head of the withdrawal request queue
+     * @param limit maximum number of applications
+     * @return up to limit withdrawal requested applications, longest waiting first
+     */
+    @Override
+    public List<InternshipApplication> findWithdrawalRequests(int limit) {
+        long start = System.nanoTime();
+        List<InternshipApplication> result = resolve(withdrawalRequests.oldest(limit).stream()).toList();
+        FIND_WITHDRAWAL_REQUESTS_ROWS.record(result.size());
+        logIfSlow("findWithdrawalRequests", "WITHDRAWAL_QUEUE", "limit", String.valueOf(limit), result.size(), start);
+        return result;
+    }
+
+    /**
+     * lazily stream applications with withdrawal requested flag set to true
+     * @return weakly consistent stream of withdrawal requested applications, longest waiting first
+     */
+    @Override
+    public Stream<InternshipApplication> streamWithdrawalRequests() {
+        return resolve(withdrawalRequests.stream());
+    }
+
+    /**
+     * count open withdrawal requests using the withdrawal queue
+     * @return number of withdrawal requested applications
+     */
+    @Override
+    public int countWithdrawalRequests() {
+        return withdrawalRequests.size();
+    }
+
+    /**
+     * count all stored applications
+     * @return number of applications
+     */
+    @Override
+    public int count() {
+        return internshipApps.size();
+    }
+
+    /**
+     * count applications currently in given status using the status index
+     * @param status application status
+     * @return number of applications with that status
+     */
+    @Override
+    public int countByStatus(Status status) {
+        return byStatus.get(status).size();
+    }
+
+    /**
+     * count applications for every status using the status index
+     * @return map from each status to its application count
+     */
+    @Override
+    public Map<Status, Integer> countByStatus() {
+        Map<Status, Integer> counts = new EnumMap<>(Status.class);
+        for (Status s : Status.values()) counts.put(s, byStatus.get(s).size());
+        return counts;
+    }
+
+    /**
+     * count applications submitted for an internship using the internship index
+     * @param internshipId internship identifier
+     * @return number of applications for that internship
+     */
+    @Override
+    public int countByInternship(String internshipId) {
+        Set<String> ids = byInternship.get(internshipId);
+        return ids == null ? 0 : ids.size();
+    }
+
+    /**
+     * count applications for an internship grouped by status using maintained counters
+     * @param internshipId internship identifier
+     * @return map from every status to its application count for that internship
+     */
+    @Override
+    public Map<Status, Integer> countByStatus(String internshipId) {
+        AtomicIntegerArray counts = statusCountsByInternship.get(internshipId);
+        Map<Status, Integer> result = new EnumMap<>(Status.class);
+        for (Status s : Status.values())
+            result.put(s, counts == null ? 0 : counts.get(s.ordinal()));
+        return result;
+    }
+
+    /**
+     * get or create id group for an index key
+     * @param index secondary index map
+     * @param key group key
+     * @return mutable concurrent id set for key
+     */
+    private static Set<String> group(Map<String, Set<String>> index, String key) {
+        return index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet());
+    }
+
+    /**
+     * remove id from an index group, dropping the group once empty
+     * @param index secondary index map
+     * @param key group key
+     * @param id application id to remove
+     */
+    private static void ungroup(Map<String, Set<String>> index, String key, String id) {
+        Set<String> ids = index.get(key);
+        if (ids == null) return;
+        ids.remove(id);
+        if (ids.isEmpty()) index.remove(key);
+    }
+
+    /**
+     * hand a lookup to the slow-query log if it exceeded the threshold
+     * index lookups read exactly the rows they return, so scanned equals returned
+     * @param query lookup method name
+     * @param plan index or scan path used
+     * @param key lookup key name, null for unkeyed lookups
+     * @param value lookup key value
+     * @param rows rows returned
+     * @param start System.nanoTime() at start of lookup
+     */
+    private static void logIfSlow(String query, String plan, String key, String value, int rows, long start) {
+        long elapsed = System.nanoTime() - start;
+        if (!SlowQueryLog.global().isSlow(elapsed)) return;
+        List<String> predicates = key == null ? List.of() : List.of(key + "=" + value);
+        SlowQueryLog.global().record("InternshipAppRepository." + query, plan, predicates, rows, rows, elapsed);
+    }
+
+    /**
+     * map indexed ids back to stored applications, skipping ids deleted concurrently
+     * @param ids id set from a secondary index, may be null
+     * @return stream of stored applications
+     */
+    private Stream<InternshipApplication> resolve(Set<String> ids) {
+        if (ids == null) return Stream.empty();
+        return resolve(ids.stream());
+    }
+
+    /**
+     * map a stream of ids back to stored applications, skipping ids deleted concurrently
+     * @param ids application ids
+     * @return stream of stored applications
+     */
+    private Stream<InternshipApplication> resolve(Stream<String> ids) {
+        return ids.map(internshipApps::get).filter(Objects::nonNull);
+    }
+
+    /**
+     * report key counts of student, internship, status, withdrawal and acceptance indexes
+     * @return index name to key count
+     */
+    @Override
+    public Map<String, Integer> getIndexSizes() {
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        for (String index : INDEXES) sizes.put(index, getIndexSize(index));
+        return sizes;
+    }
+
+    /**
+     * report key count of one index; the status index sums its per-status buckets
+     * @param index "student", "internship", "status", "withdrawalRequests" or "accepted"
+     * @return key count
+     * @throws IllegalArgumentException if no index has that name
+     */
+    @Override
+    public int getIndexSize(String index) {
+        return switch (index) {
+            case "student" -> byStudent.size();
+            case "internship" -> byInternship.size();
+            case "status" -> {
+                int entries = 0;
+                for (Set<String> ids : byStatus.values()) entries += ids.size();
+                yield entries;
+            }
+            case "withdrawalRequests" -> withdrawalRequests.size();
+            case "accepted" -> accepted.size();
+            default -> throw new IllegalArgumentException("Unknown application index: " + index);
+        };
+    }
+
+    /**
+     * estimate heap retained by applications, the id map, student, internship and status
+     * indexes, the withdrawal queue, the acceptance set and the per-internship status counters
+     * @param model object layout model
+     * @return footprint of this repository
+     */
+    @Override
+    public Footprint estimateFootprint(MemoryModel model) {
+        Footprint f = new Footprint("applications", model);
+        for (InternshipApplication a : internshipApps.values()) f.entity(a);
+        f.index(model.concurrentMapSize(internshipApps.size()));
+
+        for (Map<String, Set<String>> index : List.of(byStudent, byInternship)) {
+            f.index(model.concurrentMapSize(index.size()));
+            for (Map.Entry<String, Set<String>> e : index.entrySet()) {
+                f.string(e.getKey());
+                f.index(model.concurrentSetSize(e.getValue().size()));
+            }
+        }
+        for (Set<String> ids : byStatus.values()) f.index(model.concurrentSetSize(ids.size()));
+        f.index(withdrawalRequests.estimateBytes(model));
+        f.index(model.concurrentSetSize(accepted.size()));
+        f.index(model.concurrentMapSize(indexedStatus.size()));
+
+        long counters = model.shallowSize(AtomicIntegerArray.class) + model.arraySize(4, Status.values().length);
+        f.index(model.concurrentMapSize(statusCountsByInternship.size())
+                + statusCountsByInternship.size() * counters);
+        return f;
     }
 }
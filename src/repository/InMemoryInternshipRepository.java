@@ -2,23 +2,111 @@ package repository;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import event.EventBus;
+import event.InternshipStatusChanged;
+import metrics.FilterQueryEvent;
+import metrics.Footprint;
+import metrics.Histogram;
+import metrics.MemoryModel;
+import metrics.MetricsRegistry;
+import metrics.SlowQueryLog;
 import model.Internship;
 import model.Internship.Status;
 import model.InternshipFilter;
 
 /**
  * in-memory implementation of InternshipRepository
- * stores internship records using a hash map keyed by internship id
+ * stores internship records using a concurrent hash map keyed by internship id
+ * writes are serialised per repository, reads and streams never block
+ * status and representative indexes are maintained on every save and delete so status
+ * queries, per-representative lookups and counts never scan the whole store; PENDING
+ * internships are also queued in the order they started waiting for approval
+ * every status change, creation and deletion is published as an InternshipStatusChanged event
  * data is volatile and cleared when application terminates
  */
 public class InMemoryInternshipRepository implements InternshipRepository {
 
+    /** index names reported by getIndexSizes, in report order */
+    private static final List<String> INDEXES = List.of("status", "pending", "representative",
+            "companyPrefix", "majorPrefix", "listedCompanyPrefix", "listedMajorPrefix");
+
+    /** result sizes of findAll queries */
+    private static final Histogram FIND_ALL_ROWS = MetricsRegistry.global().histogram("InternshipRepository.findAll.rows");
+
+    /** result sizes of findByStatus queries */
+    private static final Histogram FIND_BY_STATUS_ROWS = MetricsRegistry.global().histogram("InternshipRepository.findByStatus.rows");
+
+    /** result sizes of findByRepresentative queries */
+    private static final Histogram FIND_BY_REPRESENTATIVE_ROWS = MetricsRegistry.global().histogram("InternshipRepository.findByRepresentative.rows");
+
+    /** result sizes of filter queries */
+    private static final Histogram FILTER_ROWS = MetricsRegistry.global().histogram("InternshipRepository.filter.rows");
+
+    /** access path chosen for a filter query, reported in the slow-query log */
+    private enum Plan { STATUS_INDEX, REPRESENTATIVE_INDEX, FULL_SCAN }
+
     /** map storing internship records keyed by internship id */
-    private final Map<String, Internship> internships = new HashMap<>();
+    private final Map<String, Internship> internships = new ConcurrentHashMap<>();
+
+    /** prefix index of company names weighted by number of postings */
+    private final PrefixIndex companyNames = new PrefixIndex();
+
+    /** prefix index of preferred majors weighted by number of postings */
+    private final PrefixIndex majors = new PrefixIndex();
+
+    /** prefix index of company names weighted by number of approved, visible postings */
+    private final PrefixIndex listedCompanyNames = new PrefixIndex();
+
+    /** prefix index of preferred majors weighted by number of approved, visible postings */
+    private final PrefixIndex listedMajors = new PrefixIndex();
+
+    /** company name and major last indexed for each internship id, used to update indexes on edits */
+    private final Map<String, String[]> indexedTerms = new ConcurrentHashMap<>();
+
+    /** ids whose terms are currently counted in the listed prefix indexes */
+    private final Set<String> listedTerms = ConcurrentHashMap.newKeySet();
+
+    /** internship ids grouped by current status */
+    private final Map<Status, Set<String>> byStatus = new EnumMap<>(Status.class);
+
+    /** status each internship was last indexed under, used to detect in-place status changes */
+    private final Map<String, Status> indexedStatus = new ConcurrentHashMap<>();
+
+    /** ids of PENDING internships, longest waiting first */
+    private final PendingQueue pending = new PendingQueue();
+
+    /** internship ids grouped by lowercase owning representative id */
+    private final Map<String, Set<String>> byRep = new ConcurrentHashMap<>();
+
+    /** bus receiving status change events */
+    private final EventBus events;
+
+    /**
+     * create empty repository publishing to a private bus with no subscribers
+     */
+    public InMemoryInternshipRepository() {
+        this(new EventBus());
+    }
+
+    /**
+     * create empty repository with one status bucket per internship status
+     * @param events bus receiving status change events
+     */
+    public InMemoryInternshipRepository(EventBus events) {
+        this.events = events;
+        for (Status s : Status.values()) byStatus.put(s, ConcurrentHashMap.newKeySet());
+    }
 
     /**
      * retrieve all internship records
@@ -26,7 +114,18 @@ public class InMemoryInternshipRepository implements InternshipRepository {
      */
     @Override
     public List<Internship> findAll() {
-        return new ArrayList<>(internships.values());
+        List<Internship> result = new ArrayList<>(internships.values());
+        FIND_ALL_ROWS.record(result.size());
+        return result;
+    }
+
+    /**
+     * lazily stream all internship records without copying storage
+     * @return weakly consistent stream over stored internships
+     */
+    @Override
+    public Stream<Internship> streamAll() {
+        return internships.values().stream();
     }
 
     /**
@@ -39,14 +138,111 @@ public class InMemoryInternshipRepository implements InternshipRepository {
         return Optional.ofNullable(internships.get(id));
     }
 
+    /**
+     * resolve many internships by id with one map probe per distinct id
+     * @param ids internship identifiers, duplicates allowed
+     * @return map from each found id to its internship
+     */
+    @Override
+    public Map<String, Internship> findAllById(Collection<String> ids) {
+        Map<String, Internship> found = new HashMap<>();
+        for (String id : ids) {
+            if (found.containsKey(id)) continue;
+            Internship i = internships.get(id);
+            if (i != null) found.put(id, i);
+        }
+        return found;
+    }
+
     /**
      * save or update internship entry
-     * if id already exists, record is overwritten
+     * if id already exists, record is overwritten; the version is bumped past the stored one
+     * prefix indexes are re-indexed, so status and visibility changes move terms in or out of the listed ones
+     * a status change is published on the event bus
      * @param internship internship object to store
      */
     @Override
-    public void save(Internship internship) {
-        internships.put(internship.getId(), internship);
+    public synchronized void save(Internship internship) {
+        Internship previous = internships.put(internship.getId(), internship);
+        internship.setVersion(Math.max(internship.getVersion(), previous == null ? 0 : previous.getVersion()) + 1);
+        if (previous == null) {
+            byRep.computeIfAbsent(repKey(internship), k -> ConcurrentHashMap.newKeySet()).add(internship.getId());
+        }
+        unindexTerms(internship.getId());
+        String[] terms = { internship.getCompanyName(), internship.getMajor() };
+        companyNames.add(terms[0]);
+        majors.add(terms[1]);
+        indexedTerms.put(internship.getId(), terms);
+        if (internship.getStatus() == Status.APPROVED && internship.getVisibility()) {
+            listedCompanyNames.add(terms[0]);
+            listedMajors.add(terms[1]);
+            listedTerms.add(internship.getId());
+        }
+
+        Status oldStatus = indexedStatus.put(internship.getId(), internship.getStatus());
+        if (oldStatus != internship.getStatus()) {
+            if (oldStatus != null) byStatus.get(oldStatus).remove(internship.getId());
+            byStatus.get(internship.getStatus()).add(internship.getId());
+            if (internship.getStatus() == Status.PENDING) pending.add(internship.getId());
+            else pending.remove(internship.getId());
+            events.publish(new InternshipStatusChanged(internship.getId(), internship.getCr().getUserId(),
+                    oldStatus, internship.getStatus()));
+        }
+    }
+
+    /**
+     * save internship if stored version still equals expected version
+     * check, state write-back and re-indexing all happen under the write lock, so of two
+     * writers that read the same version exactly one succeeds
+     * @param internship stored internship or working copy
+     * @param expectedVersion version the caller read
+     * @throws VersionConflictException if stored version differs
+     */
+    @Override
+    public synchronized void save(Internship internship, long expectedVersion) {
+        Internship stored = internships.get(internship.getId());
+        long actual = stored == null ? 0 : stored.getVersion();
+        if (actual != expectedVersion)
+            throw new VersionConflictException("Internship", internship.getId(), expectedVersion, actual);
+        if (stored != null && stored != internship) {
+            stored.copyStateFrom(internship);
+            save(stored);
+            internship.setVersion(stored.getVersion());
+        } else {
+            save(internship);
+        }
+    }
+
+    /**
+     * conditionally save a batch of internships under a single acquisition of the write lock
+     * every version is checked before anything is written, so a conflict leaves the batch unapplied
+     * @param batch stored internships or working copies, distinct ids
+     * @throws VersionConflictException if any stored version differs from the version carried
+     */
+    @Override
+    public synchronized void saveAll(Collection<Internship> batch) {
+        for (Internship internship : batch) {
+            Internship stored = internships.get(internship.getId());
+            long actual = stored == null ? 0 : stored.getVersion();
+            if (actual != internship.getVersion())
+                throw new VersionConflictException("Internship", internship.getId(), internship.getVersion(), actual);
+        }
+        for (Internship internship : batch) save(internship, internship.getVersion());
+    }
+
+    /**
+     * put back the state a stored entry had before an abandoned change, under the write lock
+     * re-indexes through save() with events dropped, then sets the snapshot's version back;
+     * a restored pending internship rejoins the end of the pending queue
+     * @param snapshot copy taken before the change, carrying the version it had then
+     */
+    @Override
+    public synchronized void restore(Internship snapshot) {
+        Internship stored = internships.get(snapshot.getId());
+        if (stored == null) return;
+        stored.copyStateFrom(snapshot);
+        EventBus.silently(() -> save(stored));
+        stored.setVersion(snapshot.getVersion());
     }
 
     /**
@@ -55,8 +251,45 @@ public class InMemoryInternshipRepository implements InternshipRepository {
      * @param id internship identifier to remove
      */
     @Override
-    public void delete(String id) {
-        internships.remove(id);
+    public synchronized void delete(String id) {
+        Internship removed = internships.remove(id);
+        if (removed == null) return;
+        Set<String> owned = byRep.get(repKey(removed));
+        if (owned != null) {
+            owned.remove(id);
+            if (owned.isEmpty()) byRep.remove(repKey(removed));
+        }
+        unindexTerms(id);
+        Status oldStatus = indexedStatus.remove(id);
+        if (oldStatus != null) byStatus.get(oldStatus).remove(id);
+        pending.remove(id);
+        events.publish(new InternshipStatusChanged(id, removed.getCr().getUserId(), oldStatus, null));
+    }
+
+    /**
+     * build representative index key for an internship
+     * @param internship indexed internship
+     * @return lowercase owning representative id
+     */
+    private static String repKey(Internship internship) {
+        return internship.getCr().getUserId().toLowerCase();
+    }
+
+    /**
+     * remove previously indexed company name and major of an internship from prefix indexes,
+     * including the listed ones if it was counted there
+     * @param id internship identifier
+     */
+    private void unindexTerms(String id) {
+        String[] old = indexedTerms.remove(id);
+        if (old != null) {
+            companyNames.remove(old[0]);
+            majors.remove(old[1]);
+            if (listedTerms.remove(id)) {
+                listedCompanyNames.remove(old[0]);
+                listedMajors.remove(old[1]);
+            }
+        }
     }
 
     /**
@@ -67,7 +300,7 @@ public class InMemoryInternshipRepository implements InternshipRepository {
      */
     @Override
     public List<Internship> findByCompany(String companyName) {
-        return internships.values().stream()
+        return streamAll()
             .filter(i -> i.getCompanyName().equals(companyName))
             .toList();
     }
@@ -79,45 +312,362 @@ public class InMemoryInternshipRepository implements InternshipRepository {
      */
     @Override
     public List<Internship> findByStatus(Status status) {
-        return internships.values().stream()
-            .filter(i -> i.getStatus().equals(status))
-            .toList();
+        List<Internship> result = streamByStatus(status).toList();
+        FIND_BY_STATUS_ROWS.record(result.size());
+        return result;
+    }
+
+    /**
+     * lazily stream internships with given approval or lifecycle status
+     * @param status internship status to filter by
+     * @return weakly consistent stream of matching internships
+     */
+    @Override
+    public Stream<Internship> streamByStatus(Status status) {
+        return resolve(byStatus.get(status));
+    }
+
+    /**
+     * retrieve the head of the pending approval queue
+     * @param limit maximum number of internships
+     * @return up to limit PENDING internships, longest waiting first
+     */
+    @Override
+    public List<Internship> findPending(int limit) {
+        List<Internship> result = pending.oldest(limit).stream().map(internships::get).filter(Objects::nonNull).toList();
+        FIND_BY_STATUS_ROWS.record(result.size());
+        return result;
+    }
+
+    /**
+     * lazily stream the pending approval queue
+     * @return weakly consistent stream of PENDING internships, longest waiting first
+     */
+    @Override
+    public Stream<Internship> streamPending() {
+        return pending.stream().map(internships::get).filter(Objects::nonNull);
+    }
+
+    /**
+     * map indexed ids back to stored internships, skipping ids deleted concurrently
+     * @param ids id set from a secondary index, may be null
+     * @return stream of stored internships
+     */
+    private Stream<Internship> resolve(Set<String> ids) {
+        if (ids == null) return Stream.empty();
+        return ids.stream().map(internships::get).filter(Objects::nonNull);
+    }
+
+    /**
+     * find internships created by a company representative using the representative index
+     * @param repId representative user id, matched case-insensitively
+     * @return list of owned internship records
+     */
+    @Override
+    public List<Internship> findByRepresentative(String repId) {
+        List<Internship> result = streamByRepresentative(repId).toList();
+        FIND_BY_REPRESENTATIVE_ROWS.record(result.size());
+        return result;
+    }
+
+    /**
+     * lazily stream internships created by a company representative
+     * @param repId representative user id, matched case-insensitively
+     * @return weakly consistent stream of owned internships
+     */
+    @Override
+    public Stream<Internship> streamByRepresentative(String repId) {
+        return resolve(byRep.get(repId.toLowerCase()));
     }
-    
 
     /**
      * filter internships using multiple optional conditions from InternshipFilter
      * filtering supports status, major, level, company, representative id, slot range, and date range logic
      * any null criteria is ignored
+     * emits an ipms.FilterQuery flight recorder event when recording is enabled and logs the plan,
+     * predicates and rows scanned to the slow-query log when the query exceeds its threshold
      * @param filter configured InternshipFilter object containing filter criteria
      * @return list of internships satisfying all provided filter criteria
      */
     @Override
     public List<Internship> filter(InternshipFilter filter) {
-        return internships.values().stream()
-            .filter(i -> filter.getStatus() == null || i.getStatus() == filter.getStatus())
-            .filter(i -> filter.getMajor() == null || i.getMajor().equalsIgnoreCase(filter.getMajor()))
-            .filter(i -> filter.getLevel() == null || i.getLevel() == filter.getLevel())
-            .filter(i -> filter.getCompanyName() == null || 
-                    i.getCompanyName().equalsIgnoreCase(filter.getCompanyName()))
-            .filter(i -> filter.getRepId() == null || i.getCr().getUserId().equalsIgnoreCase(filter.getRepId()))
-            .filter(i -> filter.getSlotsMin() == null || i.getRemainingSlots() >= filter.getSlotsMin())
-            .filter(i -> filter.getSlotsMax() == null || i.getRemainingSlots() <= filter.getSlotsMax())
-            .filter(i -> {
-                // perform optional date-range overlap logic
-                if (filter.getStartDate() == null && filter.getEndDate() == null) return true;
-
-                LocalDate start = filter.getStartDate();
-                LocalDate end   = filter.getEndDate();
-                LocalDate iStart = i.getStartDate();
-                LocalDate iEnd   = i.getEndDate();
-
-                boolean noOverlap =
-                        (end   != null && iStart.isAfter(end)) ||
-                        (start != null && iEnd.isBefore(start));
-
-                return !noOverlap;
-            })
+        FilterQueryEvent event = new FilterQueryEvent();
+        event.begin();
+        long start = System.nanoTime();
+
+        Plan plan = plan(filter);
+        int[] scanned = new int[1];
+        List<Internship> result = candidates(plan, filter)
+            .peek(i -> scanned[0]++)
+            .filter(i -> matches(i, filter))
             .toList();
+        FILTER_ROWS.record(result.size());
+
+        long elapsed = System.nanoTime() - start;
+        if (SlowQueryLog.global().isSlow(elapsed)) {
+            SlowQueryLog.global().record("InternshipRepository.filter", plan.name(),
+                    filter.describeCriteria(), scanned[0], result.size(), elapsed);
+        }
+        if (event.shouldCommit()) {
+            event.set(filter, scanned[0], result.size());
+            event.commit();
+        }
+        return result;
+    }
+
+    /**
+     * lazily stream internships satisfying all provided filter criteria
+     * any null criteria is ignored
+     * @param filter configured InternshipFilter object containing filter criteria
+     * @return weakly consistent stream of matching internships
+     */
+    @Override
+    public Stream<Internship> streamFilter(InternshipFilter filter) {
+        return candidates(plan(filter), filter).filter(i -> matches(i, filter));
+    }
+
+    /**
+     * choose the smallest indexed candidate set covering a filter
+     * falls back to a full scan when no indexed criteria is set
+     * @param filter filter criteria
+     * @return access path to use
+     */
+    private Plan plan(InternshipFilter filter) {
+        Plan plan = Plan.FULL_SCAN;
+        int best = Integer.MAX_VALUE;
+        if (filter.getStatus() != null) {
+            plan = Plan.STATUS_INDEX;
+            best = byStatus.get(filter.getStatus()).size();
+        }
+        if (filter.getRepId() != null) {
+            Set<String> owned = byRep.getOrDefault(filter.getRepId().toLowerCase(), Set.of());
+            if (owned.size() < best) plan = Plan.REPRESENTATIVE_INDEX;
+        }
+        return plan;
+    }
+
+    /**
+     * stream candidates read by an access path
+     * @param plan access path chosen by plan(filter)
+     * @param filter filter criteria
+     * @return stream of candidates that still need full predicate checking
+     */
+    private Stream<Internship> candidates(Plan plan, InternshipFilter filter) {
+        return switch (plan) {
+            case STATUS_INDEX -> resolve(byStatus.get(filter.getStatus()));
+            case REPRESENTATIVE_INDEX -> resolve(byRep.get(filter.getRepId().toLowerCase()));
+            case FULL_SCAN -> streamAll();
+        };
+    }
+
+    /**
+     * count internships satisfying all provided filter criteria without building a list
+     * a status-only filter is answered directly from the status index
+     * slow scans are reported to the slow-query log like filter queries
+     * @param filter configured InternshipFilter object containing filter criteria
+     * @return number of matching internships
+     */
+    @Override
+    public int countMatching(InternshipFilter filter) {
+        if (isStatusOnly(filter))
+            return filter.getStatus() == null ? count() : countByStatus(filter.getStatus());
+
+        long start = System.nanoTime();
+        Plan plan = plan(filter);
+        int[] scanned = new int[1];
+        int count = (int) candidates(plan, filter)
+            .peek(i -> scanned[0]++)
+            .filter(i -> matches(i, filter))
+            .count();
+
+        long elapsed = System.nanoTime() - start;
+        if (SlowQueryLog.global().isSlow(elapsed)) {
+            SlowQueryLog.global().record("InternshipRepository.countMatching", plan.name(),
+                    filter.describeCriteria(), scanned[0], count, elapsed);
+        }
+        return count;
+    }
+
+    /**
+     * count all stored internships
+     * @return number of internships
+     */
+    @Override
+    public int count() {
+        return internships.size();
+    }
+
+    /**
+     * count internships currently in given status using the status index
+     * @param status internship status
+     * @return number of internships with that status
+     */
+    @Override
+    public int countByStatus(Status status) {
+        return byStatus.get(status).size();
+    }
+
+    /**
+     * count internships for every status using the status index
+     * @return map from each status to its internship count
+     */
+    @Override
+    public Map<Status, Integer> countByStatus() {
+        Map<Status, Integer> counts = new EnumMap<>(Status.class);
+        for (Status s : Status.values()) counts.put(s, byStatus.get(s).size());
+        return counts;
+    }
+
+    /**
+     * check whether an internship satisfies every non-null criteria of a filter
+     * status, major, level, company, representative id, slot range, and date range logic are supported
+     * @param i internship to test
+     * @param filter filter criteria
+     * @return true if internship matches all criteria
+     */
+    private static boolean matches(Internship i, InternshipFilter filter) {
+        if (filter.getStatus() != null && i.getStatus() != filter.getStatus()) return false;
+        if (filter.getMajor() != null && !i.getMajor().equalsIgnoreCase(filter.getMajor())) return false;
+        if (filter.getLevel() != null && i.getLevel() != filter.getLevel()) return false;
+        if (filter.getCompanyName() != null &&
+                !i.getCompanyName().equalsIgnoreCase(filter.getCompanyName())) return false;
+        if (filter.getRepId() != null && !i.getCr().getUserId().equalsIgnoreCase(filter.getRepId())) return false;
+        if (filter.getSlotsMin() != null && i.getRemainingSlots() < filter.getSlotsMin()) return false;
+        if (filter.getSlotsMax() != null && i.getRemainingSlots() > filter.getSlotsMax()) return false;
+
+        // perform optional date-range overlap logic
+        if (filter.getStartDate() == null && filter.getEndDate() == null) return true;
+
+        LocalDate start = filter.getStartDate();
+        LocalDate end   = filter.getEndDate();
+        LocalDate iStart = i.getStartDate();
+        LocalDate iEnd   = i.getEndDate();
+
+        boolean noOverlap =
+                (end   != null && iStart.isAfter(end)) ||
+                (start != null && iEnd.isBefore(start));
+
+        return !noOverlap;
+    }
+
+    /**
+     * check whether a filter sets no criteria apart from status
+     * @param f filter to inspect
+     * @return true if every non-status field is null
+     */
+    private static boolean isStatusOnly(InternshipFilter f) {
+        return f.getMajor() == null && f.getLevel() == null && f.getCompanyName() == null
+            && f.getRepId() == null && f.getSlotsMin() == null && f.getSlotsMax() == null
+            && f.getStartDate() == null && f.getEndDate() == null;
+    }
+
+    /**
+     * suggest company names starting with given prefix, ranked by number of postings
+     * @param prefix typed prefix (case-insensitive)
+     * @param limit maximum number of suggestions
+     * @return matching company names, most postings first
+     */
+    @Override
+    public List<String> suggestCompanyNames(String prefix, int limit) {
+        return companyNames.complete(prefix, limit);
+    }
+
+    /**
+     * suggest preferred majors starting with given prefix, ranked by number of postings
+     * @param prefix typed prefix (case-insensitive)
+     * @param limit maximum number of suggestions
+     * @return matching majors, most postings first
+     */
+    @Override
+    public List<String> suggestMajors(String prefix, int limit) {
+        return majors.complete(prefix, limit);
+    }
+
+    /**
+     * suggest company names of approved, visible postings starting with given prefix
+     * @param prefix typed prefix (case-insensitive)
+     * @param limit maximum number of suggestions
+     * @return matching company names, most listed postings first
+     */
+    @Override
+    public List<String> suggestListedCompanyNames(String prefix, int limit) {
+        return listedCompanyNames.complete(prefix, limit);
+    }
+
+    /**
+     * suggest preferred majors of approved, visible postings starting with given prefix
+     * @param prefix typed prefix (case-insensitive)
+     * @param limit maximum number of suggestions
+     * @return matching majors, most listed postings first
+     */
+    @Override
+    public List<String> suggestListedMajors(String prefix, int limit) {
+        return listedMajors.complete(prefix, limit);
+    }
+
+    /**
+     * report key counts of status, representative and autocomplete indexes
+     * @return index name to key count
+     */
+    @Override
+    public Map<String, Integer> getIndexSizes() {
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        for (String index : INDEXES) sizes.put(index, getIndexSize(index));
+        return sizes;
+    }
+
+    /**
+     * report key count of one index; the status index sums its per-status buckets
+     * @param index "status", "pending", "representative" or one of the prefix indexes
+     * @return key count
+     * @throws IllegalArgumentException if no index has that name
+     */
+    @Override
+    public int getIndexSize(String index) {
+        return switch (index) {
+            case "status" -> {
+                int entries = 0;
+                for (Set<String> ids : byStatus.values()) entries += ids.size();
+                yield entries;
+            }
+            case "pending" -> pending.size();
+            case "representative" -> byRep.size();
+            case "companyPrefix" -> companyNames.size();
+            case "majorPrefix" -> majors.size();
+            case "listedCompanyPrefix" -> listedCompanyNames.size();
+            case "listedMajorPrefix" -> listedMajors.size();
+            default -> throw new IllegalArgumentException("Unknown internship index: " + index);
+        };
+    }
+
+    /**
+     * estimate heap retained by internships, the id map, status and representative indexes,
+     * the pending queue and the company and major autocomplete caches
+     * @param model object layout model
+     * @return footprint of this repository
+     */
+    @Override
+    public Footprint estimateFootprint(MemoryModel model) {
+        Footprint f = new Footprint("internships", model);
+        for (Internship i : internships.values()) f.entity(i);
+        f.index(model.concurrentMapSize(internships.size()));
+
+        for (Set<String> ids : byStatus.values()) f.index(model.concurrentSetSize(ids.size()));
+        f.index(model.concurrentMapSize(indexedStatus.size()));
+        f.index(pending.estimateBytes(model));
+        f.index(model.concurrentMapSize(byRep.size()));
+        for (Map.Entry<String, Set<String>> e : byRep.entrySet()) {
+            f.string(e.getKey());
+            f.index(model.concurrentSetSize(e.getValue().size()));
+        }
+        f.index(model.concurrentMapSize(indexedTerms.size())
+                + indexedTerms.size() * model.referenceArraySize(2));
+        f.index(model.concurrentSetSize(listedTerms.size()));
+
+        companyNames.estimateFootprint(f);
+        majors.estimateFootprint(f);
+        listedCompanyNames.estimateFootprint(f);
+        listedMajors.estimateFootprint(f);
+        return f;
     }
 }
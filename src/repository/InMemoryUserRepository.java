@@ -1,9 +1,15 @@
 package repository;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import metrics.Footprint;
+import metrics.MemoryModel;
 import model.User;
 import model.CompanyRepresentative;
 import model.Student;
@@ -11,13 +17,21 @@ import model.Staff;
 
 /**
  * in-memory implementation of UserRepository
- * stores User objects using a hash map keyed by user ID
+ * stores User objects using a concurrent hash map keyed by user ID
+ * representatives awaiting approval are queued in the order they started waiting and
+ * re-indexed on every save, so the staff approval list never scans all users
  * data is volatile and lost when application terminates
  */
 public class InMemoryUserRepository implements UserRepository {
 
+    /** index names reported by getIndexSizes, in report order */
+    private static final List<String> INDEXES = List.of("id", "pendingReps");
+
     /** map storing user records keyed by user ID */
-    private final Map<String, User> users = new HashMap<>();
+    private final Map<String, User> users = new ConcurrentHashMap<>();
+
+    /** ids of company representatives neither approved nor rejected, longest waiting first */
+    private final PendingQueue pendingReps = new PendingQueue();
 
     /**
      * find user by unique system-assigned user ID
@@ -29,14 +43,82 @@ public class InMemoryUserRepository implements UserRepository {
         return Optional.ofNullable(users.get(id));
     }
 
+    /**
+     * resolve many users by id with one map probe per distinct id
+     * @param ids user identifiers, duplicates allowed
+     * @return map from each found id to its user
+     */
+    @Override
+    public Map<String, User> findAllById(Collection<String> ids) {
+        Map<String, User> found = new HashMap<>();
+        for (String id : ids) {
+            if (found.containsKey(id)) continue;
+            User u = users.get(id);
+            if (u != null) found.put(id, u);
+        }
+        return found;
+    }
+
     /**
      * save or update a user record
-     * if the ID already exists, record is replaced
+     * if the ID already exists, record is replaced; a representative's version is bumped past the stored one
+     * and its approval or rejection re-indexed
      * @param user user object to store
      */
     @Override
-    public void save(User user) {
-        users.put(user.getUserId(), user);
+    public synchronized void save(User user) {
+        User previous = users.put(user.getUserId(), user);
+        if (user instanceof CompanyRepresentative rep) {
+            long stored = previous instanceof CompanyRepresentative p ? p.getVersion() : 0;
+            rep.setVersion(Math.max(rep.getVersion(), stored) + 1);
+            if (rep.isPending()) pendingReps.add(rep.getUserId());
+            else pendingReps.remove(rep.getUserId());
+        } else {
+            pendingReps.remove(user.getUserId());
+        }
+    }
+
+    /**
+     * save representative if stored version still equals expected version
+     * check and state write-back happen under the write lock, so of two writers that read the
+     * same version exactly one succeeds
+     * @param rep stored representative or working copy
+     * @param expectedVersion version the caller read
+     * @throws VersionConflictException if stored version differs
+     */
+    @Override
+    public synchronized void save(CompanyRepresentative rep, long expectedVersion) {
+        User stored = users.get(rep.getUserId());
+        if (stored != null && !(stored instanceof CompanyRepresentative))
+            throw new IllegalStateException("User " + rep.getUserId() + " is not a company representative.");
+        CompanyRepresentative current = (CompanyRepresentative) stored;
+        long actual = current == null ? 0 : current.getVersion();
+        if (actual != expectedVersion)
+            throw new VersionConflictException("Company representative", rep.getUserId(), expectedVersion, actual);
+        if (current != null && current != rep) {
+            current.copyStateFrom(rep);
+            save(current);
+            rep.setVersion(current.getVersion());
+        } else {
+            save(rep);
+        }
+    }
+
+    /**
+     * conditionally save a batch of representatives under a single acquisition of the write lock
+     * every version is checked before anything is written, so a conflict leaves the batch unapplied
+     * @param reps stored representatives or working copies, distinct ids
+     * @throws VersionConflictException if any stored version differs from the version carried
+     */
+    @Override
+    public synchronized void saveAll(Collection<CompanyRepresentative> reps) {
+        for (CompanyRepresentative rep : reps) {
+            User stored = users.get(rep.getUserId());
+            long actual = stored instanceof CompanyRepresentative current ? current.getVersion() : 0;
+            if (actual != rep.getVersion())
+                throw new VersionConflictException("Company representative", rep.getUserId(), rep.getVersion(), actual);
+        }
+        for (CompanyRepresentative rep : reps) save(rep, rep.getVersion());
     }
 
     /**
@@ -55,10 +137,18 @@ public class InMemoryUserRepository implements UserRepository {
      */
     @Override
     public List<Student> getAllStudents() {
+        return streamStudents().toList();
+    }
+
+    /**
+     * lazily stream all stored student accounts
+     * @return weakly consistent stream of Student objects
+     */
+    @Override
+    public Stream<Student> streamStudents() {
         return users.values().stream()
             .filter(u -> u instanceof Student)
-            .map(u -> (Student) u)
-            .toList();
+            .map(u -> (Student) u);
     }
 
     /**
@@ -67,10 +157,66 @@ public class InMemoryUserRepository implements UserRepository {
      */
     @Override
     public List<CompanyRepresentative> getAllCompanyRepresentatives() {
+        return streamCompanyRepresentatives().toList();
+    }
+
+    /**
+     * lazily stream all stored company representative accounts
+     * @return weakly consistent stream of CompanyRepresentative objects
+     */
+    @Override
+    public Stream<CompanyRepresentative> streamCompanyRepresentatives() {
         return users.values().stream()
             .filter(u -> u instanceof CompanyRepresentative)
-            .map(u -> (CompanyRepresentative) u)
-            .toList();
+            .map(u -> (CompanyRepresentative) u);
+    }
+
+    /**
+     * retrieve company representatives awaiting approval using the pending queue
+     * @return list of undecided CompanyRepresentative objects, longest waiting first
+     */
+    @Override
+    public List<CompanyRepresentative> findPendingCompanyRepresentatives() {
+        return streamPendingCompanyRepresentatives().toList();
+    }
+
+    /**
+     * retrieve the head of the pending queue
+     * @param limit maximum number of representatives
+     * @return up to limit undecided CompanyRepresentative objects, longest waiting first
+     */
+    @Override
+    public List<CompanyRepresentative> findPendingCompanyRepresentatives(int limit) {
+        return resolveReps(pendingReps.oldest(limit).stream()).toList();
+    }
+
+    /**
+     * lazily stream company representatives awaiting approval using the pending queue
+     * @return weakly consistent stream of undecided CompanyRepresentative objects, longest waiting first
+     */
+    @Override
+    public Stream<CompanyRepresentative> streamPendingCompanyRepresentatives() {
+        return resolveReps(pendingReps.stream());
+    }
+
+    /**
+     * count company representatives awaiting approval using the pending queue
+     * @return number of undecided representatives
+     */
+    @Override
+    public int countPendingCompanyRepresentatives() {
+        return pendingReps.size();
+    }
+
+    /**
+     * map queued ids back to stored representatives, skipping ids replaced concurrently
+     * @param ids representative ids
+     * @return stream of stored representatives
+     */
+    private Stream<CompanyRepresentative> resolveReps(Stream<String> ids) {
+        return ids.map(users::get)
+            .filter(u -> u instanceof CompanyRepresentative)
+            .map(u -> (CompanyRepresentative) u);
     }
 
     /**
@@ -79,10 +225,18 @@ public class InMemoryUserRepository implements UserRepository {
      */
     @Override
     public List<Staff> getAllStaffs() {
+        return streamStaffs().toList();
+    }
+
+    /**
+     * lazily stream all stored staff accounts
+     * @return weakly consistent stream of Staff objects
+     */
+    @Override
+    public Stream<Staff> streamStaffs() {
         return users.values().stream()
             .filter(u -> u instanceof Staff)
-            .map(u -> (Staff) u)
-            .toList();
+            .map(u -> (Staff) u);
     }
 
     /**
@@ -96,4 +250,53 @@ public class InMemoryUserRepository implements UserRepository {
             .filter(u -> u.getLoginId().equals(loginId))
             .findFirst();
     }
+
+    /**
+     * count all stored user accounts
+     * @return number of users
+     */
+    @Override
+    public int count() {
+        return users.size();
+    }
+
+    /**
+     * report index sizes of the id map and the pending representative queue
+     * @return index name to key count
+     */
+    @Override
+    public Map<String, Integer> getIndexSizes() {
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        for (String index : INDEXES) sizes.put(index, getIndexSize(index));
+        return sizes;
+    }
+
+    /**
+     * report size of the id map or the pending representative queue
+     * @param index "id" or "pendingReps"
+     * @return key count
+     * @throws IllegalArgumentException if no index has that name
+     */
+    @Override
+    public int getIndexSize(String index) {
+        return switch (index) {
+            case "id" -> users.size();
+            case "pendingReps" -> pendingReps.size();
+            default -> throw new IllegalArgumentException("Unknown user index: " + index);
+        };
+    }
+
+    /**
+     * estimate heap retained by user accounts, the id map and the pending representative queue
+     * @param model object layout model
+     * @return footprint of this repository
+     */
+    @Override
+    public Footprint estimateFootprint(MemoryModel model) {
+        Footprint f = new Footprint("users", model);
+        for (User u : users.values()) f.entity(u);
+        f.index(model.concurrentMapSize(users.size()));
+        f.index(pendingReps.estimateBytes(model));
+        return f;
+    }
 }
@@ -1,12 +1,22 @@
 package repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
+import metrics.Footprint;
+import metrics.MemoryModel;
 import model.InternshipApplication;
 
 /**
  * repository interface for managing persistence of internship applications
  * supports CRUD operations and custom query-based retrieval
+ *
+ * list-returning queries materialise their full result; the stream variants are lazy
+ * and weakly consistent: they traverse live storage without copying, never throw
+ * ConcurrentModificationException, and may or may not reflect writes made after the
+ * stream was created. elements are the live stored entities, not copies
  */
 public interface InternshipAppRepository {
 
@@ -16,6 +26,40 @@ public interface InternshipAppRepository {
      */
     void save(InternshipApplication app);
 
+    /**
+     * save an application only if nobody else has saved it since the caller read it
+     * the entity may be the stored instance or a working copy from InternshipApplication.copy();
+     * a copy's state is written into the stored instance, which keeps its identity
+     * @param app application state to persist
+     * @param expectedVersion version the caller read, 0 for an application not yet stored
+     * @throws VersionConflictException if the stored version differs from expectedVersion
+     */
+    void save(InternshipApplication app, long expectedVersion);
+
+    /**
+     * store a batch of new applications in one write, all or none
+     * @param apps applications not yet stored
+     * @throws VersionConflictException if any id is already stored; nothing is written
+     */
+    void insertAll(Collection<InternshipApplication> apps);
+
+    /**
+     * conditionally save a batch of applications in one write, all or none
+     * each entity is saved against the version it carries, so working copies from
+     * InternshipApplication.copy() succeed only if the stored application has not moved on
+     * @param apps stored applications or working copies, distinct ids
+     * @throws VersionConflictException if any stored version differs; nothing is written
+     */
+    void saveAll(Collection<InternshipApplication> apps);
+
+    /**
+     * put back the state a stored application had before a change that was later abandoned
+     * indexes follow the restored state, but the version is set back rather than bumped and no
+     * event is published, so the abandoned change leaves no trace beyond its brief visibility
+     * @param snapshot copy taken before the change, carrying the version it had then
+     */
+    void restore(InternshipApplication snapshot);
+
     /**
      * find an internship application by its unique ID
      * @param id application identifier
@@ -29,12 +73,38 @@ public interface InternshipAppRepository {
      */
     List<InternshipApplication> findAll();
 
+    /**
+     * lazily stream all internship application records
+     * @return weakly consistent stream of all applications
+     */
+    Stream<InternshipApplication> streamAll();
+
     /**
      * retrieve applications with withdrawal requests flagged
-     * @return list of applications requesting withdrawal
+     * @return list of applications requesting withdrawal, longest waiting first
      */
     List<InternshipApplication> findWithdrawalRequests();
 
+    /**
+     * retrieve the withdrawal requests that have waited longest for a staff decision
+     * served from a maintained queue, so cost grows with limit, not with the number of applications
+     * @param limit maximum number of applications
+     * @return up to limit applications requesting withdrawal, longest waiting first
+     */
+    List<InternshipApplication> findWithdrawalRequests(int limit);
+
+    /**
+     * lazily stream applications with withdrawal requests flagged
+     * @return weakly consistent stream of applications requesting withdrawal, longest waiting first
+     */
+    Stream<InternshipApplication> streamWithdrawalRequests();
+
+    /**
+     * count open withdrawal requests without materialising them
+     * @return number of applications requesting withdrawal
+     */
+    int countWithdrawalRequests();
+
     /**
      * retrieve applications submitted by a specific student
      * @param studentId student identifier
@@ -42,6 +112,13 @@ public interface InternshipAppRepository {
      */
     List<InternshipApplication> findByStudent(String studentId);
 
+    /**
+     * lazily stream applications submitted by a specific student
+     * @param studentId student identifier
+     * @return weakly consistent stream of matching applications
+     */
+    Stream<InternshipApplication> streamByStudent(String studentId);
+
     /**
      * retrieve applications submitted for a given internship
      * @param internshipId internship identifier
@@ -49,9 +126,71 @@ public interface InternshipAppRepository {
      */
     List<InternshipApplication> findByInternship(String internshipId);
 
+    /**
+     * lazily stream applications submitted for a given internship
+     * @param internshipId internship identifier
+     * @return weakly consistent stream of matching applications
+     */
+    Stream<InternshipApplication> streamByInternship(String internshipId);
+
     /**
      * remove an application record from storage
      * @param appId identifier of application to delete
      */
     void delete(String appId);
+
+    /**
+     * count all application records without materialising them
+     * @return number of stored applications
+     */
+    int count();
+
+    /**
+     * count applications currently in a given status
+     * @param status application status
+     * @return number of applications with that status
+     */
+    int countByStatus(InternshipApplication.Status status);
+
+    /**
+     * count applications grouped by status
+     * @return map from every status to its application count
+     */
+    Map<InternshipApplication.Status, Integer> countByStatus();
+
+    /**
+     * count applications submitted for a given internship
+     * @param internshipId internship identifier
+     * @return number of applications for that internship
+     */
+    int countByInternship(String internshipId);
+
+    /**
+     * count applications for a given internship grouped by status
+     * @param internshipId internship identifier
+     * @return map from every status to its application count for that internship
+     */
+    Map<InternshipApplication.Status, Integer> countByStatus(String internshipId);
+
+    /**
+     * report number of keys held by each secondary index, for monitoring
+     * @return index name to key count
+     */
+    Map<String, Integer> getIndexSizes();
+
+    /**
+     * report number of keys held by one secondary index, without building the whole report
+     * @param index index name, one of the keys of getIndexSizes()
+     * @return key count
+     * @throws IllegalArgumentException if no index has that name
+     */
+    int getIndexSize(String index);
+
+    /**
+     * estimate heap retained by stored entities, their strings, indexes and caches, for capacity planning
+     * walks every stored record, so intended for on-demand reports rather than scrapes
+     * @param model object layout model
+     * @return footprint of this repository
+     */
+    Footprint estimateFootprint(MemoryModel model);
 }
@@ -1,13 +1,23 @@
 package repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
+import metrics.Footprint;
+import metrics.MemoryModel;
 import model.Internship;
 import model.InternshipFilter;
 
 /**
  * repository interface that defines persistence operations for internship records
  * supports CRUD operations, lookup queries, and filtered search
+ *
+ * list-returning queries materialise their full result; the stream variants are lazy
+ * and weakly consistent: they traverse live storage without copying, never throw
+ * ConcurrentModificationException, and may or may not reflect writes made after the
+ * stream was created. elements are the live stored entities, not copies
  */
 public interface InternshipRepository {
 
@@ -18,12 +28,47 @@ public interface InternshipRepository {
      */
     Optional<Internship> findById(String id);
 
+    /**
+     * resolve many internships by id in one call
+     * unknown ids are left out of the result
+     * @param ids internship identifiers, duplicates allowed
+     * @return map from each found id to its internship
+     */
+    Map<String, Internship> findAllById(Collection<String> ids);
+
     /**
      * save or update an internship record in data storage
      * @param internship internship instance to persist
      */
     void save(Internship internship);
 
+    /**
+     * save an internship only if nobody else has saved it since the caller read it
+     * the entity may be the stored instance or a working copy from Internship.copy(); a copy's
+     * state is written into the stored instance, which keeps its identity
+     * @param internship internship state to persist
+     * @param expectedVersion version the caller read, 0 for an internship not yet stored
+     * @throws VersionConflictException if the stored version differs from expectedVersion
+     */
+    void save(Internship internship, long expectedVersion);
+
+    /**
+     * conditionally save a batch of internships in one write, all or none
+     * each entity is saved against the version it carries, so working copies from
+     * Internship.copy() succeed only if the stored internship has not moved on
+     * @param internships stored internships or working copies, distinct ids
+     * @throws VersionConflictException if any stored version differs; nothing is written
+     */
+    void saveAll(Collection<Internship> internships);
+
+    /**
+     * put back the state a stored internship had before a change that was later abandoned
+     * indexes follow the restored state, but the version is set back rather than bumped and no
+     * event is published, so the abandoned change leaves no trace beyond its brief visibility
+     * @param snapshot copy taken before the change, carrying the version it had then
+     */
+    void restore(Internship snapshot);
+
     /**
      * delete an internship from storage
      * @param id identifier of internship to remove
@@ -36,6 +81,12 @@ public interface InternshipRepository {
      */
     List<Internship> findAll();
 
+    /**
+     * lazily stream all internships stored in repository
+     * @return weakly consistent stream of all internships
+     */
+    Stream<Internship> streamAll();
+
     /**
      * find internships offered by a specific company
      * @param companyName company name used for search
@@ -43,6 +94,20 @@ public interface InternshipRepository {
      */
     List<Internship> findByCompany(String companyName);
 
+    /**
+     * find internships created by a company representative
+     * @param repId representative user id, matched case-insensitively
+     * @return list of internships owned by representative
+     */
+    List<Internship> findByRepresentative(String repId);
+
+    /**
+     * lazily stream internships created by a company representative
+     * @param repId representative user id, matched case-insensitively
+     * @return weakly consistent stream of internships owned by representative
+     */
+    Stream<Internship> streamByRepresentative(String repId);
+
     /**
      * find internships by approval or availability status
      * @param status internship status enum
@@ -50,6 +115,27 @@ public interface InternshipRepository {
      */
     List<Internship> findByStatus(Internship.Status status);
 
+    /**
+     * lazily stream internships by approval or availability status
+     * @param status internship status enum
+     * @return weakly consistent stream of internships matching given status
+     */
+    Stream<Internship> streamByStatus(Internship.Status status);
+
+    /**
+     * retrieve the internships that have waited longest for staff approval
+     * served from a maintained queue, so cost grows with limit, not with the number of internships
+     * @param limit maximum number of internships
+     * @return up to limit PENDING internships, longest waiting first
+     */
+    List<Internship> findPending(int limit);
+
+    /**
+     * lazily stream internships awaiting staff approval from a maintained queue
+     * @return weakly consistent stream of PENDING internships, longest waiting first
+     */
+    Stream<Internship> streamPending();
+
     /**
      * filter internships based on multiple optional criteria
      * @param filter filter object containing nullable fields defining constraints
@@ -57,6 +143,93 @@ public interface InternshipRepository {
      */
     List<Internship> filter(InternshipFilter filter);
 
+    /**
+     * lazily stream internships meeting the optional criteria of a filter
+     * @param filter filter object containing nullable fields defining constraints
+     * @return weakly consistent stream of internships that meet specified filter conditions
+     */
+    Stream<Internship> streamFilter(InternshipFilter filter);
+
+    /**
+     * count all internships without materialising them
+     * @return number of stored internships
+     */
+    int count();
+
+    /**
+     * count internships currently in a given status
+     * @param status internship status enum
+     * @return number of internships with that status
+     */
+    int countByStatus(Internship.Status status);
+
+    /**
+     * count internships grouped by status
+     * @return map from every status to its internship count
+     */
+    Map<Internship.Status, Integer> countByStatus();
+
+    /**
+     * count internships meeting the optional criteria of a filter without building a list
+     * @param filter filter object containing nullable fields defining constraints
+     * @return number of internships that meet specified filter conditions
+     */
+    int countMatching(InternshipFilter filter);
+
+    /**
+     * suggest company names for autocomplete, ranked by number of postings
+     * @param prefix typed prefix, matched case-insensitively
+     * @param limit maximum number of suggestions
+     * @return matching company names ordered by posting count descending
+     */
+    List<String> suggestCompanyNames(String prefix, int limit);
+
+    /**
+     * suggest preferred majors for autocomplete, ranked by number of postings
+     * @param prefix typed prefix, matched case-insensitively
+     * @param limit maximum number of suggestions
+     * @return matching majors ordered by posting count descending
+     */
+    List<String> suggestMajors(String prefix, int limit);
+
+    /**
+     * suggest company names for student autocomplete, counting only approved, visible postings
+     * @param prefix typed prefix, matched case-insensitively
+     * @param limit maximum number of suggestions
+     * @return matching company names ordered by listed posting count descending
+     */
+    List<String> suggestListedCompanyNames(String prefix, int limit);
+
+    /**
+     * suggest preferred majors for student autocomplete, counting only approved, visible postings
+     * @param prefix typed prefix, matched case-insensitively
+     * @param limit maximum number of suggestions
+     * @return matching majors ordered by listed posting count descending
+     */
+    List<String> suggestListedMajors(String prefix, int limit);
+
+    /**
+     * report number of keys held by each secondary index, for monitoring
+     * @return index name to key count
+     */
+    Map<String, Integer> getIndexSizes();
+
+    /**
+     * report number of keys held by one secondary index, without building the whole report
+     * @param index index name, one of the keys of getIndexSizes()
+     * @return key count
+     * @throws IllegalArgumentException if no index has that name
+     */
+    int getIndexSize(String index);
+
+    /**
+     * estimate heap retained by stored entities, their strings, indexes and caches, for capacity planning
+     * walks every stored record, so intended for on-demand reports rather than scrapes
+     * @param model object layout model
+     * @return footprint of this repository
+     */
+    Footprint estimateFootprint(MemoryModel model);
+
     // old filter for reference, not used currently
     // List<Internship> filter(Internship.Status status, String major, Internship.Level level, String companyName, Integer remainingSlotsMin, Integer remainingSlotsMax);
 }
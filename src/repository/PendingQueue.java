@@ -0,0 +1,102 @@
+package repository;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import metrics.MemoryModel;
+
+/**
+ * ordered set of ids awaiting a staff decision, oldest first
+ *
+ * an id is stamped with an increasing sequence number when it enters the queue and kept in a
+ * skip list ordered by that number, with a hash map from id to its number for removal. adding
+ * and removing cost O(log n); reading the oldest n ids walks the head of the skip list and
+ * costs O(n) however long the queue is. an id that leaves and re-enters goes to the back
+ *
+ * mutation is serialised by the owning repository's write lock; reads are lock-free and
+ * weakly consistent
+ */
+final class PendingQueue {
+
+    /** ids keyed by entry sequence number */
+    private final ConcurrentSkipListMap<Long, String> order = new ConcurrentSkipListMap<>();
+
+    /** entry sequence number of every queued id */
+    private final Map<String, Long> positions = new ConcurrentHashMap<>();
+
+    /** next sequence number, written under the owner's write lock */
+    private long next;
+
+    /**
+     * append id if not already queued
+     * @param id entity id
+     * @return true if the id was added
+     */
+    boolean add(String id) {
+        if (positions.containsKey(id)) return false;
+        Long seq = next++;
+        positions.put(id, seq);
+        order.put(seq, id);
+        return true;
+    }
+
+    /**
+     * remove id if queued
+     * @param id entity id
+     * @return true if the id was removed
+     */
+    boolean remove(String id) {
+        Long seq = positions.remove(id);
+        if (seq == null) return false;
+        order.remove(seq);
+        return true;
+    }
+
+    /**
+     * @param id entity id
+     * @return true if the id is queued
+     */
+    boolean contains(String id) {
+        return positions.containsKey(id);
+    }
+
+    /** @return number of queued ids */
+    int size() {
+        return positions.size();
+    }
+
+    /**
+     * oldest queued ids
+     * @param limit maximum number of ids
+     * @return up to limit ids, oldest first
+     */
+    List<String> oldest(int limit) {
+        List<String> out = new ArrayList<>(Math.min(Math.max(limit, 0), 1024));
+        Iterator<String> it = order.values().iterator();
+        while (out.size() < limit && it.hasNext()) out.add(it.next());
+        return out;
+    }
+
+    /** @return lazy stream of queued ids, oldest first */
+    Stream<String> stream() {
+        return order.values().stream();
+    }
+
+    /**
+     * structural size: the id map, the skip list's nodes and index levels and the boxed
+     * sequence numbers shared by both; ids themselves are counted by their entities
+     * @param model object layout model
+     * @return estimated bytes
+     */
+    long estimateBytes(MemoryModel model) {
+        int n = positions.size();
+        long nodes = n * model.objectSize(3, 0);
+        long indexes = (n / 3) * model.objectSize(3, 0);
+        long boxed = n * model.objectSize(0, 8);
+        return model.concurrentMapSize(n) + model.objectSize(4, 8) + nodes + indexes + boxed;
+    }
+}
@@ -0,0 +1,187 @@
+package repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import metrics.Counter;
+import metrics.Footprint;
+import metrics.MemoryModel;
+import metrics.MetricsRegistry;
+
+/**
+ * compact prefix index over a set of counted terms (e.g. company names or majors)
+ * terms are matched case-insensitively and ranked by their posting count
+ * lookups binary search a sorted key array, which is only rebuilt when a term
+ * is added or removed; count changes of existing terms do not trigger a rebuild
+ */
+public class PrefixIndex {
+
+    /** lookups served from an up-to-date sorted snapshot, shared by all prefix indexes */
+    private static final Counter SNAPSHOT_HITS = MetricsRegistry.global().counter("cache_requests_total{cache=prefix_index,result=hit}");
+
+    /** lookups that had to rebuild the sorted snapshot first */
+    private static final Counter SNAPSHOT_MISSES = MetricsRegistry.global().counter("cache_requests_total{cache=prefix_index,result=miss}");
+
+    static {
+        MetricsRegistry.global().gauge("cache_hit_ratio{cache=prefix_index}", () -> {
+            long hits = SNAPSHOT_HITS.get();
+            long total = hits + SNAPSHOT_MISSES.get();
+            return total == 0 ? 1.0 : (double) hits / total;
+        });
+    }
+
+    /**
+     * counted term entry, display form keeps the casing of the first occurrence
+     */
+    private static final class Entry {
+        /** lowercase key used for ordering and matching */
+        private final String key;
+        /** display form returned to callers */
+        private final String display;
+        /** number of postings currently referencing this term */
+        private volatile int count;
+
+        private Entry(String key, String display) {
+            this.key = key;
+            this.display = display;
+        }
+    }
+
+    /** ordering used for ranking completions: higher count first, then alphabetical */
+    private static final Comparator<Entry> RANK =
+        Comparator.<Entry>comparingInt(e -> e.count).reversed().thenComparing(e -> e.key);
+
+    /** live entries keyed by lowercase term */
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /** sorted snapshot of entries used for lookups, null when it needs rebuilding */
+    private volatile Entry[] sorted = new Entry[0];
+
+    /**
+     * increment posting count of a term, registering it if not yet present
+     * @param term term to add, ignored if null or blank
+     */
+    public synchronized void add(String term) {
+        if (term == null || term.isBlank()) return;
+        String key = term.trim().toLowerCase();
+        Entry e = entries.get(key);
+        if (e == null) {
+            e = new Entry(key, term.trim());
+            entries.put(key, e);
+            sorted = null;
+        }
+        e.count++;
+    }
+
+    /**
+     * decrement posting count of a term, dropping it once no postings remain
+     * @param term term to remove, ignored if null or not present
+     */
+    public synchronized void remove(String term) {
+        if (term == null) return;
+        String key = term.trim().toLowerCase();
+        Entry e = entries.get(key);
+        if (e == null) return;
+        if (--e.count <= 0) {
+            entries.remove(key);
+            sorted = null;
+        }
+    }
+
+    /**
+     * add this index to a repository footprint as a cache: term map, entries and sorted snapshot
+     * key and display strings are counted as strings
+     * @param footprint footprint being estimated
+     */
+    public synchronized void estimateFootprint(Footprint footprint) {
+        MemoryModel model = footprint.getModel();
+        long bytes = model.objectSize(2, 0) + model.hashMapSize(entries.size())
+                + entries.size() * model.shallowSize(Entry.class);
+        Entry[] s = sorted;
+        if (s != null) bytes += model.referenceArraySize(s.length);
+        footprint.cache(bytes);
+        for (Entry e : entries.values()) {
+            footprint.string(e.key);
+            footprint.string(e.display);
+        }
+    }
+
+    /**
+     * number of distinct terms currently indexed
+     * @return distinct term count
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * return the top ranked terms starting with given prefix (case-insensitive)
+     * an empty prefix matches every term
+     * @param prefix typed prefix
+     * @param limit maximum number of completions to return
+     * @return completions ordered by posting count descending, then alphabetically
+     */
+    public List<String> complete(String prefix, int limit) {
+        if (limit <= 0) return List.of();
+        Entry[] snapshot = snapshot();
+        String p = prefix == null ? "" : prefix.trim().toLowerCase();
+
+        int from = lowerBound(snapshot, p);
+        int to = lowerBound(snapshot, p + Character.MAX_VALUE);
+        if (from >= to) return List.of();
+
+        // keep the best 'limit' entries in a min-heap ordered by rank
+        PriorityQueue<Entry> best = new PriorityQueue<>(Math.min(limit, to - from) + 1, RANK.reversed());
+        for (int i = from; i < to; i++) {
+            best.offer(snapshot[i]);
+            if (best.size() > limit) best.poll();
+        }
+
+        List<Entry> ranked = new ArrayList<>(best);
+        ranked.sort(RANK);
+        List<String> result = new ArrayList<>(ranked.size());
+        for (Entry e : ranked) result.add(e.display);
+        return result;
+    }
+
+    /**
+     * get current sorted snapshot, rebuilding it if terms changed since last lookup
+     * @return entries sorted by lowercase key
+     */
+    private Entry[] snapshot() {
+        Entry[] s = sorted;
+        if (s != null) {
+            SNAPSHOT_HITS.inc();
+            return s;
+        }
+        synchronized (this) {
+            if (sorted == null) {
+                SNAPSHOT_MISSES.inc();
+                Entry[] rebuilt = entries.values().toArray(new Entry[0]);
+                Arrays.sort(rebuilt, Comparator.comparing(e -> e.key));
+                sorted = rebuilt;
+            }
+            return sorted;
+        }
+    }
+
+    /**
+     * binary search for first entry whose key is not less than given key
+     * @param arr sorted entry array
+     * @param key search key
+     * @return insertion index of key
+     */
+    private static int lowerBound(Entry[] arr, String key) {
+        int lo = 0, hi = arr.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (arr[mid].key.compareTo(key) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
@@ -1,7 +1,12 @@
 package repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
+import metrics.Footprint;
+import metrics.MemoryModel;
 
 import model.CompanyRepresentative;
 import model.Staff;
@@ -11,6 +16,11 @@ import model.User;
 /**
  * repository interface that defines persistence operations for user accounts
  * supports storage, lookup, existence checking, and category retrieval
+ *
+ * list-returning queries materialise their full result; the stream variants are lazy
+ * and weakly consistent: they traverse live storage without copying, never throw
+ * ConcurrentModificationException, and may or may not reflect writes made after the
+ * stream was created. elements are the live stored entities, not copies
  */
 public interface UserRepository {
 
@@ -21,6 +31,14 @@ public interface UserRepository {
      */
     Optional<User> findById(String id);
 
+    /**
+     * resolve many users by internal id in one call
+     * unknown ids are left out of the result
+     * @param ids user identifiers, duplicates allowed
+     * @return map from each found id to its user
+     */
+    Map<String, User> findAllById(Collection<String> ids);
+
     /**
      * find a user by login credential field (email or id based on role)
      * @param loginId login identifier entered during authentication
@@ -34,6 +52,25 @@ public interface UserRepository {
      */
     void save(User user);
 
+    /**
+     * save a company representative only if nobody else has saved it since the caller read it
+     * the entity may be the stored instance or a working copy from CompanyRepresentative.copy();
+     * a copy's state is written into the stored instance, which keeps its identity
+     * @param rep representative state to persist
+     * @param expectedVersion version the caller read, 0 for a representative not yet stored
+     * @throws VersionConflictException if the stored version differs from expectedVersion
+     */
+    void save(CompanyRepresentative rep, long expectedVersion);
+
+    /**
+     * conditionally save a batch of company representatives in one write, all or none
+     * each entity is saved against the version it carries, so working copies from
+     * CompanyRepresentative.copy() succeed only if the stored representative has not moved on
+     * @param reps stored representatives or working copies, distinct ids
+     * @throws VersionConflictException if any stored version differs; nothing is written
+     */
+    void saveAll(Collection<CompanyRepresentative> reps);
+
     /**
      * check whether a user already exists
      * @param id identifier to be checked
@@ -47,15 +84,87 @@ public interface UserRepository {
      */
     List<Student> getAllStudents();
 
+    /**
+     * lazily stream all student accounts
+     * @return weakly consistent stream of student records
+     */
+    Stream<Student> streamStudents();
+
     /**
      * retrieve all company representative accounts
      * @return list of company representative records
      */
     List<CompanyRepresentative> getAllCompanyRepresentatives();
 
+    /**
+     * lazily stream all company representative accounts
+     * @return weakly consistent stream of company representative records
+     */
+    Stream<CompanyRepresentative> streamCompanyRepresentatives();
+
+    /**
+     * retrieve company representatives awaiting approval from a maintained queue
+     * @return list of undecided company representatives, longest waiting first
+     */
+    List<CompanyRepresentative> findPendingCompanyRepresentatives();
+
+    /**
+     * retrieve the representatives that have waited longest for approval
+     * cost grows with limit, not with the number of users
+     * @param limit maximum number of representatives
+     * @return up to limit undecided company representatives, longest waiting first
+     */
+    List<CompanyRepresentative> findPendingCompanyRepresentatives(int limit);
+
+    /**
+     * lazily stream company representatives awaiting approval from a maintained queue
+     * @return weakly consistent stream of undecided company representatives, longest waiting first
+     */
+    Stream<CompanyRepresentative> streamPendingCompanyRepresentatives();
+
+    /**
+     * count company representatives awaiting approval without materialising them
+     * @return number of undecided company representatives
+     */
+    int countPendingCompanyRepresentatives();
+
     /**
      * retrieve all staff accounts
      * @return list of staff records
      */
     List<Staff> getAllStaffs();
+
+    /**
+     * lazily stream all staff accounts
+     * @return weakly consistent stream of staff records
+     */
+    Stream<Staff> streamStaffs();
+
+    /**
+     * count all stored user accounts without materialising them
+     * @return number of users
+     */
+    int count();
+
+    /**
+     * report number of keys held by each secondary index, for monitoring
+     * @return index name to key count
+     */
+    Map<String, Integer> getIndexSizes();
+
+    /**
+     * report number of keys held by one secondary index, without building the whole report
+     * @param index index name, one of the keys of getIndexSizes()
+     * @return key count
+     * @throws IllegalArgumentException if no index has that name
+     */
+    int getIndexSize(String index);
+
+    /**
+     * estimate heap retained by stored entities, their strings, indexes and caches, for capacity planning
+     * walks every stored record, so intended for on-demand reports rather than scrapes
+     * @param model object layout model
+     * @return footprint of this repository
+     */
+    Footprint estimateFootprint(MemoryModel model);
 }
@@ -0,0 +1,50 @@
+package repository;
+
+/**
+ * thrown by a conditional save when the stored entity has been saved by someone else since
+ * the caller read it, i.e. its version no longer matches the version the caller expected
+ * nothing is written; the caller should reload the entity and decide again
+ */
+public class VersionConflictException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    /** id of entity that changed */
+    private final String entityId;
+
+    /** version the caller read */
+    private final long expectedVersion;
+
+    /** version currently stored */
+    private final long actualVersion;
+
+    /**
+     * create conflict error
+     * @param entityType readable entity type, e.g. "Internship"
+     * @param entityId id of entity that changed
+     * @param expectedVersion version the caller read
+     * @param actualVersion version currently stored
+     */
+    public VersionConflictException(String entityType, String entityId, long expectedVersion, long actualVersion) {
+        super(entityType + " " + entityId + " was changed by someone else (expected version " + expectedVersion
+                + ", found " + actualVersion + "). Please reload and try again.");
+        this.entityId = entityId;
+        this.expectedVersion = expectedVersion;
+        this.actualVersion = actualVersion;
+    }
+
+    /** @return id of entity that changed */
+    public String getEntityId() {
+        return entityId;
+    }
+
+    /** @return version the caller read */
+    public long getExpectedVersion() {
+        return expectedVersion;
+    }
+
+    /** @return version currently stored */
+    public long getActualVersion() {
+        return actualVersion;
+    }
+}
@@ -0,0 +1,66 @@
+package review;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * exclusive right of one reviewer to decide one pending item until a deadline
+ * @param <T> reviewed entity type
+ */
+public final class Lease<T> {
+
+    /** held by the reviewer */
+    static final int HELD = 0;
+
+    /** decision in progress; can no longer be revoked */
+    static final int DECIDING = 1;
+
+    /** decided, released, revoked or expired */
+    static final int ENDED = 2;
+
+    private final String reviewerId;
+    private final T item;
+    private final String itemId;
+    private final long version;
+    private final long claimedAt;
+
+    /** System.nanoTime after which the lease is void */
+    private volatile long deadline;
+
+    /** HELD, DECIDING or ENDED */
+    final AtomicInteger state = new AtomicInteger(HELD);
+
+    Lease(String reviewerId, T item, String itemId, long version, long claimedAt, long deadline) {
+        this.reviewerId = reviewerId;
+        this.item = item;
+        this.itemId = itemId;
+        this.version = version;
+        this.claimedAt = claimedAt;
+        this.deadline = deadline;
+    }
+
+    /** @return id of reviewer holding the lease */
+    public String getReviewerId() { return reviewerId; }
+
+    /** @return leased item, the live stored entity */
+    public T getItem() { return item; }
+
+    /** @return id of leased item */
+    public String getItemId() { return itemId; }
+
+    /** @return item version when claimed; the decision is saved against it */
+    public long getVersion() { return version; }
+
+    /** @return System.nanoTime at which the item was claimed */
+    long getClaimedAt() { return claimedAt; }
+
+    /** @return System.nanoTime after which the lease is void */
+    long getDeadline() { return deadline; }
+
+    /** @param deadline new System.nanoTime after which the lease is void */
+    void setDeadline(long deadline) { this.deadline = deadline; }
+
+    /** @return true while the reviewer may still decide */
+    public boolean isHeld() {
+        return state.get() == HELD && System.nanoTime() - deadline < 0;
+    }
+}
@@ -0,0 +1,18 @@
+package review;
+
+/**
+ * thrown when a reviewer acts on a lease that timed out or was handed back to the queue
+ * nothing was decided; the item may already be with another reviewer
+ */
+public class LeaseExpiredException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * create error
+     * @param itemId id of the leased item
+     */
+    public LeaseExpiredException(String itemId) {
+        super("Your claim on " + itemId + " has expired and it may now be with another reviewer. Please claim new work.");
+    }
+}
@@ -0,0 +1,44 @@
+package review;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * pending work a ReviewWorkQueue hands out, backed by a repository's maintained pending queue
+ * @param <T> reviewed entity type
+ */
+public interface ReviewSource<T> {
+
+    /**
+     * lazily stream items awaiting a decision
+     * @return weakly consistent stream, longest waiting first
+     */
+    Stream<T> pending();
+
+    /** @return number of items awaiting a decision */
+    int backlog();
+
+    /**
+     * @param id entity id
+     * @return currently stored entity, empty if deleted
+     */
+    Optional<T> find(String id);
+
+    /**
+     * @param item reviewed entity
+     * @return entity id
+     */
+    String idOf(T item);
+
+    /**
+     * @param item reviewed entity
+     * @return current version stamp, used for the conditional decision
+     */
+    long versionOf(T item);
+
+    /**
+     * @param item reviewed entity
+     * @return true while the item still awaits a decision
+     */
+    boolean isPending(T item);
+}
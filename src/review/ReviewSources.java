@@ -0,0 +1,51 @@
+package review;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+import model.Internship;
+import model.InternshipApplication;
+import repository.InternshipAppRepository;
+import repository.InternshipRepository;
+
+/**
+ * review sources over the repositories' pending queues
+ * representatives have no source: a rejected representative stays unapproved and would be
+ * handed out again
+ */
+public final class ReviewSources {
+
+    /** prevent instantiation of factory class */
+    private ReviewSources() { }
+
+    /**
+     * internships awaiting staff approval
+     * @param internships internship repository
+     * @return source over PENDING internships
+     */
+    public static ReviewSource<Internship> internships(InternshipRepository internships) {
+        return new ReviewSource<>() {
+            @Override public Stream<Internship> pending() { return internships.streamPending(); }
+            @Override public int backlog() { return internships.countByStatus(Internship.Status.PENDING); }
+            @Override public Optional<Internship> find(String id) { return internships.findById(id); }
+            @Override public String idOf(Internship item) { return item.getId(); }
+            @Override public long versionOf(Internship item) { return item.getVersion(); }
+            @Override public boolean isPending(Internship item) { return item.getStatus() == Internship.Status.PENDING; }
+        };
+    }
+
+    /**
+     * applications whose withdrawal request awaits a staff decision
+     * @param applications application repository
+     * @return source over open withdrawal requests
+     */
+    public static ReviewSource<InternshipApplication> withdrawals(InternshipAppRepository applications) {
+        return new ReviewSource<>() {
+            @Override public Stream<InternshipApplication> pending() { return applications.streamWithdrawalRequests(); }
+            @Override public int backlog() { return applications.countWithdrawalRequests(); }
+            @Override public Optional<InternshipApplication> find(String id) { return applications.findById(id); }
+            @Override public String idOf(InternshipApplication item) { return item.getId(); }
+            @Override public long versionOf(InternshipApplication item) { return item.getVersion(); }
+            @Override public boolean isPending(InternshipApplication item) { return item.isWithdrawalRequested(); }
+        };
+    }
+}
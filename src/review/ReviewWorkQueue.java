@@ -0,0 +1,425 @@
+package review;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import metrics.Counter;
+import metrics.MetricsRegistry;
+import metrics.Timer;
+
+/**
+ * shares one pending list among many concurrent reviewers so that each item is worked on by one
+ * reviewer at a time, oldest items first
+ *
+ * a reviewer claims a few items and receives a lease on each. claiming polls a lock-free deque of
+ * ready items and records ownership with putIfAbsent in the lease table, so reviewers never wait
+ * on a lock shared with other reviewers and two reviewers can never hold the same item. when the
+ * deque runs dry, one claimer refills it from the source's pending queue, skipping items already
+ * leased or queued, while the others carry on with whatever is left instead of waiting
+ *
+ * a decision is made through complete(), which moves the lease from held to deciding with one
+ * compare-and-set before running the decision; a lease that has expired or been revoked cannot
+ * decide. the decision itself is saved against the version the item had when claimed
+ *
+ * work is rebalanced by a background thread: leases past their timeout, and all leases of a
+ * reviewer who has neither claimed, completed nor sent a heartbeat within the idle timeout, are
+ * revoked and their items put back at the front of the deque for the next claimer. each reviewer
+ * holds at most maxLeases items, so a slow or vanished reviewer never sits on a large share of
+ * the backlog. the sweep visits active leases only, never the whole pending list. a reviewer
+ * entry is pinned for the length of each claim, and the sweep forgets only an idle entry it can
+ * mark retired while nothing is held or being claimed, so a claim never lands on a forgotten entry
+ *
+ * this is a server-side api for review front ends serving many staff at once, which should call
+ * heartbeat or renew while a reviewer is working; the console staff menu decides from a listing
+ * with versioned saves instead and does not claim leases
+ *
+ * configuration: system properties ipms.review.lease.minutes (lease timeout, default 15),
+ * ipms.review.idle.minutes (reviewer idle timeout, default 3) and ipms.review.max.leases
+ * (items one reviewer may hold, default 20)
+ * @param <T> reviewed entity type
+ */
+public class ReviewWorkQueue<T> {
+
+    /** ready items to refill up to, per reviewer cap */
+    private static final int REFILL_PER_LEASE = 4;
+
+    /** smallest refill target */
+    private static final int MIN_REFILL = 64;
+
+    /**
+     * reviewer's activity and number of leases held
+     */
+    private static final class Reviewer {
+
+        /** held value of an entry the sweep has removed; claims then register a fresh entry */
+        static final int RETIRED = -1;
+
+        volatile long lastSeen;
+
+        /** leases held plus claims in progress, or RETIRED */
+        final AtomicInteger held = new AtomicInteger();
+
+        Reviewer(long now) {
+            this.lastSeen = now;
+        }
+
+        /**
+         * count a claim in progress, so the sweep cannot retire this entry during it
+         * @return false if the entry was already retired
+         */
+        boolean pin() {
+            while (true) {
+                int h = held.get();
+                if (h == RETIRED) return false;
+                if (held.compareAndSet(h, h + 1)) return true;
+            }
+        }
+    }
+
+    /** queue name, used in metric labels and thread name */
+    private final String name;
+
+    /** pending items */
+    private final ReviewSource<T> source;
+
+    /** lease timeout in nanoseconds */
+    private final long leaseNanos;
+
+    /** reviewer idle timeout in nanoseconds */
+    private final long idleNanos;
+
+    /** items one reviewer may hold at once */
+    private final int maxLeases;
+
+    /** ready item count the deque is refilled up to */
+    private final int refillTarget;
+
+    /** ids of ready items, oldest first; handed-back items are pushed to the front */
+    private final ConcurrentLinkedDeque<String> ready = new ConcurrentLinkedDeque<>();
+
+    /** ids of items in the ready deque, so an item is queued at most once */
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+
+    /** active lease by item id */
+    private final Map<String, Lease<T>> leases = new ConcurrentHashMap<>();
+
+    /** reviewers by id */
+    private final Map<String, Reviewer> reviewers = new ConcurrentHashMap<>();
+
+    /** set while one claimer refills the ready deque */
+    private final AtomicBoolean refilling = new AtomicBoolean();
+
+    private final Counter claimed;
+    private final Counter completed;
+    private final Counter failed;
+    private final Counter released;
+    private final Counter expired;
+    private final Counter revokedIdle;
+
+    /** time from claim to completed decision */
+    private final Timer reviewTime;
+
+    /** sweep thread, started with the first claim */
+    private Thread sweeper;
+
+    /**
+     * create queue
+     * @param name queue name, used in metric labels
+     * @param source pending items
+     * @param leaseTimeout time a claimed item stays with its reviewer
+     * @param idleTimeout time without activity after which a reviewer's leases are handed back
+     * @param maxLeases items one reviewer may hold at once
+     */
+    public ReviewWorkQueue(String name, ReviewSource<T> source, Duration leaseTimeout, Duration idleTimeout,
+                           int maxLeases) {
+        if (leaseTimeout.isNegative() || leaseTimeout.isZero() || idleTimeout.isNegative() || idleTimeout.isZero())
+            throw new IllegalArgumentException("Lease and idle timeouts must be positive");
+        if (maxLeases < 1) throw new IllegalArgumentException("Reviewers must be allowed at least one lease");
+        this.name = name;
+        this.source = source;
+        this.leaseNanos = leaseTimeout.toNanos();
+        this.idleNanos = idleTimeout.toNanos();
+        this.maxLeases = maxLeases;
+        this.refillTarget = Math.max(MIN_REFILL, maxLeases * REFILL_PER_LEASE);
+        MetricsRegistry m = MetricsRegistry.global();
+        String label = "{queue=" + name;
+        claimed = m.counter("review_claims_total" + label + "}");
+        completed = m.counter("reviews_total" + label + ",result=completed}");
+        failed = m.counter("reviews_total" + label + ",result=failed}");
+        released = m.counter("reviews_total" + label + ",result=released}");
+        expired = m.counter("review_leases_revoked_total" + label + ",reason=expired}");
+        revokedIdle = m.counter("review_leases_revoked_total" + label + ",reason=idle}");
+        reviewTime = m.timer("ReviewWorkQueue.reviewTime" + label + "}");
+        m.gauge("review_backlog" + label + "}", source::backlog);
+        m.gauge("review_leases_active" + label + "}", leases::size);
+        m.gauge("review_reviewers_active" + label + "}", reviewers::size);
+    }
+
+    /**
+     * create queue configured from system properties ipms.review.lease.minutes,
+     * ipms.review.idle.minutes and ipms.review.max.leases
+     * @param name queue name, used in metric labels
+     * @param source pending items
+     * @param <T> reviewed entity type
+     * @return configured queue
+     */
+    public static <T> ReviewWorkQueue<T> fromSystemProperties(String name, ReviewSource<T> source) {
+        return new ReviewWorkQueue<>(name, source,
+                Duration.ofMinutes(Long.getLong("ipms.review.lease.minutes", 15)),
+                Duration.ofMinutes(Long.getLong("ipms.review.idle.minutes", 3)),
+                Integer.getInteger("ipms.review.max.leases", 20));
+    }
+
+    /**
+     * lease up to max of the longest waiting unclaimed items to a reviewer
+     * returns fewer, possibly none, if the reviewer already holds maxLeases items or nothing
+     * unclaimed is left; never waits for other reviewers
+     * @param reviewerId id of claiming reviewer
+     * @param max most items wanted
+     * @return new leases, oldest items first
+     */
+    public List<Lease<T>> claim(String reviewerId, int max) {
+        ensureStarted();
+        long now = System.nanoTime();
+        Reviewer r = pin(reviewerId, now);
+        r.lastSeen = now;
+        List<Lease<T>> out = new ArrayList<>();
+        try {
+            claimInto(out, r, reviewerId, max, now);
+        } finally {
+            r.held.decrementAndGet();
+        }
+        claimed.add(out.size());
+        return out;
+    }
+
+    /**
+     * pin the reviewer's entry for a claim, replacing an entry the sweep has just retired
+     * @param reviewerId reviewer id
+     * @param now System.nanoTime of the claim
+     * @return pinned entry, registered in the reviewer table
+     */
+    private Reviewer pin(String reviewerId, long now) {
+        while (true) {
+            Reviewer r = reviewers.computeIfAbsent(reviewerId, id -> new Reviewer(now));
+            if (r.pin()) return r;
+            reviewers.remove(reviewerId, r);
+        }
+    }
+
+    /**
+     * lease items to a pinned reviewer until max are leased, the reviewer's cap is reached or
+     * nothing unclaimed is left
+     * @param out leases made so far, appended to
+     * @param r pinned reviewer entry; its held count includes this claim's pin
+     * @param reviewerId reviewer id
+     * @param max most items wanted
+     * @param now System.nanoTime of the claim
+     */
+    private void claimInto(List<Lease<T>> out, Reviewer r, String reviewerId, int max, long now) {
+        while (out.size() < max && r.held.get() - 1 < maxLeases) {
+            String id = ready.pollFirst();
+            if (id == null) {
+                if (refill()) continue;
+                break;
+            }
+            queued.remove(id);
+            T item = source.find(id).filter(source::isPending).orElse(null);
+            if (item == null) continue;
+            Lease<T> lease = new Lease<>(reviewerId, item, id, source.versionOf(item), now, now + leaseNanos);
+            if (leases.putIfAbsent(id, lease) != null) continue;
+            // a previous holder may have decided the item while it was read above; its lease was
+            // removed only after the decision was saved, so a read after putIfAbsent sees the decision
+            T current = source.find(id).orElse(null);
+            if (current == null || !source.isPending(current) || source.versionOf(current) != lease.getVersion()) {
+                leases.remove(id, lease);
+                continue;
+            }
+            r.held.incrementAndGet();
+            out.add(lease);
+        }
+    }
+
+    /**
+     * record that a reviewer is still active, keeping their leases from being handed back as idle
+     * @param reviewerId reviewer id
+     */
+    public void heartbeat(String reviewerId) {
+        Reviewer r = reviewers.get(reviewerId);
+        if (r != null) r.lastSeen = System.nanoTime();
+    }
+
+    /**
+     * extend a lease by a full lease timeout from now
+     * @param lease held lease
+     * @throws LeaseExpiredException if the lease is no longer held
+     */
+    public void renew(Lease<T> lease) {
+        if (!lease.isHeld()) throw new LeaseExpiredException(lease.getItemId());
+        long now = System.nanoTime();
+        lease.setDeadline(now + leaseNanos);
+        heartbeat(lease.getReviewerId());
+        if (lease.state.get() != Lease.HELD) throw new LeaseExpiredException(lease.getItemId());
+    }
+
+    /**
+     * decide a leased item and end the lease
+     * the decision receives the item and the version it had when claimed, so a conditional
+     * decision fails if someone changed the item in the meantime; on failure the lease ends and
+     * the item, if still pending, goes back to the front of the queue
+     * @param lease held lease
+     * @param decision decision to save, e.g. staffController::approveInternship
+     * @throws LeaseExpiredException if the lease expired or was handed back; nothing is decided
+     * @throws RuntimeException rethrown from the decision
+     */
+    public void complete(Lease<T> lease, BiConsumer<? super T, Long> decision) {
+        if (System.nanoTime() - lease.getDeadline() >= 0 && lease.state.compareAndSet(Lease.HELD, Lease.ENDED)) {
+            end(lease);
+            giveBack(lease);
+            expired.inc();
+        }
+        if (!lease.state.compareAndSet(Lease.HELD, Lease.DECIDING)) throw new LeaseExpiredException(lease.getItemId());
+        heartbeat(lease.getReviewerId());
+        try {
+            decision.accept(lease.getItem(), lease.getVersion());
+        } catch (RuntimeException e) {
+            lease.state.set(Lease.ENDED);
+            end(lease);
+            giveBack(lease);
+            failed.inc();
+            throw e;
+        }
+        lease.state.set(Lease.ENDED);
+        end(lease);
+        reviewTime.record(System.nanoTime() - lease.getClaimedAt());
+        completed.inc();
+    }
+
+    /**
+     * hand a leased item back undecided, to the front of the queue
+     * @param lease lease to give up; ignored if no longer held
+     */
+    public void release(Lease<T> lease) {
+        if (!lease.state.compareAndSet(Lease.HELD, Lease.ENDED)) return;
+        end(lease);
+        giveBack(lease);
+        heartbeat(lease.getReviewerId());
+        released.inc();
+    }
+
+    /** @return queue name */
+    public String getName() { return name; }
+
+    /** @return number of items awaiting a decision, leased or not */
+    public int getBacklog() { return source.backlog(); }
+
+    /** @return number of items currently leased */
+    public int getLeased() { return leases.size(); }
+
+    /**
+     * @param reviewerId reviewer id
+     * @return number of items the reviewer holds
+     */
+    public int getLeased(String reviewerId) {
+        Reviewer r = reviewers.get(reviewerId);
+        return r == null ? 0 : Math.max(0, r.held.get());
+    }
+
+    /**
+     * remove an ended lease from the table and its reviewer's count
+     * @param lease ended lease
+     */
+    private void end(Lease<T> lease) {
+        if (!leases.remove(lease.getItemId(), lease)) return;
+        Reviewer r = reviewers.get(lease.getReviewerId());
+        if (r != null) r.held.decrementAndGet();
+    }
+
+    /**
+     * put an item at the front of the ready deque, unless already queued
+     * claim() drops it if decided in the meantime
+     * @param lease ended lease
+     */
+    private void giveBack(Lease<T> lease) {
+        if (queued.add(lease.getItemId())) ready.offerFirst(lease.getItemId());
+    }
+
+    /**
+     * top up the ready deque from the source's pending queue, oldest first
+     * only one caller refills at a time; others return at once
+     * @return true if any item was added
+     */
+    private boolean refill() {
+        if (!refilling.compareAndSet(false, true)) return false;
+        try {
+            int room = refillTarget - queued.size();
+            if (room <= 0) return false;
+            int added = 0;
+            Iterator<T> it = source.pending().iterator();
+            while (added < room && it.hasNext()) {
+                T item = it.next();
+                String id = source.idOf(item);
+                if (leases.containsKey(id) || !queued.add(id)) continue;
+                ready.offerLast(id);
+                added++;
+            }
+            return added > 0;
+        } finally {
+            refilling.set(false);
+        }
+    }
+
+    /**
+     * start the sweep thread if not yet running
+     */
+    private synchronized void ensureStarted() {
+        if (sweeper != null) return;
+        sweeper = new Thread(this::run, "review-" + name);
+        sweeper.setDaemon(true);
+        sweeper.start();
+    }
+
+    /**
+     * sweep loop, several times per shorter timeout and at most once a second
+     */
+    private void run() {
+        long pause = Math.max(10, Math.min(1000, Math.min(leaseNanos, idleNanos) / 4_000_000));
+        while (true) {
+            sweep(System.nanoTime());
+            try {
+                Thread.sleep(pause);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * hand back expired leases and leases of idle reviewers, and forget idle reviewers holding nothing
+     * @param now System.nanoTime of the sweep
+     */
+    void sweep(long now) {
+        for (Lease<T> lease : leases.values()) {
+            Reviewer r = reviewers.get(lease.getReviewerId());
+            boolean timedOut = now - lease.getDeadline() >= 0;
+            boolean idle = r == null || now - r.lastSeen >= idleNanos;
+            if (!(timedOut || idle) || !lease.state.compareAndSet(Lease.HELD, Lease.ENDED)) continue;
+            end(lease);
+            giveBack(lease);
+            (timedOut ? expired : revokedIdle).inc();
+        }
+        for (Map.Entry<String, Reviewer> e : reviewers.entrySet()) {
+            Reviewer r = e.getValue();
+            if (now - r.lastSeen >= idleNanos && r.held.compareAndSet(0, Reviewer.RETIRED))
+                reviewers.remove(e.getKey(), r);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package session;
+
+import model.CompanyRepresentative;
+import model.Staff;
+import model.Student;
+import model.User;
+
+/**
+ * one logged-in session, identified by an opaque random token
+ * kept deliberately small since a million may be live at once: the token string doubles as the
+ * store's map key, and the expiry wheel links sessions through a single field instead of
+ * allocating list nodes
+ */
+public final class Session {
+
+    /** role of the session's user, fixed at login */
+    public enum Role { STUDENT, REP, STAFF }
+
+    /** opaque token handed to the client */
+    private final String token;
+
+    /** authenticated user */
+    private final User user;
+
+    /** role derived from user type */
+    private final Role role;
+
+    /** System.nanoTime of last use, refreshed at most once per wheel tick */
+    volatile long lastAccess;
+
+    /** set once the session has been closed or has expired */
+    volatile boolean ended;
+
+    /** next session in the same wheel slot, guarded by that slot */
+    Session next;
+
+    /**
+     * create session
+     * @param token opaque token
+     * @param user authenticated user
+     * @param now creation time as System.nanoTime
+     */
+    Session(String token, User user, long now) {
+        this.token = token;
+        this.user = user;
+        this.role = roleOf(user);
+        this.lastAccess = now;
+    }
+
+    /**
+     * @param user authenticated user
+     * @return role for user type
+     * @throws IllegalArgumentException for an unknown user type
+     */
+    private static Role roleOf(User user) {
+        if (user instanceof Student) return Role.STUDENT;
+        if (user instanceof CompanyRepresentative) return Role.REP;
+        if (user instanceof Staff) return Role.STAFF;
+        throw new IllegalArgumentException("Unsupported user type: " + user.getClass().getSimpleName());
+    }
+
+    /** @return opaque token identifying this session */
+    public String getToken() {
+        return token;
+    }
+
+    /** @return authenticated user */
+    public User getUser() {
+        return user;
+    }
+
+    /** @return role of the user */
+    public Role getRole() {
+        return role;
+    }
+
+    /** @return true once the session has been closed or has expired */
+    public boolean isEnded() {
+        return ended;
+    }
+}
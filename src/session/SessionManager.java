@@ -0,0 +1,267 @@
+package session;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import metrics.Counter;
+import metrics.MetricsRegistry;
+import model.User;
+
+/**
+ * session store issuing opaque tokens and resolving them to a user and role in O(1)
+ *
+ * sessions live in a concurrent hash map keyed by token. idle sessions expire through a hashed
+ * timing wheel: each session sits in the slot of the tick at which it would expire, and a
+ * background thread visits one slot per tick. using a session only refreshes its last-access
+ * time (a volatile write, skipped within the same tick), so lookups never touch the wheel. when
+ * the wheel reaches a session that was used since it was slotted, the session is moved forward
+ * to the slot of its new deadline; otherwise it expires. expiry work is therefore proportional
+ * to the sessions actually due, with no periodic scan over all of them
+ *
+ * closed sessions are removed from the map at once and dropped from the wheel when their slot
+ * comes round. a user counts as logged in while they have at least one live session
+ *
+ * configuration: system property ipms.session.idle.minutes (idle timeout, default 30)
+ */
+public class SessionManager {
+
+    /** token entropy in bytes */
+    private static final int TOKEN_BYTES = 16;
+
+    /** sessions opened */
+    private static final Counter CREATED = MetricsRegistry.global().counter("sessions_total{event=created}");
+
+    /** sessions closed by logout */
+    private static final Counter CLOSED = MetricsRegistry.global().counter("sessions_total{event=closed}");
+
+    /** sessions ended by idle timeout */
+    private static final Counter EXPIRED = MetricsRegistry.global().counter("sessions_total{event=expired}");
+
+    /** token source */
+    private final SecureRandom random = new SecureRandom();
+
+    /** token encoder, URL safe and unpadded */
+    private final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+
+    /** live sessions by token */
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    /** number of live sessions per user id */
+    private final Map<String, Integer> perUser = new ConcurrentHashMap<>();
+
+    /** idle timeout in nanoseconds */
+    private final long idleNanos;
+
+    /** wheel tick length in nanoseconds */
+    private final long tickNanos;
+
+    /** wheel slots, each the head of a singly linked session list guarded by the slot */
+    private final Slot[] wheel;
+
+    /** System.nanoTime the wheel counts ticks from */
+    private final long origin = System.nanoTime();
+
+    /** last tick whose slot has been processed, written only by the wheel thread */
+    private long processedTick;
+
+    /** wheel thread, started with the first session */
+    private Thread ticker;
+
+    /**
+     * one wheel slot
+     */
+    private static final class Slot {
+        Session head;
+    }
+
+    /**
+     * create manager with a one-second tick and 4096 slots
+     * @param idleTimeout time after last use at which a session expires
+     */
+    public SessionManager(Duration idleTimeout) {
+        this(idleTimeout, Duration.ofSeconds(1), 4096);
+    }
+
+    /**
+     * create manager
+     * @param idleTimeout time after last use at which a session expires
+     * @param tick wheel tick length, the expiry granularity
+     * @param slots number of wheel slots, a power of two
+     */
+    public SessionManager(Duration idleTimeout, Duration tick, int slots) {
+        if (idleTimeout.isNegative() || idleTimeout.isZero() || tick.isNegative() || tick.isZero())
+            throw new IllegalArgumentException("Idle timeout and tick must be positive");
+        if (Integer.bitCount(slots) != 1)
+            throw new IllegalArgumentException("Slot count must be a power of two: " + slots);
+        this.idleNanos = idleTimeout.toNanos();
+        this.tickNanos = tick.toNanos();
+        this.wheel = new Slot[slots];
+        for (int i = 0; i < slots; i++) wheel[i] = new Slot();
+        MetricsRegistry.global().gauge("sessions_active", sessions::size);
+    }
+
+    /**
+     * create manager configured from system property ipms.session.idle.minutes
+     * @return configured manager
+     */
+    public static SessionManager fromSystemProperties() {
+        return new SessionManager(Duration.ofMinutes(Long.getLong("ipms.session.idle.minutes", 30)));
+    }
+
+    /**
+     * open a session for an authenticated user and mark the user logged in
+     * @param user authenticated user
+     * @return new session with a fresh token
+     */
+    public Session create(User user) {
+        ensureStarted();
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        long now = System.nanoTime();
+        Session s = new Session(encoder.encodeToString(bytes), user, now);
+        perUser.compute(user.getUserId(), (id, n) -> {
+            user.login();
+            return n == null ? 1 : n + 1;
+        });
+        sessions.put(s.getToken(), s);
+        schedule(s, deadlineTick(now));
+        CREATED.inc();
+        return s;
+    }
+
+    /**
+     * resolve a token to its live session and record the use
+     * a session past its idle timeout is expired here even if the wheel has not reached it yet
+     * @param token opaque token
+     * @return live session, or empty if the token is unknown, closed or expired
+     */
+    public Optional<Session> resolve(String token) {
+        Session s = token == null ? null : sessions.get(token);
+        if (s == null) return Optional.empty();
+        long now = System.nanoTime();
+        long last = s.lastAccess;
+        if (now - last > idleNanos) {
+            end(s, EXPIRED);
+            return Optional.empty();
+        }
+        if (now - last > tickNanos) s.lastAccess = now;
+        return Optional.of(s);
+    }
+
+    /**
+     * close a session, e.g. on logout
+     * @param token opaque token
+     * @return true if a live session was closed
+     */
+    public boolean close(String token) {
+        Session s = token == null ? null : sessions.get(token);
+        return s != null && end(s, CLOSED);
+    }
+
+    /**
+     * check whether a user has any live session
+     * @param userId user id
+     * @return true if at least one session of the user is live
+     */
+    public boolean hasSession(String userId) {
+        return perUser.containsKey(userId);
+    }
+
+    /** @return number of live sessions */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * remove session from the store and log its user out if it was their last one
+     * @param s session to end
+     * @param reason counter for closed or expired
+     * @return true if this call ended the session
+     */
+    private boolean end(Session s, Counter reason) {
+        if (!sessions.remove(s.getToken(), s)) return false;
+        s.ended = true;
+        User user = s.getUser();
+        perUser.computeIfPresent(user.getUserId(), (id, n) -> {
+            if (n > 1) return n - 1;
+            user.logout();
+            return null;
+        });
+        reason.inc();
+        return true;
+    }
+
+    /**
+     * @param lastAccess System.nanoTime of last use
+     * @return wheel tick at which a session used at lastAccess expires
+     */
+    private long deadlineTick(long lastAccess) {
+        return (lastAccess + idleNanos - origin + tickNanos - 1) / tickNanos;
+    }
+
+    /**
+     * link session into the slot of a tick
+     * @param s session
+     * @param tick deadline tick
+     */
+    private void schedule(Session s, long tick) {
+        Slot slot = wheel[(int) (tick & (wheel.length - 1))];
+        synchronized (slot) {
+            s.next = slot.head;
+            slot.head = s;
+        }
+    }
+
+    /** start wheel thread if not yet running */
+    private synchronized void ensureStarted() {
+        if (ticker != null) return;
+        ticker = new Thread(this::run, "session-wheel");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    /**
+     * wheel loop: process every tick that has elapsed, then sleep until the next one
+     */
+    private void run() {
+        while (true) {
+            advance(System.nanoTime());
+            try {
+                Thread.sleep(Math.max(1, tickNanos / 1_000_000));
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * process the slots of all ticks up to now: expire sessions that are due, move sessions that
+     * were used since they were slotted to the slot of their new deadline, drop closed ones
+     * @param now current System.nanoTime
+     */
+    void advance(long now) {
+        long nowTick = (now - origin) / tickNanos;
+        while (processedTick < nowTick) {
+            long tick = ++processedTick;
+            Slot slot = wheel[(int) (tick & (wheel.length - 1))];
+            Session s;
+            synchronized (slot) {
+                s = slot.head;
+                slot.head = null;
+            }
+            while (s != null) {
+                Session next = s.next;
+                s.next = null;
+                if (!s.ended) {
+                    long due = deadlineTick(s.lastAccess);
+                    if (due <= tick) end(s, EXPIRED);
+                    else schedule(s, due);
+                }
+                s = next;
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package transaction;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * append-only log with one record per committed unit of work
+ * each record lists every entity change made by the unit, so a multi-repository flow such as
+ * accepting an offer is auditable as a single step
+ *
+ * the most recent records are kept in memory; when a file is configured (system property
+ * ipms.txlog.file) each record is also appended there as one line
+ */
+public class TransactionLog {
+
+    /** number of records kept in memory */
+    private static final int RECENT = 1000;
+
+    /**
+     * one committed unit of work
+     */
+    public static final class Record {
+        private final long txId;
+        private final Instant committedAt;
+        private final String name;
+        private final List<String> changes;
+
+        Record(long txId, Instant committedAt, String name, List<String> changes) {
+            this.txId = txId;
+            this.committedAt = committedAt;
+            this.name = name;
+            this.changes = List.copyOf(changes);
+        }
+
+        /** @return transaction id, increasing in commit order */
+        public long getTxId() { return txId; }
+
+        /** @return commit time */
+        public Instant getCommittedAt() { return committedAt; }
+
+        /** @return name of flow that ran the unit, e.g. "acceptInternship" */
+        public String getName() { return name; }
+
+        /** @return one description per changed entity */
+        public List<String> getChanges() { return changes; }
+
+        /** @return single log line */
+        @Override
+        public String toString() {
+            return "tx " + txId + " " + committedAt + " " + name + " " + changes;
+        }
+    }
+
+    /** next transaction id */
+    private final AtomicLong nextId = new AtomicLong();
+
+    /** most recent records, oldest first */
+    private final ConcurrentLinkedDeque<Record> recent = new ConcurrentLinkedDeque<>();
+
+    /** number of records in recent, tracked separately since deque size is linear */
+    private final AtomicInteger recentSize = new AtomicInteger();
+
+    /** optional output file, null to keep records in memory only */
+    private final Path file;
+
+    /**
+     * create log configured from system property ipms.txlog.file
+     */
+    public TransactionLog() {
+        this(System.getProperty("ipms.txlog.file"));
+    }
+
+    /**
+     * create log
+     * @param file optional output file path, null to keep records in memory only
+     */
+    public TransactionLog(String file) {
+        this.file = file == null || file.isBlank() ? null : Path.of(file);
+    }
+
+    /**
+     * append one record for a committed unit of work
+     * in-memory appends are lock-free; file appends are serialised so lines never interleave
+     * @param name flow name
+     * @param changes one description per changed entity
+     * @return appended record
+     */
+    public Record append(String name, List<String> changes) {
+        Record r = new Record(nextId.incrementAndGet(), Instant.now(), name, changes);
+        recent.addLast(r);
+        if (recentSize.incrementAndGet() > RECENT && recent.pollFirst() != null) recentSize.decrementAndGet();
+        if (file != null) write(r);
+        return r;
+    }
+
+    /**
+     * most recent records, oldest first
+     * @return copy of up to 1000 most recent records
+     */
+    public List<Record> recent() {
+        return new ArrayList<>(recent);
+    }
+
+    /**
+     * append record to output file, reporting failures without failing the commit
+     * @param r record to write
+     */
+    private synchronized void write(Record r) {
+        try (BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            w.write(r.toString());
+            w.newLine();
+        } catch (IOException ex) {
+            System.err.println("Failed to write transaction log: " + ex.getMessage());
+        }
+    }
+}
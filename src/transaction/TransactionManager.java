@@ -0,0 +1,156 @@
+package transaction;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import metrics.Counter;
+import metrics.MetricsRegistry;
+import metrics.Timer;
+import repository.InternshipAppRepository;
+import repository.InternshipRepository;
+
+/**
+ * lightweight in-memory transaction manager for multi-repository flows
+ *
+ * a flow declares the lock keys it touches (a student for their applications, an internship
+ * for its slots) and runs against a UnitOfWork. keys map onto a fixed array of lock stripes
+ * that are always acquired in ascending order, so flows on unrelated students and internships
+ * run in parallel, overlapping flows serialise, and no lock order can deadlock. there is no
+ * global lock
+ *
+ * while the stripes are held, entities under those keys cannot change, so the unit reads a
+ * stable snapshot of them. on normal return the unit's changes are written back all together
+ * and recorded as one TransactionLog record; if the flow throws, nothing is written
+ * repository readers stay lock-free and never observe a unit's uncommitted working copies
+ */
+public class TransactionManager {
+
+    /** number of lock stripes, a power of two */
+    private static final int STRIPES = 1024;
+
+    /** committed units */
+    private static final Counter COMMITTED = MetricsRegistry.global().counter("transactions_total{result=committed}");
+
+    /** units whose work threw and was discarded */
+    private static final Counter ROLLED_BACK = MetricsRegistry.global().counter("transactions_total{result=rolled_back}");
+
+    /** time spent waiting for lock stripes */
+    private static final Timer LOCK_WAIT = MetricsRegistry.global().timer("TransactionManager.lockWait");
+
+    /** lock stripes */
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    /** repository applications are committed to */
+    private final InternshipAppRepository applications;
+
+    /** repository internships are committed to */
+    private final InternshipRepository internships;
+
+    /** log receiving one record per commit */
+    private final TransactionLog log;
+
+    /**
+     * create manager over repositories
+     * @param internships internship repository
+     * @param applications application repository
+     * @param log commit log
+     */
+    public TransactionManager(InternshipRepository internships, InternshipAppRepository applications, TransactionLog log) {
+        this.internships = internships;
+        this.applications = applications;
+        this.log = log;
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new ReentrantLock();
+    }
+
+    /**
+     * lock key covering every application of a student
+     * @param studentId student user id
+     * @return lock key
+     */
+    public static String studentKey(String studentId) {
+        return "student:" + studentId;
+    }
+
+    /**
+     * lock key covering an internship
+     * @param internshipId internship id
+     * @return lock key
+     */
+    public static String internshipKey(String internshipId) {
+        return "internship:" + internshipId;
+    }
+
+    /** @return commit log */
+    public TransactionLog getLog() {
+        return log;
+    }
+
+    /**
+     * run a flow as one all-or-nothing unit
+     * @param name flow name recorded in the log
+     * @param keys lock keys the flow may edit
+     * @param work flow body; throwing discards every change
+     */
+    public void run(String name, Collection<String> keys, Consumer<UnitOfWork> work) {
+        call(name, keys, uow -> {
+            work.accept(uow);
+            return null;
+        });
+    }
+
+    /**
+     * run a flow as one all-or-nothing unit and return its result
+     * @param <T> result type
+     * @param name flow name recorded in the log
+     * @param keys lock keys the flow may edit
+     * @param work flow body; throwing discards every change
+     * @return value returned by work
+     */
+    public <T> T call(String name, Collection<String> keys, Function<UnitOfWork, T> work) {
+        int[] order = stripesOf(keys);
+        long start = System.nanoTime();
+        for (int s : order) stripes[s].lock();
+        LOCK_WAIT.record(System.nanoTime() - start);
+        try {
+            UnitOfWork uow = new UnitOfWork(applications, internships, Set.copyOf(keys));
+            T result;
+            try {
+                result = work.apply(uow);
+                uow.apply();
+            } catch (RuntimeException e) {
+                ROLLED_BACK.inc();
+                throw e;
+            }
+            List<String> changes = uow.changes();
+            if (!changes.isEmpty()) log.append(name, changes);
+            COMMITTED.inc();
+            return result;
+        } finally {
+            for (int i = order.length - 1; i >= 0; i--) stripes[order[i]].unlock();
+        }
+    }
+
+    /**
+     * map lock keys to distinct stripe indexes in ascending acquisition order
+     * @param keys lock keys
+     * @return sorted distinct stripe indexes
+     */
+    private static int[] stripesOf(Collection<String> keys) {
+        int[] idx = new int[keys.size()];
+        int n = 0;
+        for (String k : keys) {
+            int h = k.hashCode();
+            idx[n++] = (h ^ (h >>> 16)) & (STRIPES - 1);
+        }
+        Arrays.sort(idx);
+        int distinct = 0;
+        for (int i = 0; i < n; i++) {
+            if (distinct == 0 || idx[distinct - 1] != idx[i]) idx[distinct++] = idx[i];
+        }
+        return Arrays.copyOf(idx, distinct);
+    }
+}
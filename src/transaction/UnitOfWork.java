@@ -0,0 +1,261 @@
+package transaction;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import event.EventBus;
+import model.Internship;
+import model.InternshipApplication;
+import repository.InternshipAppRepository;
+import repository.InternshipRepository;
+import repository.VersionConflictException;
+
+/**
+ * set of pending changes to applications and internships, applied together on commit
+ *
+ * edit() hands out a private working copy of the stored entity; changes are made to the copy
+ * and stay invisible to every other thread until the unit commits, at which point each copy's
+ * state is written back into the stored entity and saved. if the work throws, the copies are
+ * simply discarded, so nothing half-done is ever stored
+ *
+ * an entity may only be edited while its lock key is held: applications by their owning
+ * student's key, internships by their own key. units are created by TransactionManager
+ *
+ * write-back uses the repositories' conditional saves against the version each entity had
+ * when first edited, so a writer that changed the entity without taking its lock (for example
+ * a staff decision saved optimistically) is detected and the unit rolls back
+ *
+ * isolation: other units and conditional saves never act on a partial commit, since units
+ * hold the entities' lock keys and conditional saves check versions under the repository's
+ * write lock. reads that take no lock (finds, filters, counts, dashboards) are not isolated:
+ * the commit writes new applications, changed applications and changed internships as three
+ * batches, so such a read can see an acceptance before the internship's confirmed slots move,
+ * or a failed commit briefly before it is restored. event subscribers are isolated: events
+ * are published after the last batch succeeds, and not at all if the commit fails
+ */
+public final class UnitOfWork {
+
+    /**
+     * stored entity with the state it had when first edited and its working copy
+     * @param <T> entity type
+     */
+    private static final class Tracked<T> {
+        final T live;
+        final T before;
+        final T working;
+
+        Tracked(T live, T before, T working) {
+            this.live = live;
+            this.before = before;
+            this.working = working;
+        }
+    }
+
+    /** repository applications are saved to */
+    private final InternshipAppRepository applications;
+
+    /** repository internships are saved to */
+    private final InternshipRepository internships;
+
+    /** lock keys held by this unit */
+    private final Set<String> heldKeys;
+
+    /** edited applications by id, in edit order */
+    private final Map<String, Tracked<InternshipApplication>> apps = new LinkedHashMap<>();
+
+    /** edited internships by id, in edit order */
+    private final Map<String, Tracked<Internship>> posts = new LinkedHashMap<>();
+
+    /** new applications by id, in insert order */
+    private final Map<String, InternshipApplication> inserts = new LinkedHashMap<>();
+
+    /**
+     * create empty unit
+     * @param applications application repository
+     * @param internships internship repository
+     * @param heldKeys lock keys held for the duration of the unit
+     */
+    UnitOfWork(InternshipAppRepository applications, InternshipRepository internships, Set<String> heldKeys) {
+        this.applications = applications;
+        this.internships = internships;
+        this.heldKeys = heldKeys;
+    }
+
+    /**
+     * get working copy of an application, the same copy for every call within this unit
+     * @param app stored application or any instance with its id
+     * @return private working copy to modify
+     * @throws IllegalStateException if owning student's lock key is not held
+     */
+    public InternshipApplication edit(InternshipApplication app) {
+        requireHeld(TransactionManager.studentKey(app.getStudentId()));
+        Tracked<InternshipApplication> t = apps.get(app.getId());
+        if (t == null) {
+            InternshipApplication live = applications.findById(app.getId()).orElse(app);
+            t = new Tracked<>(live, live.copy(), live.copy());
+            apps.put(app.getId(), t);
+        }
+        return t.working;
+    }
+
+    /**
+     * stage a new application, stored on commit; all staged applications are stored in one batch
+     * @param app new application, not yet stored
+     * @throws IllegalStateException if owning student's lock key is not held
+     */
+    public void insert(InternshipApplication app) {
+        requireHeld(TransactionManager.studentKey(app.getStudentId()));
+        inserts.put(app.getId(), app);
+    }
+
+    /**
+     * applications of a student staged by insert() in this unit and not yet stored
+     * @param studentId student user id
+     * @return staged applications of the student, in insert order
+     */
+    public Stream<InternshipApplication> inserted(String studentId) {
+        return inserts.values().stream().filter(a -> a.getStudentId().equals(studentId));
+    }
+
+    /**
+     * get working copy of an application the caller read at a known version
+     * @param app stored application
+     * @param expectedVersion version the caller read
+     * @return private working copy to modify
+     * @throws VersionConflictException if the application was saved since the caller read it
+     */
+    public InternshipApplication edit(InternshipApplication app, long expectedVersion) {
+        InternshipApplication working = edit(app);
+        if (working.getVersion() != expectedVersion)
+            throw new VersionConflictException("Application", app.getId(), expectedVersion, working.getVersion());
+        return working;
+    }
+
+    /**
+     * get working copy of an internship, the same copy for every call within this unit
+     * @param internship stored internship or any instance with its id
+     * @return private working copy to modify
+     * @throws IllegalStateException if internship lock key is not held
+     */
+    public Internship edit(Internship internship) {
+        requireHeld(TransactionManager.internshipKey(internship.getId()));
+        Tracked<Internship> t = posts.get(internship.getId());
+        if (t == null) {
+            Internship live = internships.findById(internship.getId()).orElse(internship);
+            t = new Tracked<>(live, live.copy(), live.copy());
+            posts.put(internship.getId(), t);
+        }
+        return t.working;
+    }
+
+    /**
+     * get current state of an internship without staging it for write-back, for checks that
+     * do not change it; no other unit can change it while this unit holds its lock key
+     * @param internship stored internship or any instance with its id
+     * @return this unit's working copy if it already edits the internship, else the stored one
+     * @throws IllegalStateException if internship lock key is not held
+     */
+    public Internship read(Internship internship) {
+        requireHeld(TransactionManager.internshipKey(internship.getId()));
+        Tracked<Internship> t = posts.get(internship.getId());
+        if (t != null) return t.working;
+        return internships.findById(internship.getId()).orElse(internship);
+    }
+
+    /**
+     * get working copy of an internship the caller read at a known version
+     * @param internship stored internship
+     * @param expectedVersion version the caller read
+     * @return private working copy to modify
+     * @throws VersionConflictException if the internship was saved since the caller read it
+     */
+    public Internship edit(Internship internship, long expectedVersion) {
+        Internship working = edit(internship);
+        if (working.getVersion() != expectedVersion)
+            throw new VersionConflictException("Internship", internship.getId(), expectedVersion, working.getVersion());
+        return working;
+    }
+
+    /**
+     * @param key lock key
+     * @throws IllegalStateException if key is not held by this unit
+     */
+    private void requireHeld(String key) {
+        if (!heldKeys.contains(key))
+            throw new IllegalStateException("Unit of work does not hold lock " + key);
+    }
+
+    /**
+     * describe every entity whose working copy differs from its state when first edited
+     * @return one description per changed entity, empty if nothing changed
+     */
+    List<String> changes() {
+        List<String> out = new ArrayList<>();
+        for (InternshipApplication app : inserts.values()) {
+            out.add("application " + app.getId() + ": created for " + app.getStudentId() + " on " + app.getInternshipId());
+        }
+        for (Tracked<InternshipApplication> t : apps.values()) {
+            StringBuilder sb = new StringBuilder();
+            diff(sb, "status", t.before.getStatus(), t.working.getStatus());
+            diff(sb, "accepted", t.before.studentAccepted(), t.working.studentAccepted());
+            diff(sb, "withdrawalRequested", t.before.isWithdrawalRequested(), t.working.isWithdrawalRequested());
+            if (sb.length() > 0) out.add("application " + t.live.getId() + ":" + sb);
+        }
+        for (Tracked<Internship> t : posts.values()) {
+            StringBuilder sb = new StringBuilder();
+            diff(sb, "status", t.before.getStatus(), t.working.getStatus());
+            diff(sb, "confirmedSlots", t.before.getConfirmedSlots(), t.working.getConfirmedSlots());
+            diff(sb, "visible", t.before.getVisibility(), t.working.getVisibility());
+            if (sb.length() > 0) out.add("internship " + t.live.getId() + ":" + sb);
+        }
+        return out;
+    }
+
+    /**
+     * append " field a -> b" if values differ
+     * @param sb output
+     * @param field field name
+     * @param before value when first edited
+     * @param after working value
+     */
+    private static void diff(StringBuilder sb, String field, Object before, Object after) {
+        if (!before.equals(after)) sb.append(' ').append(field).append(' ').append(before).append(" -> ").append(after);
+    }
+
+    /**
+     * write every working copy back into its stored entity, one conditional batch save per repository
+     * working copies carry the version their entity had when first edited, which the batch checks
+     * events raised by the saves are published only once every batch has been written
+     * if a save fails, entities already written are restored silently to their original state
+     * and version, and inserted applications are removed; no event is published for any of it
+     * @throws VersionConflictException if an entity was saved outside this unit since first edited
+     * @throws RuntimeException rethrown from the failing save after restoring
+     */
+    void apply() {
+        EventBus.publishOnSuccess(() -> {
+            List<Runnable> undo = new ArrayList<>();
+            try {
+                if (!inserts.isEmpty()) {
+                    applications.insertAll(inserts.values());
+                    undo.add(() -> inserts.keySet().forEach(applications::delete));
+                }
+                if (!apps.isEmpty()) {
+                    applications.saveAll(apps.values().stream().map(t -> t.working).toList());
+                    undo.add(() -> apps.values().forEach(t -> applications.restore(t.before)));
+                }
+                if (!posts.isEmpty()) {
+                    internships.saveAll(posts.values().stream().map(t -> t.working).toList());
+                    undo.add(() -> posts.values().forEach(t -> internships.restore(t.before)));
+                }
+            } catch (RuntimeException e) {
+                EventBus.silently(() -> {
+                    for (int i = undo.size() - 1; i >= 0; i--) undo.get(i).run();
+                });
+                throw e;
+            }
+        });
+    }
+}
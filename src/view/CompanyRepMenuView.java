@@ -7,10 +7,14 @@ import java.util.List;
 import java.util.Scanner;
 
 import controller.CompanyRepController;
+import controller.LoginController;
+import model.ApplicationView;
 import model.CompanyRepresentative;
 import model.Internship;
 import model.InternshipApplication;
+import model.RepDashboard;
 import model.Student;
+import session.Session;
 
 
 /**
@@ -22,6 +26,8 @@ public class CompanyRepMenuView {
     private final CompanyRepController companyRepController;
     /** shared browser view for displaying/filtering internships */
     private final InternshipBrowserView browserView;
+    /** controller refreshing the representative's session on every menu action */
+    private final LoginController loginController;
     /** shared scanner for console input */
     private static final Scanner sc = new Scanner(System.in);
     /** date formatter for consistent date input/output in yyyy-MM-dd format */
@@ -30,17 +36,22 @@ public class CompanyRepMenuView {
     /** construct view with required controller and shared browser view
      * @param companyRepController controller for company representative operations
      * @param browserView shared internship browser view
+     * @param loginController controller resolving session tokens
      */
-    public CompanyRepMenuView(CompanyRepController companyRepController, InternshipBrowserView browserView) {
+    public CompanyRepMenuView(CompanyRepController companyRepController, InternshipBrowserView browserView,
+                              LoginController loginController) {
         this.companyRepController = companyRepController;
         this.browserView = browserView;
+        this.loginController = loginController;
     }
 
     /**
      * display company representative menu and handle user actions
-     * @param rep logged-in company representative
+     * every chosen action refreshes the session; the menu closes if it has expired
+     * @param session session of the logged-in company representative
      */
-    public void displayCompanyRepMenu(CompanyRepresentative rep) {
+    public void displayCompanyRepMenu(Session session) {
+        CompanyRepresentative rep = (CompanyRepresentative) session.getUser();
         while (true) {
             System.out.println("\n========= Compnay Representative Menu =========");
             System.out.println("1. Create internship opportunity");
@@ -54,10 +65,11 @@ public class CompanyRepMenuView {
             System.out.println("9. Logout");
 
             int choice = ConsoleUtil.readInt("Choose: ", 1, 9);
+            if (!ConsoleUtil.keepAlive(loginController, session)) return;
 
             switch (choice) {
                 case 1 -> createInternship(rep);
-                case 2 -> browserView.show(rep);
+                case 2 -> browserView.show(session);
                 case 3 -> editInternship(rep);
                 case 4 -> deleteInternship(rep);
                 case 5 -> toggleInternshipVisibility(rep);
@@ -138,7 +150,8 @@ public class CompanyRepMenuView {
      * @return list of internships created by the representative
      */
     private List<Internship> getInternshipList(CompanyRepresentative rep) {
-        List<Internship> internshipList = companyRepController.getInternshipsByCompanyRep(rep);
+        RepDashboard dashboard = companyRepController.getDashboard(rep);
+        List<Internship> internshipList = dashboard.getInternships().stream().map(Internship::copy).toList();
 
         if (internshipList.isEmpty()) {
             System.out.println("You have not created any internships yet.");
@@ -146,17 +159,16 @@ public class CompanyRepMenuView {
         }
 
         System.out.println("\n==================== Your Internship Listings ====================");
-        System.out.printf("%-4s %-28s %-24s %-10s %-14s %-15s %-12s %-12s %-10s %-10s %-6s%n",
+        System.out.printf("%-4s %-28s %-24s %-10s %-14s %-15s %-12s %-12s %-10s %-10s %-6s %-8s %-9s%n",
                 "No.", "Title", "Major", "Level", "Company", "Representative",
-                "Open Date", "Close Date", "Status", "Visible", "Apps");
+                "Open Date", "Close Date", "Status", "Visible", "Apps", "Pending", "Remaining");
 
-        for (int i = 0; i < internshipList.size(); i++) {
+        List<RepDashboard.Posting> postings = dashboard.getPostings();
+        for (int i = 0; i < postings.size(); i++) {
+            RepDashboard.Posting p = postings.get(i);
             Internship in = internshipList.get(i);
 
-            // Count submitted applications
-            int appCount = companyRepController.getInternshipApplications(in.getId()).size();
-
-            System.out.printf("%-4d %-28s %-24s %-10s %-14s %-15s %-12s %-12s %-10s %-10s %-6d%n",
+            System.out.printf("%-4d %-28s %-24s %-10s %-14s %-15s %-12s %-12s %-10s %-10s %-6d %-8d %-9d%n",
                     (i + 1),
                     crop(in.getTitle(), 28),
                     crop(in.getMajor(), 24),
@@ -167,10 +179,17 @@ public class CompanyRepMenuView {
                     in.getEndDate(),
                     in.getStatus(),
                     (in.getVisibility() ? "Yes" : "No"),
-                    appCount
+                    p.getTotalApplications(),
+                    p.getApplicationCount(InternshipApplication.Status.PENDING),
+                    p.getRemainingSlots()
             );
         }
 
+        System.out.printf("Totals: %d pending, %d successful applications, %d slots remaining%n",
+                dashboard.getApplicationCount(InternshipApplication.Status.PENDING),
+                dashboard.getApplicationCount(InternshipApplication.Status.SUCCESSFUL),
+                dashboard.getRemainingSlots());
+
         return internshipList;
     }
 
@@ -200,9 +219,12 @@ public class CompanyRepMenuView {
         
         Internship selectedInternship = internshipList.get(index - 1);
         boolean newVisibility = !selectedInternship.getVisibility();
-        companyRepController.toggleVisibility(selectedInternship, newVisibility);
-
-        System.out.println("Internship visibility toggled to: " + newVisibility);
+        try {
+            companyRepController.toggleVisibility(selectedInternship, newVisibility, selectedInternship.getVersion());
+            System.out.println("Internship visibility toggled to: " + newVisibility);
+        } catch (IllegalStateException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
     }
 
     /**
@@ -244,7 +266,9 @@ public class CompanyRepMenuView {
         
         Internship selectedInternship = internshipList.get(index - 1);
         List<InternshipApplication> applications = companyRepController.getInternshipApplications(selectedInternship.getId()).stream()
-            .filter(a -> a.getStatus() == InternshipApplication.Status.PENDING).toList();
+            .filter(a -> a.getStatus() == InternshipApplication.Status.PENDING)
+            .map(InternshipApplication::copy)
+            .toList();
         
         if (applications.isEmpty()) {
             System.out.println("No pending applications.");
@@ -258,16 +282,17 @@ public class CompanyRepMenuView {
             return;
         
         InternshipApplication selectedApplication = applications.get(applicationIndex - 1);
+        long version = selectedApplication.getVersion();
 
         System.out.println("1 = Approve, 2 = Reject");
         int decision = ConsoleUtil.readInt("Choose: ", 1, 2);
 
         try {
             if (decision == 1) {
-                companyRepController.approveApplication(selectedApplication, selectedInternship);
+                companyRepController.approveApplication(selectedApplication, selectedInternship, version);
                 System.out.println("Application approved.");
             } else {
-                companyRepController.rejectApplication(selectedApplication);
+                companyRepController.rejectApplication(selectedApplication, version);
                 System.out.println("Application rejected.");
             }
         } catch (Exception e) {
@@ -309,16 +334,18 @@ public class CompanyRepMenuView {
         System.out.printf("%-4s %-35s %-18s %-15s %-18s %-12s%n",
                 "No.", "Internship Title", "Company", "Student ID", "Student Name", "Status");
 
-        for (int i = 0; i < applications.size(); i++) {
-            InternshipApplication a = applications.get(i);
+        List<ApplicationView> views = companyRepController.getApplicationViews(applications);
+        for (int i = 0; i < views.size(); i++) {
+            ApplicationView v = views.get(i);
+            InternshipApplication a = v.getApplication();
 
             // Get internship
-            Internship internship = companyRepController.getInternshipById(a.getInternshipId());
+            Internship internship = v.getInternship();
             String title   = (internship != null) ? internship.getTitle() : "(Deleted)";
             String company = (internship != null) ? internship.getCompanyName() : "-";
 
             // Get student
-            Student student = companyRepController.getStudentById(a.getStudentId());
+            Student student = v.getStudent();
             String studentName = (student != null) ? student.getName() : "(Unknown)";
 
             System.out.printf("%-4d %-35s %-18s %-15s %-18s %-12s%n",
@@ -455,7 +482,8 @@ public class CompanyRepMenuView {
             // ─────── Step 3: Confirm or redo ───────
             if (confirmAction("Apply these changes? (Y/N): ")) {
                 try {
-                    companyRepController.editInternship(original, title, desc, level, major, start, end, slots);
+                    companyRepController.editInternship(original, title, desc, level, major, start, end, slots,
+                            original.getVersion());
                     System.out.println("Internship updated successfully!");
                     return;
                 } catch (Exception e) {
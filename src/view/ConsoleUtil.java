@@ -1,6 +1,8 @@
 package view;
 
 import java.util.Scanner;
+import controller.LoginController;
+import session.Session;
 
 /**
  * utility class providing reusable console input and pause functionality
@@ -38,6 +40,19 @@ public class ConsoleUtil {
         }
     }
 
+    /**
+     * resolve the caller's session before running a menu action, which refreshes its idle timer
+     * so a user who keeps working is never timed out; menus call this after every choice
+     * @param logins controller resolving session tokens
+     * @param session session of the current user
+     * @return true if the session is live, false after telling the user it has expired
+     */
+    public static boolean keepAlive(LoginController logins, Session session) {
+        if (logins.resolveSession(session.getToken()).isPresent()) return true;
+        System.out.println("Your session has expired. Please log in again.");
+        return false;
+    }
+
     /**
      * pause console execution until user presses Enter
      * used to improve readability of multi-step menus
@@ -3,14 +3,21 @@ package view;
 import controller.StudentController;
 import controller.CompanyRepController;
 import controller.StaffController;
+import controller.LoginController;
+import event.InternshipStatusChanged;
 import model.*;
+import ratelimit.RateLimitExceededException;
+import session.Session;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * view class responsible for displaying internships and applying user-defined filters
@@ -39,11 +46,17 @@ public class InternshipBrowserView {
     /** controller used for staff-level internship retrieval and analytics */
     private final StaffController staffCtrl;
 
+    /** controller refreshing the caller's session on every browser action */
+    private final LoginController loginCtrl;
+
     /** per-user saved filter instances */
     private final Map<String, InternshipFilter> filterMap = new HashMap<>();
 
-    /** per-user cached list of last displayed results */
-    private final Map<String, List<Internship>> resultCache = new HashMap<>();
+    /** per-user cached list of last displayed results, evicted when a listed internship changes status */
+    private final Map<String, List<Internship>> resultCache = new ConcurrentHashMap<>();
+
+    /** maximum number of autocomplete suggestions offered for a filter prompt */
+    private static final int MAX_SUGGESTIONS = 5;
 
 
     /**
@@ -52,22 +65,27 @@ public class InternshipBrowserView {
      * @param studentCtrl student controller instance
      * @param repCtrl company representative controller instance
      * @param staffCtrl staff controller instance
+     * @param loginCtrl login controller resolving session tokens
      */
     public InternshipBrowserView(Role role,
                                  StudentController studentCtrl,
                                  CompanyRepController repCtrl,
-                                 StaffController staffCtrl) {
+                                 StaffController staffCtrl,
+                                 LoginController loginCtrl) {
         this.role = role;
         this.studentCtrl = studentCtrl;
         this.repCtrl = repCtrl;
         this.staffCtrl = staffCtrl;
+        this.loginCtrl = loginCtrl;
     }
 
     /**
-     * continuously display browsing menu until caller exits
-     * @param caller current logged in user
+     * continuously display browsing menu until caller exits or the session expires
+     * every chosen action refreshes the session
+     * @param session session of the current logged in user
      */
-    public void show(User caller) {
+    public void show(Session session) {
+        User caller = session.getUser();
         while (true) {
             System.out.println("\n========= Internship Browser =========");
             System.out.println("Current Filters: " + summarizeFilters(caller));
@@ -80,14 +98,19 @@ public class InternshipBrowserView {
 
             System.out.print("Enter choice: ");
             String choice = sc.nextLine();
-
-            switch (choice) {
-                case "1" -> viewInternships(caller);
-                case "2" -> updateFilters(caller);
-                case "3" -> resetFilters(caller);
-                case "4" -> { if (role == Role.STAFF) staffPopularity(); else System.out.println("Not allowed."); }
-                case "0" -> { return; }
-                default -> System.out.println("Invalid option.");
+            if (!ConsoleUtil.keepAlive(loginCtrl, session)) return;
+
+            try {
+                switch (choice) {
+                    case "1" -> viewInternships(session);
+                    case "2" -> updateFilters(caller);
+                    case "3" -> resetFilters(caller);
+                    case "4" -> { if (role == Role.STAFF) staffPopularity(session); else System.out.println("Not allowed."); }
+                    case "0" -> { return; }
+                    default -> System.out.println("Invalid option.");
+                }
+            } catch (RateLimitExceededException e) {
+                System.out.println(e.getMessage());
             }
         }
     }
@@ -95,12 +118,13 @@ public class InternshipBrowserView {
     /**
      * retrieve and display internship list based on caller role and active filters
      * allows follow-up selection for detailed view
-     * @param caller user requesting internship list
+     * @param session session of the user requesting internship list
      */
-    private void viewInternships(User caller) {
+    private void viewInternships(Session session) {
+        User caller = session.getUser();
         InternshipFilter f = getFilterFor(caller);
         List<Internship> list = switch (role) {
-            case STUDENT -> studentCtrl.getEligibleInternships((Student) caller, f);
+            case STUDENT -> studentCtrl.getEligibleInternships(session, f);
             case REP     -> repCtrl.getOwnInternshipsFiltered((CompanyRepresentative) caller, f);
             case STAFF   -> staffCtrl.getFiltered(f);
         };
@@ -148,6 +172,7 @@ public class InternshipBrowserView {
 
         System.out.print("Preferred Major: ");
         String m = sc.nextLine().trim();
+        m = pickSuggestion(m, suggestMajors(m));
         f.setMajor(m.isEmpty() ? null : m);
 
         System.out.print("Level (BASIC/MEDIUM/HIGH): ");
@@ -156,6 +181,7 @@ public class InternshipBrowserView {
 
         System.out.print("Company Name: ");
         String c = sc.nextLine().trim();
+        c = pickSuggestion(c, suggestCompanyNames(c));
         f.setCompanyName(c.isEmpty() ? null : c);
 
         System.out.print("Closing Before (yyyy-MM-dd): ");
@@ -166,6 +192,52 @@ public class InternshipBrowserView {
     }
 
 
+    /**
+     * fetch company name completions from the controller matching this view's role
+     * @param prefix text typed by user
+     * @return ranked company name suggestions
+     */
+    private List<String> suggestCompanyNames(String prefix) {
+        return switch (role) {
+            case STUDENT -> studentCtrl.suggestCompanyNames(prefix, MAX_SUGGESTIONS);
+            case REP     -> repCtrl.suggestCompanyNames(prefix, MAX_SUGGESTIONS);
+            case STAFF   -> staffCtrl.suggestCompanyNames(prefix, MAX_SUGGESTIONS);
+        };
+    }
+
+    /**
+     * fetch major completions from the controller matching this view's role
+     * @param prefix text typed by user
+     * @return ranked major suggestions
+     */
+    private List<String> suggestMajors(String prefix) {
+        return switch (role) {
+            case STUDENT -> studentCtrl.suggestMajors(prefix, MAX_SUGGESTIONS);
+            case REP     -> repCtrl.suggestMajors(prefix, MAX_SUGGESTIONS);
+            case STAFF   -> staffCtrl.suggestMajors(prefix, MAX_SUGGESTIONS);
+        };
+    }
+
+    /**
+     * offer autocomplete suggestions when typed text is not an exact known value
+     * @param typed text entered by user
+     * @param suggestions ranked completions for typed text
+     * @return chosen suggestion, or typed text if user keeps their own input
+     */
+    private String pickSuggestion(String typed, List<String> suggestions) {
+        if (typed.isEmpty() || suggestions.isEmpty()) return typed;
+        for (String s : suggestions) {
+            if (s.equalsIgnoreCase(typed)) return s;
+        }
+
+        System.out.println("Did you mean:");
+        for (int i = 0; i < suggestions.size(); i++)
+            System.out.printf("  %d. %s%n", i + 1, suggestions.get(i));
+
+        int index = ConsoleUtil.readInt("Select suggestion (0 to keep \"" + typed + "\"): ", 0, suggestions.size());
+        return index == 0 ? typed : suggestions.get(index - 1);
+    }
+
     /**
      * clear all active filter fields for caller
      * @param caller user performing filter reset
@@ -187,10 +259,12 @@ public class InternshipBrowserView {
 
     /**
      * display internship popularity ranking report (staff only)
+     * @param session session of the staff member requesting the report
      */
-    private void staffPopularity() {
+    private void staffPopularity(Session session) {
+        List<String> report = staffCtrl.getPopularityReport(session);
         System.out.println("\n=== Popularity Ranking ===");
-        staffCtrl.getPopularityReport().forEach(System.out::println);
+        report.forEach(System.out::println);
     }
 
     /**
@@ -275,32 +349,65 @@ public class InternshipBrowserView {
         return resultCache.getOrDefault(caller.getUserId(), List.of());
     }
 
+    /**
+     * evict cached results listing an internship whose status changed, so a student never picks
+     * from a list that still shows a posting since rejected, closed or deleted
+     * called with batches from the event bus delivery thread
+     * @param events internship status changes
+     */
+    public void onInternshipChanges(List<InternshipStatusChanged> events) {
+        Set<String> changed = new HashSet<>();
+        for (InternshipStatusChanged e : events) changed.add(e.getInternshipId());
+        resultCache.values().removeIf(list -> list.stream().anyMatch(i -> changed.contains(i.getId())));
+    }
+
+    /**
+     * drop every cached result list, used when status change events were lost
+     */
+    public void clearResultCache() {
+        resultCache.clear();
+    }
+
     /**
      * display filtered internship results without full browser interaction loop
-     * @param caller user viewing filtered list
+     * @param session session of the user viewing filtered list
      */
-    public void showFilteredList(User caller) {
-        List<Internship> list = switch (role) {
-            case STUDENT -> studentCtrl.getEligibleInternships((Student) caller, getFilterFor(caller));
-            case REP     -> repCtrl.getOwnInternshipsFiltered((CompanyRepresentative) caller, getFilterFor(caller));
-            case STAFF   -> staffCtrl.getFiltered(getFilterFor(caller));
-        };
+    public void showFilteredList(Session session) {
+        User caller = session.getUser();
+        List<Internship> list;
+        try {
+            list = switch (role) {
+                case STUDENT -> studentCtrl.getEligibleInternships(session, getFilterFor(caller));
+                case REP     -> repCtrl.getOwnInternshipsFiltered((CompanyRepresentative) caller, getFilterFor(caller));
+                case STAFF   -> staffCtrl.getFiltered(getFilterFor(caller));
+            };
+        } catch (RateLimitExceededException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
 
         printTable(caller, list);
     }
 
     /**
      * interactive browsing mode for selecting a specific internship
-     * @param caller active user making a selection
+     * @param session session of the active user making a selection
      * @return list used during final decision step, or empty list if cancelled
      */
-    public List<Internship> browseForSelection(User caller) {
+    public List<Internship> browseForSelection(Session session) {
+        User caller = session.getUser();
         while (true) {
-            List<Internship> list = caller instanceof Student
-                    ? studentCtrl.getEligibleInternships((Student) caller, getFilterFor(caller))
-                    : caller instanceof CompanyRepresentative
-                        ? repCtrl.getOwnInternshipsFiltered((CompanyRepresentative) caller, getFilterFor(caller))
-                        : staffCtrl.getFiltered(getFilterFor(caller));
+            List<Internship> list;
+            try {
+                list = caller instanceof Student
+                        ? studentCtrl.getEligibleInternships(session, getFilterFor(caller))
+                        : caller instanceof CompanyRepresentative
+                            ? repCtrl.getOwnInternshipsFiltered((CompanyRepresentative) caller, getFilterFor(caller))
+                            : staffCtrl.getFiltered(getFilterFor(caller));
+            } catch (RateLimitExceededException e) {
+                System.out.println(e.getMessage());
+                return List.of();
+            }
 
             printTable(caller, list);
 
@@ -3,6 +3,8 @@ package view;
 import java.util.Scanner;
 import controller.LoginController;
 import model.User;
+import ratelimit.RateLimitExceededException;
+import session.Session;
 
 /**
  * view class responsible for handling user login interaction
@@ -29,9 +31,9 @@ public class LoginView {
      * display login screen, request input, and authenticate user
      * prints login result feedback to console
      *
-     * @return authenticated User instance if login successful, otherwise null
+     * @return session of authenticated user if login successful, otherwise null
      */
-    public User showLoginScreen() {
+    public Session showLoginScreen() {
         System.out.println("=====================================");
         System.out.println("       Internship Placement System   ");
         System.out.println("=====================================");
@@ -42,14 +44,21 @@ public class LoginView {
         System.out.print("Please enter your password: ");
         String password = sc.nextLine().trim();
 
-        User user = loginController.login(loginId, password);
+        Session session;
+        try {
+            session = loginController.openSession(loginId, password);
+        } catch (RateLimitExceededException e) {
+            System.out.println("Login failed: " + e.getMessage());
+            return null;
+        }
 
-        if (user == null) {
+        if (session == null) {
             System.out.println("Login failed: invalid ID or password.");
         } else {
+            User user = session.getUser();
             System.out.printf("Welcome, %s (%s)%n", user.getName(), user.getClass().getSimpleName());
         }
 
-        return user;
+        return session;
     }
 }
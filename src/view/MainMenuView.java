@@ -3,6 +3,7 @@ package view;
 import java.util.Scanner;
 import controller.LoginController;
 import model.*;
+import session.Session;
 
 /**
  * view class responsible for rendering the initial system menu
@@ -79,27 +80,30 @@ public class MainMenuView {
     /**
      * authenticate user, determine assigned role, and redirect to appropriate menu
      * automatically logs user out upon returning from submenu views
-     * unapproved company representatives may view notice but cannot access menu  
+     * unapproved or rejected company representatives see a notice but cannot access menu  
      * valid role types: Student, CompanyRepresentative, Staff
      */
     private void handleLogin() {
-        User user = loginView.showLoginScreen();
-        if (user == null) return;
+        Session session = loginView.showLoginScreen();
+        if (session == null) return;
+        User user = session.getUser();
 
-        if (user instanceof Student s) {
-            studentMenuView.displayStudentMenu(s);
+        if (user instanceof Student) {
+            studentMenuView.displayStudentMenu(session);
 
         } else if (user instanceof CompanyRepresentative rep) {
-            if (!rep.isApproved()) {
+            if (rep.isRejected()) {
+                System.out.println("Your registration was rejected by Staff.");
+            } else if (!rep.isApproved()) {
                 System.out.println("Your registration is pending approval by Staff.");
             } else {
-                companyRepMenuView.displayCompanyRepMenu(rep);
+                companyRepMenuView.displayCompanyRepMenu(session);
             }
 
-        } else if (user instanceof Staff staff) {
-            staffMenuView.displayStaffMenu(staff);
+        } else if (user instanceof Staff) {
+            staffMenuView.displayStaffMenu(session);
         }
 
-        loginController.logout(user);
+        loginController.logout(session);
     }
 }
@@ -2,8 +2,16 @@ package view;
 
 import java.util.List;
 import java.util.Scanner;
+import java.util.function.UnaryOperator;
+import controller.BatchResult;
+import controller.LoginController;
 import controller.StaffController;
+import metrics.Footprint;
+import metrics.MetricsSnapshot;
+import metrics.SlowQueryLog;
 import model.*;
+import session.Session;
+import transaction.TransactionLog;
 
 /**
  * view class responsible for displaying and managing staff-facing menu actions
@@ -18,6 +26,12 @@ public class StaffMenuView {
     /** shared browser view used for report and filtering features */
     private final InternshipBrowserView browserView;
 
+    /** controller refreshing the staff member's session on every menu action */
+    private final LoginController loginController;
+
+    /** number of longest waiting items listed per review screen */
+    private static final int PAGE_SIZE = 50;
+
     /** scanner used to capture administrator console input */
     private static final Scanner sc = new Scanner(System.in);
 
@@ -25,53 +39,157 @@ public class StaffMenuView {
      * construct staff menu view with required controller and shared browser view
      * @param staffController controller managing staff operations and data retrieval
      * @param browserView shared view used for browsing and reporting internship listings
+     * @param loginController controller resolving session tokens
      */
     public StaffMenuView(StaffController staffController,
-                         InternshipBrowserView browserView) {
+                         InternshipBrowserView browserView,
+                         LoginController loginController) {
         this.staffController = staffController;
         this.browserView = browserView;
+        this.loginController = loginController;
     }
 
     /**
      * display staff main menu and process selected menu commands
-     * loops until logout is requested
-     * @param staff currently logged-in staff member
+     * loops until logout is requested or the session expires; every chosen action refreshes it
+     * @param session session of the currently logged-in staff member
      */
-    public void displayStaffMenu(Staff staff) {
+    public void displayStaffMenu(Session session) {
+        Staff staff = (Staff) session.getUser();
         while (true) {
             System.out.println("\n========= Staff Menu =========");
+            printDashboard();
             System.out.println("1. Approve / Reject company representatives");
             System.out.println("2. Approve / Reject internship postings");
             System.out.println("3. Approve / Reject withdrawal requests");
             System.out.println("4. View / Filter / Report internships");
             System.out.println("5. View ALL internship applications");
             System.out.println("6. Change password");
-            System.out.println("7. Logout");
+            System.out.println("7. View system metrics");
+            System.out.println("8. Logout");
 
-            int choice = ConsoleUtil.readInt("Choose: ", 1, 7);
+            int choice = ConsoleUtil.readInt("Choose: ", 1, 8);
+            if (!ConsoleUtil.keepAlive(loginController, session)) return;
 
             switch (choice) {
                 case 1 -> manageCompanyReps();
                 case 2 -> manageInternships();
                 case 3 -> manageWithdrawals();
-                case 4 -> browserView.show(staff);
+                case 4 -> browserView.show(session);
                 case 5 -> viewAllApplications();
                 case 6 -> changePassword(staff);
-                case 7 -> { return; }
+                case 7 -> viewMetrics();
+                case 8 -> { return; }
+            }
+        }
+    }
+
+    /**
+     * print summary counts of internships and applications by status
+     * counts come from maintained repository indexes, no records are listed
+     */
+    private void printDashboard() {
+        System.out.println("Internships  : " + staffController.getInternshipCountsByStatus());
+        System.out.println("Applications : " + staffController.getApplicationCountsByStatus());
+    }
+
+    /**
+     * display live metrics: hottest operations by total time, then every timer and query size histogram,
+     * per-call allocations while profiling, then the ten most recent slow queries, and offer to
+     * toggle allocation profiling or estimate heap footprint; timer latencies are shown in milliseconds
+     */
+    private void viewMetrics() {
+        MetricsSnapshot snapshot = staffController.getMetricsSnapshot();
+
+        System.out.println("\n====================== HOT SPOTS (total time) ======================");
+        System.out.printf("%-50s %10s %12s%n", "Operation", "Calls", "Total ms");
+        for (MetricsSnapshot.Entry e : snapshot.hottest(10)) {
+            System.out.printf("%-50s %10d %12.1f%n", crop(e.getName(), 50), e.getCount(), e.getTotal() / 1e6);
+        }
+
+        System.out.println("\n====================== OPERATION LATENCY (ms) ======================");
+        System.out.printf("%-50s %10s %9s %9s %9s %9s%n", "Operation", "Calls", "p50", "p99", "p99.9", "max");
+        for (MetricsSnapshot.Entry e : snapshot.ofType(MetricsSnapshot.Type.TIMER)) {
+            if (e.getCount() == 0) continue;
+            System.out.printf("%-50s %10d %9.3f %9.3f %9.3f %9.3f%n", crop(e.getName(), 50), e.getCount(),
+                    e.getP50() / 1e6, e.getP99() / 1e6, e.getP999() / 1e6, e.getMax() / 1e6);
+        }
+
+        System.out.println("\n====================== QUERY RESULT SIZES (rows) ======================");
+        System.out.printf("%-50s %10s %9s %9s %9s %9s%n", "Query", "Calls", "mean", "p50", "p99", "max");
+        for (MetricsSnapshot.Entry e : snapshot.ofType(MetricsSnapshot.Type.HISTOGRAM)) {
+            if (e.getCount() == 0) continue;
+            System.out.printf("%-50s %10d %9.1f %9d %9d %9d%n", crop(e.getName(), 50), e.getCount(),
+                    e.getMean(), e.getP50(), e.getP99(), e.getMax());
+        }
+
+        List<MetricsSnapshot.Entry> alloc = snapshot.ofType(MetricsSnapshot.Type.ALLOCATION);
+        if (!alloc.isEmpty()) {
+            System.out.println("\n====================== ALLOCATION PER CALL (bytes) ======================");
+            System.out.printf("%-50s %10s %9s %9s %9s %9s%n", "Operation", "Calls", "mean", "p50", "p99", "max");
+            for (MetricsSnapshot.Entry e : alloc) {
+                System.out.printf("%-50s %10d %9.0f %9d %9d %9d%n", crop(e.getName(), 50), e.getCount(),
+                        e.getMean(), e.getP50(), e.getP99(), e.getMax());
             }
         }
+
+        System.out.println("\n====================== RECENT SLOW QUERIES ======================");
+        List<SlowQueryLog.Entry> slow = staffController.getRecentSlowQueries();
+        if (slow.isEmpty()) System.out.println("None.");
+        for (SlowQueryLog.Entry e : slow.subList(Math.max(0, slow.size() - 10), slow.size())) {
+            System.out.printf("%-40s %9.3f ms  %-20s scanned %d, returned %d  %s%n", crop(e.getQuery(), 40),
+                    e.getNanos() / 1e6, e.getPlan(), e.getScanned(), e.getReturned(), e.getPredicates());
+        }
+
+        System.out.println("\n====================== RECENT TRANSACTIONS ======================");
+        List<TransactionLog.Record> txs = staffController.getRecentTransactions();
+        if (txs.isEmpty()) System.out.println("None.");
+        for (TransactionLog.Record r : txs.subList(Math.max(0, txs.size() - 10), txs.size())) {
+            System.out.println(r);
+        }
+
+        boolean profiling = staffController.isAllocationProfiling();
+        System.out.println("\nAllocation profiling is " + (profiling ? "ON" : "OFF") + ".");
+        int choice = ConsoleUtil.readInt("1 = Turn allocation profiling " + (profiling ? "off" : "on")
+                + ", 2 = Estimate heap footprint, 0 = Back: ", 0, 2);
+        if (choice == 1) {
+            try {
+                staffController.setAllocationProfiling(!profiling);
+                System.out.println("Allocation profiling turned " + (profiling ? "off." : "on."));
+            } catch (IllegalStateException e) {
+                System.out.println("Error: " + e.getMessage());
+            }
+        } else if (choice == 2) {
+            viewHeapFootprint();
+        }
+    }
+
+    /**
+     * display estimated heap retained per repository, split by entities, strings, indexes and caches
+     * sizes are shown in KB, with bytes per stored record for capacity planning
+     */
+    private void viewHeapFootprint() {
+        System.out.println("\n====================== HEAP FOOTPRINT (estimated KB) ======================");
+        System.out.printf("%-14s %10s %10s %10s %10s %10s %10s %12s%n",
+                "Repository", "Records", "Entities", "Strings", "Indexes", "Caches", "Total", "Bytes/record");
+        for (Footprint f : staffController.getHeapFootprint()) {
+            System.out.printf("%-14s %10d %10d %10d %10d %10d %10d %12.1f%n", f.getRepository(), f.getEntities(),
+                    f.getEntityBytes() / 1024, f.getStringBytes() / 1024, f.getIndexBytes() / 1024,
+                    f.getCacheBytes() / 1024, f.getTotal() / 1024, f.getBytesPerEntity());
+        }
     }
 
     /**
      * display and review all company representatives whose accounts are pending approval
-     * enables staff to approve or reject selected applicants
+     * enables staff to approve or reject selected applicants, or every listed applicant at once
      */
     private void manageCompanyReps() {
-        List<CompanyRepresentative> repList = staffController.getPendingCompanyReps();
+        List<CompanyRepresentative> repList = snapshot(staffController.getPendingCompanyReps(PAGE_SIZE), CompanyRepresentative::copy);
         if (repList.isEmpty()) {
             System.out.println("No pending Company Representatives.");
             return;
         }
+        printPageHeader(repList.size(), staffController.countPendingCompanyReps());
 
         System.out.printf("%-4s %-15s %-20s %-20s%n",
                 "No.", "ID", "Name", "Company");
@@ -84,34 +202,48 @@ public class StaffMenuView {
                     rep.getCompany().getCompanyName());
         }
 
+        int mode = readBatchMode();
+        if (mode == 0) return;
+        if (mode != 1) {
+            printBatchResult(mode == 2 ? staffController.approveCompanyReps(repList)
+                    : staffController.rejectCompanyReps(repList));
+            return;
+        }
+
         int index = ConsoleUtil.readInt("Select index of Company Representative to manage, 0 to cancel: ", 0, repList.size());
         if (index == 0) return;
 
         CompanyRepresentative selectedRep = repList.get(index - 1);
+        long version = selectedRep.getVersion();
         System.out.println("1 = Approve, 2 = Reject");
         int decision = ConsoleUtil.readInt("Choose: ", 1, 2);
 
-        if (decision == 1) {
-            staffController.approveCompanyRep(selectedRep);
-            System.out.println("Approved Company Representative.");
-        } else {
-            staffController.rejectCompanyRep(selectedRep);
-            System.out.println("Rejected Company Representative.");
+        try {
+            if (decision == 1) {
+                staffController.approveCompanyRep(selectedRep, version);
+                System.out.println("Approved Company Representative.");
+            } else {
+                staffController.rejectCompanyRep(selectedRep, version);
+                System.out.println("Rejected Company Representative.");
+            }
+        } catch (IllegalStateException e) {
+            System.out.println("Error: " + e.getMessage());
         }
     }
 
     /**
      * display list of internships pending approval and allow staff to inspect,
-     * approve, or reject selected internship postings
+     * approve, or reject selected internship postings, or every listed posting at once
      */
     private void manageInternships() {
-        List<Internship> internships = staffController.getPendingInternships();
+        List<Internship> internships = snapshot(staffController.getPendingInternships(PAGE_SIZE), Internship::copy);
         if (internships.isEmpty()) {
             System.out.println("No pending internships.");
             return;
         }
 
         System.out.println("\n================ Pending Internships ================");
+        printPageHeader(internships.size(), staffController.countPendingInternships());
         System.out.printf("%-4s %-25s %-20s %-10s %-30s %-12s %-12s %-15s%n",
                 "No.", "Title", "Company", "Level", "Major", "Open", "Close", "Slots");
 
@@ -128,51 +260,76 @@ public class StaffMenuView {
                     in.getRemainingSlots() + "/" + in.getMaxSlots());
         }
 
+        int mode = readBatchMode();
+        if (mode == 0) return;
+        if (mode != 1) {
+            printBatchResult(mode == 2 ? staffController.approveInternships(internships)
+                    : staffController.rejectInternships(internships));
+            return;
+        }
+
         int index = ConsoleUtil.readInt("Select internship to inspect (0 to cancel): ", 0, internships.size());
         if (index == 0) return;
 
         Internship selected = internships.get(index - 1);
+        long version = selected.getVersion();
         browserView.printInternshipDetails(selected, false);
 
         int decision = ConsoleUtil.readInt("\n1 = Approve, 2 = Reject, 3 = Back: ", 1, 3);
         if (decision == 3) return;
 
-        if (decision == 1) {
-            staffController.approveInternship(selected);
-            System.out.println("Internship approved.");
-        } else {
-            staffController.rejectInternship(selected);
-            System.out.println("Internship rejected.");
+        try {
+            if (decision == 1) {
+                staffController.approveInternship(selected, version);
+                System.out.println("Internship approved.");
+            } else {
+                staffController.rejectInternship(selected, version);
+                System.out.println("Internship rejected.");
+            }
+        } catch (IllegalStateException e) {
+            System.out.println("Error: " + e.getMessage());
         }
     }
 
     /**
      * display and resolve pending withdrawal requests for internship applications
-     * allows staff to approve or reject each selected request
+     * allows staff to approve or reject each selected request, or every listed request at once
      */
     private void manageWithdrawals() {
-        List<InternshipApplication> applications = staffController.getWithdrawalRequests();
+        List<InternshipApplication> applications = snapshot(staffController.getWithdrawalRequests(PAGE_SIZE), InternshipApplication::copy);
         if (applications.isEmpty()) {
             System.out.println("No withdrawal requests.");
             return;
         }
 
         System.out.println("\n================ Withdrawal Requests ================");
+        printPageHeader(applications.size(), staffController.countWithdrawalRequests());
         System.out.printf("%-4s %-18s %-28s %-12s%n", "No.", "Student", "Internship", "Status");
 
-        for (int i = 0; i < applications.size(); i++) {
-            InternshipApplication a = applications.get(i);
-            String studentName = staffController.getStudentName(a.getStudentId());
-            String internshipTitle = staffController.getInternshipTitle(a.getInternshipId());
+        List<ApplicationView> views = staffController.getApplicationViews(applications);
+        for (int i = 0; i < views.size(); i++) {
+            ApplicationView v = views.get(i);
+            InternshipApplication a = v.getApplication();
+            String studentName = v.getStudent() != null ? v.getStudent().getName() : "Unknown Student";
+            String internshipTitle = v.getInternship() != null ? v.getInternship().getTitle() : "Unknown Internship";
 
             System.out.printf("%-4d %-18s %-28s %-12s%n",
                     i + 1, studentName, internshipTitle, a.getStatus());
         }
 
+        int mode = readBatchMode();
+        if (mode == 0) return;
+        if (mode != 1) {
+            printBatchResult(mode == 2 ? staffController.approveWithdrawals(applications)
+                    : staffController.rejectWithdrawals(applications));
+            return;
+        }
+
         int index = ConsoleUtil.readInt("Select application to inspect (0 to cancel): ", 0, applications.size());
         if (index == 0) return;
 
         InternshipApplication selected = applications.get(index - 1);
+        long version = selected.getVersion();
         Internship internship = staffController.getInternshipById(selected.getInternshipId());
         String studentName = staffController.getStudentName(selected.getStudentId());
         browserView.printApplicationDetails(selected, studentName, internship.getTitle());
@@ -180,15 +337,58 @@ public class StaffMenuView {
         int decision = ConsoleUtil.readInt("\n1 = Approve withdrawal, 2 = Reject, 3 = Back: ", 1, 3);
         if (decision == 3) return;
 
-        if (decision == 1) {
-            staffController.approveWithdrawal(selected);
-            System.out.println("Withdrawal approved.");
-        } else {
-            staffController.rejectWithdrawal(selected);
-            System.out.println("Withdrawal rejected.");
+        try {
+            if (decision == 1) {
+                staffController.approveWithdrawal(selected, version);
+                System.out.println("Withdrawal approved.");
+            } else {
+                staffController.rejectWithdrawal(selected, version);
+                System.out.println("Withdrawal rejected.");
+            }
+        } catch (IllegalStateException e) {
+            System.out.println("Error: " + e.getMessage());
         }
     }
 
+    /**
+     * copy listed entities, so each decision is checked against the version that was on screen
+     * rather than whatever the stored entity holds when the staff member finally chooses
+     * @param listed stored entities as listed
+     * @param copy entity copy, carrying its version
+     * @param <T> entity type
+     * @return detached copies in listing order
+     */
+    private static <T> List<T> snapshot(List<T> listed, UnaryOperator<T> copy) {
+        return listed.stream().map(copy).toList();
+    }
+
+    /**
+     * print how many of the pending items are listed
+     * @param listed number of items listed
+     * @param total number of items pending
+     */
+    private void printPageHeader(int listed, int total) {
+        if (listed < total) System.out.println("Showing the " + listed + " longest waiting of " + total + " pending.");
+        else System.out.println(total + " pending, longest waiting first.");
+    }
+
+    /**
+     * ask whether to review one listed item or decide every listed item at once
+     * @return 1 to review one, 2 to approve all, 3 to reject all, 0 to go back
+     */
+    private int readBatchMode() {
+        return ConsoleUtil.readInt("1 = Review one, 2 = Approve all listed, 3 = Reject all listed, 0 = Back: ", 0, 3);
+    }
+
+    /**
+     * print outcome of a batch decision, with the reason for every skipped item
+     * @param result batch outcome
+     */
+    private void printBatchResult(BatchResult result) {
+        System.out.println("Batch complete: " + result + ".");
+        result.getSkipped().forEach((id, reason) -> System.out.println("  Skipped " + id + ": " + reason));
+    }
+
     /**
      * display all internships and allow staff to view all submitted applications
      * includes expanded application details and inspection option
@@ -209,7 +409,7 @@ public class StaffMenuView {
             Internship in = list.get(i);
 
             // Count applications submitted for this internship
-            int appCount = staffController.getAllApplicationsForInternship(in.getId()).size();
+            int appCount = staffController.getApplicationCount(in.getId());
 
             System.out.printf("%-4d %-28s %-24s %-10s %-22s %-12s %-12s %-10s %-10s %-6d%n",
                     (i + 1),
@@ -240,10 +440,12 @@ public class StaffMenuView {
         System.out.printf("%-4s %-15s %-22s %-26s %-14s %-12s %-10s%n",
                 "No.", "Student ID", "Student Name", "Email", "Status", "Accepted", "App ID(Short)");
 
-        for (int i = 0; i < apps.size(); i++) {
-            InternshipApplication a = apps.get(i);
-            String studentName = staffController.getStudentName(a.getStudentId());
-            String email = staffController.getStudentById(a.getStudentId()).getEmail();
+        List<ApplicationView> views = staffController.getApplicationViews(apps);
+        for (int i = 0; i < views.size(); i++) {
+            ApplicationView v = views.get(i);
+            InternshipApplication a = v.getApplication();
+            String studentName = v.getStudent() != null ? v.getStudent().getName() : "Unknown Student";
+            String email = v.getStudent() != null ? v.getStudent().getEmail() : "-";
             String accepted = a.studentAccepted() ? "YES" : "NO";
             String appShort = a.getId().substring(0, 8);
 
@@ -4,8 +4,10 @@ import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Scanner;
 
+import controller.LoginController;
 import controller.StudentController;
 import model.*;
+import session.Session;
 
 /**
  * view class responsible for handling student-facing system interactions
@@ -20,6 +22,9 @@ public class StudentMenuView {
     /** shared browser interface used to view and filter internships */
     private final InternshipBrowserView browserView;
 
+    /** controller refreshing the student's session on every menu action */
+    private final LoginController loginController;
+
     /** formatter for consistent internship date display */
     private final DateTimeFormatter fmt = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
@@ -30,17 +35,22 @@ public class StudentMenuView {
      * construct student menu view with the required student controller and browser view
      * @param studentController controller managing student internship operations
      * @param browserView shared browsing utility for internship viewing and filtering
+     * @param loginController controller resolving session tokens
      */
-    public StudentMenuView(StudentController studentController, InternshipBrowserView browserView) {
+    public StudentMenuView(StudentController studentController, InternshipBrowserView browserView,
+                           LoginController loginController) {
         this.studentController = studentController;
         this.browserView = browserView;
+        this.loginController = loginController;
     }
 
     /**
      * display the main student menu and execute commands until logout occurs
-     * @param student currently logged-in student user
+     * every chosen action refreshes the session; the menu closes if it has expired
+     * @param session session of the currently logged-in student user
      */
-    public void displayStudentMenu(Student student) {
+    public void displayStudentMenu(Session session) {
+        Student student = (Student) session.getUser();
         while (true) {
             System.out.println("\n========== Student Menu ==========");
             System.out.println("1. View eligible internships");
@@ -52,11 +62,12 @@ public class StudentMenuView {
             System.out.println("7. Logout");
 
             int choice = ConsoleUtil.readInt("Choose: ", 1, 7);
+            if (!ConsoleUtil.keepAlive(loginController, session)) return;
 
             switch (choice) {
-                case 1 -> viewEligible(student);
+                case 1 -> viewEligible(session);
                 case 2 -> viewApplications(student);
-                case 3 -> apply(student);
+                case 3 -> apply(session);
                 case 4 -> accept(student);
                 case 5 -> withdraw(student);
                 case 6 -> changePassword(student);
@@ -68,10 +79,10 @@ public class StudentMenuView {
     /**
      * open the internship browser view for this student
      * allowing interactive filtering and selection
-     * @param s student requesting to view internships
+     * @param session session of the student requesting to view internships
      */
-    private void viewEligible(Student s) {
-        browserView.show(s);
+    private void viewEligible(Session session) {
+        browserView.show(session);
     }
 
     /**
@@ -90,11 +101,12 @@ public class StudentMenuView {
     /**
      * allow a student to select and apply for an internship
      * enforces system rules and re-prompts for new selections after error
-     * @param s student applying for internship
+     * @param session session of the student applying for internship
      */
-    private void apply(Student s) {
+    private void apply(Session session) {
+        Student s = (Student) session.getUser();
         while (true) {
-            browserView.showFilteredList(s);
+            browserView.showFilteredList(session);
             List<Internship> internshipList = browserView.getLastResults(s);
 
             if (internshipList == null || internshipList.isEmpty()) {
@@ -239,14 +251,16 @@ public class StudentMenuView {
         System.out.printf("%-4s %-35s %-18s %-15s %-18s %-12s%n",
                 "No.", "Internship Title", "Company", "Student ID", "Student Name", "Status");
 
-        for (int i = 0; i < applications.size(); i++) {
-            InternshipApplication a = applications.get(i);
+        List<ApplicationView> views = studentController.getApplicationViews(applications);
+        for (int i = 0; i < views.size(); i++) {
+            ApplicationView v = views.get(i);
+            InternshipApplication a = v.getApplication();
 
-            Internship internship = studentController.getInternshipById(a.getInternshipId());
+            Internship internship = v.getInternship();
             String title   = (internship != null) ? internship.getTitle() : "(Deleted)";
             String company = (internship != null) ? internship.getCompanyName() : "-";
 
-            Student student = studentController.getStudentById(a.getStudentId());
+            Student student = v.getStudent();
             String studentName = (student != null) ? student.getName() : "(Unknown)";
 
             System.out.printf("%-4d %-35s %-18s %-15s %-18s %-12s%n",